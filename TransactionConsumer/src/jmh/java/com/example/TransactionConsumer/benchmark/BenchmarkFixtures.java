@@ -0,0 +1,221 @@
+package com.example.TransactionConsumer.benchmark;
+
+import com.example.TransactionConsumer.config.EntityMapping;
+import com.example.TransactionConsumer.config.FieldMapping;
+import com.example.TransactionConsumer.config.GroupCommitProperties;
+import com.example.TransactionConsumer.config.PersistenceProperties;
+import com.example.TransactionConsumer.config.ReadCacheProperties;
+import com.example.TransactionConsumer.config.ShardingProperties;
+import com.example.TransactionConsumer.config.TransactionMappingConfig;
+import com.example.TransactionConsumer.config.WalProperties;
+import com.example.TransactionConsumer.id.IdGenerators;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import com.example.TransactionConsumer.repository.BatchTableWriter;
+import com.example.TransactionConsumer.repository.GroupCommitWriter;
+import com.example.TransactionConsumer.repository.SendTableWriter;
+import com.example.TransactionConsumer.repository.SingleStatementWriter;
+import com.example.TransactionConsumer.repository.TransactionReadCache;
+import com.example.TransactionConsumer.repository.TransactionReader;
+import com.example.TransactionConsumer.repository.TransactionRepository;
+import com.example.TransactionConsumer.repository.TransactionShards;
+import com.example.TransactionConsumer.service.MappingPlanRegistry;
+import com.example.TransactionConsumer.service.MappingService;
+import com.example.TransactionConsumer.wal.WriteAheadLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Payloads, mapping config and an H2-backed repository shared by the benchmarks.
+ * Everything is wired by hand so a measurement never includes Spring startup.
+ */
+final class BenchmarkFixtures {
+
+    private static final String[] TABLES = {"SEND_TRAN_ADDR_DTL", "SEND_RECIP_DTL", "SEND_TRAN_DTL", "SEND_TRANSACTIONS"};
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * A realistic transaction padded with remark lines to roughly sizeKb kilobytes
+     */
+    static String payload(String transactionId, int sizeKb) {
+        StringBuilder json = new StringBuilder(sizeKb * 1024 + 256);
+        json.append("""
+                {"transactionId":"%s","transactionType":"PAYMENT","amount":500,"currency":"INR",\
+                "customerReferenceNumber":"CRN001","originatingInstitution":"ICICI Bank",\
+                "transferAcceptorName":"XYZ Services","paymentReference":"PMT-001","fundingSource":"BANK",\
+                "paymentType":"IMPS",\
+                "sender":{"firstName":"Aadhish","lastName":"M","email":"aadhish@example.com","phone":"9876543210",\
+                "address":{"line1":"12 Main St","line2":"Anna Nagar","city":"Chennai","state":"TN",\
+                "country":"India","postalCode":"600001"}},\
+                "recipient":{"firstName":"Raj","lastName":"K","email":"raj@example.com","phone":"9876501234",\
+                "address":{"line1":"4 Park Rd","line2":"Bandra","city":"Mumbai","state":"MH",\
+                "country":"India","postalCode":"400001"}},\
+                "remarks":[""".formatted(transactionId));
+
+        int target = sizeKb * 1024;
+        for (int line = 0; json.length() < target; line++) {
+            if (line > 0) {
+                json.append(',');
+            }
+            json.append("{\"line\":").append(line)
+                    .append(",\"text\":\"Settlement note for reconciliation batch ").append(line).append("\"}");
+        }
+        return json.append("]}").toString();
+    }
+
+    static TransactionMappingConfig mappingConfig() {
+        TransactionMappingConfig config = new TransactionMappingConfig();
+        config.setPayment(payment());
+        config.setTransactionDetail(transactionDetail());
+        config.setSender(party("sender"));
+        config.setRecipient(party("recipient"));
+        config.setAddress(Map.of(
+                "sender", address("sender", "SENDER"),
+                "recipient", address("recipient", "RECIPIENT")
+        ));
+        return config;
+    }
+
+    /**
+     * SEND_TRANSACTIONS columns as configured, not left to the built-in defaults
+     */
+    private static EntityMapping payment() {
+        Map<String, FieldMapping> transaction = new LinkedHashMap<>();
+        transaction.put("TRAN_TYPE", json("$.transactionType"));
+        transaction.put("TRAN_AMT", json("$.amount"));
+        transaction.put("TRAN_CURR", json("$.currency"));
+        transaction.put("CUR_STAT", constant("COMPLETED"));
+        transaction.put("ORIG_STAT", constant("NEW"));
+        transaction.put("CUST_REF_NUM", json("$.customerReferenceNumber"));
+        transaction.put("ORIG_INST_NAM", json("$.originatingInstitution"));
+        transaction.put("TRANFR_ACPT_NAM", json("$.transferAcceptorName"));
+        transaction.put("NON_FIN_TXN", constant("0"));
+
+        EntityMapping entity = new EntityMapping();
+        entity.setTransaction(transaction);
+        return entity;
+    }
+
+    private static EntityMapping transactionDetail() {
+        Map<String, FieldMapping> detail = new LinkedHashMap<>();
+        detail.put("PAYMT_REF", json("$.paymentReference"));
+        detail.put("FUND_SRC", json("$.fundingSource"));
+        detail.put("PAYMT_TYPE", json("$.paymentType"));
+
+        EntityMapping entity = new EntityMapping();
+        entity.setDetail(detail);
+        return entity;
+    }
+
+    private static EntityMapping party(String side) {
+        Map<String, FieldMapping> party = new LinkedHashMap<>();
+        party.put("FIRST_NAME", json("$." + side + ".firstName"));
+        party.put("LAST_NAME", json("$." + side + ".lastName"));
+        party.put("EMAIL", json("$." + side + ".email"));
+        party.put("PHONE", json("$." + side + ".phone"));
+        party.put("CITY", json("$." + side + ".address.city"));
+        party.put("COUNTRY", json("$." + side + ".address.country"));
+
+        EntityMapping entity = new EntityMapping();
+        entity.setParty(party);
+        return entity;
+    }
+
+    private static Map<String, FieldMapping> address(String side, String type) {
+        Map<String, FieldMapping> address = new LinkedHashMap<>();
+        address.put("ID", generated());
+        address.put("ADDR_TYPE", constant(type));
+        address.put("STREET_LINE_1", json("$." + side + ".address.line1"));
+        address.put("STREET_LINE_2", json("$." + side + ".address.line2"));
+        address.put("CITY", json("$." + side + ".address.city"));
+        address.put("STATE", json("$." + side + ".address.state"));
+        address.put("COUNTRY", json("$." + side + ".address.country"));
+        address.put("POSTAL_CODE", json("$." + side + ".address.postalCode"));
+        return address;
+    }
+
+    private static FieldMapping json(String path) {
+        FieldMapping mapping = new FieldMapping();
+        mapping.setSource("json");
+        mapping.setPath(path);
+        return mapping;
+    }
+
+    private static FieldMapping constant(String value) {
+        FieldMapping mapping = new FieldMapping();
+        mapping.setSource("constant");
+        mapping.setValue(value);
+        return mapping;
+    }
+
+    private static FieldMapping generated() {
+        FieldMapping mapping = new FieldMapping();
+        mapping.setSource("generated");
+        return mapping;
+    }
+
+    /**
+     * Meters recorded in memory, as they would be with a Prometheus registry behind them
+     */
+    static TransactionMetrics metrics() {
+        return new TransactionMetrics(new SimpleMeterRegistry());
+    }
+
+    /**
+     * Fresh in-memory H2 in Oracle mode with the four SEND_* tables
+     */
+    static EmbeddedDatabase database(String name) {
+        return new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName(name + ";MODE=Oracle")
+                .generateUniqueName(false)
+                .addScript("db/send-tables.sql")
+                .build();
+    }
+
+    static void truncate(JdbcTemplate jdbc) {
+        for (String table : TABLES) {
+            jdbc.update("DELETE FROM " + table);
+        }
+    }
+
+    /**
+     * Repository as production wires it, minus the Spring proxies
+     */
+    static TransactionRepository repository(EmbeddedDatabase database, TransactionMappingConfig mappingConfig,
+                                            TransactionMetrics metrics, boolean singleStatement) {
+        JdbcTemplate jdbc = new JdbcTemplate(database);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(database);
+
+        PersistenceProperties persistence = new PersistenceProperties();
+        persistence.setSingleStatement(singleStatement);
+        persistence.setDialect("portable");
+
+        SendTableWriter tableWriter = new SendTableWriter(jdbc, metrics);
+        BatchTableWriter batchWriter = new BatchTableWriter(tableWriter, transactionManager, persistence);
+        TransactionShards unsharded = new TransactionShards(new ShardingProperties(), persistence, metrics);
+        MappingPlanRegistry planRegistry = new MappingPlanRegistry(mappingConfig, IdGenerators.withoutDatabase());
+
+        return new TransactionRepository(
+                tableWriter,
+                new GroupCommitWriter(batchWriter, unsharded, new GroupCommitProperties()),
+                new SingleStatementWriter(jdbc, persistence, metrics),
+                batchWriter,
+                unsharded,
+                new MappingService(mappingConfig, metrics, planRegistry),
+                planRegistry,
+                new WriteAheadLog(new WalProperties()),
+                new TransactionReadCache(new ReadCacheProperties(), new TransactionReader(jdbc, unsharded), metrics),
+                metrics,
+                transactionManager
+        );
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.TransactionConsumer.benchmark;
+
+import com.example.TransactionConsumer.admission.AdaptiveConcurrencyLimiter;
+import com.example.TransactionConsumer.config.AdmissionProperties;
+import com.example.TransactionConsumer.config.BatchProperties;
+import com.example.TransactionConsumer.config.ChangeFeedProperties;
+import com.example.TransactionConsumer.config.ExportProperties;
+import com.example.TransactionConsumer.config.IdempotencyProperties;
+import com.example.TransactionConsumer.config.PersistenceProperties;
+import com.example.TransactionConsumer.config.PipelineProperties;
+import com.example.TransactionConsumer.config.ReadCacheProperties;
+import com.example.TransactionConsumer.config.ReferenceDataProperties;
+import com.example.TransactionConsumer.config.SearchProperties;
+import com.example.TransactionConsumer.config.ShardingProperties;
+import com.example.TransactionConsumer.config.TransactionMappingConfig;
+import com.example.TransactionConsumer.config.ValidationProperties;
+import com.example.TransactionConsumer.config.WalProperties;
+import com.example.TransactionConsumer.controller.TransactionController;
+import com.example.TransactionConsumer.exception.GlobalExceptionHandler;
+import com.example.TransactionConsumer.export.ExportService;
+import com.example.TransactionConsumer.id.IdGenerators;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import com.example.TransactionConsumer.parser.PayloadReader;
+import com.example.TransactionConsumer.parser.StreamingPayloadExtractor;
+import com.example.TransactionConsumer.repository.TransactionChanges;
+import com.example.TransactionConsumer.repository.TransactionReadCache;
+import com.example.TransactionConsumer.repository.TransactionReader;
+import com.example.TransactionConsumer.repository.TransactionRepository;
+import com.example.TransactionConsumer.repository.TransactionSearch;
+import com.example.TransactionConsumer.repository.TransactionShards;
+import com.example.TransactionConsumer.service.AsyncIngestionService;
+import com.example.TransactionConsumer.service.BatchIngestionService;
+import com.example.TransactionConsumer.service.ChangeFeedService;
+import com.example.TransactionConsumer.service.IdempotencyGuard;
+import com.example.TransactionConsumer.service.MappingPlanRegistry;
+import com.example.TransactionConsumer.service.StagedPipeline;
+import com.example.TransactionConsumer.service.TransactionSearchService;
+import com.example.TransactionConsumer.service.TransactionService;
+import com.example.TransactionConsumer.validator.PayloadValidator;
+import com.example.TransactionConsumer.validator.ReferenceDataCache;
+import com.example.TransactionConsumer.wal.WriteAheadLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * POST /api/transactions through MockMvc: body read, validation, mapping and
+ * the H2 inserts, i.e. everything but the servlet container and the network.
+ */
+@State(Scope.Benchmark)
+public class ControllerPathBenchmark {
+
+    private static final String ID_PREFIX = "TXN";
+    private static final int ID_DIGITS = 16;
+
+    @Param({"1", "10", "100"})
+    public int payloadKb;
+
+    @Param({"false", "true"})
+    public boolean streamingExtraction;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbc;
+    private BatchIngestionService batchService;
+    private MockMvc mockMvc;
+    private byte[] body;
+    private int idOffset;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        TransactionMappingConfig mappingConfig = BenchmarkFixtures.mappingConfig();
+        database = BenchmarkFixtures.database("controller-benchmark");
+        jdbc = new JdbcTemplate(database);
+
+        TransactionMetrics metrics = BenchmarkFixtures.metrics();
+        TransactionRepository repository = BenchmarkFixtures.repository(database, mappingConfig, metrics, false);
+        MappingPlanRegistry planRegistry = new MappingPlanRegistry(mappingConfig, IdGenerators.withoutDatabase());
+        PayloadValidator validator = new PayloadValidator(planRegistry, new ValidationProperties(), metrics,
+                new ReferenceDataCache(jdbc, new ReferenceDataProperties(), metrics));
+        PayloadReader payloadReader = new PayloadReader(objectMapper, new StreamingPayloadExtractor(objectMapper),
+                planRegistry, metrics, streamingExtraction);
+        WalProperties walProperties = new WalProperties();
+        IdempotencyGuard idempotencyGuard = new IdempotencyGuard(new IdempotencyProperties());
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(new AdmissionProperties(), metrics);
+        batchService = new BatchIngestionService(payloadReader, validator, repository, idempotencyGuard,
+                limiter, objectMapper, new BatchProperties());
+
+        TransactionShards unsharded = new TransactionShards(new ShardingProperties(), new PersistenceProperties(), metrics);
+        TransactionReadCache readCache = new TransactionReadCache(
+                new ReadCacheProperties(), new TransactionReader(jdbc, unsharded), metrics);
+
+        TransactionController controller = new TransactionController(
+                new TransactionService(repository, validator, payloadReader, idempotencyGuard, readCache),
+                limiter,
+                batchService,
+                new AsyncIngestionService(new WriteAheadLog(walProperties), payloadReader, validator, repository,
+                        idempotencyGuard, walProperties),
+                new StagedPipeline(payloadReader, validator, repository, idempotencyGuard, new PipelineProperties()),
+                payloadReader,
+                new TransactionSearchService(
+                        new TransactionSearch(jdbc, unsharded, new SearchProperties(), metrics), objectMapper),
+                new ChangeFeedService(new TransactionChanges(jdbc, unsharded), new ChangeFeedProperties(),
+                        new PersistenceProperties(), metrics),
+                new ExportService(jdbc, unsharded, new ExportProperties(), metrics)
+        );
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        // fixed-width id, rewritten in place for each request
+        String payload = BenchmarkFixtures.payload(ID_PREFIX + "0".repeat(ID_DIGITS), payloadKb);
+        body = payload.getBytes(StandardCharsets.UTF_8);
+        idOffset = payload.indexOf(ID_PREFIX) + ID_PREFIX.length();
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyTables() {
+        BenchmarkFixtures.truncate(jdbc);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        batchService.shutdown();
+        database.shutdown();
+    }
+
+    @Benchmark
+    public MvcResult postTransaction() throws Exception {
+        long id = sequence++;
+        for (int i = idOffset + ID_DIGITS - 1; i >= idOffset; i--) {
+            body[i] = (byte) ('0' + id % 10);
+            id /= 10;
+        }
+        return mockMvc.perform(post("/api/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andReturn();
+    }
+}
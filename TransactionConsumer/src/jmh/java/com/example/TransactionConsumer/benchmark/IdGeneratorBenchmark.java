@@ -0,0 +1,106 @@
+package com.example.TransactionConsumer.benchmark;
+
+import com.example.TransactionConsumer.config.FieldMapping;
+import com.example.TransactionConsumer.config.IdProperties;
+import com.example.TransactionConsumer.config.PersistenceProperties;
+import com.example.TransactionConsumer.id.IdGenerator;
+import com.example.TransactionConsumer.id.IdGenerators;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+
+/**
+ * The "generated" id strategies: raw generation with four threads contending,
+ * and single-row inserts into a table keyed like SEND_TRAN_ADDR_DTL.ID.
+ * H2 does not report index block splits, so the insert benchmark counts
+ * keys that sort below the previous key from the same thread; each one lands
+ * inside the index rather than on its right-hand edge. On Oracle, compare
+ * LF_BLKS and PCT_USED from INDEX_STATS after ANALYZE INDEX ... VALIDATE STRUCTURE.
+ */
+@State(Scope.Benchmark)
+public class IdGeneratorBenchmark {
+
+    @Param({"uuid", "uuidv7", "sequence"})
+    public String strategy;
+
+    @Param({"100"})
+    public int blockSize;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbc;
+    private IdGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkFixtures.database("id-benchmark");
+        jdbc = new JdbcTemplate(database);
+        jdbc.execute("CREATE TABLE ID_BENCH (ID VARCHAR2(64) PRIMARY KEY, CITY VARCHAR2(64))");
+        jdbc.execute("CREATE SEQUENCE ID_BENCH_SEQ START WITH 1 INCREMENT BY " + blockSize);
+
+        PersistenceProperties persistence = new PersistenceProperties();
+        persistence.setDialect("portable");
+
+        FieldMapping mapping = new FieldMapping();
+        mapping.setSource("generated");
+        mapping.setGenerator(strategy);
+        mapping.setSequence("ID_BENCH_SEQ");
+        mapping.setBlockSize(blockSize);
+        generator = new IdGenerators(jdbc, persistence, new IdProperties()).forMapping(mapping);
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyTable() {
+        jdbc.update("DELETE FROM ID_BENCH");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object generate() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    public void insert(IndexOrder order) {
+        String id = String.valueOf(generator.nextId());
+        jdbc.update("INSERT INTO ID_BENCH (ID, CITY) VALUES (?, ?)", id, "Chennai");
+        order.record(id);
+    }
+
+    /**
+     * Reported next to the score as insert:outOfOrder
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class IndexOrder {
+
+        public long outOfOrder;
+
+        private String previous;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            outOfOrder = 0;
+            previous = null;
+        }
+
+        void record(String id) {
+            if (previous != null && id.compareTo(previous) < 0) {
+                outOfOrder++;
+            }
+            previous = id;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.TransactionConsumer.benchmark;
+
+import com.example.TransactionConsumer.config.TransactionMappingConfig;
+import com.example.TransactionConsumer.id.IdGenerators;
+import com.example.TransactionConsumer.service.MappingPlan;
+import com.example.TransactionConsumer.service.MappingPlanRegistry;
+import com.example.TransactionConsumer.service.MappingService;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * MappingService.extractAllValues over the transaction, detail, sender/recipient
+ * party and address sets, with the precompiled plan and with the raw FieldMapping maps (looked up
+ * in the plan by identity).
+ */
+@State(Scope.Benchmark)
+public class MappingServiceBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int payloadKb;
+
+    private TransactionMappingConfig mappingConfig;
+    private MappingService mappingService;
+    private MappingPlan plan;
+    private DocumentContext document;
+
+    @Setup
+    public void setUp() {
+        mappingConfig = BenchmarkFixtures.mappingConfig();
+        MappingPlanRegistry planRegistry = new MappingPlanRegistry(mappingConfig, IdGenerators.withoutDatabase());
+        mappingService = new MappingService(mappingConfig, BenchmarkFixtures.metrics(), planRegistry);
+        plan = planRegistry.current();
+        document = JsonPath.parse(BenchmarkFixtures.payload("TXN1101", payloadKb));
+    }
+
+    @Benchmark
+    public void extractAllCompiled(Blackhole blackhole) {
+        blackhole.consume(mappingService.extractAllValues(document, plan.getSenderParty()));
+        blackhole.consume(mappingService.extractAllValues(document, plan.getRecipientParty()));
+        blackhole.consume(mappingService.extractAllValues(document, plan.getSenderAddress()));
+        blackhole.consume(mappingService.extractAllValues(document, plan.getRecipientAddress()));
+        blackhole.consume(mappingService.extractAllValues(document, plan.getTransaction()));
+        blackhole.consume(mappingService.extractAllValues(document, plan.getDetail()));
+    }
+
+    @Benchmark
+    public void extractAllFromConfig(Blackhole blackhole) {
+        blackhole.consume(mappingService.extractAllValues(document, mappingService.getSenderPartyMappings()));
+        blackhole.consume(mappingService.extractAllValues(document, mappingService.getRecipientPartyMappings()));
+        blackhole.consume(mappingService.extractAllValues(document, mappingService.getSenderAddressMappings()));
+        blackhole.consume(mappingService.extractAllValues(document, mappingService.getRecipientAddressMappings()));
+        blackhole.consume(mappingService.extractAllValues(document, mappingConfig.getPayment().getTransaction()));
+        blackhole.consume(mappingService.extractAllValues(document, mappingConfig.getTransactionDetail().getDetail()));
+    }
+}
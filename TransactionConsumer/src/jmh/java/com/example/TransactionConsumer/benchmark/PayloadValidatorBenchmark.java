@@ -0,0 +1,68 @@
+package com.example.TransactionConsumer.benchmark;
+
+import com.example.TransactionConsumer.config.ReferenceDataProperties;
+import com.example.TransactionConsumer.config.ValidationProperties;
+import com.example.TransactionConsumer.dto.ErrorResponse;
+import com.example.TransactionConsumer.id.IdGenerators;
+import com.example.TransactionConsumer.service.MappingPlanRegistry;
+import com.example.TransactionConsumer.validator.PayloadValidator;
+import com.example.TransactionConsumer.validator.ReferenceDataCache;
+import com.example.TransactionConsumer.validator.ValidationResult;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * PayloadValidator.validate on an already parsed document, and from the raw JSON string.
+ * The rejected variants measure a payload missing every required field.
+ */
+@State(Scope.Benchmark)
+public class PayloadValidatorBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int payloadKb;
+
+    private final PayloadValidator validator = new PayloadValidator(
+            new MappingPlanRegistry(BenchmarkFixtures.mappingConfig(), IdGenerators.withoutDatabase()),
+            new ValidationProperties(), BenchmarkFixtures.metrics(),
+            new ReferenceDataCache(null, new ReferenceDataProperties(), BenchmarkFixtures.metrics()));
+    private String json;
+    private DocumentContext document;
+    private DocumentContext rejected;
+
+    @Setup
+    public void setUp() {
+        json = BenchmarkFixtures.payload("TXN1101", payloadKb);
+        document = JsonPath.parse(json);
+        rejected = JsonPath.parse("{\"transactionId\":\" \",\"amount\":null}");
+    }
+
+    @Benchmark
+    public void validateDocument() {
+        validator.validate(document);
+    }
+
+    @Benchmark
+    public void validateJson() {
+        validator.validate(json);
+    }
+
+    @Benchmark
+    public ValidationResult checkRejected() {
+        return validator.check(rejected);
+    }
+
+    @Benchmark
+    public Object validateRejected() {
+        try {
+            validator.validate(rejected);
+            return null;
+        } catch (ErrorResponse e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.TransactionConsumer.benchmark;
+
+import com.example.TransactionConsumer.repository.TransactionRepository;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+
+/**
+ * TransactionRepository.insertAll against embedded H2 in Oracle mode, with
+ * the per-row writer and the single-statement writer. Each call inserts a new
+ * transactionId; the tables are emptied between iterations.
+ */
+@State(Scope.Benchmark)
+public class TransactionRepositoryBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int payloadKb;
+
+    @Param({"false", "true"})
+    public boolean singleStatement;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbc;
+    private TransactionRepository repository;
+    private DocumentContext document;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkFixtures.database("repository-benchmark");
+        jdbc = new JdbcTemplate(database);
+        repository = BenchmarkFixtures.repository(
+                database, BenchmarkFixtures.mappingConfig(), BenchmarkFixtures.metrics(), singleStatement);
+        document = JsonPath.parse(BenchmarkFixtures.payload("TXN0", payloadKb));
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyTables() {
+        BenchmarkFixtures.truncate(jdbc);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public void insertAll() {
+        // a fresh primary key without re-parsing the payload
+        document.set("$.transactionId", "TXN" + sequence++);
+        repository.insertAll(document);
+    }
+}
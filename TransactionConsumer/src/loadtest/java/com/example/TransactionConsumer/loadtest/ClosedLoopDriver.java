@@ -0,0 +1,67 @@
+package com.example.TransactionConsumer.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed concurrency: each worker sends its next request once the previous
+ * response is in. With a rate the workers follow a schedule and latency
+ * counts from the scheduled time; without one, a stalled response is
+ * back-filled at the running mean service time, since the worker would
+ * otherwise hide the requests it never got to send.
+ */
+final class ClosedLoopDriver implements LoadDriver {
+
+    private final TransactionClient client;
+    private final PayloadGenerator payloads;
+    private final LatencyRecorder recorder;
+    private final int workers;
+    // per worker, 0 = no pacing
+    private final long intervalNanos;
+
+    ClosedLoopDriver(TransactionClient client, PayloadGenerator payloads, LatencyRecorder recorder,
+                     int workers, int rate) {
+        this.client = client;
+        this.payloads = payloads;
+        this.recorder = recorder;
+        this.workers = workers;
+        this.intervalNanos = rate > 0 ? 1_000_000_000L * workers / rate : 0;
+    }
+
+    @Override
+    public void run(long endNanos) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>(workers);
+        long start = System.nanoTime();
+        for (int i = 0; i < workers; i++) {
+            // stagger paced workers so their sends do not line up
+            long offset = intervalNanos * i / workers;
+            threads.add(Thread.ofVirtual().name("loadtest-worker-" + i).start(() -> work(start + offset, endNanos)));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private void work(long start, long endNanos) {
+        for (long i = 0; ; i++) {
+            long intendedStart = intervalNanos > 0 ? start + i * intervalNanos : System.nanoTime();
+            if (intendedStart >= endNanos) {
+                return;
+            }
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            long actualStart = System.nanoTime();
+            int status = client.post(payloads.next());
+            long end = System.nanoTime();
+            if (intervalNanos > 0) {
+                recorder.record(intendedStart, actualStart, end, status);
+            } else {
+                recorder.recordWithExpectedInterval(actualStart, end, status);
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.TransactionConsumer.loadtest;
+
+import com.example.TransactionConsumer.TransactionConsumerApplication;
+import com.example.TransactionConsumer.config.TransactionMappingConfig;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * The application itself on a random port with the h2 profile: in-memory H2
+ * in Oracle mode, the SEND_* schema and a local copy of the mappings, so a
+ * run needs neither Oracle nor the config server.
+ */
+final class EmbeddedTarget implements AutoCloseable {
+
+    static final String PROFILE = "h2";
+
+    private final ConfigurableApplicationContext context;
+
+    private EmbeddedTarget(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    static EmbeddedTarget start() {
+        // the bootstrap context is built before profiles apply, so switch the config client off here
+        System.setProperty("spring.cloud.config.enabled", "false");
+
+        long start = System.nanoTime();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TransactionConsumerApplication.class)
+                .profiles(PROFILE)
+                .properties("server.port=0")
+                .run();
+        EmbeddedTarget target = new EmbeddedTarget(context);
+        System.out.println("✅ Embedded application on " + target.getBaseUrl() + " (H2) started in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return target;
+    }
+
+    String getBaseUrl() {
+        return "http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port");
+    }
+
+    TransactionMappingConfig getMappingConfig() {
+        return context.getBean(TransactionMappingConfig.class);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
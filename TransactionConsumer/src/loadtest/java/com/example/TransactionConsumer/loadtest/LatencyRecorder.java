@@ -0,0 +1,98 @@
+package com.example.TransactionConsumer.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies of every response, in nanoseconds, kept twice:
+ *
+ * <ul>
+ *   <li>response time, measured from when the request should have been sent.
+ *       A stalled server delays every queued request, so this is the
+ *       coordinated-omission-corrected figure a client actually sees</li>
+ *   <li>service time, measured from when it was actually sent</li>
+ * </ul>
+ *
+ * Writers only touch the lock-free recorders; the reporter swaps out one
+ * interval histogram per tick.
+ */
+final class LatencyRecorder {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Recorder responseTime = new Recorder(SIGNIFICANT_DIGITS);
+    private final Recorder serviceTime = new Recorder(SIGNIFICANT_DIGITS);
+    private final LongAdder errors = new LongAdder();
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    // running service time sum, the expected interval for closed-loop correction without pacing
+    private final LongAdder serviceSum = new LongAdder();
+    private final LongAdder serviceCount = new LongAdder();
+
+    private Histogram responseInterval;
+    private Histogram serviceInterval;
+
+    /**
+     * One response; intendedStart is the scheduled send time, status 0 means no response
+     */
+    void record(long intendedStart, long actualStart, long end, int status) {
+        responseTime.recordValue(Math.max(0, end - intendedStart));
+        recordService(end - actualStart, status);
+    }
+
+    /**
+     * Closed loop without a schedule: back-fill the requests a stalled worker never
+     * sent, assuming it would have sent one every expectedInterval
+     */
+    void recordWithExpectedInterval(long actualStart, long end, int status) {
+        long latency = Math.max(0, end - actualStart);
+        long count = serviceCount.sum();
+        long expectedInterval = count > 0 ? serviceSum.sum() / count : 0;
+        responseTime.recordValueWithExpectedInterval(latency, expectedInterval);
+        recordService(latency, status);
+    }
+
+    private void recordService(long latency, int status) {
+        serviceTime.recordValue(Math.max(0, latency));
+        serviceSum.add(latency);
+        serviceCount.increment();
+        statuses.computeIfAbsent(status, ignored -> new LongAdder()).increment();
+        if (status < 200 || status >= 300) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Histograms since the previous call; only the reporter thread calls this
+     */
+    Interval interval() {
+        responseInterval = responseTime.getIntervalHistogram(responseInterval);
+        serviceInterval = serviceTime.getIntervalHistogram(serviceInterval);
+        return new Interval(responseInterval, serviceInterval);
+    }
+
+    long getErrors() {
+        return errors.sum();
+    }
+
+    Map<Integer, Long> getStatuses() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statuses.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+
+    static final class Interval {
+
+        final Histogram responseTime;
+        final Histogram serviceTime;
+
+        private Interval(Histogram responseTime, Histogram serviceTime) {
+            this.responseTime = responseTime;
+            this.serviceTime = serviceTime;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.TransactionConsumer.loadtest;
+
+/**
+ * Sends requests until a deadline and records every response.
+ */
+interface LoadDriver {
+
+    /**
+     * Returns once every request sent before endNanos (System.nanoTime) has completed
+     */
+    void run(long endNanos) throws InterruptedException;
+}
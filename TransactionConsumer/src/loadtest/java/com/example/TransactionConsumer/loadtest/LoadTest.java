@@ -0,0 +1,212 @@
+package com.example.TransactionConsumer.loadtest;
+
+import com.example.TransactionConsumer.config.TransactionMappingConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP load generator for POST /api/transactions.
+ *
+ * <pre>
+ * ./gradlew loadTest                                          open loop, 200 req/s, embedded H2
+ * ./gradlew loadTest -Ploadtest.mode=closed -Ploadtest.concurrency=64
+ * ./gradlew loadTest -Ploadtest.target=http://host:8080 -Ploadtest.rate=2000
+ * </pre>
+ *
+ * Prints throughput and response-time percentiles every interval and a
+ * summary at the end. The series goes to a CSV, the interval histograms to an
+ * HdrHistogram log (HistogramLogAnalyzer / HdrHistogramVisualizer read it).
+ */
+public final class LoadTest {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        int exitCode;
+
+        EmbeddedTarget embedded = options.isEmbedded() ? EmbeddedTarget.start() : null;
+        try {
+            String baseUrl = embedded != null ? embedded.getBaseUrl() : options.target;
+            TransactionMappingConfig mappings = embedded != null ? embedded.getMappingConfig() : localMappings();
+            exitCode = run(options, baseUrl, mappings);
+        } finally {
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    private static int run(LoadTestOptions options, String baseUrl, TransactionMappingConfig mappings)
+            throws InterruptedException, IOException {
+        PayloadGenerator payloads = PayloadGenerator.create(mappings, options.variants, new ObjectMapper());
+        LatencyRecorder recorder = new LatencyRecorder();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            TransactionClient client = new TransactionClient(baseUrl, options.path, options.requestTimeout, executor);
+            LoadDriver driver = options.mode == LoadTestOptions.Mode.OPEN
+                    ? new OpenLoopDriver(client, payloads, recorder, executor, options.rate, options.concurrency)
+                    : new ClosedLoopDriver(client, payloads, recorder, options.concurrency, options.rate);
+
+            Path results = Path.of(options.results);
+            Files.createDirectories(results);
+            String name = "loadtest-" + options.mode.name().toLowerCase() + "-"
+                    + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+
+            System.out.println("✅ " + options + " against " + client.getUri());
+            try (Report report = new Report(recorder, options, results.resolve(name + ".csv"),
+                    results.resolve(name + ".hlog"))) {
+                ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor();
+                long reportMillis = options.reportInterval.toMillis();
+                ticker.scheduleAtFixedRate(report::tick, reportMillis, reportMillis, TimeUnit.MILLISECONDS);
+
+                long end = report.startNanos + options.warmup.toNanos() + options.duration.toNanos();
+                driver.run(end);
+
+                ticker.shutdown();
+                ticker.awaitTermination(reportMillis * 2, TimeUnit.MILLISECONDS);
+                report.tick();
+                return report.summary();
+            }
+        }
+    }
+
+    /**
+     * Mappings for a remote target: the same local copy the h2 profile serves
+     */
+    private static TransactionMappingConfig localMappings() throws IOException {
+        Properties properties = PropertiesLoaderUtils.loadAllProperties(
+                "application-" + EmbeddedTarget.PROFILE + ".properties");
+        return new Binder(new MapConfigurationPropertySource(properties))
+                .bind("txn.mappings", TransactionMappingConfig.class)
+                .orElseGet(TransactionMappingConfig::new);
+    }
+
+    /**
+     * Interval lines on stdout, the same series to CSV and HdrHistogram log, and totals after warm-up
+     */
+    private static final class Report implements AutoCloseable {
+
+        private final LatencyRecorder recorder;
+        private final LoadTestOptions options;
+        private final PrintWriter csv;
+        private final PrintStream histogramLog;
+        private final HistogramLogWriter logWriter;
+        private final Histogram totalResponse = new Histogram(3);
+        private final Histogram totalService = new Histogram(3);
+        private final long startNanos = System.nanoTime();
+
+        private long previousErrors;
+        private long measuredErrors;
+
+        private Report(LatencyRecorder recorder, LoadTestOptions options, Path csvFile, Path logFile)
+                throws IOException {
+            this.recorder = recorder;
+            this.options = options;
+            this.csv = new PrintWriter(Files.newBufferedWriter(csvFile));
+            this.histogramLog = new PrintStream(Files.newOutputStream(logFile));
+            this.logWriter = new HistogramLogWriter(histogramLog);
+
+            long startMillis = System.currentTimeMillis();
+            logWriter.outputComment("POST " + options.path + ", " + options + ", response time in ms");
+            logWriter.outputLogFormatVersion();
+            logWriter.outputStartTime(startMillis);
+            logWriter.setBaseTime(startMillis);
+            logWriter.outputLegend();
+            csv.println("elapsed_s,phase,requests,throughput_rps,errors,p50_ms,p99_ms,p999_ms,max_ms,service_p99_ms");
+            System.out.println("   time  phase     req/s   errors     p50 ms     p99 ms   p99.9 ms     max ms");
+        }
+
+        synchronized void tick() {
+            LatencyRecorder.Interval interval = recorder.interval();
+            double elapsed = (System.nanoTime() - startNanos) / 1e9;
+            double seconds = (interval.serviceTime.getEndTimeStamp() - interval.serviceTime.getStartTimeStamp()) / 1e3;
+            boolean warmup = elapsed <= options.warmup.toSeconds();
+
+            long requests = interval.serviceTime.getTotalCount();
+            long errors = recorder.getErrors();
+            long intervalErrors = errors - previousErrors;
+            previousErrors = errors;
+
+            if (!warmup) {
+                totalResponse.add(interval.responseTime);
+                totalService.add(interval.serviceTime);
+                measuredErrors += intervalErrors;
+            }
+            logWriter.outputIntervalHistogram(interval.responseTime);
+
+            Histogram response = interval.responseTime;
+            double throughput = seconds > 0 ? requests / seconds : 0;
+            String phase = warmup ? "warmup" : "measure";
+            System.out.println(String.format(Locale.ROOT, "%6.0fs  %-7s %9.0f %8d %10.2f %10.2f %10.2f %10.2f",
+                    elapsed, phase, throughput, intervalErrors, millis(response, 50), millis(response, 99),
+                    millis(response, 99.9), response.getMaxValue() / NANOS_PER_MILLI));
+            csv.println(String.format(Locale.ROOT, "%.1f,%s,%d,%.1f,%d,%.3f,%.3f,%.3f,%.3f,%.3f",
+                    elapsed, phase, requests, throughput, intervalErrors, millis(response, 50), millis(response, 99),
+                    millis(response, 99.9), response.getMaxValue() / NANOS_PER_MILLI,
+                    millis(interval.serviceTime, 99)));
+            csv.flush();
+        }
+
+        /**
+         * Print the totals; exit code 1 when the p99 objective was missed
+         */
+        int summary() {
+            long requests = totalService.getTotalCount();
+            double throughput = requests / (double) options.duration.toSeconds();
+
+            System.out.println();
+            System.out.println(String.format(Locale.ROOT, "Requests %d (%.0f req/s), errors %d, statuses %s",
+                    requests, throughput, measuredErrors, recorder.getStatuses()));
+            System.out.println(String.format(Locale.ROOT,
+                    "Response time ms  p50 %.2f  p90 %.2f  p99 %.2f  p99.9 %.2f  p99.99 %.2f  max %.2f",
+                    millis(totalResponse, 50), millis(totalResponse, 90), millis(totalResponse, 99),
+                    millis(totalResponse, 99.9), millis(totalResponse, 99.99),
+                    totalResponse.getMaxValue() / NANOS_PER_MILLI));
+            System.out.println(String.format(Locale.ROOT,
+                    "Service time ms   p50 %.2f  p90 %.2f  p99 %.2f  p99.9 %.2f  p99.99 %.2f  max %.2f",
+                    millis(totalService, 50), millis(totalService, 90), millis(totalService, 99),
+                    millis(totalService, 99.9), millis(totalService, 99.99),
+                    totalService.getMaxValue() / NANOS_PER_MILLI));
+
+            double p99 = millis(totalResponse, 99);
+            if (options.sloP99Millis > 0 && p99 > options.sloP99Millis) {
+                System.err.println("❌ p99 " + p99 + " ms is above the " + options.sloP99Millis + " ms objective");
+                return 1;
+            }
+            return 0;
+        }
+
+        private static double millis(Histogram histogram, double percentile) {
+            return histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+        }
+
+        @Override
+        public void close() {
+            csv.close();
+            histogramLog.close();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.TransactionConsumer.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line of the load generator, every option as --name=value.
+ */
+final class LoadTestOptions {
+
+    enum Mode { OPEN, CLOSED }
+
+    // OPEN = fixed arrival rate, CLOSED = fixed number of workers each waiting for its response
+    final Mode mode;
+    // requests per second; OPEN: arrival rate, CLOSED: optional pacing across all workers (0 = as fast as possible)
+    final int rate;
+    // CLOSED: worker count, OPEN: cap on requests in flight (dispatch is delayed, not dropped, past it)
+    final int concurrency;
+    final Duration duration;
+    // measured and printed but left out of the totals
+    final Duration warmup;
+    final Duration reportInterval;
+    final Duration requestTimeout;
+    // base URL of a running instance; empty = start the application on embedded H2
+    final String target;
+    final String path;
+    // distinct payload bodies cycled through, each with its own transactionId per request
+    final int variants;
+    final String results;
+    // exit with status 1 when the corrected p99 is above this (0 = no check)
+    final double sloP99Millis;
+
+    private LoadTestOptions(Map<String, String> values) {
+        this.mode = Mode.valueOf(values.getOrDefault("mode", "open").toUpperCase());
+        this.rate = Integer.parseInt(values.getOrDefault("rate", "200"));
+        this.concurrency = Integer.parseInt(values.getOrDefault("concurrency", "16"));
+        this.duration = Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60")));
+        this.warmup = Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "10")));
+        this.reportInterval = Duration.ofSeconds(Long.parseLong(values.getOrDefault("report-interval", "1")));
+        this.requestTimeout = Duration.ofSeconds(Long.parseLong(values.getOrDefault("request-timeout", "30")));
+        this.target = values.getOrDefault("target", "");
+        this.path = values.getOrDefault("path", "/api/transactions");
+        this.variants = Integer.parseInt(values.getOrDefault("variants", "1000"));
+        this.results = values.getOrDefault("results", "build/results/loadtest");
+        this.sloP99Millis = Double.parseDouble(values.getOrDefault("slo-p99-ms", "0"));
+
+        if (mode == Mode.OPEN && rate <= 0) {
+            throw new IllegalArgumentException("--rate must be positive in open-loop mode");
+        }
+        if (concurrency <= 0 || variants <= 0 || reportInterval.isZero()) {
+            throw new IllegalArgumentException("--concurrency, --variants and --report-interval must be positive");
+        }
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    boolean isEmbedded() {
+        return target.isBlank();
+    }
+
+    @Override
+    public String toString() {
+        return mode + " loop, " + (mode == Mode.OPEN
+                ? rate + " req/s (max " + concurrency + " in flight)"
+                : concurrency + " workers" + (rate > 0 ? " paced to " + rate + " req/s" : ""))
+                + ", " + warmup.toSeconds() + " s warm-up + " + duration.toSeconds() + " s";
+    }
+}
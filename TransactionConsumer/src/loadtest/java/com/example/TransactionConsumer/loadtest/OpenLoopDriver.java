@@ -0,0 +1,63 @@
+package com.example.TransactionConsumer.loadtest;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed arrival rate: request i is due at start + i / rate no matter how the
+ * previous ones fared, and its latency counts from that due time. A slow
+ * server therefore shows up as queueing in the percentiles instead of as a
+ * quietly lower send rate.
+ */
+final class OpenLoopDriver implements LoadDriver {
+
+    private final TransactionClient client;
+    private final PayloadGenerator payloads;
+    private final LatencyRecorder recorder;
+    private final ExecutorService executor;
+    private final long intervalNanos;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+
+    OpenLoopDriver(TransactionClient client, PayloadGenerator payloads, LatencyRecorder recorder,
+                   ExecutorService executor, int rate, int maxInFlight) {
+        this.client = client;
+        this.payloads = payloads;
+        this.recorder = recorder;
+        this.executor = executor;
+        this.intervalNanos = 1_000_000_000L / rate;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Override
+    public void run(long endNanos) throws InterruptedException {
+        long start = System.nanoTime();
+        for (long i = 0; ; i++) {
+            long intendedStart = start + i * intervalNanos;
+            if (intendedStart >= endNanos) {
+                break;
+            }
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            // past the cap the send is late, not skipped, and the lateness is in its response time
+            inFlight.acquire();
+            byte[] body = payloads.next();
+            executor.execute(() -> {
+                try {
+                    long actualStart = System.nanoTime();
+                    int status = client.post(body);
+                    recorder.record(intendedStart, actualStart, System.nanoTime(), status);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+        inFlight.acquire(maxInFlight);
+        inFlight.release(maxInFlight);
+    }
+}
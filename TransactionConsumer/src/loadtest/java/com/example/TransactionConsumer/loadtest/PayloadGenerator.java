@@ -0,0 +1,285 @@
+package com.example.TransactionConsumer.loadtest;
+
+import com.example.TransactionConsumer.config.EntityMapping;
+import com.example.TransactionConsumer.config.FieldMapping;
+import com.example.TransactionConsumer.config.TransactionMappingConfig;
+import com.example.TransactionConsumer.config.ValidationRules;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Synthetic POST /api/transactions bodies that pass validation under the
+ * active mapping config: every json-source path gets a value that satisfies
+ * its allowed/pattern/maxLength/min/max rules. Bodies are rendered once into
+ * byte templates, so a request only splices in its transactionId.
+ */
+final class PayloadGenerator {
+
+    private static final Pattern SEGMENT = Pattern.compile("\\['([^'\\\\]*)'\\]|\\[(\\d+)\\]");
+    private static final String ID_MARKER = "@@TRANSACTION_ID@@";
+
+    private final List<Template> templates;
+    private final String runId;
+    private final AtomicLong sequence = new AtomicLong();
+
+    private PayloadGenerator(List<Template> templates, String runId) {
+        this.templates = templates;
+        this.runId = runId;
+    }
+
+    static PayloadGenerator create(TransactionMappingConfig config, int variants, ObjectMapper objectMapper) {
+        List<FieldMapping> mappings = jsonMappings(config);
+        Random random = new Random(42);
+        List<Template> templates = new ArrayList<>(variants);
+
+        int skipped = 0;
+        for (int i = 0; i < variants; i++) {
+            Map<String, Object> body = fixedFields(random);
+            for (FieldMapping mapping : mappings) {
+                if (!put(body, mapping, random)) {
+                    skipped++;
+                }
+            }
+            templates.add(Template.of(render(body, objectMapper)));
+        }
+
+        System.out.println("✅ " + variants + " payload variants for " + mappings.size() + " mapped json paths");
+        if (skipped > 0) {
+            System.err.println("⚠️ " + skipped / variants + " mapped paths are not plain property paths and were left out");
+        }
+        return new PayloadGenerator(templates, Long.toString(System.currentTimeMillis(), 36).toUpperCase());
+    }
+
+    /**
+     * Next request body, cycling through the variants with a fresh transactionId
+     */
+    byte[] next() {
+        long n = sequence.getAndIncrement();
+        String tranId = "LT" + runId + "-" + n;
+        return templates.get((int) (n % templates.size())).render(tranId);
+    }
+
+    long getGenerated() {
+        return sequence.get();
+    }
+
+    // ==================== CONFIG ====================
+
+    private static List<FieldMapping> jsonMappings(TransactionMappingConfig config) {
+        List<FieldMapping> mappings = new ArrayList<>();
+        for (EntityMapping entity : new EntityMapping[]{
+                config.getPayment(), config.getSender(), config.getRecipient(), config.getTransactionDetail()}) {
+            if (entity != null) {
+                addJson(mappings, entity.getTransaction());
+                addJson(mappings, entity.getDetail());
+                addJson(mappings, entity.getParty());
+                addJson(mappings, entity.getAddress());
+            }
+        }
+        if (config.getAddress() != null) {
+            config.getAddress().values().forEach(address -> addJson(mappings, address));
+        }
+        return mappings;
+    }
+
+    private static void addJson(List<FieldMapping> target, Map<String, FieldMapping> mappings) {
+        if (mappings == null) {
+            return;
+        }
+        for (FieldMapping mapping : mappings.values()) {
+            if (mapping != null && "json".equals(mapping.getSource()) && mapping.getPath() != null) {
+                target.add(mapping);
+            }
+        }
+    }
+
+    // ==================== VALUES ====================
+
+    /**
+     * The fields the validator requires and the built-in transaction columns read
+     */
+    private static Map<String, Object> fixedFields(Random random) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("transactionId", ID_MARKER);
+        body.put("transactionType", "PAYMENT");
+        body.put("amount", 1 + random.nextInt(100_000));
+        body.put("currency", "INR");
+        body.put("customerReferenceNumber", "CRN" + digits(random, 8));
+        body.put("originatingInstitution", "Load Test Bank");
+        body.put("transferAcceptorName", "Load Test Services");
+        body.put("paymentReference", "PMT-" + digits(random, 8));
+        body.put("fundingSource", "BANK");
+        body.put("paymentType", "IMPS");
+        return body;
+    }
+
+    /**
+     * Set the mapping's path in the body. A fixed field keeps its typed value unless the mapping has rules.
+     */
+    @SuppressWarnings("unchecked")
+    private static boolean put(Map<String, Object> body, FieldMapping mapping, Random random) {
+        JsonPath path;
+        try {
+            path = JsonPath.compile(mapping.getPath());
+        } catch (RuntimeException e) {
+            return false;
+        }
+        if (!path.isDefinite()) {
+            return false;
+        }
+
+        List<Object> segments = new ArrayList<>();
+        Matcher matcher = SEGMENT.matcher(path.getPath().substring(1));
+        while (matcher.find()) {
+            segments.add(matcher.group(1) != null ? matcher.group(1) : Integer.valueOf(matcher.group(2)));
+        }
+        if (segments.isEmpty() || !(segments.get(0) instanceof String)) {
+            return false;
+        }
+        if (segments.equals(List.of("transactionId"))) {
+            // unique per request, spliced in by the template
+            return true;
+        }
+
+        Object node = body;
+        for (int i = 0; i < segments.size(); i++) {
+            Object segment = segments.get(i);
+            boolean last = i == segments.size() - 1;
+            Object next = last ? null : segments.get(i + 1);
+
+            if (segment instanceof String && node instanceof Map) {
+                Map<String, Object> object = (Map<String, Object>) node;
+                if (last) {
+                    if (!object.containsKey(segment) || mapping.getValidation() != null) {
+                        object.put((String) segment, value(mapping, random));
+                    }
+                    return true;
+                }
+                node = object.computeIfAbsent((String) segment, ignored -> container(next));
+            } else if (segment instanceof Integer && node instanceof List) {
+                List<Object> array = (List<Object>) node;
+                int index = (Integer) segment;
+                while (array.size() <= index) {
+                    array.add(null);
+                }
+                if (last) {
+                    array.set(index, value(mapping, random));
+                    return true;
+                }
+                if (array.get(index) == null) {
+                    array.set(index, container(next));
+                }
+                node = array.get(index);
+            } else {
+                // the same path is an object in one mapping and an array in another
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Object container(Object nextSegment) {
+        return nextSegment instanceof String ? new LinkedHashMap<String, Object>() : new ArrayList<>();
+    }
+
+    private static Object value(FieldMapping mapping, Random random) {
+        ValidationRules rules = mapping.getValidation();
+        if (rules == null) {
+            return text(random, 12);
+        }
+        if (rules.getAllowed() != null && !rules.getAllowed().isEmpty()) {
+            return rules.getAllowed().get(random.nextInt(rules.getAllowed().size()));
+        }
+        if (rules.getMin() != null || rules.getMax() != null) {
+            int min = rules.getMin() != null ? rules.getMin() : 0;
+            int max = rules.getMax() != null ? rules.getMax() : min + 100_000;
+            return min + random.nextInt(Math.max(1, max - min + 1));
+        }
+
+        int length = rules.getMaxLength() != null ? Math.max(1, Math.min(rules.getMaxLength(), 12)) : 12;
+        if (rules.getPattern() == null) {
+            return text(random, length);
+        }
+
+        // no general regex generator: try common shapes, then the mapping's default
+        Pattern pattern = Pattern.compile(rules.getPattern());
+        for (String candidate : new String[]{
+                digits(random, length), digits(random, 10), digits(random, 6),
+                text(random, length).toUpperCase(), text(random, length),
+                "user" + digits(random, 4) + "@example.com"}) {
+            if (pattern.matcher(candidate).matches()) {
+                return candidate;
+            }
+        }
+        if (mapping.getDefaultValue() != null) {
+            return mapping.getDefaultValue();
+        }
+        System.err.println("⚠️ No synthetic value matches " + rules.getPattern() + " for " + mapping.getPath());
+        return text(random, length);
+    }
+
+    private static String text(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append((char) ('a' + random.nextInt(26)));
+        }
+        return text.toString();
+    }
+
+    private static String digits(Random random, int length) {
+        StringBuilder digits = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            digits.append((char) ('0' + random.nextInt(10)));
+        }
+        return digits.toString();
+    }
+
+    private static String render(Map<String, Object> body, ObjectMapper objectMapper) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot render payload", e);
+        }
+    }
+
+    /**
+     * A rendered body split around the transactionId value
+     */
+    private static final class Template {
+
+        private final byte[] prefix;
+        private final byte[] suffix;
+
+        private Template(byte[] prefix, byte[] suffix) {
+            this.prefix = prefix;
+            this.suffix = suffix;
+        }
+
+        static Template of(String json) {
+            int at = json.indexOf(ID_MARKER);
+            return new Template(
+                    json.substring(0, at).getBytes(StandardCharsets.UTF_8),
+                    json.substring(at + ID_MARKER.length()).getBytes(StandardCharsets.UTF_8));
+        }
+
+        byte[] render(String tranId) {
+            byte[] id = tranId.getBytes(StandardCharsets.US_ASCII);
+            byte[] body = new byte[prefix.length + id.length + suffix.length];
+            System.arraycopy(prefix, 0, body, 0, prefix.length);
+            System.arraycopy(id, 0, body, prefix.length, id.length);
+            System.arraycopy(suffix, 0, body, prefix.length + id.length, suffix.length);
+            return body;
+        }
+    }
+}
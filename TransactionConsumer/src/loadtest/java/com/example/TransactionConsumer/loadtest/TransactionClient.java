@@ -0,0 +1,52 @@
+package com.example.TransactionConsumer.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Blocking POST of one payload, meant to be called from a virtual thread.
+ */
+final class TransactionClient {
+
+    private final HttpClient client;
+    private final URI uri;
+    private final Duration timeout;
+
+    TransactionClient(String baseUrl, String path, Duration timeout, ExecutorService executor) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+        this.uri = URI.create(baseUrl.replaceAll("/+$", "") + path);
+        this.timeout = timeout;
+    }
+
+    /**
+     * HTTP status, or 0 when there was no response (connect failure, reset, timeout)
+     */
+    int post(byte[] body) {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+
+    URI getUri() {
+        return uri;
+    }
+}
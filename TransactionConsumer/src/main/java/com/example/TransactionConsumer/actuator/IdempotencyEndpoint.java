@@ -0,0 +1,36 @@
+package com.example.TransactionConsumer.actuator;
+
+import com.example.TransactionConsumer.service.IdempotencyGuard;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes duplicate-id guard counters at /actuator/idempotency
+ */
+@Component
+@Endpoint(id = "idempotency")
+public class IdempotencyEndpoint {
+
+    private final IdempotencyGuard guard;
+
+    public IdempotencyEndpoint(IdempotencyGuard guard) {
+        this.guard = guard;
+    }
+
+    @ReadOperation
+    public Map<String, Object> counters() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("enabled", guard.isEnabled());
+        body.put("hits", guard.getHits());
+        body.put("misses", guard.getMisses());
+        body.put("falsePositives", guard.getFalsePositives());
+        body.put("collapsed", guard.getCollapsed());
+        body.put("recentIds", guard.getRecentSize());
+        body.put("inFlight", guard.getInFlight());
+        return body;
+    }
+}
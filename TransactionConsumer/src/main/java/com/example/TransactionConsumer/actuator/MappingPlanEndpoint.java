@@ -0,0 +1,44 @@
+package com.example.TransactionConsumer.actuator;
+
+import com.example.TransactionConsumer.service.MappingPlan;
+import com.example.TransactionConsumer.service.MappingPlanRegistry;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes the active mapping plan at /actuator/mappingplan
+ */
+@Component
+@Endpoint(id = "mappingplan")
+public class MappingPlanEndpoint {
+
+    private final MappingPlanRegistry planRegistry;
+
+    public MappingPlanEndpoint(MappingPlanRegistry planRegistry) {
+        this.planRegistry = planRegistry;
+    }
+
+    @ReadOperation
+    public Map<String, Object> plan() {
+        MappingPlan plan = planRegistry.current();
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("version", plan.getVersion());
+        body.put("compiledAt", plan.getCompiledAt().toString());
+        body.put("compileTimeMicros", plan.getCompileTime().toNanos() / 1_000);
+        body.put("mappingsLoaded", plan.isMappingsLoaded());
+        body.put("fields", Map.of(
+                "senderParty", plan.getSenderParty().size(),
+                "recipientParty", plan.getRecipientParty().size(),
+                "senderAddress", plan.getSenderAddress().size(),
+                "recipientAddress", plan.getRecipientAddress().size(),
+                "transaction", plan.getTransaction().size(),
+                "detail", plan.getDetail().size()
+        ));
+        return body;
+    }
+}
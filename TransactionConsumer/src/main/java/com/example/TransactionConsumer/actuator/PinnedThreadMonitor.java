@@ -0,0 +1,128 @@
+package com.example.TransactionConsumer.actuator;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streams jdk.VirtualThreadPinned JFR events while virtual threads are on,
+ * and counts them per call site. Pins inside the Oracle driver
+ * (synchronized blocks around socket I/O) are counted separately.
+ */
+@Component
+public class PinnedThreadMonitor {
+
+    static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final String DRIVER_PACKAGE = "oracle.jdbc";
+    private static final int MAX_SITES = 100;
+
+    private final boolean enabled;
+    private final Duration threshold;
+    private final LongAdder pinned = new LongAdder();
+    private final LongAdder driverPinned = new LongAdder();
+    private final Map<String, LongAdder> sites = new ConcurrentHashMap<>();
+
+    private RecordingStream stream;
+
+    public PinnedThreadMonitor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                               @Value("${txn.pinning.monitor-enabled:true}") boolean monitorEnabled,
+                               @Value("${txn.pinning.threshold-ms:20}") long thresholdMs) {
+        this.enabled = virtualThreads && monitorEnabled;
+        this.threshold = Duration.ofMillis(thresholdMs);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, this::record);
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Duration getThreshold() {
+        return threshold;
+    }
+
+    public long getPinnedCount() {
+        return pinned.sum();
+    }
+
+    public long getDriverPinnedCount() {
+        return driverPinned.sum();
+    }
+
+    /**
+     * Most frequent pinning sites, highest count first
+     */
+    public Map<String, Long> topSites(int limit) {
+        Map<String, Long> top = new LinkedHashMap<>();
+        sites.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> entry) -> entry.getValue().sum()).reversed())
+                .limit(limit)
+                .forEach(entry -> top.put(entry.getKey(), entry.getValue().sum()));
+        return top;
+    }
+
+    void record(RecordedEvent event) {
+        pinned.increment();
+
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return;
+        }
+
+        RecordedFrame site = null;
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (!frame.isJavaFrame()) {
+                continue;
+            }
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith(DRIVER_PACKAGE)) {
+                driverPinned.increment();
+                site = frame;
+                break;
+            }
+            if (site == null && !type.startsWith("java.") && !type.startsWith("jdk.")) {
+                site = frame;
+            }
+        }
+
+        if (site != null) {
+            String key = site.getMethod().getType().getName() + "." + site.getMethod().getName()
+                    + ":" + site.getLineNumber();
+            LongAdder counter = sites.get(key);
+            if (counter == null && sites.size() < MAX_SITES) {
+                counter = sites.computeIfAbsent(key, ignored -> new LongAdder());
+            }
+            if (counter != null) {
+                counter.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.TransactionConsumer.actuator;
+
+import com.example.TransactionConsumer.service.PipelineStage;
+import com.example.TransactionConsumer.service.StagedPipeline;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes per-stage queue depth and service time at /actuator/pipeline
+ */
+@Component
+@Endpoint(id = "pipeline")
+public class PipelineEndpoint {
+
+    private final StagedPipeline pipeline;
+
+    public PipelineEndpoint(StagedPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stages() {
+        Map<String, Object> stages = new LinkedHashMap<>();
+        for (PipelineStage stage : pipeline.getStages()) {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("workers", stage.getWorkers());
+            stats.put("active", stage.getActive());
+            stats.put("queueDepth", stage.getQueueDepth());
+            stats.put("queueCapacity", stage.getQueueCapacity());
+            stats.put("completed", stage.getCompleted());
+            stats.put("failed", stage.getFailed());
+            stats.put("rejected", stage.getRejected());
+            stats.put("avgServiceMs", stage.getAverageServiceMillis());
+            stats.put("maxServiceMs", stage.getMaxServiceMillis());
+            stages.put(stage.getName(), stats);
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("enabled", pipeline.isEnabled());
+        body.put("stages", stages);
+        return body;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.TransactionConsumer.actuator;
+
+import com.example.TransactionConsumer.validator.ReferenceDataCache;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Exposes the reference data cache at /actuator/referencedata; POST reloads it
+ */
+@Component
+@Endpoint(id = "referencedata")
+public class ReferenceDataEndpoint {
+
+    private final ReferenceDataCache cache;
+
+    public ReferenceDataEndpoint(ReferenceDataCache cache) {
+        this.cache = cache;
+    }
+
+    @ReadOperation
+    public Map<String, Object> sets() {
+        Map<String, Object> sets = new TreeMap<>();
+        cache.getSets().forEach((name, set) -> {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("size", set.getSize());
+            body.put("loadedAt", set.getLoadedAt().toString());
+            body.put("loadTimeMillis", set.getLoadTime().toMillis());
+            body.put("misses", cache.getMisses(name));
+            sets.put(name, body);
+        });
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("enabled", cache.isEnabled());
+        body.put("lastRefresh", cache.getLastRefresh() != null ? cache.getLastRefresh().toString() : null);
+        body.put("sets", sets);
+        return body;
+    }
+
+    @WriteOperation
+    public Map<String, Object> refresh() {
+        cache.refresh();
+        return sets();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.TransactionConsumer.actuator;
+
+import com.example.TransactionConsumer.repository.DbConcurrencyLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes virtual-thread mode, DB permits and carrier pinning at /actuator/virtualthreads
+ */
+@Component
+@Endpoint(id = "virtualthreads")
+public class VirtualThreadEndpoint {
+
+    private final boolean virtualThreads;
+    private final DbConcurrencyLimiter limiter;
+    private final PinnedThreadMonitor pinningMonitor;
+
+    public VirtualThreadEndpoint(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                 DbConcurrencyLimiter limiter,
+                                 PinnedThreadMonitor pinningMonitor) {
+        this.virtualThreads = virtualThreads;
+        this.limiter = limiter;
+        this.pinningMonitor = pinningMonitor;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> db = new LinkedHashMap<>();
+        db.put("limited", limiter.isEnabled());
+        db.put("maxConcurrency", limiter.getMaxConcurrency());
+        db.put("available", limiter.getAvailable());
+        db.put("waiting", limiter.getWaiting());
+
+        Map<String, Object> pinning = new LinkedHashMap<>();
+        pinning.put("monitoring", pinningMonitor.isEnabled());
+        pinning.put("thresholdMs", pinningMonitor.getThreshold().toMillis());
+        pinning.put("events", pinningMonitor.getPinnedCount());
+        pinning.put("driverEvents", pinningMonitor.getDriverPinnedCount());
+        pinning.put("topSites", pinningMonitor.topSites(10));
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("virtualThreads", virtualThreads);
+        body.put("db", db);
+        body.put("pinning", pinning);
+        return body;
+    }
+}
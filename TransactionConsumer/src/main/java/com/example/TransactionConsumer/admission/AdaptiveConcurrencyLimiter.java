@@ -0,0 +1,136 @@
+package com.example.TransactionConsumer.admission;
+
+import com.example.TransactionConsumer.config.AdmissionProperties;
+import com.example.TransactionConsumer.exception.LoadSheddingException;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control in front of every ingest path: POST /api/transactions in
+ * sync, async and pipeline mode, and each chunk of /batch.
+ * The concurrency limit follows observed latency (gradient or Vegas), so
+ * when Oracle slows down the excess is answered 429 straight away instead of
+ * queueing on request threads until the upstream times out and retries.
+ * The Content-Length of admitted requests is capped as well, so a burst of
+ * large payloads cannot exhaust the heap while under the limit.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Permit UNLIMITED = new Permit(null, 0, 0);
+
+    private final AdmissionProperties properties;
+    private final TransactionMetrics metrics;
+    private final LimitAlgorithm algorithm;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong inFlightBytes = new AtomicLong();
+
+    public AdaptiveConcurrencyLimiter(AdmissionProperties properties, TransactionMetrics metrics) {
+        this.properties = properties;
+        this.metrics = metrics;
+        this.algorithm = properties.getAlgorithm() == AdmissionProperties.Algorithm.VEGAS
+                ? new VegasLimit(properties)
+                : new GradientLimit(properties);
+        metrics.admissionGauges(this::getLimit, this::getInFlight, this::getInFlightBytes);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Admit a request of contentLength bytes (-1 when unknown) or throw a 429.
+     * Close the permit when the request is done; mark it successful first for its latency to count.
+     */
+    public Permit acquire(long contentLength) {
+        if (!properties.isEnabled()) {
+            return UNLIMITED;
+        }
+
+        int limit = algorithm.getLimit();
+        int admitted;
+        do {
+            admitted = inFlight.get();
+            if (admitted >= limit) {
+                throw reject("concurrency");
+            }
+        } while (!inFlight.compareAndSet(admitted, admitted + 1));
+
+        long bytes = contentLength >= 0 ? contentLength : properties.getUnknownLengthBytes();
+        long maxBytes = properties.getMaxInFlightBytes();
+        if (maxBytes > 0) {
+            long total = inFlightBytes.addAndGet(bytes);
+            // a single request over the cap still runs, alone
+            if (total > maxBytes && total != bytes) {
+                inFlightBytes.addAndGet(-bytes);
+                inFlight.decrementAndGet();
+                throw reject("bytes");
+            }
+        } else {
+            bytes = 0;
+        }
+
+        return new Permit(this, bytes, admitted + 1);
+    }
+
+    public int getLimit() {
+        return algorithm.getLimit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getInFlightBytes() {
+        return inFlightBytes.get();
+    }
+
+    private LoadSheddingException reject(String limit) {
+        metrics.admissionRejected(limit);
+        return new LoadSheddingException(limit, properties.getRetryAfterSeconds());
+    }
+
+    private void release(Permit permit, long end) {
+        inFlight.decrementAndGet();
+        inFlightBytes.addAndGet(-permit.bytes);
+        // failures (400s, errors) return early or late for reasons other than load
+        if (permit.succeeded) {
+            algorithm.onSample(end - permit.start, permit.inFlight);
+        }
+    }
+
+    /**
+     * One admitted request
+     */
+    public static final class Permit implements AutoCloseable {
+
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final long bytes;
+        private final int inFlight;
+        private final long start = System.nanoTime();
+
+        private boolean succeeded;
+        private boolean released;
+
+        private Permit(AdaptiveConcurrencyLimiter limiter, long bytes, int inFlight) {
+            this.limiter = limiter;
+            this.bytes = bytes;
+            this.inFlight = inFlight;
+        }
+
+        public void success() {
+            succeeded = true;
+        }
+
+        @Override
+        public void close() {
+            if (limiter != null && !released) {
+                released = true;
+                limiter.release(this, System.nanoTime());
+            }
+        }
+    }
+}
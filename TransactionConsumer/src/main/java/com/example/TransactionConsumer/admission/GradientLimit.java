@@ -0,0 +1,59 @@
+package com.example.TransactionConsumer.admission;
+
+import com.example.TransactionConsumer.config.AdmissionProperties;
+
+/**
+ * Compares each RTT with a long-run exponential average. When requests get
+ * slower than tolerance × the average, the limit shrinks by the ratio (at
+ * most by half per estimate); otherwise it grows by √limit, the headroom
+ * for queueing. The limit only grows while the load actually uses it.
+ */
+final class GradientLimit implements LimitAlgorithm {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+    private final double longWeight;
+
+    private double estimatedLimit;
+    private double longRtt;
+    private volatile int limit;
+
+    GradientLimit(AdmissionProperties properties) {
+        this.minLimit = Math.max(1, properties.getMinLimit());
+        this.maxLimit = Math.max(minLimit, properties.getMaxLimit());
+        this.smoothing = properties.getSmoothing();
+        this.tolerance = properties.getRttTolerance();
+        this.longWeight = 2.0 / (Math.max(1, properties.getLongWindow()) + 1);
+        this.estimatedLimit = Math.min(maxLimit, Math.max(minLimit, properties.getInitialLimit()));
+        this.limit = (int) estimatedLimit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inFlight) {
+        double rtt = Math.max(1, rttNanos);
+        longRtt = longRtt == 0 ? rtt : longRtt + (rtt - longRtt) * longWeight;
+
+        // after a lasting drop in latency pull the average down faster, or the limit overshoots for a long window
+        if (longRtt / rtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        // barely loaded: the RTT says nothing about capacity, do not grow on it
+        if (inFlight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / rtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.TransactionConsumer.admission;
+
+/**
+ * Turns the round-trip times of completed requests into a concurrency limit.
+ */
+interface LimitAlgorithm {
+
+    int getLimit();
+
+    /**
+     * One completed request: how long it took and how many requests were in flight when it was admitted
+     */
+    void onSample(long rttNanos, int inFlight);
+}
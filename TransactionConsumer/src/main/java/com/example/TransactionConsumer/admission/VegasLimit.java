@@ -0,0 +1,71 @@
+package com.example.TransactionConsumer.admission;
+
+import com.example.TransactionConsumer.config.AdmissionProperties;
+
+/**
+ * Estimates how many requests are queued from limit × (1 - noLoadRtt / rtt)
+ * and steers that queue between alpha and beta, both scaled by log10(limit).
+ * The no-load RTT is the minimum seen, measured again every
+ * probeMultiplier × limit requests so a slower database becomes the new baseline.
+ */
+final class VegasLimit implements LimitAlgorithm {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final int probeMultiplier;
+
+    private double estimatedLimit;
+    private long noLoadRtt;
+    private long samplesSinceProbe;
+    private volatile int limit;
+
+    VegasLimit(AdmissionProperties properties) {
+        this.minLimit = Math.max(1, properties.getMinLimit());
+        this.maxLimit = Math.max(minLimit, properties.getMaxLimit());
+        this.smoothing = properties.getSmoothing();
+        this.probeMultiplier = Math.max(1, properties.getProbeMultiplier());
+        this.estimatedLimit = Math.min(maxLimit, Math.max(minLimit, properties.getInitialLimit()));
+        this.limit = (int) estimatedLimit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inFlight) {
+        long rtt = Math.max(1, rttNanos);
+        if (++samplesSinceProbe >= probeMultiplier * (long) limit) {
+            samplesSinceProbe = 0;
+            noLoadRtt = 0;
+        }
+        if (noLoadRtt == 0 || rtt < noLoadRtt) {
+            noLoadRtt = rtt;
+            return;
+        }
+
+        // barely loaded: no queue can build, do not grow on it
+        if (inFlight * 2 < estimatedLimit) {
+            return;
+        }
+
+        double queue = Math.ceil(estimatedLimit * (1 - (double) noLoadRtt / rtt));
+        double log = Math.max(1, Math.log10(estimatedLimit));
+        double newLimit;
+        if (queue <= log) {
+            newLimit = estimatedLimit + 6 * log;
+        } else if (queue < 3 * log) {
+            newLimit = estimatedLimit + log;
+        } else if (queue > 6 * log) {
+            newLimit = estimatedLimit - log;
+        } else {
+            return;
+        }
+
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
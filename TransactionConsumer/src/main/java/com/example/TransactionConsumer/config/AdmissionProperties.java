@@ -0,0 +1,37 @@
+package com.example.TransactionConsumer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "txn.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = false;
+    private Algorithm algorithm = Algorithm.GRADIENT;
+    private int initialLimit = 20;
+    private int minLimit = 4;
+    private int maxLimit = 200;
+    // weight of each new estimate; higher reacts faster and oscillates more
+    private double smoothing = 0.2;
+    // GRADIENT: how much slower than the long-run RTT a request may be before the limit shrinks
+    private double rttTolerance = 1.5;
+    // GRADIENT: completed requests averaged into the long-run RTT
+    private int longWindow = 600;
+    // VEGAS: re-measure the no-load RTT after this many times the limit in completed requests
+    private int probeMultiplier = 30;
+    // total Content-Length of admitted requests (0 = no cap)
+    private long maxInFlightBytes = 64L * 1024 * 1024;
+    // charged for a request without Content-Length (chunked)
+    private long unknownLengthBytes = 64L * 1024;
+    private int retryAfterSeconds = 1;
+
+    public enum Algorithm {
+        // RTT gradient against a long-run average (Netflix Gradient2)
+        GRADIENT,
+        // queue estimate from the RTT against the no-load RTT (TCP Vegas)
+        VEGAS
+    }
+}
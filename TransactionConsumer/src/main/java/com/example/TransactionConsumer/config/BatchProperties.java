@@ -0,0 +1,14 @@
+package com.example.TransactionConsumer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "txn.batch")
+public class BatchProperties {
+    private int chunkSize = 200;
+    // 0 = one worker per available core
+    private int parallelism = 0;
+}
@@ -0,0 +1,22 @@
+package com.example.TransactionConsumer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "txn.change-feed")
+public class ChangeFeedProperties {
+    // transactions per response when the client does not ask for a size
+    private int defaultBatchSize = 100;
+    // upper bound on the client's size, also the IN-list size of the joins (Oracle allows 1000)
+    private int maxBatchSize = 1000;
+    // rows stamped less than this long ago are held back: RPLCTN_UPDT_TS is set before commit,
+    // so a younger row may still be joined by an older one that has not committed yet
+    private long settleMillis = 5000;
+    // longest a long-poll may wait for new changes
+    private int maxWaitSeconds = 30;
+    // how often waiting long-polls look for new changes
+    private long pollIntervalMillis = 1000;
+}
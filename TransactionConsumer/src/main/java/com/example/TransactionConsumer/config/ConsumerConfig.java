@@ -0,0 +1,42 @@
+package com.example.TransactionConsumer.config;
+
+import com.example.TransactionConsumer.consumer.FileTailTransactionSource;
+import com.example.TransactionConsumer.consumer.PartitionedConsumer;
+import com.example.TransactionConsumer.consumer.QueueTransactionSource;
+import com.example.TransactionConsumer.consumer.TransactionSource;
+import com.example.TransactionConsumer.parser.PayloadReader;
+import com.example.TransactionConsumer.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+/**
+ * Message-consumer mode (txn.consumer.enabled=true): the configured source
+ * is drained into TransactionService alongside the HTTP endpoint.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "txn.consumer", name = "enabled", havingValue = "true")
+public class ConsumerConfig {
+
+    @Bean
+    public TransactionSource transactionSource(ConsumerProperties properties) {
+        if (properties.getSource() == ConsumerProperties.Source.FILE) {
+            return new FileTailTransactionSource(
+                    Paths.get(properties.getFile()), properties.getPollIntervalMs(), properties.getCheckpointIntervalMs());
+        }
+        return new QueueTransactionSource(properties.getQueueCapacity());
+    }
+
+    @Bean
+    public PartitionedConsumer partitionedConsumer(TransactionSource transactionSource,
+                                                   TransactionService transactionService,
+                                                   PayloadReader payloadReader,
+                                                   ObjectMapper objectMapper,
+                                                   ConsumerProperties properties) {
+        return new PartitionedConsumer(
+                transactionSource, transactionService, payloadReader, objectMapper.getFactory(), properties);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.TransactionConsumer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "txn.consumer")
+public class ConsumerProperties {
+
+    public enum Source { QUEUE, FILE }
+
+    private boolean enabled = false;
+    private Source source = Source.QUEUE;
+    // 0 = one partition per available core
+    private int partitions = 0;
+    // simple dotted path, e.g. $.transactionId or $.sender.email
+    private String partitionKey = "$.transactionId";
+    private int partitionQueueCapacity = 1000;
+    private int pollBatchSize = 100;
+    private long retryBackoffMs = 500;
+    private long maxRetryBackoffMs = 30_000;
+
+    // QUEUE source
+    private int queueCapacity = 10_000;
+
+    // FILE source: NDJSON file tailed from the last checkpoint
+    private String file = "inbox/transactions.ndjson";
+    private long pollIntervalMs = 200;
+    private long checkpointIntervalMs = 1000;
+}
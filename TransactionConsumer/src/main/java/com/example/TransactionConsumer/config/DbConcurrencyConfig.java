@@ -0,0 +1,59 @@
+package com.example.TransactionConsumer.config;
+
+import com.example.TransactionConsumer.repository.BoundedDataSource;
+import com.example.TransactionConsumer.repository.DbConcurrencyLimiter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DbConcurrencyConfig {
+
+    /**
+     * txn.db.max-concurrency=0 leaves the pool as the only limit
+     */
+    @Bean
+    public static DbConcurrencyLimiter dbConcurrencyLimiter(Environment environment) {
+        return new DbConcurrencyLimiter(
+                environment.getProperty("txn.db.max-concurrency", Integer.class, 0),
+                environment.getProperty("txn.db.acquire-timeout-ms", Long.class, 30_000L)
+        );
+    }
+
+    @Bean
+    public static BoundedDataSourcePostProcessor boundedDataSource(ObjectProvider<DbConcurrencyLimiter> limiter) {
+        return new BoundedDataSourcePostProcessor(limiter);
+    }
+
+    /**
+     * Runs before any other DataSource wrapper, so the permit guards the physical connection
+     */
+    static class BoundedDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<DbConcurrencyLimiter> limiter;
+
+        BoundedDataSourcePostProcessor(ObjectProvider<DbConcurrencyLimiter> limiter) {
+            this.limiter = limiter;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource
+                    && !(bean instanceof BoundedDataSource)
+                    && limiter.getObject().isEnabled()) {
+                return new BoundedDataSource(dataSource, limiter.getObject());
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
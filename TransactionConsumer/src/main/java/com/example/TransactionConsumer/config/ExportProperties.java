@@ -0,0 +1,19 @@
+package com.example.TransactionConsumer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "txn.export")
+public class ExportProperties {
+    // one sub-directory per exported day
+    private String directory = "exports";
+    // TRAN_ID ranges exported in parallel, each holds one connection while it runs
+    private int workers = 4;
+    // rows per JDBC round trip of the forward-only cursors
+    private int fetchSize = 5000;
+    // finished jobs kept for GET /api/transactions/exports/{jobId}
+    private int retainedJobs = 50;
+}
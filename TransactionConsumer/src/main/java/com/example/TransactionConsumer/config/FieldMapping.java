@@ -10,4 +10,10 @@ public class FieldMapping {
     private Boolean required;
     private String defaultValue;
     private ValidationRules validation;
+    // source "generated" only: uuid, uuidv7 or sequence (default txn.id.default-generator)
+    private String generator;
+    private String sequence;
+    private Integer blockSize;
+    // target column; defaults to the key (transaction/detail) or the legacy column for party/address keys
+    private String column;
 }
\ No newline at end of file
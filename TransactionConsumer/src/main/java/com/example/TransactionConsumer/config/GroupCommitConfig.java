@@ -0,0 +1,43 @@
+package com.example.TransactionConsumer.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(prefix = "txn.group-commit", name = "enabled", havingValue = "true")
+public class GroupCommitConfig {
+
+    /**
+     * Request threads only wait on the group-commit writer, so their
+     * transactions must not pin a pool connection they never use.
+     */
+    @Bean
+    public static LazyConnectionPostProcessor lazyConnectionDataSource() {
+        return new LazyConnectionPostProcessor();
+    }
+
+    /**
+     * Outermost DataSource wrapper
+     */
+    static class LazyConnectionPostProcessor implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof LazyConnectionDataSourceProxy)) {
+                return new LazyConnectionDataSourceProxy(dataSource);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
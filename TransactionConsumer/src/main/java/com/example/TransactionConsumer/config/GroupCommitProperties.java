@@ -0,0 +1,17 @@
+package com.example.TransactionConsumer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "txn.group-commit")
+public class GroupCommitProperties {
+    private boolean enabled = false;
+    private int maxBatchSize = 64;
+    private long maxDelayMs = 5;
+    private int queueCapacity = 4096;
+    // how long a caller waits on its batch when txn.persistence.transaction-timeout-seconds is -1
+    private long waitTimeoutMs = 30_000;
+}
@@ -0,0 +1,15 @@
+package com.example.TransactionConsumer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "txn.id")
+public class IdProperties {
+    // generator for "generated" mappings that do not name one: uuid, uuidv7 or sequence
+    private String defaultGenerator = "uuid";
+    // ids reserved per sequence round trip, must equal the sequence's INCREMENT BY
+    private int sequenceBlockSize = 100;
+}
@@ -0,0 +1,21 @@
+package com.example.TransactionConsumer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "txn.idempotency")
+public class IdempotencyProperties {
+    private boolean enabled = false;
+    // ids the Bloom filter generation is sized for before it rolls over
+    private int expectedIds = 1_000_000;
+    private double falsePositiveRate = 0.01;
+    // ids kept exactly, newest first, to confirm Bloom filter hits
+    private int recentCapacity = 100_000;
+    // true = 409 for a known duplicate, false = answer as if it was created
+    private boolean rejectDuplicates = false;
+    // how long a request waits on the same id in flight before it is shed with 429
+    private long inFlightWaitMs = 5_000;
+}
@@ -0,0 +1,21 @@
+package com.example.TransactionConsumer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "txn.persistence")
+public class PersistenceProperties {
+
+    /**
+     * transactionTimeoutSeconds for @Transactional(timeoutString = ...)
+     */
+    public static final String TRANSACTION_TIMEOUT = "${txn.persistence.transaction-timeout-seconds:-1}";
+
+    private boolean singleStatement = false;
+    private String dialect = "oracle";
+    // opt-in: write statements time out after this long, -1 = no timeout; bounds statements, not the commit
+    private int transactionTimeoutSeconds = -1;
+}
@@ -0,0 +1,30 @@
+package com.example.TransactionConsumer.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "txn.pipeline")
+public class PipelineProperties {
+
+    private boolean enabled = false;
+    private Stage parse = new Stage(0, 256);
+    private Stage map = new Stage(0, 256);
+    private Stage persist = new Stage(8, 256);
+    // how long a full downstream queue may hold up the upstream worker before the request is shed
+    private long handOffTimeoutMs = 1000;
+    private int retryAfterSeconds = 1;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Stage {
+        // 0 = one worker per available core
+        private int workers;
+        private int queueCapacity;
+    }
+}
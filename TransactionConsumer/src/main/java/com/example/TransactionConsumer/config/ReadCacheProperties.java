@@ -0,0 +1,16 @@
+package com.example.TransactionConsumer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "txn.read-cache")
+public class ReadCacheProperties {
+    private boolean enabled = true;
+    // transactions kept, least recently read dropped first
+    private int maxSize = 10_000;
+    // an entry older than this is reloaded from the database
+    private long ttlSeconds = 300;
+}
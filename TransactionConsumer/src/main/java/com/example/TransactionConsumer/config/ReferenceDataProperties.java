@@ -0,0 +1,27 @@
+package com.example.TransactionConsumer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "txn.reference")
+public class ReferenceDataProperties {
+    private boolean enabled = false;
+    // full reload of every set in the background (0 = only at startup and on refresh)
+    private long refreshIntervalSeconds = 300;
+    // set name (as used by a "reference" validation rule) -> table holding its valid codes
+    private Map<String, ReferenceTable> sets = new LinkedHashMap<>();
+
+    @Data
+    public static class ReferenceTable {
+        private String table;
+        private String column;
+        // optional SQL condition, e.g. ACTIVE_FLAG = 'Y'
+        private String where;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.TransactionConsumer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "txn.search")
+public class SearchProperties {
+    // rows per keyset query, each page is its own short statement
+    private int pageSize = 1000;
+    // rows per JDBC round trip, the driver never holds more than this
+    private int fetchSize = 1000;
+    // per page query, 0 = no timeout
+    private int queryTimeoutSeconds = 30;
+}
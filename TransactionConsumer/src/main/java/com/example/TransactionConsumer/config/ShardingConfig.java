@@ -0,0 +1,19 @@
+package com.example.TransactionConsumer.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "txn.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    /**
+     * Rows are written on the shards, so a request's transaction on the
+     * primary DataSource must not pin a connection it never uses.
+     */
+    @Bean
+    public static GroupCommitConfig.LazyConnectionPostProcessor shardingLazyConnectionDataSource() {
+        return new GroupCommitConfig.LazyConnectionPostProcessor();
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.TransactionConsumer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "txn.sharding")
+public class ShardingProperties {
+    private boolean enabled = false;
+    // points per shard on the hash ring, more = a more even split
+    private int virtualNodes = 128;
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+        // seeds the shard's ring points: renaming a shard moves its transactions (default shard-<index>)
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+    }
+}
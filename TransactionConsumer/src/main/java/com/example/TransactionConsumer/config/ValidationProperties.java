@@ -0,0 +1,13 @@
+package com.example.TransactionConsumer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "txn.validation")
+public class ValidationProperties {
+    // also check the min/max/maxLength/pattern/allowed rules of the active mapping plan before accepting
+    private boolean mappingRules = true;
+}
@@ -10,4 +10,6 @@ public class ValidationRules {
     private Integer maxLength;
     private String pattern;
     private List<String> allowed;
+    // name of a txn.reference set the value must be in
+    private String reference;
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.example.TransactionConsumer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "txn.async")
+public class WalProperties {
+
+    public enum Fsync { ALWAYS, INTERVAL, NEVER }
+
+    private boolean enabled = false;
+    private String directory = "wal";
+    private int segmentSizeMb = 64;
+    private Fsync fsync = Fsync.INTERVAL;
+    private long fsyncIntervalMs = 100;
+    private int drainers = 2;
+    private int drainBatchSize = 50;
+    private int maxAttempts = 20;
+    private long retryBackoffMs = 500;
+    private long maxRetryBackoffMs = 30_000;
+}
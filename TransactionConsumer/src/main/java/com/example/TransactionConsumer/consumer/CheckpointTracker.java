@@ -0,0 +1,45 @@
+package com.example.TransactionConsumer.consumer;
+
+import java.util.TreeMap;
+
+/**
+ * Low-water mark over records committed out of order.
+ * The checkpoint is the offset of the oldest record still in flight,
+ * or the end of the newest one when nothing is outstanding.
+ */
+final class CheckpointTracker {
+
+    private final TreeMap<Long, Long> inFlight = new TreeMap<>();
+    private long dispatchedEnd;
+    private long committed;
+
+    CheckpointTracker(long start) {
+        this.dispatchedEnd = start;
+        this.committed = start;
+    }
+
+    synchronized void dispatched(SourceRecord record) {
+        inFlight.put(record.getOffset(), record.getNextOffset());
+        dispatchedEnd = Math.max(dispatchedEnd, record.getNextOffset());
+    }
+
+    /**
+     * Returns true when the checkpoint moved
+     */
+    synchronized boolean committed(SourceRecord record) {
+        if (inFlight.remove(record.getOffset()) == null) {
+            return false;
+        }
+        long previous = committed;
+        committed = inFlight.isEmpty() ? dispatchedEnd : inFlight.firstKey();
+        return committed != previous;
+    }
+
+    synchronized long checkpoint() {
+        return committed;
+    }
+
+    synchronized int inFlight() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.TransactionConsumer.consumer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tails an NDJSON file, one transaction per line, like tail -F.
+ * The committed byte offset is kept in a ".checkpoint" file next to it,
+ * so a restart resumes at the first line that was not persisted.
+ */
+public class FileTailTransactionSource implements TransactionSource {
+
+    private static final int READ_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final Path checkpointFile;
+    private final long pollIntervalMs;
+    private final long checkpointIntervalMs;
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_SIZE);
+    private final ByteArrayOutputStream partialLine = new ByteArrayOutputStream();
+
+    private CheckpointTracker tracker;
+    private FileChannel channel;
+    private long readPosition;
+    private long lineStart;
+    private volatile long lastCheckpointWrite;
+    private long writtenCheckpoint = -1;
+
+    public FileTailTransactionSource(Path file, long pollIntervalMs, long checkpointIntervalMs) {
+        this.file = file;
+        this.checkpointFile = file.resolveSibling(file.getFileName() + ".checkpoint");
+        this.pollIntervalMs = Math.max(1, pollIntervalMs);
+        this.checkpointIntervalMs = checkpointIntervalMs;
+    }
+
+    @Override
+    public String getName() {
+        return "file:" + file;
+    }
+
+    @Override
+    public void open() throws IOException {
+        long start = 0;
+        if (Files.exists(checkpointFile)) {
+            start = Long.parseLong(Files.readString(checkpointFile, StandardCharsets.UTF_8).trim());
+        }
+        tracker = new CheckpointTracker(start);
+        readPosition = start;
+        lineStart = start;
+        writtenCheckpoint = start;
+        System.out.println("✅ Tailing " + file.toAbsolutePath() + " from offset " + start);
+    }
+
+    @Override
+    public List<SourceRecord> poll(int max, long timeout, TimeUnit unit) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        List<SourceRecord> records = new ArrayList<>(max);
+
+        while (true) {
+            readLines(records, max);
+            if (!records.isEmpty() || System.nanoTime() >= deadline) {
+                return records;
+            }
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            Thread.sleep(Math.max(1, Math.min(pollIntervalMs, remainingMs)));
+        }
+    }
+
+    private void readLines(List<SourceRecord> records, int max) throws IOException {
+        if (channel == null) {
+            if (!Files.exists(file)) {
+                return;
+            }
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+        }
+
+        if (channel.size() < readPosition) {
+            // truncated or replaced under us: start over from the top
+            System.err.println("⚠️ " + file + " shrank below offset " + readPosition + " → rereading from start");
+            partialLine.reset();
+            tracker = new CheckpointTracker(0);
+            readPosition = 0;
+            lineStart = 0;
+        }
+
+        while (records.size() < max) {
+            readBuffer.clear();
+            int read = channel.read(readBuffer, readPosition);
+            if (read <= 0) {
+                return;
+            }
+            readBuffer.flip();
+
+            int consumed = 0;
+            while (readBuffer.hasRemaining() && records.size() < max) {
+                byte b = readBuffer.get();
+                consumed++;
+                if (b != '\n') {
+                    partialLine.write(b);
+                    continue;
+                }
+                long lineEnd = readPosition + consumed;
+                SourceRecord record = new SourceRecord(lineStart, lineEnd, line());
+                lineStart = lineEnd;
+                tracker.dispatched(record);
+                if (record.getPayload().length == 0) {
+                    // blank line, nothing to deliver
+                    commit(record);
+                } else {
+                    records.add(record);
+                }
+            }
+            readPosition += consumed;
+        }
+    }
+
+    private byte[] line() {
+        byte[] bytes = partialLine.toByteArray();
+        partialLine.reset();
+        int length = bytes.length;
+        while (length > 0 && (bytes[length - 1] == '\r' || bytes[length - 1] == ' ')) {
+            length--;
+        }
+        if (length == bytes.length) {
+            return bytes;
+        }
+        byte[] trimmed = new byte[length];
+        System.arraycopy(bytes, 0, trimmed, 0, length);
+        return trimmed;
+    }
+
+    @Override
+    public void commit(SourceRecord record) {
+        if (tracker.committed(record)) {
+            long now = System.currentTimeMillis();
+            if (now - lastCheckpointWrite >= checkpointIntervalMs) {
+                lastCheckpointWrite = now;
+                writeCheckpoint();
+            }
+        }
+    }
+
+    @Override
+    public long getCommittedOffset() {
+        return tracker.checkpoint();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (tracker != null) {
+            writeCheckpoint();
+        }
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private synchronized void writeCheckpoint() {
+        long checkpoint = tracker.checkpoint();
+        if (checkpoint == writtenCheckpoint) {
+            return;
+        }
+        try {
+            Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+            Files.writeString(temp, Long.toString(checkpoint), StandardCharsets.UTF_8);
+            Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            writtenCheckpoint = checkpoint;
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not write checkpoint " + checkpointFile + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.TransactionConsumer.consumer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Pulls the partition key out of a raw payload with a streaming scan that
+ * stops at the key, so routing does not pay for a full parse.
+ * Only simple dotted paths are supported ($.transactionId, $.sender.email).
+ */
+final class PartitionKeyExtractor {
+
+    private final JsonFactory jsonFactory;
+    private final String[] path;
+
+    PartitionKeyExtractor(JsonFactory jsonFactory, String keyPath) {
+        this.jsonFactory = jsonFactory;
+        String trimmed = keyPath.startsWith("$.") ? keyPath.substring(2) : keyPath;
+        this.path = trimmed.split("\\.");
+        if (Arrays.stream(path).anyMatch(segment -> segment.isEmpty() || segment.contains("[") || segment.contains("*"))) {
+            throw new IllegalArgumentException("Partition key must be a simple dotted path: " + keyPath);
+        }
+    }
+
+    /**
+     * The key as text, or null when the payload has none or is not JSON
+     */
+    String extract(byte[] payload) {
+        try (JsonParser parser = jsonFactory.createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            return find(parser, 0);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private String find(JsonParser parser, int depth) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (!path[depth].equals(name)) {
+                parser.skipChildren();
+                continue;
+            }
+            if (depth == path.length - 1) {
+                return value.isScalarValue() && value != JsonToken.VALUE_NULL ? parser.getText() : null;
+            }
+            return value == JsonToken.START_OBJECT ? find(parser, depth + 1) : null;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.TransactionConsumer.consumer;
+
+import com.example.TransactionConsumer.config.ConsumerProperties;
+import com.example.TransactionConsumer.dto.ErrorResponse;
+import com.example.TransactionConsumer.exception.DuplicateTransactionException;
+import com.example.TransactionConsumer.parser.PayloadReader;
+import com.example.TransactionConsumer.service.TransactionService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.jayway.jsonpath.DocumentContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reads transactions from a {@link TransactionSource} and runs them through
+ * {@link TransactionService} on N partitions. Records with the same key
+ * always land on the same partition, which processes them one at a time in
+ * source order. A record is committed to the source only after
+ * processTransaction returns; a failed insert is retried in place so later
+ * records of the same key never overtake it.
+ */
+public class PartitionedConsumer {
+
+    private final TransactionSource source;
+    private final TransactionService transactionService;
+    private final PayloadReader payloadReader;
+    private final ConsumerProperties properties;
+    private final PartitionKeyExtractor keyExtractor;
+    private final List<BlockingQueue<SourceRecord>> partitions = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+
+    private volatile boolean running;
+
+    public PartitionedConsumer(TransactionSource source,
+                               TransactionService transactionService,
+                               PayloadReader payloadReader,
+                               JsonFactory jsonFactory,
+                               ConsumerProperties properties) {
+        this.source = source;
+        this.transactionService = transactionService;
+        this.payloadReader = payloadReader;
+        this.properties = properties;
+        this.keyExtractor = new PartitionKeyExtractor(jsonFactory, properties.getPartitionKey());
+
+        int count = properties.getPartitions() > 0
+                ? properties.getPartitions()
+                : Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < count; i++) {
+            partitions.add(new ArrayBlockingQueue<>(Math.max(1, properties.getPartitionQueueCapacity())));
+        }
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        source.open();
+        running = true;
+
+        for (int i = 0; i < partitions.size(); i++) {
+            BlockingQueue<SourceRecord> partition = partitions.get(i);
+            Thread worker = new Thread(() -> work(partition), "consumer-partition-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            threads.add(worker);
+        }
+        Thread poller = new Thread(this::poll, "consumer-poller");
+        poller.setDaemon(true);
+        poller.start();
+        threads.add(poller);
+
+        System.out.println("✅ Consuming from " + source.getName() + " on " + partitions.size()
+                + " partitions keyed by " + properties.getPartitionKey());
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        running = false;
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        // anything still queued was never committed and is redelivered by durable sources
+        source.close();
+    }
+
+    public int partitionCount() {
+        return partitions.size();
+    }
+
+    public long getProcessed() {
+        return processed.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getRetried() {
+        return retried.sum();
+    }
+
+    int partitionFor(SourceRecord record) {
+        String key = keyExtractor.extract(record.getPayload());
+        // no key, no ordering to keep: spread by offset
+        int hash = key != null ? key.hashCode() : Long.hashCode(record.getOffset());
+        return Math.floorMod(hash ^ (hash >>> 16), partitions.size());
+    }
+
+    private void poll() {
+        while (running) {
+            try {
+                for (SourceRecord record : source.poll(Math.max(1, properties.getPollBatchSize()), 100, TimeUnit.MILLISECONDS)) {
+                    // blocks when the partition is full, which stops polling the source
+                    partitions.get(partitionFor(record)).put(record);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                System.err.println("❌ Consumer poll failed on " + source.getName() + " → " + e.getMessage());
+                sleep(properties.getRetryBackoffMs());
+            }
+        }
+    }
+
+    private void work(BlockingQueue<SourceRecord> partition) {
+        while (running) {
+            SourceRecord record;
+            try {
+                record = partition.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            process(record);
+        }
+    }
+
+    void process(SourceRecord record) {
+        long backoff = properties.getRetryBackoffMs();
+        while (running) {
+            try {
+                DocumentContext document = payloadReader.read(record.getPayload());
+                transactionService.processTransaction(document, record.getPayload());
+                processed.increment();
+                source.commit(record);
+                return;
+            } catch (DuplicateTransactionException e) {
+                // already stored by an earlier delivery, retrying would block its key forever
+                processed.increment();
+                source.commit(record);
+                return;
+            } catch (ErrorResponse e) {
+                // will never succeed, committing keeps it from blocking its key
+                System.err.println("⚠️ Rejected record at offset " + record.getOffset() + " → " + e.getReason());
+                rejected.increment();
+                source.commit(record);
+                return;
+            } catch (RuntimeException e) {
+                System.err.println("❌ Record at offset " + record.getOffset() + " failed, retrying in "
+                        + backoff + " ms → " + e.getMessage());
+                retried.increment();
+                if (!sleep(backoff)) {
+                    return;
+                }
+                backoff = Math.min(properties.getMaxRetryBackoffMs(), backoff * 2);
+            }
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.TransactionConsumer.consumer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded in-memory queue for producers in the same JVM.
+ * Offsets are assigned on publish and nothing survives a restart.
+ */
+public class QueueTransactionSource implements TransactionSource {
+
+    private final BlockingQueue<SourceRecord> queue;
+    private final AtomicLong nextOffset = new AtomicLong();
+    private final CheckpointTracker tracker = new CheckpointTracker(0);
+
+    public QueueTransactionSource(int capacity) {
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, capacity));
+    }
+
+    @Override
+    public String getName() {
+        return "queue";
+    }
+
+    @Override
+    public void open() {
+    }
+
+    /**
+     * Enqueue a payload, waiting up to timeout for room. Returns false when the queue stayed full.
+     */
+    public boolean publish(byte[] payload, long timeout, TimeUnit unit) throws InterruptedException {
+        synchronized (nextOffset) {
+            long offset = nextOffset.get();
+            if (!queue.offer(new SourceRecord(offset, offset + 1, payload), timeout, unit)) {
+                return false;
+            }
+            nextOffset.incrementAndGet();
+            return true;
+        }
+    }
+
+    @Override
+    public List<SourceRecord> poll(int max, long timeout, TimeUnit unit) throws InterruptedException {
+        List<SourceRecord> records = new ArrayList<>(max);
+        SourceRecord first = queue.poll(timeout, unit);
+        if (first != null) {
+            records.add(first);
+            queue.drainTo(records, max - 1);
+        }
+        for (SourceRecord record : records) {
+            tracker.dispatched(record);
+        }
+        return records;
+    }
+
+    @Override
+    public void commit(SourceRecord record) {
+        tracker.committed(record);
+    }
+
+    @Override
+    public long getCommittedOffset() {
+        return tracker.checkpoint();
+    }
+
+    public int getDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public void close() {
+    }
+}
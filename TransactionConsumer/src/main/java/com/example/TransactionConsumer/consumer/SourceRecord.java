@@ -0,0 +1,14 @@
+package com.example.TransactionConsumer.consumer;
+
+import lombok.Value;
+
+/**
+ * One transaction payload read from a {@link TransactionSource}.
+ * nextOffset is where the source resumes once this record is committed.
+ */
+@Value
+public class SourceRecord {
+    long offset;
+    long nextOffset;
+    byte[] payload;
+}
@@ -0,0 +1,33 @@
+package com.example.TransactionConsumer.consumer;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Where the partitioned consumer reads transactions from.
+ * Records are committed individually and in any order; the source only
+ * checkpoints up to the oldest record that is still uncommitted, so
+ * everything after it is delivered again after a restart.
+ */
+public interface TransactionSource extends AutoCloseable {
+
+    String getName();
+
+    void open() throws IOException;
+
+    /**
+     * Wait up to timeout for records, then return at most max of them
+     */
+    List<SourceRecord> poll(int max, long timeout, TimeUnit unit) throws IOException, InterruptedException;
+
+    /**
+     * The record was persisted (or can never be) and need not be delivered again
+     */
+    void commit(SourceRecord record);
+
+    long getCommittedOffset();
+
+    @Override
+    void close() throws IOException;
+}
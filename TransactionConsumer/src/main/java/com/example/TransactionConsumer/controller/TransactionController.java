@@ -1,36 +1,217 @@
 package com.example.TransactionConsumer.controller;
 
+import com.example.TransactionConsumer.admission.AdaptiveConcurrencyLimiter;
+import com.example.TransactionConsumer.dto.ChangeBatch;
+import com.example.TransactionConsumer.dto.SearchCursor;
+import com.example.TransactionConsumer.dto.TransactionSearchCriteria;
+import com.example.TransactionConsumer.dto.TransactionView;
+import com.example.TransactionConsumer.dto.Watermark;
+import com.example.TransactionConsumer.export.ExportJob;
+import com.example.TransactionConsumer.export.ExportService;
+import com.example.TransactionConsumer.parser.PayloadReader;
+import com.example.TransactionConsumer.service.AsyncIngestionService;
+import com.example.TransactionConsumer.service.BatchIngestionService;
+import com.example.TransactionConsumer.service.ChangeFeedService;
+import com.example.TransactionConsumer.service.StagedPipeline;
+import com.example.TransactionConsumer.service.TransactionSearchService;
 import com.example.TransactionConsumer.service.TransactionService;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.TransactionConsumer.wal.WalEntry;
+import com.example.TransactionConsumer.wal.WalEntryState;
+import com.jayway.jsonpath.DocumentContext;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/transactions")
 public class TransactionController {
 
     private final TransactionService service;
-    private final ObjectMapper objectMapper;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final BatchIngestionService batchService;
+    private final AsyncIngestionService asyncService;
+    private final StagedPipeline pipeline;
+    private final PayloadReader payloadReader;
+    private final TransactionSearchService searchService;
+    private final ChangeFeedService changeFeed;
+    private final ExportService exportService;
 
-    public TransactionController(TransactionService service, ObjectMapper objectMapper) {
+    public TransactionController(TransactionService service,
+                                 AdaptiveConcurrencyLimiter limiter,
+                                 BatchIngestionService batchService,
+                                 AsyncIngestionService asyncService,
+                                 StagedPipeline pipeline,
+                                 PayloadReader payloadReader,
+                                 TransactionSearchService searchService,
+                                 ChangeFeedService changeFeed,
+                                 ExportService exportService) {
         this.service = service;
-        this.objectMapper = objectMapper;
+        this.limiter = limiter;
+        this.batchService = batchService;
+        this.asyncService = asyncService;
+        this.pipeline = pipeline;
+        this.payloadReader = payloadReader;
+        this.searchService = searchService;
+        this.changeFeed = changeFeed;
+        this.exportService = exportService;
     }
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<String> create(@RequestBody Map<String, Object> payload)
-            throws JsonProcessingException {
+    public ResponseEntity<Object> create(InputStream body, HttpServletRequest request) throws IOException {
 
-        String json = objectMapper.writeValueAsString(payload);
-        service.processTransaction(json);
+        // Shed with 429 before reading the body when the adaptive limit or the in-flight byte cap is reached,
+        // whichever mode takes the transaction
+        try (AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire(request.getContentLengthLong())) {
+            ResponseEntity<Object> response = accept(body);
+            permit.success();
+            return response;
+        }
+    }
+
+    private ResponseEntity<Object> accept(InputStream body) throws IOException {
+
+        if (asyncService.isEnabled()) {
+            // Validated and in the write-ahead log, persisted in the background
+            long trackingId = asyncService.accept(body);
+            return ResponseEntity
+                    .status(HttpStatus.ACCEPTED)
+                    .location(URI.create("/api/transactions/" + trackingId + "/status"))
+                    .body(Map.of("trackingId", String.valueOf(trackingId), "status", WalEntryState.PENDING.name()));
+        }
+
+        if (pipeline.isEnabled()) {
+            // Parse, map and persist on their own pools, 503 when a stage is saturated
+            pipeline.process(body.readAllBytes());
+            return ResponseEntity
+                    .status(HttpStatus.CREATED)
+                    .body("Transaction Created Successfully");
+        }
+
+        if (payloadReader.isStreaming()) {
+            // The pruned document is no payload to spool to the write-ahead log, keep the body for that
+            service.processTransaction(body.readAllBytes());
+        } else {
+            // Parse straight from the request stream, no Map binding and String round-trip
+            DocumentContext document = payloadReader.read(body);
+            service.processTransaction(document);
+        }
 
         return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .body("Transaction Created Successfully");
     }
+
+    @PostMapping(
+            path = "/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public ResponseEntity<StreamingResponseBody> createBatch(InputStream body) {
+
+        // One result line per item, written while the rest of the body is still being read
+        StreamingResponseBody results = out -> batchService.process(body, out);
+
+        return ResponseEntity
+                .ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(results);
+    }
+
+    @GetMapping(path = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> search(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String origInstNam,
+            @RequestParam(required = false) String tranType,
+            @RequestParam(required = false) String curStat,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "0") int limit) {
+
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria(from, to, origInstNam, tranType, curStat,
+                cursor == null ? null : SearchCursor.decode(cursor), limit);
+        searchService.validate(criteria);
+
+        // Keyset pages written out as they are read, chunked, constant memory however many rows match
+        StreamingResponseBody results = out -> searchService.search(criteria, out);
+
+        return ResponseEntity
+                .ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(results);
+    }
+
+    @GetMapping(path = "/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ChangeBatch> changes(
+            @RequestParam(required = false) String watermark,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "0") int waitSeconds) {
+
+        // Long-poll: with nothing new the request is parked until changes arrive or waitSeconds pass
+        return changeFeed.next(watermark == null ? null : Watermark.decode(watermark), size, waitSeconds);
+    }
+
+    @PostMapping("/exports")
+    public ResponseEntity<ExportJob> export(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        // Queued behind any running export, the same day twice returns the job already under way
+        ExportJob job = exportService.submit(date);
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/transactions/exports/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/exports/{jobId}")
+    public ResponseEntity<ExportJob> exportStatus(@PathVariable String jobId) {
+
+        return exportService.get(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{tranId}")
+    public ResponseEntity<TransactionView> get(@PathVariable String tranId) {
+
+        // Served from the read cache when the transaction was just written or read
+        return service.find(tranId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{trackingId}/status")
+    public ResponseEntity<Map<String, Object>> status(@PathVariable String trackingId) {
+
+        Optional<WalEntry> entry;
+        try {
+            entry = asyncService.status(Long.parseLong(trackingId));
+        } catch (NumberFormatException ex) {
+            entry = Optional.empty();
+        }
+
+        if (entry.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("trackingId", trackingId);
+        body.put("status", entry.get().getState().name());
+        if (entry.get().getError() != null) {
+            body.put("error", entry.get().getError());
+        }
+        return ResponseEntity.ok(body);
+    }
 }
@@ -0,0 +1,33 @@
+package com.example.TransactionConsumer.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Value;
+
+/**
+ * Outcome of one item of a batch upload, streamed back as one NDJSON line
+ */
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+
+    public static final String CREATED = "CREATED";
+    public static final String REJECTED = "REJECTED";
+    public static final String FAILED = "FAILED";
+
+    int index;
+    String transactionId;
+    String status;
+    String error;
+
+    public static BatchItemResult created(int index, String transactionId) {
+        return new BatchItemResult(index, transactionId, CREATED, null);
+    }
+
+    public static BatchItemResult rejected(int index, String transactionId, String error) {
+        return new BatchItemResult(index, transactionId, REJECTED, error);
+    }
+
+    public static BatchItemResult failed(int index, String transactionId, String error) {
+        return new BatchItemResult(index, transactionId, FAILED, error);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.TransactionConsumer.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Changed transactions in watermark order and the watermark to ask from next.
+ * With no changes the watermark is the one asked with, null before the first change.
+ */
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeBatch {
+
+    List<TransactionView> changes;
+    @JsonIgnore
+    Watermark next;
+
+    @JsonProperty("watermark")
+    public String getEncodedWatermark() {
+        return next == null ? null : next.encode();
+    }
+
+    public static ChangeBatch empty(Watermark after) {
+        return new ChangeBatch(List.of(), after);
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+}
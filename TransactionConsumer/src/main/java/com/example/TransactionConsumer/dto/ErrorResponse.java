@@ -8,4 +8,12 @@ public class ErrorResponse extends ResponseStatusException {
     public ErrorResponse(String message) {
         super(HttpStatus.BAD_REQUEST, message);
     }
-}
\ No newline at end of file
+
+    /**
+     * A 400 is the client's problem, the stack trace is never read and is costly to build
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.TransactionConsumer.dto;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a search: the (TRAN_CRTE_DT, TRAN_ID) of the last row returned.
+ * Clients get it back as an opaque string and pass it to continue after that row.
+ */
+@Value
+public class SearchCursor {
+
+    LocalDateTime createdAt;
+    String tranId;
+
+    public String encode() {
+        String key = createdAt + "|" + tranId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchCursor decode(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = key.indexOf('|');
+            if (separator < 0) {
+                throw new ErrorResponse("Invalid cursor");
+            }
+            return new SearchCursor(LocalDateTime.parse(key.substring(0, separator)), key.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ErrorResponse("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.TransactionConsumer.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filters of a SEND_TRANSACTIONS search. from is inclusive, to exclusive;
+ * null filters match everything.
+ */
+@Value
+public class TransactionSearchCriteria {
+
+    LocalDateTime from;
+    LocalDateTime to;
+    String origInstNam;
+    String tranType;
+    String curStat;
+    // continue after this row, null for the first page
+    SearchCursor after;
+    // rows to return, 0 = every match
+    int limit;
+}
@@ -0,0 +1,20 @@
+package com.example.TransactionConsumer.dto;
+
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One transaction as stored: the SEND_* rows keyed by column name,
+ * answered by GET /api/transactions/{tranId}
+ */
+@Value
+public class TransactionView {
+
+    String transactionId;
+    Map<String, Object> transaction;
+    Map<String, Object> detail;
+    Map<String, Object> party;
+    List<Map<String, Object>> addresses;
+}
@@ -0,0 +1,37 @@
+package com.example.TransactionConsumer.dto;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Change-feed position: the (RPLCTN_UPDT_TS, TRAN_ID) of the last change
+ * delivered. Handed to clients as an opaque string.
+ */
+@Value
+public class Watermark {
+
+    LocalDateTime updatedAt;
+    String tranId;
+
+    public String encode() {
+        String key = updatedAt + "|" + tranId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Watermark decode(String watermark) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(watermark), StandardCharsets.UTF_8);
+            int separator = key.indexOf('|');
+            if (separator < 0) {
+                throw new ErrorResponse("Invalid watermark");
+            }
+            return new Watermark(LocalDateTime.parse(key.substring(0, separator)), key.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ErrorResponse("Invalid watermark");
+        }
+    }
+}
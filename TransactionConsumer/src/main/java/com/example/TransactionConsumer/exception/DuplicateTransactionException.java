@@ -0,0 +1,14 @@
+package com.example.TransactionConsumer.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * The transactionId was already persisted by an earlier request
+ */
+public class DuplicateTransactionException extends ResponseStatusException {
+
+    public DuplicateTransactionException(String transactionId) {
+        super(HttpStatus.CONFLICT, "Duplicate transactionId " + transactionId);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.TransactionConsumer.exception;
 
 import com.example.TransactionConsumer.dto.ErrorResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -20,6 +21,14 @@ public class GlobalExceptionHandler {
                 .body(Map.of("error", ex.getReason()));
     }
 
+    // Every violation found in the payload, listed in one response
+    @ExceptionHandler(ValidationFailedException.class)
+    public ResponseEntity<Map<String, Object>> handleValidationFailed(ValidationFailedException ex) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", ex.getReason(), "violations", ex.getViolations()));
+    }
+
     // Malformed JSON
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<Map<String, String>> handleMalformedJson() {
@@ -27,4 +36,30 @@ public class GlobalExceptionHandler {
                 .status(HttpStatus.BAD_REQUEST)
                 .body(Map.of("error", "Malformed JSON request"));
     }
+
+    // Backpressure: a pipeline queue is full, tell the client when to come back
+    @ExceptionHandler(PipelineSaturatedException.class)
+    public ResponseEntity<Map<String, String>> handlePipelineSaturated(PipelineSaturatedException ex) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of("error", ex.getReason()));
+    }
+
+    // Load shedding: over the adaptive concurrency limit or the in-flight byte cap
+    @ExceptionHandler(LoadSheddingException.class)
+    public ResponseEntity<Map<String, String>> handleLoadShedding(LoadSheddingException ex) {
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of("error", ex.getReason()));
+    }
+
+    // Already persisted, only when txn.idempotency.reject-duplicates=true
+    @ExceptionHandler(DuplicateTransactionException.class)
+    public ResponseEntity<Map<String, String>> handleDuplicate(DuplicateTransactionException ex) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(Map.of("error", ex.getReason()));
+    }
 }
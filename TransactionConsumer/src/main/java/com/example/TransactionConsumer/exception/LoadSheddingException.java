@@ -0,0 +1,35 @@
+package com.example.TransactionConsumer.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * The adaptive concurrency limit or the in-flight byte cap is reached; the request is shed
+ */
+public class LoadSheddingException extends ResponseStatusException {
+
+    private final String limit;
+    private final int retryAfterSeconds;
+
+    public LoadSheddingException(String limit, int retryAfterSeconds) {
+        super(HttpStatus.TOO_MANY_REQUESTS, "Over the " + limit + " limit, retry later");
+        this.limit = limit;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public String getLimit() {
+        return limit;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * Thrown most when the service is busiest, so skip building the stack trace
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.TransactionConsumer.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * A pipeline stage queue is full; the request is shed instead of queued
+ */
+public class PipelineSaturatedException extends ResponseStatusException {
+
+    private final String stage;
+    private final int retryAfterSeconds;
+
+    public PipelineSaturatedException(String stage, int retryAfterSeconds) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "Pipeline stage '" + stage + "' is saturated");
+        this.stage = stage;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.TransactionConsumer.exception;
+
+import com.example.TransactionConsumer.dto.ErrorResponse;
+import com.example.TransactionConsumer.validator.ValidationResult;
+import com.example.TransactionConsumer.validator.Violation;
+
+import java.util.List;
+
+/**
+ * Thrown once per rejected payload, carrying every violation found.
+ * Still an ErrorResponse, so batch and consumer paths that reject on
+ * ErrorResponse keep working and read the joined messages as the reason.
+ */
+public class ValidationFailedException extends ErrorResponse {
+
+    private final List<Violation> violations;
+
+    public ValidationFailedException(ValidationResult result) {
+        super(result.summary());
+        this.violations = result.getViolations();
+    }
+
+    public List<Violation> getViolations() {
+        return violations;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.TransactionConsumer.export;
+
+import org.springframework.jdbc.support.JdbcUtils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * RFC 4180 lines straight from a ResultSet, nothing kept between rows
+ */
+final class CsvWriter {
+
+    private CsvWriter() {
+    }
+
+    static String header(ResultSetMetaData metaData) throws SQLException {
+        StringBuilder header = new StringBuilder();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (i > 1) {
+                header.append(',');
+            }
+            header.append(escape(metaData.getColumnLabel(i)));
+        }
+        return header.append("\r\n").toString();
+    }
+
+    static void writeRow(Writer out, ResultSet rs, int columnCount) throws SQLException, IOException {
+        for (int i = 1; i <= columnCount; i++) {
+            if (i > 1) {
+                out.write(',');
+            }
+            // normalizes driver types such as oracle.sql.TIMESTAMP
+            Object value = JdbcUtils.getResultSetValue(rs, i);
+            if (value != null) {
+                out.write(escape(format(value)));
+            }
+        }
+        out.write("\r\n");
+    }
+
+    private static String format(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        return value.toString();
+    }
+
+    private static String escape(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.TransactionConsumer.export;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One day's export and its progress, updated by the workers and read by
+ * GET /api/transactions/exports/{jobId}. A part is one table of one TRAN_ID range.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public final class ExportJob {
+
+    private final String id;
+    private final LocalDate date;
+    private final Instant submittedAt = Instant.now();
+    private final Map<String, LongAdder> rows = new LinkedHashMap<>();
+    private final AtomicInteger partsDone = new AtomicInteger();
+    private final List<String> files = new CopyOnWriteArrayList<>();
+
+    private volatile ExportJobState state = ExportJobState.QUEUED;
+    private volatile int partsTotal;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    ExportJob(String id, LocalDate date, List<String> tables) {
+        this.id = id;
+        this.date = date;
+        for (String table : tables) {
+            rows.put(table, new LongAdder());
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public ExportJobState getState() {
+        return state;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public int getPartsTotal() {
+        return partsTotal;
+    }
+
+    public int getPartsDone() {
+        return partsDone.get();
+    }
+
+    /**
+     * Rows written so far per table
+     */
+    public Map<String, Long> getRows() {
+        Map<String, Long> written = new LinkedHashMap<>();
+        rows.forEach((table, count) -> written.put(table, count.sum()));
+        return written;
+    }
+
+    public List<String> getFiles() {
+        return files;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @JsonIgnore
+    public boolean isActive() {
+        return state == ExportJobState.QUEUED || state == ExportJobState.RUNNING;
+    }
+
+    /**
+     * Set once the first part fails, the other parts stop at their next check
+     */
+    boolean isAborted() {
+        return error != null;
+    }
+
+    void started(int partsTotal) {
+        this.partsTotal = partsTotal;
+        this.startedAt = Instant.now();
+        this.state = ExportJobState.RUNNING;
+    }
+
+    void rowsWritten(String table, long count) {
+        rows.get(table).add(count);
+    }
+
+    void partDone() {
+        partsDone.incrementAndGet();
+    }
+
+    void fileWritten(String file) {
+        files.add(file);
+    }
+
+    synchronized void abort(String error) {
+        if (this.error == null) {
+            this.error = error;
+        }
+    }
+
+    void finished() {
+        this.finishedAt = Instant.now();
+        this.state = error == null ? ExportJobState.COMPLETED : ExportJobState.FAILED;
+    }
+}
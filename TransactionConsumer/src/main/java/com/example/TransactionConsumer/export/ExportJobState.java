@@ -0,0 +1,8 @@
+package com.example.TransactionConsumer.export;
+
+public enum ExportJobState {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
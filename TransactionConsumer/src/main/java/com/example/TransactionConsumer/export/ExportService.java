@@ -0,0 +1,405 @@
+package com.example.TransactionConsumer.export;
+
+import com.example.TransactionConsumer.config.ExportProperties;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import com.example.TransactionConsumer.repository.TransactionShards;
+import jakarta.annotation.PreDestroy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * End-of-day export of the SEND_* tables to gzipped CSV, one file per table
+ * under directory/yyyy-MM-dd. The day's TRAN_IDs are cut into as many ranges
+ * as there are workers (per shard when sharded); each range is read through
+ * forward-only cursors and written to its own gzip part, so memory stays at
+ * one fetch per worker. The parts are then appended behind a header: a
+ * concatenation of gzip members is itself a valid gzip file, so merging
+ * needs no recompression. Jobs run one at a time, queued behind each other.
+ * Ranges end at the day's highest TRAN_ID when the job starts, and each range
+ * reads its four tables in one read-only serializable transaction, so a
+ * transaction committed while the export runs is in every file or in none.
+ */
+@Service
+public class ExportService {
+
+    static final List<String> TABLES = List.of(
+            "SEND_TRANSACTIONS", "SEND_TRAN_DTL", "SEND_RECIP_DTL", "SEND_TRAN_ADDR_DTL");
+
+    // rows between checks for a failed sibling part
+    private static final int ABORT_CHECK_ROWS = 1000;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final ExportProperties properties;
+    private final TransactionMetrics metrics;
+    private final List<Source> sources;
+    private final Map<String, ExportJob> jobs;
+    private final Map<LocalDate, ExportJob> activeByDate = new ConcurrentHashMap<>();
+    private final ExecutorService jobRunner;
+    private final ExecutorService workers;
+
+    public ExportService(JdbcTemplate jdbc, TransactionShards shards, ExportProperties properties,
+                         TransactionMetrics metrics) {
+        this.properties = properties;
+        this.metrics = metrics;
+
+        List<Source> sources = new ArrayList<>();
+        if (shards.isEnabled()) {
+            for (TransactionShards.Shard shard : shards.getShards()) {
+                sources.add(source(shard.getDataSource()));
+            }
+        } else {
+            sources.add(source(jdbc.getDataSource()));
+        }
+        this.sources = List.copyOf(sources);
+
+        int retained = Math.max(1, properties.getRetainedJobs());
+        this.jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ExportJob> eldest) {
+                return size() > retained;
+            }
+        });
+        this.jobRunner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "export-job");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger workerIds = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, properties.getWorkers()), runnable -> {
+            Thread thread = new Thread(runnable, "export-worker-" + workerIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobRunner.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Queue an export of the day, or return the one already queued or running for it
+     */
+    public ExportJob submit(LocalDate date) {
+        synchronized (activeByDate) {
+            ExportJob active = activeByDate.get(date);
+            if (active != null) {
+                return active;
+            }
+            ExportJob job = new ExportJob(UUID.randomUUID().toString(), date, TABLES);
+            jobs.put(job.getId(), job);
+            activeByDate.put(date, job);
+            jobRunner.execute(() -> run(job));
+            return job;
+        }
+    }
+
+    public Optional<ExportJob> get(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    void run(ExportJob job) {
+        long start = System.nanoTime();
+        Path directory = Paths.get(properties.getDirectory()).resolve(job.getDate().toString());
+        Path parts = directory.resolve(".parts-" + job.getId());
+        try {
+            Files.createDirectories(parts);
+            List<Range> ranges = plan(job.getDate());
+            job.started(ranges.size() * TABLES.size());
+            System.out.println("✅ Export " + job.getId() + " of " + job.getDate() + " started, "
+                    + ranges.size() + " TRAN_ID ranges");
+
+            Map<String, String> headers = new ConcurrentHashMap<>();
+            List<CompletableFuture<Void>> running = new ArrayList<>(ranges.size());
+            for (Range range : ranges) {
+                running.add(CompletableFuture.runAsync(() -> export(job, range, parts, headers), workers));
+            }
+            try {
+                CompletableFuture.allOf(running.toArray(new CompletableFuture[0])).join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                job.abort(cause.getMessage() != null ? cause.getMessage() : cause.toString());
+            }
+
+            if (!job.isAborted()) {
+                for (String table : TABLES) {
+                    job.fileWritten(merge(directory, parts, table, headers.get(table), ranges).toString());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            job.abort(e.getMessage() != null ? e.getMessage() : e.toString());
+        } finally {
+            deleteQuietly(parts);
+            job.finished();
+            activeByDate.remove(job.getDate(), job);
+            metrics.recordExport(job.getState().name().toLowerCase(), start);
+        }
+
+        if (job.getState() == ExportJobState.COMPLETED) {
+            System.out.println("✅ Export " + job.getId() + " of " + job.getDate() + " written: " + job.getRows());
+        } else {
+            System.err.println("❌ Export " + job.getId() + " of " + job.getDate() + " failed: " + job.getError());
+        }
+    }
+
+    /**
+     * Split each source's TRAN_IDs of the day into up to workers ranges of
+     * about equal size. The last range ends at the highest TRAN_ID now, so
+     * sequential ids that arrive while the export runs are left out rather
+     * than read by some tables and not others. A source without rows gets
+     * one empty range, still read for the column headers.
+     */
+    private List<Range> plan(LocalDate date) {
+        int buckets = Math.max(1, properties.getWorkers());
+        List<Range> ranges = new ArrayList<>();
+        for (Source source : sources) {
+            List<String> bounds = source.jdbc.queryForList(
+                    "SELECT MAX(TRAN_ID) FROM (SELECT TRAN_ID, NTILE(" + buckets + ") OVER (ORDER BY TRAN_ID) AS BUCKET"
+                            + " FROM SEND_TRANSACTIONS WHERE TRAN_CRTE_DT >= ? AND TRAN_CRTE_DT < ?)"
+                            + " GROUP BY BUCKET ORDER BY BUCKET",
+                    String.class, from(date), to(date));
+            if (bounds.isEmpty()) {
+                ranges.add(new Range(ranges.size(), source, date, null, null));
+                continue;
+            }
+            String lower = null;
+            for (String upper : bounds) {
+                ranges.add(new Range(ranges.size(), source, date, lower, upper));
+                lower = upper;
+            }
+        }
+        return ranges;
+    }
+
+    private void export(ExportJob job, Range range, Path parts, Map<String, String> headers) {
+        try {
+            // one snapshot for all four tables of the range
+            range.source.snapshot.executeWithoutResult(status -> {
+                for (String table : TABLES) {
+                    if (job.isAborted()) {
+                        return;
+                    }
+                    exportTable(job, range, table, parts, headers);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            job.abort(e.getCause().toString());
+            throw e;
+        } catch (RuntimeException e) {
+            job.abort(e.getMessage() != null ? e.getMessage() : e.toString());
+            throw e;
+        }
+    }
+
+    private void exportTable(ExportJob job, Range range, String table, Path parts, Map<String, String> headers) {
+        Path part = parts.resolve(table + "-" + range.index + ".csv.gz");
+        try (Writer out = gzip(part)) {
+            long written = range.source.jdbc.query(range.sql(table), (ResultSet rs) -> {
+                headers.putIfAbsent(table, CsvWriter.header(rs.getMetaData()));
+                return copy(job, table, rs, out);
+            }, range.args());
+            metrics.exportRows(table, written);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        job.partDone();
+    }
+
+    private static long copy(ExportJob job, String table, ResultSet rs, Writer out) throws SQLException {
+        int columnCount = rs.getMetaData().getColumnCount();
+        long written = 0;
+        long reported = 0;
+        try {
+            while (rs.next()) {
+                CsvWriter.writeRow(out, rs, columnCount);
+                if (++written % ABORT_CHECK_ROWS == 0) {
+                    job.rowsWritten(table, written - reported);
+                    reported = written;
+                    if (job.isAborted()) {
+                        throw new IllegalStateException("Export aborted");
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        job.rowsWritten(table, written - reported);
+        return written;
+    }
+
+    /**
+     * Header member, then every range's part in range order, then an atomic rename
+     */
+    private static Path merge(Path directory, Path parts, String table, String header, List<Range> ranges)
+            throws IOException {
+        Path target = directory.resolve(table + ".csv.gz");
+        Path temporary = directory.resolve(table + ".csv.gz.tmp");
+        try (OutputStream out = Files.newOutputStream(temporary)) {
+            if (header != null) {
+                try (Writer headerOut = new OutputStreamWriter(new GZIPOutputStream(new NonClosing(out)),
+                        StandardCharsets.UTF_8)) {
+                    headerOut.write(header);
+                }
+            }
+            for (Range range : ranges) {
+                Files.copy(parts.resolve(table + "-" + range.index + ".csv.gz"), out);
+            }
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return target;
+    }
+
+    private static Writer gzip(Path part) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(part), BUFFER_BYTES), StandardCharsets.UTF_8), BUFFER_BYTES);
+    }
+
+    private static void deleteQuietly(Path directory) {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    System.err.println("⚠️ Could not delete export part " + path + ": " + e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not clean up " + directory + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Forward-only, read-only cursors fetching fetchSize rows per round trip,
+     * inside read-only serializable transactions on the same data source
+     */
+    private Source source(DataSource dataSource) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.setFetchSize(properties.getFetchSize());
+        TransactionTemplate snapshot = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        snapshot.setReadOnly(true);
+        return new Source(jdbc, snapshot);
+    }
+
+    private static Timestamp from(LocalDate date) {
+        return Timestamp.valueOf(date.atStartOfDay());
+    }
+
+    private static Timestamp to(LocalDate date) {
+        return Timestamp.valueOf(date.plusDays(1).atStartOfDay());
+    }
+
+    private static final class Source {
+
+        private final JdbcTemplate jdbc;
+        private final TransactionTemplate snapshot;
+
+        private Source(JdbcTemplate jdbc, TransactionTemplate snapshot) {
+            this.jdbc = jdbc;
+            this.snapshot = snapshot;
+        }
+    }
+
+    /**
+     * TRAN_IDs of the day in (lower, upper] on one source, from the first when
+     * lower is null, none at all when upper is null
+     */
+    private static final class Range {
+
+        private final int index;
+        private final Source source;
+        private final LocalDate date;
+        private final String lower;
+        private final String upper;
+
+        private Range(int index, Source source, LocalDate date, String lower, String upper) {
+            this.index = index;
+            this.source = source;
+            this.date = date;
+            this.lower = lower;
+            this.upper = upper;
+        }
+
+        private String sql(String table) {
+            String transactions = "SEND_TRANSACTIONS WHERE TRAN_CRTE_DT >= ? AND TRAN_CRTE_DT < ?"
+                    + (lower != null ? " AND TRAN_ID > ?" : "")
+                    + (upper != null ? " AND TRAN_ID <= ?" : " AND 1 = 0");
+            if (table.equals("SEND_TRANSACTIONS")) {
+                return "SELECT * FROM " + transactions;
+            }
+            return "SELECT * FROM " + table + " WHERE TRAN_ID IN (SELECT TRAN_ID FROM " + transactions + ")";
+        }
+
+        private Object[] args() {
+            List<Object> args = new ArrayList<>(List.of(from(date), to(date)));
+            if (lower != null) {
+                args.add(lower);
+            }
+            if (upper != null) {
+                args.add(upper);
+            }
+            return args.toArray();
+        }
+    }
+
+    /**
+     * Lets the header's gzip stream finish without closing the merged file
+     */
+    private static final class NonClosing extends FilterOutputStream {
+
+        private NonClosing(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.TransactionConsumer.id;
+
+/**
+ * Produces the value of a mapping with source "generated". Implementations
+ * are shared by every request thread and must be thread-safe.
+ */
+public interface IdGenerator {
+
+    String getName();
+
+    Object nextId();
+}
@@ -0,0 +1,68 @@
+package com.example.TransactionConsumer.id;
+
+import com.example.TransactionConsumer.config.FieldMapping;
+import com.example.TransactionConsumer.config.IdProperties;
+import com.example.TransactionConsumer.config.PersistenceProperties;
+import com.example.TransactionConsumer.repository.sql.SqlDialect;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the generator a "generated" mapping asks for. Sequence allocators
+ * are kept per sequence and block size, so a mapping plan rebuilt on refresh
+ * keeps drawing from the block it already reserved.
+ */
+@Component
+public class IdGenerators {
+
+    private final JdbcTemplate jdbc;
+    private final SqlDialect dialect;
+    private final IdProperties properties;
+    private final IdGenerator uuid = new RandomUuidGenerator();
+    private final IdGenerator uuidV7 = new UuidV7Generator();
+    private final Map<String, SequenceBlockAllocator> sequences = new ConcurrentHashMap<>();
+
+    public IdGenerators(JdbcTemplate jdbc, PersistenceProperties persistence, IdProperties properties) {
+        this.jdbc = jdbc;
+        this.dialect = SqlDialect.forName(persistence.getDialect());
+        this.properties = properties;
+    }
+
+    /**
+     * UUID generators only, for plans compiled outside the application context
+     */
+    public static IdGenerators withoutDatabase() {
+        return new IdGenerators(null, new PersistenceProperties(), new IdProperties());
+    }
+
+    public IdGenerator forMapping(FieldMapping mapping) {
+        String name = mapping.getGenerator() != null ? mapping.getGenerator() : properties.getDefaultGenerator();
+        if (name == null || RandomUuidGenerator.NAME.equalsIgnoreCase(name)) {
+            return uuid;
+        }
+        if (UuidV7Generator.NAME.equalsIgnoreCase(name)) {
+            return uuidV7;
+        }
+        if (SequenceBlockAllocator.NAME.equalsIgnoreCase(name)) {
+            return sequence(mapping);
+        }
+        throw new IllegalArgumentException("Unknown generator: " + name);
+    }
+
+    public Collection<SequenceBlockAllocator> getSequenceAllocators() {
+        return sequences.values();
+    }
+
+    private IdGenerator sequence(FieldMapping mapping) {
+        if (jdbc == null) {
+            throw new IllegalStateException("Sequence generator needs a database");
+        }
+        int blockSize = mapping.getBlockSize() != null ? mapping.getBlockSize() : properties.getSequenceBlockSize();
+        return sequences.computeIfAbsent(mapping.getSequence() + '|' + blockSize,
+                key -> new SequenceBlockAllocator(jdbc, dialect, mapping.getSequence(), blockSize));
+    }
+}
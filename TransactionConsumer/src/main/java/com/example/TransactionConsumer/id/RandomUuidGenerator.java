@@ -0,0 +1,22 @@
+package com.example.TransactionConsumer.id;
+
+import java.util.UUID;
+
+/**
+ * Random version 4 UUID, the original behaviour. Draws on the shared
+ * SecureRandom and scatters inserts across the whole primary-key index.
+ */
+public final class RandomUuidGenerator implements IdGenerator {
+
+    public static final String NAME = "uuid";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Object nextId() {
+        return UUID.randomUUID().toString();
+    }
+}
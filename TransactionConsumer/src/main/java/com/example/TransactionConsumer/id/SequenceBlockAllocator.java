@@ -0,0 +1,145 @@
+package com.example.TransactionConsumer.id;
+
+import com.example.TransactionConsumer.repository.sql.SqlDialect;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Numeric ids from a database sequence, blockSize at a time. The sequence
+ * must be created with INCREMENT BY blockSize: one NEXTVAL reserves
+ * [value, value + blockSize) and ids are handed out from memory until the
+ * block is used up. The next block is fetched in the background once half
+ * of the current one is gone, so requests rarely wait on the round trip.
+ */
+public final class SequenceBlockAllocator implements IdGenerator {
+
+    public static final String NAME = "sequence";
+
+    // the name is concatenated into SQL, so only plain (optionally schema-qualified) identifiers
+    private static final Pattern SEQUENCE_NAME =
+            Pattern.compile("[A-Za-z][A-Za-z0-9_$#]*(\\.[A-Za-z][A-Za-z0-9_$#]*)?");
+
+    private final JdbcTemplate jdbc;
+    private final String sql;
+    private final String sequence;
+    private final int blockSize;
+    private final ReentrantLock refillLock = new ReentrantLock();
+    private final AtomicLong roundTrips = new AtomicLong();
+
+    private volatile Block current = Block.EMPTY;
+    private volatile Block prefetched;
+    private volatile boolean prefetching;
+
+    public SequenceBlockAllocator(JdbcTemplate jdbc, SqlDialect dialect, String sequence, int blockSize) {
+        if (sequence == null || !SEQUENCE_NAME.matcher(sequence).matches()) {
+            throw new IllegalArgumentException("Invalid sequence name: " + sequence);
+        }
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Sequence block size must be positive: " + blockSize);
+        }
+        this.jdbc = jdbc;
+        this.sql = dialect.nextSequenceValue(sequence);
+        this.sequence = sequence;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    public String getSequence() {
+        return sequence;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public long getRoundTrips() {
+        return roundTrips.get();
+    }
+
+    @Override
+    public Object nextId() {
+        while (true) {
+            Block block = current;
+            long id = block.next.getAndIncrement();
+            if (id < block.end) {
+                if (id - block.start == blockSize / 2) {
+                    prefetch();
+                }
+                return id;
+            }
+            advance(block);
+        }
+    }
+
+    /**
+     * Swap in the prefetched block, or fetch one now. A ReentrantLock rather
+     * than synchronized so a virtual thread waiting on JDBC is not pinned.
+     */
+    private void advance(Block exhausted) {
+        refillLock.lock();
+        try {
+            if (current != exhausted) {
+                return;
+            }
+            Block next = prefetched;
+            prefetched = null;
+            current = next != null ? next : fetch();
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    private void prefetch() {
+        if (prefetching || prefetched != null || blockSize < 2) {
+            return;
+        }
+        prefetching = true;
+        Thread.ofVirtual().name("id-prefetch-" + sequence).start(() -> {
+            try {
+                Block block = fetch();
+                refillLock.lock();
+                try {
+                    prefetched = block;
+                } finally {
+                    refillLock.unlock();
+                }
+            } catch (RuntimeException e) {
+                // the next exhausted block fetches synchronously instead
+                System.err.println("⚠️ Sequence prefetch failed for " + sequence + " → " + e.getMessage());
+            } finally {
+                prefetching = false;
+            }
+        });
+    }
+
+    private Block fetch() {
+        Long start = jdbc.queryForObject(sql, Long.class);
+        roundTrips.incrementAndGet();
+        if (start == null) {
+            throw new IllegalStateException("Sequence " + sequence + " returned no value");
+        }
+        return new Block(start, start + blockSize);
+    }
+
+    private static final class Block {
+
+        static final Block EMPTY = new Block(0, 0);
+
+        private final long start;
+        private final long end;
+        private final AtomicLong next;
+
+        Block(long start, long end) {
+            this.start = start;
+            this.end = end;
+            this.next = new AtomicLong(start);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.TransactionConsumer.id;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Time-ordered version 7 UUID (RFC 9562): 48-bit Unix milliseconds, 12 bits
+ * of sub-millisecond fraction, 62 random bits from ThreadLocalRandom.
+ * No shared state, so threads never contend, and new keys land on the
+ * right-hand edge of the index instead of splitting random leaf blocks.
+ */
+public final class UuidV7Generator implements IdGenerator {
+
+    public static final String NAME = "uuidv7";
+
+    private final Clock clock;
+
+    public UuidV7Generator() {
+        this(Clock.systemUTC());
+    }
+
+    UuidV7Generator(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Object nextId() {
+        return generate().toString();
+    }
+
+    UUID generate() {
+        Instant now = clock.instant();
+        long millis = now.getEpochSecond() * 1_000 + now.getNano() / 1_000_000;
+        long fraction = (now.getNano() % 1_000_000) * 4096L / 1_000_000;
+
+        long most = (millis & 0xFFFF_FFFF_FFFFL) << 16 | 0x7000L | fraction;
+        long least = ThreadLocalRandom.current().nextLong() & 0x3FFF_FFFF_FFFF_FFFFL | 0x8000_0000_0000_0000L;
+        return new UUID(most, least);
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.TransactionConsumer.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters for every stage a transaction goes through.
+ * Timers publish percentile histograms so p99 can be aggregated across
+ * instances in Prometheus. Tag values come from config or fixed sets
+ * (field keys and paths, table names, rule names), never from payload data.
+ */
+@Component
+public class TransactionMetrics {
+
+    public static final String PARSE = "txn.parse";
+    public static final String VALIDATE = "txn.validate";
+    public static final String VALIDATION_REJECTIONS = "txn.validation.rejections";
+    public static final String MAPPING_EXTRACT = "txn.mapping.extract";
+    public static final String MAPPING_FAILURES = "txn.mapping.failures";
+    public static final String INSERT = "txn.insert";
+    public static final String FALLBACKS = "txn.fallbacks";
+    public static final String ADMISSION_LIMIT = "txn.admission.limit";
+    public static final String ADMISSION_IN_FLIGHT = "txn.admission.inflight";
+    public static final String ADMISSION_IN_FLIGHT_BYTES = "txn.admission.inflight.bytes";
+    public static final String ADMISSION_REJECTIONS = "txn.admission.rejections";
+    public static final String REFERENCE_MISSES = "txn.reference.misses";
+    public static final String REFERENCE_UNAVAILABLE = "txn.reference.unavailable";
+    public static final String SHARD_WRITE = "txn.shard.write";
+    public static final String SHARD_TRANSACTIONS = "txn.shard.transactions";
+    public static final String READ_CACHE_GETS = "txn.readcache.gets";
+    public static final String READ_CACHE_EVICTIONS = "txn.readcache.evictions";
+    public static final String READ_CACHE_LOAD = "txn.readcache.load";
+    public static final String READ_CACHE_SIZE = "txn.readcache.size";
+    public static final String SEARCH_PAGE = "txn.search.page";
+    public static final String SEARCH_ROWS = "txn.search.rows";
+    public static final String CHANGE_FEED_CHANGES = "txn.changefeed.changes";
+    public static final String CHANGE_FEED_WAITERS = "txn.changefeed.waiters";
+    public static final String EXPORT = "txn.export";
+    public static final String EXPORT_ROWS = "txn.export.rows";
+
+    private final MeterRegistry registry;
+    private final Timer parse;
+    private final Timer validate;
+    private final Timer extract;
+    private final Timer readCacheLoad;
+    private final Map<String, Timer> inserts = new ConcurrentHashMap<>();
+    private final Map<String, Timer> shardWrites = new ConcurrentHashMap<>();
+    private final Map<String, Timer> searchPages = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public TransactionMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.parse = timer(PARSE, "Request body parsed into a document");
+        this.validate = timer(VALIDATE, "PayloadValidator.validate");
+        this.extract = timer(MAPPING_EXTRACT, "MappingService.extractAllValues, one mapping group");
+        this.readCacheLoad = timer(READ_CACHE_LOAD, "Transaction read from the database on a cache miss");
+    }
+
+    public void recordParse(long startNanos) {
+        parse.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordValidate(long startNanos) {
+        validate.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * One per violation, so a payload failing three rules counts three times
+     */
+    public void validationRejected(String field, String rule) {
+        String fieldTag = field != null ? field : "unknown";
+        String ruleTag = rule != null ? rule : "unknown";
+        rejections.computeIfAbsent(fieldTag + '|' + ruleTag, key -> Counter.builder(VALIDATION_REJECTIONS)
+                        .tag("field", fieldTag)
+                        .tag("rule", ruleTag)
+                        .register(registry))
+                .increment();
+    }
+
+    public void recordExtract(long startNanos) {
+        extract.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void mappingFailed(String field) {
+        counter(MAPPING_FAILURES, "field", field).increment();
+    }
+
+    /**
+     * mode is row (one statement per row), batch (JDBC batch) or single (dialect statement)
+     */
+    public void recordInsert(String table, String mode, long startNanos) {
+        inserts.computeIfAbsent(table + '|' + mode, key -> Timer.builder(INSERT)
+                        .description("Insert into one SEND_* table")
+                        .tag("table", table)
+                        .tag("mode", mode)
+                        .publishPercentileHistogram()
+                        .register(registry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * One local transaction on a shard (mode row or batch) and how many transactions it committed
+     */
+    public void recordShardWrite(String shard, String mode, int transactions, long startNanos) {
+        shardWrites.computeIfAbsent(shard + '|' + mode, key -> Timer.builder(SHARD_WRITE)
+                        .description("Local transaction on one shard")
+                        .tag("shard", shard)
+                        .tag("mode", mode)
+                        .publishPercentileHistogram()
+                        .register(registry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        counter(SHARD_TRANSACTIONS, "shard", shard).increment(transactions);
+    }
+
+    /**
+     * insertAll could not store a transaction, by reason
+     */
+    public void fallback(String reason) {
+        counter(FALLBACKS, "reason", reason).increment();
+    }
+
+    /**
+     * Current adaptive limit and what is admitted against it, read on scrape
+     */
+    public void admissionGauges(Supplier<Number> limit, Supplier<Number> inFlight, Supplier<Number> inFlightBytes) {
+        Gauge.builder(ADMISSION_LIMIT, limit).description("Adaptive concurrency limit").register(registry);
+        Gauge.builder(ADMISSION_IN_FLIGHT, inFlight).description("Admitted requests in flight").register(registry);
+        Gauge.builder(ADMISSION_IN_FLIGHT_BYTES, inFlightBytes)
+                .description("Content-Length of admitted requests in flight")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * limit is concurrency or bytes
+     */
+    public void admissionRejected(String limit) {
+        counter(ADMISSION_REJECTIONS, "limit", limit).increment();
+    }
+
+    /**
+     * A value that is not in its reference set
+     */
+    public void referenceMiss(String set) {
+        counter(REFERENCE_MISSES, "set", set).increment();
+    }
+
+    /**
+     * A lookup against a set that has not loaded, let through unchecked
+     */
+    public void referenceUnavailable(String set) {
+        counter(REFERENCE_UNAVAILABLE, "set", set).increment();
+    }
+
+    /**
+     * result is hit or miss, the hit rate is hits / all gets
+     */
+    public void readCacheGet(String result) {
+        counter(READ_CACHE_GETS, "result", result).increment();
+    }
+
+    /**
+     * cause is size (least recently read past maxSize) or expired
+     */
+    public void readCacheEvicted(String cause) {
+        counter(READ_CACHE_EVICTIONS, "cause", cause).increment();
+    }
+
+    public void recordReadCacheLoad(long startNanos) {
+        readCacheLoad.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void readCacheGauge(Supplier<Number> size) {
+        Gauge.builder(READ_CACHE_SIZE, size).description("Transactions in the read cache").register(registry);
+    }
+
+    /**
+     * One keyset page of a search, source is primary or the shard name
+     */
+    public void recordSearchPage(String source, int rows, long startNanos) {
+        searchPages.computeIfAbsent(source, key -> Timer.builder(SEARCH_PAGE)
+                        .description("Keyset page query of a transaction search")
+                        .tag("source", source)
+                        .publishPercentileHistogram()
+                        .register(registry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        counter(SEARCH_ROWS, "source", source).increment(rows);
+    }
+
+    /**
+     * delivery is immediate or longpoll (found while the request waited)
+     */
+    public void changesDelivered(String delivery, int changes) {
+        counter(CHANGE_FEED_CHANGES, "delivery", delivery).increment(changes);
+    }
+
+    public void changeFeedGauge(Supplier<Number> waiters) {
+        Gauge.builder(CHANGE_FEED_WAITERS, waiters).description("Change-feed long-polls waiting").register(registry);
+    }
+
+    public void exportRows(String table, long rows) {
+        counter(EXPORT_ROWS, "table", table).increment(rows);
+    }
+
+    /**
+     * One export job from start to its last file, result is completed or failed
+     */
+    public void recordExport(String result, long startNanos) {
+        Timer.builder(EXPORT)
+                .description("End-of-day export job")
+                .tag("result", result)
+                .register(registry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private Counter counter(String name, String tag, String value) {
+        String tagValue = value != null ? value : "unknown";
+        return counters.computeIfAbsent(name + '|' + tagValue,
+                key -> Counter.builder(name).tag(tag, tagValue).register(registry));
+    }
+}
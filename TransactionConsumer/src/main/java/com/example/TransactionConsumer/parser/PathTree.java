@@ -0,0 +1,116 @@
+package com.example.TransactionConsumer.parser;
+
+import com.jayway.jsonpath.JsonPath;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Trie of the definite paths a mapping plan reads.
+ * Built once per plan version and walked alongside the token stream.
+ */
+final class PathTree {
+
+    private static final Pattern SEGMENT = Pattern.compile("\\['([^'\\\\]*)'\\]|\\[(\\d+)\\]");
+
+    private final long planVersion;
+    private final Node root = new Node();
+    private String unsupportedPath;
+
+    private PathTree(long planVersion) {
+        this.planVersion = planVersion;
+    }
+
+    static PathTree build(long planVersion, Collection<String> paths) {
+        PathTree tree = new PathTree(planVersion);
+        for (String path : paths) {
+            if (!tree.add(path)) {
+                tree.unsupportedPath = path;
+                break;
+            }
+        }
+        return tree;
+    }
+
+    long getPlanVersion() {
+        return planVersion;
+    }
+
+    Node getRoot() {
+        return root;
+    }
+
+    /**
+     * Only plain property and index paths can be resolved in one pass.
+     * Wildcards, deep scans, filters and functions need the full tree.
+     */
+    boolean isSupported() {
+        return unsupportedPath == null;
+    }
+
+    String getUnsupportedPath() {
+        return unsupportedPath;
+    }
+
+    private boolean add(String path) {
+        String normalized;
+        try {
+            normalized = JsonPath.compile(path).getPath();
+        } catch (RuntimeException ex) {
+            return false;
+        }
+
+        if (!normalized.startsWith("$")) {
+            return false;
+        }
+
+        Matcher matcher = SEGMENT.matcher(normalized);
+        Node node = root;
+        int position = 1;
+        while (position < normalized.length()) {
+            if (!matcher.find(position) || matcher.start() != position) {
+                return false;
+            }
+            if (matcher.group(1) != null) {
+                node = node.fields.computeIfAbsent(matcher.group(1), name -> new Node());
+            } else {
+                if (node == root) {
+                    return false;
+                }
+                node = node.indexes.computeIfAbsent(Integer.parseInt(matcher.group(2)), index -> new Node());
+            }
+            position = matcher.end();
+        }
+
+        if (node == root) {
+            return false;
+        }
+        node.leaf = true;
+        return true;
+    }
+
+    static final class Node {
+
+        private final Map<String, Node> fields = new HashMap<>();
+        private final Map<Integer, Node> indexes = new HashMap<>();
+        private boolean leaf;
+
+        Node field(String name) {
+            return fields.get(name);
+        }
+
+        Node index(int index) {
+            return indexes.get(index);
+        }
+
+        /**
+         * A mapped value is materialized whole, even if deeper paths also point into it
+         */
+        boolean isLeaf() {
+            return leaf;
+        }
+    }
+}
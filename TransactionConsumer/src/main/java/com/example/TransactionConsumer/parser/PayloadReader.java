@@ -0,0 +1,106 @@
+package com.example.TransactionConsumer.parser;
+
+import com.example.TransactionConsumer.dto.ErrorResponse;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import com.example.TransactionConsumer.service.MappingPlan;
+import com.example.TransactionConsumer.service.MappingPlanRegistry;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Turns a raw request body into the document every stage reads.
+ * With txn.extraction.streaming=true only the mapped paths are kept,
+ * otherwise the full payload is bound the way the Map request body was.
+ */
+@Component
+public class PayloadReader {
+
+    private final ObjectMapper objectMapper;
+    private final StreamingPayloadExtractor streamingExtractor;
+    private final MappingPlanRegistry planRegistry;
+    private final TransactionMetrics metrics;
+    private final boolean streaming;
+
+    public PayloadReader(ObjectMapper objectMapper,
+                         StreamingPayloadExtractor streamingExtractor,
+                         MappingPlanRegistry planRegistry,
+                         TransactionMetrics metrics,
+                         @Value("${txn.extraction.streaming:false}") boolean streaming) {
+        this.objectMapper = objectMapper;
+        this.streamingExtractor = streamingExtractor;
+        this.planRegistry = planRegistry;
+        this.metrics = metrics;
+        this.streaming = streaming;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    public DocumentContext read(byte[] body) {
+        return read(plan -> streamingExtractor.extract(body, plan), () -> objectMapper.readValue(body, Map.class));
+    }
+
+    /**
+     * Read straight from the request stream. Jackson parses through its
+     * recycled buffers, so the body is never copied into a String or byte[].
+     */
+    public DocumentContext read(InputStream body) {
+        return read(plan -> streamingExtractor.extract(body, plan), () -> objectMapper.readValue(body, Map.class));
+    }
+
+    /**
+     * Read the object the parser is positioned on, one item of a larger stream.
+     * Parse errors are left to the caller, the stream cannot continue after one.
+     */
+    public DocumentContext readCurrent(JsonParser parser) throws IOException {
+        long start = System.nanoTime();
+        try {
+            if (streaming) {
+                MappingPlan plan = planRegistry.current();
+                if (streamingExtractor.supports(plan)) {
+                    return streamingExtractor.extractCurrent(parser, plan);
+                }
+            }
+            return JsonPath.parse(objectMapper.readValue(parser, Map.class));
+        } finally {
+            metrics.recordParse(start);
+        }
+    }
+
+    private DocumentContext read(StreamingRead streamingRead, FullRead fullRead) {
+        long start = System.nanoTime();
+        try {
+            if (streaming) {
+                MappingPlan plan = planRegistry.current();
+                // fall back to the full tree when a mapping uses filters or wildcards
+                if (streamingExtractor.supports(plan)) {
+                    return streamingRead.extract(plan);
+                }
+            }
+            return JsonPath.parse(fullRead.bind());
+        } catch (IOException | IllegalArgumentException ex) {
+            throw new ErrorResponse("Malformed JSON request");
+        } finally {
+            metrics.recordParse(start);
+        }
+    }
+
+    @FunctionalInterface
+    private interface StreamingRead {
+        DocumentContext extract(MappingPlan plan) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface FullRead {
+        Map<?, ?> bind() throws IOException;
+    }
+}
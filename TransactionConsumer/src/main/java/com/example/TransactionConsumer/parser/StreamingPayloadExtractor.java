@@ -0,0 +1,173 @@
+package com.example.TransactionConsumer.parser;
+
+import com.example.TransactionConsumer.service.CompiledFieldMapping;
+import com.example.TransactionConsumer.service.MappingPlan;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Single-pass extraction over the raw request body.
+ * Walks the Jackson token stream once, keeps only the values the mapping plan
+ * and the fixed fields reference, and skips every other subtree unread.
+ * The result is a pruned document, so every JsonPath lookup downstream
+ * returns exactly what it would on the full payload.
+ */
+@Component
+public class StreamingPayloadExtractor {
+
+    /**
+     * Fixed fields read by PayloadValidator and TransactionRepository
+     */
+    public static final List<String> FIXED_PATHS = List.of(
+            "$.transactionId",
+            "$.transactionType",
+            "$.amount",
+            "$.currency",
+            "$.customerReferenceNumber",
+            "$.originatingInstitution",
+            "$.transferAcceptorName",
+            "$.paymentReference",
+            "$.fundingSource",
+            "$.paymentType"
+    );
+
+    private final ObjectMapper objectMapper;
+
+    private volatile PathTree pathTree;
+
+    public StreamingPayloadExtractor(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Whether every path in the plan can be resolved in one pass
+     */
+    public boolean supports(MappingPlan plan) {
+        return pathTree(plan).isSupported();
+    }
+
+    public DocumentContext extract(byte[] body, MappingPlan plan) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            return extract(parser, plan);
+        }
+    }
+
+    public DocumentContext extract(InputStream body, MappingPlan plan) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            return extract(parser, plan);
+        }
+    }
+
+    private DocumentContext extract(JsonParser parser, MappingPlan plan) throws IOException {
+        parser.nextToken();
+        return extractCurrent(parser, plan);
+    }
+
+    /**
+     * Extract the object the parser is positioned on, leaving it at its END_OBJECT.
+     * Used to read one item at a time from a larger stream.
+     */
+    public DocumentContext extractCurrent(JsonParser parser, MappingPlan plan) throws IOException {
+        PathTree tree = pathTree(plan);
+        if (!tree.isSupported()) {
+            throw new IllegalStateException("Path not supported by streaming extraction: " + tree.getUnsupportedPath());
+        }
+
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Payload must be a JSON object");
+        }
+
+        Map<String, Object> root = new LinkedHashMap<>();
+        readObject(parser, tree.getRoot(), root);
+        return JsonPath.parse(root);
+    }
+
+    private void readObject(JsonParser parser, PathTree.Node node, Map<String, Object> target) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            PathTree.Node child = node.field(name);
+
+            if (child == null) {
+                parser.skipChildren();
+            } else {
+                target.put(name, readNode(parser, token, child));
+            }
+        }
+    }
+
+    private void readArray(JsonParser parser, PathTree.Node node, List<Object> target) throws IOException {
+        JsonToken token;
+        int index = 0;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            PathTree.Node child = node.index(index++);
+
+            if (child == null) {
+                // keep positions stable for the indexes that are mapped
+                parser.skipChildren();
+                target.add(null);
+            } else {
+                target.add(readNode(parser, token, child));
+            }
+        }
+    }
+
+    private Object readNode(JsonParser parser, JsonToken token, PathTree.Node node) throws IOException {
+        if (node.isLeaf()) {
+            // bind exactly as the Map request body binding would
+            return objectMapper.readValue(parser, Object.class);
+        }
+        if (token == JsonToken.START_OBJECT) {
+            Map<String, Object> object = new LinkedHashMap<>();
+            readObject(parser, node, object);
+            return object;
+        }
+        if (token == JsonToken.START_ARRAY) {
+            List<Object> array = new ArrayList<>();
+            readArray(parser, node, array);
+            return array;
+        }
+        return objectMapper.readValue(parser, Object.class);
+    }
+
+    private PathTree pathTree(MappingPlan plan) {
+        PathTree tree = pathTree;
+        if (tree == null || tree.getPlanVersion() != plan.getVersion()) {
+            tree = PathTree.build(plan.getVersion(), referencedPaths(plan));
+            pathTree = tree;
+        }
+        return tree;
+    }
+
+    private static Set<String> referencedPaths(MappingPlan plan) {
+        Set<String> paths = new LinkedHashSet<>(FIXED_PATHS);
+        addPaths(paths, plan.getSenderParty());
+        addPaths(paths, plan.getRecipientParty());
+        addPaths(paths, plan.getSenderAddress());
+        addPaths(paths, plan.getRecipientAddress());
+        addPaths(paths, plan.getTransaction());
+        addPaths(paths, plan.getDetail());
+        return paths;
+    }
+
+    private static void addPaths(Set<String> paths, List<CompiledFieldMapping> mappings) {
+        for (CompiledFieldMapping mapping : mappings) {
+            if (mapping.isJsonSource()) {
+                paths.add(mapping.getPath());
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.TransactionConsumer.repository;
+
+import com.example.TransactionConsumer.config.PersistenceProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes many transactions as one JDBC batch per table in one database
+ * transaction. If the batch fails, each transaction is retried alone so one
+ * bad row only fails itself.
+ */
+@Component
+public class BatchTableWriter {
+
+    private final SendTableWriter tableWriter;
+    private final TransactionTemplate transactionTemplate;
+
+    public BatchTableWriter(SendTableWriter tableWriter, PlatformTransactionManager transactionManager,
+                            PersistenceProperties persistence) {
+        this.tableWriter = tableWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setTimeout(persistence.getTransactionTimeoutSeconds());
+    }
+
+    /**
+     * One entry per transaction, in order: null when it was written, otherwise its failure
+     */
+    public List<RuntimeException> write(List<TransactionRows> batch) {
+        List<RuntimeException> failures = new ArrayList<>(Collections.nCopies(batch.size(), null));
+        if (batch.isEmpty()) {
+            return failures;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> tableWriter.writeBatch(batch));
+            return failures;
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                failures.set(0, e);
+                return failures;
+            }
+            System.err.println("⚠️ Batch of " + batch.size() + " failed → retrying one by one: " + e.getMessage());
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            TransactionRows rows = batch.get(i);
+            try {
+                transactionTemplate.executeWithoutResult(status -> tableWriter.write(rows));
+            } catch (RuntimeException e) {
+                failures.set(i, e);
+            }
+        }
+        return failures;
+    }
+}
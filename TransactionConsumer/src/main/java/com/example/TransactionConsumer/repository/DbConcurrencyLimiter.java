@@ -0,0 +1,55 @@
+package com.example.TransactionConsumer.repository;
+
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps how many callers hold a database connection at once.
+ * With virtual threads thousands of requests can reach the repository
+ * together; the excess parks here instead of piling onto the pool.
+ */
+public class DbConcurrencyLimiter {
+
+    private final int maxConcurrency;
+    private final long acquireTimeoutMs;
+    private final Semaphore permits;
+
+    public DbConcurrencyLimiter(int maxConcurrency, long acquireTimeoutMs) {
+        this.maxConcurrency = maxConcurrency;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.permits = maxConcurrency > 0 ? new Semaphore(maxConcurrency, true) : null;
+    }
+
+    public boolean isEnabled() {
+        return permits != null;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getAvailable() {
+        return permits != null ? permits.availablePermits() : 0;
+    }
+
+    public int getWaiting() {
+        return permits != null ? permits.getQueueLength() : 0;
+    }
+
+    void acquire() throws SQLTransientConnectionException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "No database permit within " + acquireTimeoutMs + " ms (max " + maxConcurrency + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database permit", e);
+        }
+    }
+
+    void release() {
+        permits.release();
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.TransactionConsumer.repository;
+
+import com.example.TransactionConsumer.config.GroupCommitProperties;
+import com.example.TransactionConsumer.config.PersistenceProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects transactions from concurrent requests and commits them together.
+ * A batch is flushed through {@link BatchTableWriter} when it reaches
+ * maxBatchSize or maxDelayMs after its first entry (through
+ * {@link TransactionShards} when sharded, one batch per shard), and every
+ * caller's future is completed with its own outcome, also when the flush
+ * itself throws or the writer stops with the entry still queued.
+ */
+@Component
+public class GroupCommitWriter {
+
+    private final BatchTableWriter batchWriter;
+    private final TransactionShards shards;
+    private final GroupCommitProperties properties;
+    private final PersistenceProperties persistence;
+    private final BlockingQueue<PendingWrite> queue;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public GroupCommitWriter(BatchTableWriter batchWriter, TransactionShards shards,
+                             GroupCommitProperties properties, PersistenceProperties persistence) {
+        this.batchWriter = batchWriter;
+        this.shards = shards;
+        this.properties = properties;
+        this.persistence = persistence;
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * How long a caller waits on its future: the batching delay plus the
+     * time one batch may take to commit, waitTimeoutMs when writes have no
+     * transaction timeout.
+     */
+    public long waitMillis() {
+        int timeoutSeconds = persistence.getTransactionTimeoutSeconds();
+        long commitMillis = timeoutSeconds > 0 ? TimeUnit.SECONDS.toMillis(timeoutSeconds) : properties.getWaitTimeoutMs();
+        return properties.getMaxDelayMs() + commitMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::run, "group-commit-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+
+        // Anything queued after the final drain would otherwise wait forever
+        List<PendingWrite> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        for (PendingWrite pending : abandoned) {
+            pending.future.completeExceptionally(new IllegalStateException("Group commit writer stopped"));
+        }
+    }
+
+    /**
+     * Queue the rows for the next batch. Blocks while the queue is full.
+     * The future fails rather than hangs when the writer stops meanwhile.
+     */
+    public CompletableFuture<Void> submit(TransactionRows rows) {
+        PendingWrite pending = new PendingWrite(rows);
+        if (!running) {
+            pending.future.completeExceptionally(new IllegalStateException("Group commit writer is not running"));
+            return pending.future;
+        }
+        try {
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.future.completeExceptionally(e);
+            return pending.future;
+        }
+        // stop() may have drained the queue before the put landed; if the entry
+        // is still there nobody else will take it, anyone who did completes it
+        if (!running && queue.remove(pending)) {
+            pending.future.completeExceptionally(new IllegalStateException("Group commit writer stopped"));
+        }
+        return pending.future;
+    }
+
+    private void run() {
+        int maxBatchSize = Math.max(1, properties.getMaxBatchSize());
+        long maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(properties.getMaxDelayMs());
+
+        while (running) {
+            List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // shutting down, flush what was already taken
+            }
+            flushOrFail(batch);
+        }
+
+        // Drain whatever arrived before the shutdown
+        List<PendingWrite> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += maxBatchSize) {
+            flushOrFail(remaining.subList(from, Math.min(remaining.size(), from + maxBatchSize)));
+        }
+    }
+
+    // an unexpected throw must neither kill the flusher nor leave the batch's callers waiting
+    private void flushOrFail(List<PendingWrite> batch) {
+        try {
+            flush(batch);
+        } catch (RuntimeException e) {
+            System.err.println("❌ Group commit flush failed → " + e.getMessage());
+            for (PendingWrite pending : batch) {
+                pending.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    void flush(List<PendingWrite> batch) {
+        // a caller that gave up waiting has already fallen back, do not write its rows as well
+        batch = batch.stream().filter(pending -> !pending.future.isDone()).toList();
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<TransactionRows> rows = new ArrayList<>(batch.size());
+        for (PendingWrite pending : batch) {
+            rows.add(pending.rows);
+        }
+
+        List<RuntimeException> failures = shards.isEnabled() ? shards.writeBatch(rows) : batchWriter.write(rows);
+        for (int i = 0; i < batch.size(); i++) {
+            if (failures.get(i) == null) {
+                batch.get(i).future.complete(null);
+            } else {
+                batch.get(i).future.completeExceptionally(failures.get(i));
+            }
+        }
+    }
+
+    static final class PendingWrite {
+
+        private final TransactionRows rows;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        PendingWrite(TransactionRows rows) {
+            this.rows = rows;
+        }
+
+        CompletableFuture<Void> getFuture() {
+            return future;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.TransactionConsumer.repository;
+
+import com.example.TransactionConsumer.repository.sql.TableInsert;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Where every bind value of one SEND_* row comes from: a slot in one of the
+ * extracted value arrays, or a value the repository supplies (TRAN_ID, the
+ * audit timestamp, the audit user). Resolved once per mapping plan version,
+ * so binding a row is a loop over two int arrays.
+ */
+final class RowLayout {
+
+    static final int SYSTEM = -1;
+    static final int TRAN_ID = 0;
+    static final int NOW = 1;
+    static final int USER = 2;
+
+    private final TableInsert table;
+    private final int[] groups;
+    private final int[] indexes;
+    private final Object absent;
+
+    private RowLayout(TableInsert table, int[] groups, int[] indexes, Object absent) {
+        this.table = table;
+        this.groups = groups;
+        this.indexes = indexes;
+        this.absent = absent;
+    }
+
+    TableInsert getTable() {
+        return table;
+    }
+
+    /**
+     * values[group][index] as extracted for this transaction; absent replaces null
+     */
+    Object[] bind(Object[][] values, String tranId, Timestamp now, String user) {
+        Object[] row = new Object[groups.length];
+        for (int i = 0; i < row.length; i++) {
+            int index = indexes[i];
+            if (groups[i] == SYSTEM) {
+                row[i] = index == TRAN_ID ? tranId : index == NOW ? now : user;
+            } else {
+                Object[] group = values[groups[i]];
+                Object value = index >= 0 && group != null ? group[index] : null;
+                row[i] = value != null ? value : absent;
+            }
+        }
+        return row;
+    }
+
+    static Builder builder(String table, Object absent) {
+        return new Builder(table, absent);
+    }
+
+    /**
+     * Columns in insert order. A column mapped twice keeps its first source,
+     * and a system value replaces a mapping's source wherever it is added,
+     * so a mapping cannot override TRAN_ID or the audit columns.
+     */
+    static final class Builder {
+
+        private final String table;
+        private final Object absent;
+        private final List<String> columns = new ArrayList<>();
+        private final List<int[]> sources = new ArrayList<>();
+
+        private Builder(String table, Object absent) {
+            this.table = table;
+            this.absent = absent;
+        }
+
+        Builder system(String column, int value) {
+            int mapped = columns.indexOf(column);
+            if (mapped >= 0) {
+                System.err.println("⚠️ Column " + table + "." + column + " is written by the repository, ignoring its mapping");
+                sources.set(mapped, new int[]{SYSTEM, value});
+                return this;
+            }
+            return column(column, SYSTEM, value);
+        }
+
+        Builder column(String column, int group, int index) {
+            if (columns.contains(column)) {
+                System.err.println("⚠️ Column " + table + "." + column + " mapped twice, keeping the first source");
+                return this;
+            }
+            columns.add(column);
+            sources.add(new int[]{group, index});
+            return this;
+        }
+
+        List<String> getColumns() {
+            return columns;
+        }
+
+        RowLayout build() {
+            return build(new TableInsert(table, columns));
+        }
+
+        /**
+         * Share the insert of another row type of the same table, binding only the columns this one has
+         */
+        RowLayout build(TableInsert shared) {
+            int[] groups = new int[shared.getColumnCount()];
+            int[] indexes = new int[shared.getColumnCount()];
+            for (int i = 0; i < groups.length; i++) {
+                int own = columns.indexOf(shared.getColumns().get(i));
+                groups[i] = own >= 0 ? sources.get(own)[0] : 0;
+                indexes[i] = own >= 0 ? sources.get(own)[1] : -1;
+            }
+            return new RowLayout(shared, groups, indexes, absent);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.TransactionConsumer.repository;
+
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import com.example.TransactionConsumer.repository.sql.TableInsert;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes prepared {@link TransactionRows} to the SEND_* tables,
+ * one transaction at a time or as JDBC batches, with the statements of the
+ * {@link SendTables} the rows were built for.
+ */
+@Component
+public class SendTableWriter {
+
+    private final JdbcTemplate jdbc;
+    private final TransactionMetrics metrics;
+
+    public SendTableWriter(JdbcTemplate jdbc, TransactionMetrics metrics) {
+        this.jdbc = jdbc;
+        this.metrics = metrics;
+    }
+
+    /**
+     * One statement per row, in the caller's transaction
+     */
+    public void write(TransactionRows rows) {
+        SendTables tables = rows.getTables();
+        tables.restamp(rows, new Timestamp(System.currentTimeMillis()));
+        update(tables.getTransaction(), tables.getTransactionSql(), rows.getTransaction());
+        update(tables.getDetail(), tables.getDetailSql(), rows.getDetail());
+        update(tables.getParty(), tables.getPartySql(), rows.getParty());
+        for (Object[] address : rows.getAddresses()) {
+            update(tables.getAddress(), tables.getAddressSql(), address);
+        }
+    }
+
+    private void update(TableInsert table, String sql, Object[] values) {
+        long start = System.nanoTime();
+        jdbc.update(sql, values);
+        metrics.recordInsert(table.getTable(), "row", start);
+    }
+
+    private void batchUpdate(TableInsert table, String sql, List<Object[]> values) {
+        long start = System.nanoTime();
+        jdbc.batchUpdate(sql, values);
+        metrics.recordInsert(table.getTable(), "batch", start);
+    }
+
+    /**
+     * One batch per table for many transactions, in the caller's transaction.
+     * Parent rows go first so child tables never see a missing TRAN_ID.
+     * Rows built across a mapping refresh are batched per table layout.
+     */
+    public void writeBatch(List<TransactionRows> batch) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Map<SendTables, List<TransactionRows>> byTables = new IdentityHashMap<>(2);
+        for (TransactionRows rows : batch) {
+            rows.getTables().restamp(rows, now);
+            byTables.computeIfAbsent(rows.getTables(), tables -> new ArrayList<>(batch.size())).add(rows);
+        }
+        byTables.forEach(this::writeBatch);
+    }
+
+    private void writeBatch(SendTables tables, List<TransactionRows> batch) {
+        List<Object[]> transactions = new ArrayList<>(batch.size());
+        List<Object[]> details = new ArrayList<>(batch.size());
+        List<Object[]> parties = new ArrayList<>(batch.size());
+        List<Object[]> addresses = new ArrayList<>(batch.size() * 2);
+
+        for (TransactionRows rows : batch) {
+            transactions.add(rows.getTransaction());
+            details.add(rows.getDetail());
+            parties.add(rows.getParty());
+            addresses.addAll(rows.getAddresses());
+        }
+
+        batchUpdate(tables.getTransaction(), tables.getTransactionSql(), transactions);
+        batchUpdate(tables.getDetail(), tables.getDetailSql(), details);
+        batchUpdate(tables.getParty(), tables.getPartySql(), parties);
+        if (!addresses.isEmpty()) {
+            batchUpdate(tables.getAddress(), tables.getAddressSql(), addresses);
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.example.TransactionConsumer.repository;
+
+import com.example.TransactionConsumer.config.FieldMapping;
+import com.example.TransactionConsumer.repository.sql.TableInsert;
+import com.example.TransactionConsumer.service.CompiledFieldMapping;
+import com.example.TransactionConsumer.service.MappingPlan;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Insert targets and bind layouts of the four SEND_* tables, derived from
+ * one mapping plan version. Column lists follow the config:
+ *
+ * <ul>
+ *   <li>payment.transaction and transactionDetail.detail keys are column names
+ *       (built-in defaults when the config has none)</li>
+ *   <li>party and address keys map to the existing columns by name
+ *       (FIRST_NAME → SEND_FIRST_NAM / RECIP_FIRST_NAM, STREET_LINE_1 → ST_LINE1, ...)</li>
+ *   <li>any mapping can name its column explicitly with column</li>
+ * </ul>
+ *
+ * TRAN_ID and the audit columns are always supplied by the repository, a
+ * mapping that targets one of them is ignored. Column names must be plain
+ * identifiers; the plan registry rejects a new plan when one is not.
+ * Instances are immutable and compared by identity: a new plan version gets
+ * new statements, so the driver and Oracle cursor caches see one stable SQL
+ * text per version.
+ */
+public final class SendTables {
+
+    static final int TRANSACTION = 0;
+    static final int DETAIL = 1;
+    static final int SENDER_PARTY = 2;
+    static final int RECIPIENT_PARTY = 3;
+    static final int ADDRESS = 4;
+    static final int GROUPS = 5;
+
+    private static final Map<String, String> PARTY_COLUMNS = Map.of(
+            "FIRST_NAME", "FIRST_NAM",
+            "LAST_NAME", "LST_NAM",
+            "EMAIL", "EMAIL",
+            "PHONE", "PHN",
+            "CITY", "CITY",
+            "COUNTRY", "CNTRY_NAM"
+    );
+
+    private static final Map<String, String> ADDRESS_COLUMNS = Map.of(
+            "ID", "ID",
+            "ADDR_TYPE", "ADDR_TYPE",
+            "STREET_LINE_1", "ST_LINE1",
+            "STREET_LINE_2", "ST_LINE2",
+            "CITY", "CITY",
+            "STATE", "ST",
+            "COUNTRY", "CNTRY_NAM",
+            "POSTAL_CODE", "POST_CD"
+    );
+
+    /**
+     * What insertAll wrote before payment.transaction and transactionDetail.detail were read
+     */
+    static final List<CompiledFieldMapping> DEFAULT_TRANSACTION = compileDefaults(defaults(
+            "TRAN_TYPE", json("$.transactionType"),
+            "TRAN_AMT", json("$.amount"),
+            "TRAN_CURR", json("$.currency"),
+            "CUR_STAT", constant("COMPLETED"),
+            "ORIG_STAT", constant("NEW"),
+            "CUST_REF_NUM", json("$.customerReferenceNumber"),
+            "ORIG_INST_NAM", json("$.originatingInstitution"),
+            "TRANFR_ACPT_NAM", json("$.transferAcceptorName"),
+            "NON_FIN_TXN", constant("0")
+    ));
+
+    static final List<CompiledFieldMapping> DEFAULT_DETAIL = compileDefaults(defaults(
+            "PAYMT_REF", json("$.paymentReference"),
+            "FUND_SRC", json("$.fundingSource"),
+            "PAYMT_TYPE", json("$.paymentType")
+    ));
+
+    /**
+     * The fixed layout used before the tables were derived from config,
+     * for rows built by hand in that column order
+     */
+    public static final SendTables LEGACY = new SendTables(0,
+            new TableInsert("SEND_TRANSACTIONS", List.of(
+                    "TRAN_ID", "TRAN_TYPE", "TRAN_AMT", "TRAN_CURR", "TRAN_CRTE_DT",
+                    "CUR_STAT", "ORIG_STAT", "CUST_REF_NUM", "ORIG_INST_NAM", "TRANFR_ACPT_NAM",
+                    "CRTE_TS", "CRTE_USER_NAM", "RPLCTN_UPDT_TS", "NON_FIN_TXN")),
+            new TableInsert("SEND_TRAN_DTL", List.of(
+                    "TRAN_ID", "PAYMT_REF", "FUND_SRC", "PAYMT_TYPE",
+                    "TRAN_CRTE_DT", "CRTE_TS", "CRTE_USER_NAM", "RPLCTN_UPDT_TS")),
+            new TableInsert("SEND_RECIP_DTL", List.of(
+                    "TRAN_ID",
+                    "SEND_FIRST_NAM", "SEND_LST_NAM", "SEND_EMAIL", "SEND_PHN", "SEND_CITY", "SEND_CNTRY_NAM",
+                    "RECIP_FIRST_NAM", "RECIP_LST_NAM", "RECIP_EMAIL", "RECIP_PHN", "RECIP_CITY", "RECIP_CNTRY_NAM",
+                    "TRAN_CRTE_DT", "CRTE_TS", "CRTE_USER_NAM", "RPLCTN_UPDT_TS")),
+            new TableInsert("SEND_TRAN_ADDR_DTL", List.of(
+                    "ID", "TRAN_ID", "ADDR_TYPE", "ST_LINE1", "ST_LINE2",
+                    "CITY", "ST", "CNTRY_NAM", "POST_CD",
+                    "CRTE_TS", "CRTE_USER_NAM", "RPLCTN_UPDT_TS")),
+            null, null, null, null, null, null, null);
+
+    private final long planVersion;
+    private final TableInsert transaction;
+    private final TableInsert detail;
+    private final TableInsert party;
+    private final TableInsert address;
+    private final String transactionSql;
+    private final String detailSql;
+    private final String partySql;
+    private final String addressSql;
+
+    private final List<CompiledFieldMapping> transactionMappings;
+    private final List<CompiledFieldMapping> detailMappings;
+    private final RowLayout transactionRow;
+    private final RowLayout detailRow;
+    private final RowLayout partyRow;
+    private final RowLayout senderAddressRow;
+    private final RowLayout recipientAddressRow;
+    // RPLCTN_UPDT_TS position in each insert
+    private final int transactionStamp;
+    private final int detailStamp;
+    private final int partyStamp;
+    private final int addressStamp;
+
+    private SendTables(long planVersion, TableInsert transaction, TableInsert detail, TableInsert party,
+                       TableInsert address, List<CompiledFieldMapping> transactionMappings,
+                       List<CompiledFieldMapping> detailMappings, RowLayout transactionRow, RowLayout detailRow,
+                       RowLayout partyRow, RowLayout senderAddressRow, RowLayout recipientAddressRow) {
+        this.planVersion = planVersion;
+        this.transaction = transaction;
+        this.detail = detail;
+        this.party = party;
+        this.address = address;
+        this.transactionSql = transaction.insertSql();
+        this.detailSql = detail.insertSql();
+        this.partySql = party.insertSql();
+        this.addressSql = address.insertSql();
+        this.transactionMappings = transactionMappings;
+        this.detailMappings = detailMappings;
+        this.transactionRow = transactionRow;
+        this.detailRow = detailRow;
+        this.partyRow = partyRow;
+        this.senderAddressRow = senderAddressRow;
+        this.recipientAddressRow = recipientAddressRow;
+        this.transactionStamp = transaction.getColumns().indexOf("RPLCTN_UPDT_TS");
+        this.detailStamp = detail.getColumns().indexOf("RPLCTN_UPDT_TS");
+        this.partyStamp = party.getColumns().indexOf("RPLCTN_UPDT_TS");
+        this.addressStamp = address.getColumns().indexOf("RPLCTN_UPDT_TS");
+    }
+
+    public static SendTables compile(MappingPlan plan) {
+        List<CompiledFieldMapping> transactionMappings =
+                plan.getTransaction().isEmpty() ? DEFAULT_TRANSACTION : plan.getTransaction();
+        List<CompiledFieldMapping> detailMappings = plan.getDetail().isEmpty() ? DEFAULT_DETAIL : plan.getDetail();
+
+        RowLayout transactionRow = withAudit(RowLayout.builder("SEND_TRANSACTIONS", null)
+                .system("TRAN_ID", RowLayout.TRAN_ID)
+                .system("TRAN_CRTE_DT", RowLayout.NOW), TRANSACTION, transactionMappings, key -> null)
+                .build();
+
+        RowLayout detailRow = withAudit(RowLayout.builder("SEND_TRAN_DTL", null)
+                .system("TRAN_ID", RowLayout.TRAN_ID)
+                .system("TRAN_CRTE_DT", RowLayout.NOW), DETAIL, detailMappings, key -> null)
+                .build();
+
+        // sender and recipient share one row; unmapped party columns are written as "" like before
+        RowLayout.Builder partyBuilder = RowLayout.builder("SEND_RECIP_DTL", "")
+                .system("TRAN_ID", RowLayout.TRAN_ID)
+                .system("TRAN_CRTE_DT", RowLayout.NOW);
+        addColumns(partyBuilder, SENDER_PARTY, plan.getSenderParty(), key -> prefixed("SEND_", key));
+        RowLayout partyRow = withAudit(partyBuilder, RECIPIENT_PARTY, plan.getRecipientParty(),
+                key -> prefixed("RECIP_", key)).build();
+
+        // both address rows use one insert over the union of their columns
+        RowLayout.Builder senderAddress = withAudit(RowLayout.builder("SEND_TRAN_ADDR_DTL", null)
+                .system("TRAN_ID", RowLayout.TRAN_ID), ADDRESS, plan.getSenderAddress(), ADDRESS_COLUMNS::get);
+        RowLayout.Builder recipientAddress = withAudit(RowLayout.builder("SEND_TRAN_ADDR_DTL", null)
+                .system("TRAN_ID", RowLayout.TRAN_ID), ADDRESS, plan.getRecipientAddress(), ADDRESS_COLUMNS::get);
+        List<String> addressColumns = new ArrayList<>(senderAddress.getColumns());
+        for (String column : recipientAddress.getColumns()) {
+            if (!addressColumns.contains(column)) {
+                addressColumns.add(column);
+            }
+        }
+        TableInsert address = new TableInsert("SEND_TRAN_ADDR_DTL", addressColumns);
+
+        return new SendTables(plan.getVersion(),
+                transactionRow.getTable(), detailRow.getTable(), partyRow.getTable(), address,
+                transactionMappings, detailMappings, transactionRow, detailRow, partyRow,
+                senderAddress.build(address), recipientAddress.build(address));
+    }
+
+    private static RowLayout.Builder withAudit(RowLayout.Builder builder, int group, List<CompiledFieldMapping> mappings,
+                                               Function<String, String> legacyColumn) {
+        return addColumns(builder, group, mappings, legacyColumn)
+                .system("CRTE_TS", RowLayout.NOW)
+                .system("CRTE_USER_NAM", RowLayout.USER)
+                .system("RPLCTN_UPDT_TS", RowLayout.NOW);
+    }
+
+    /**
+     * Column of each mapping: its explicit column, else the legacy name for its key, else the key itself
+     * for transaction and detail. Party and address keys with no known column are extracted but not written.
+     * A column that is not a plain identifier fails the whole layout.
+     */
+    private static RowLayout.Builder addColumns(RowLayout.Builder builder, int group, List<CompiledFieldMapping> mappings,
+                                                Function<String, String> legacyColumn) {
+        for (int i = 0; i < mappings.size(); i++) {
+            CompiledFieldMapping mapping = mappings.get(i);
+            String column = mapping.getColumn();
+            if (column == null) {
+                column = legacyColumn.apply(mapping.getKey());
+            }
+            if (column == null && (group == TRANSACTION || group == DETAIL)) {
+                column = mapping.getKey();
+            }
+            if (column != null) {
+                if (!MappingPlan.isColumnName(column)) {
+                    throw new IllegalArgumentException(
+                            "Invalid column name for mapping " + mapping.getKey() + ": " + column);
+                }
+                builder.column(column, group, i);
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * Sets RPLCTN_UPDT_TS of every row to now. The writers call it inside the
+     * database transaction, so the change feed's settle window has to cover
+     * the time to that transaction's commit, not the wait between building
+     * and writing.
+     */
+    void restamp(TransactionRows rows, Timestamp now) {
+        stamp(rows.getTransaction(), transactionStamp, now);
+        stamp(rows.getDetail(), detailStamp, now);
+        stamp(rows.getParty(), partyStamp, now);
+        for (Object[] address : rows.getAddresses()) {
+            stamp(address, addressStamp, now);
+        }
+    }
+
+    private static void stamp(Object[] row, int index, Timestamp now) {
+        if (index >= 0) {
+            row[index] = now;
+        }
+    }
+
+    private static String prefixed(String prefix, String key) {
+        String column = PARTY_COLUMNS.get(key);
+        return column != null ? prefix + column : null;
+    }
+
+    public long getPlanVersion() {
+        return planVersion;
+    }
+
+    public TableInsert getTransaction() {
+        return transaction;
+    }
+
+    public TableInsert getDetail() {
+        return detail;
+    }
+
+    public TableInsert getParty() {
+        return party;
+    }
+
+    public TableInsert getAddress() {
+        return address;
+    }
+
+    String getTransactionSql() {
+        return transactionSql;
+    }
+
+    String getDetailSql() {
+        return detailSql;
+    }
+
+    String getPartySql() {
+        return partySql;
+    }
+
+    String getAddressSql() {
+        return addressSql;
+    }
+
+    List<CompiledFieldMapping> getTransactionMappings() {
+        return transactionMappings;
+    }
+
+    List<CompiledFieldMapping> getDetailMappings() {
+        return detailMappings;
+    }
+
+    RowLayout getTransactionRow() {
+        return transactionRow;
+    }
+
+    RowLayout getDetailRow() {
+        return detailRow;
+    }
+
+    RowLayout getPartyRow() {
+        return partyRow;
+    }
+
+    RowLayout getSenderAddressRow() {
+        return senderAddressRow;
+    }
+
+    RowLayout getRecipientAddressRow() {
+        return recipientAddressRow;
+    }
+
+    private static Map<String, FieldMapping> defaults(Object... keysAndMappings) {
+        Map<String, FieldMapping> mappings = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndMappings.length; i += 2) {
+            mappings.put((String) keysAndMappings[i], (FieldMapping) keysAndMappings[i + 1]);
+        }
+        return mappings;
+    }
+
+    private static List<CompiledFieldMapping> compileDefaults(Map<String, FieldMapping> mappings) {
+        List<CompiledFieldMapping> compiled = new ArrayList<>(mappings.size());
+        mappings.forEach((key, mapping) -> compiled.add(CompiledFieldMapping.compile(key, mapping)));
+        return List.copyOf(compiled);
+    }
+
+    private static FieldMapping json(String path) {
+        FieldMapping mapping = new FieldMapping();
+        mapping.setSource("json");
+        mapping.setPath(path);
+        return mapping;
+    }
+
+    private static FieldMapping constant(String value) {
+        FieldMapping mapping = new FieldMapping();
+        mapping.setSource("constant");
+        mapping.setValue(value);
+        return mapping;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.TransactionConsumer.repository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Consistent-hash ring of shard indexes. Every shard owns virtualNodes points
+ * derived from its name and a key belongs to the first point at or after its
+ * own hash, so adding a shard only moves the keys that land on its points.
+ */
+final class ShardRing {
+
+    private final long[] points;
+    private final int[] owners;
+
+    ShardRing(List<String> names, int virtualNodes) {
+        TreeMap<Long, Integer> ring = new TreeMap<>();
+        for (int shard = 0; shard < names.size(); shard++) {
+            for (int node = 0; node < Math.max(1, virtualNodes); node++) {
+                ring.putIfAbsent(hash(names.get(shard) + '#' + node), shard);
+            }
+        }
+
+        points = new long[ring.size()];
+        owners = new int[ring.size()];
+        int i = 0;
+        for (Map.Entry<Long, Integer> entry : ring.entrySet()) {
+            points[i] = entry.getKey();
+            owners[i] = entry.getValue();
+            i++;
+        }
+    }
+
+    int shardFor(String key) {
+        int at = Arrays.binarySearch(points, hash(key));
+        if (at < 0) {
+            at = -at - 1;
+        }
+        return owners[at == points.length ? 0 : at];
+    }
+
+    /**
+     * FNV-1a over the chars, then the murmur3 finalizer to spread it.
+     * Decides where rows live: changing it re-homes every stored transaction.
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.TransactionConsumer.repository;
+
+import com.example.TransactionConsumer.config.PersistenceProperties;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import com.example.TransactionConsumer.repository.sql.InsertStatement;
+import com.example.TransactionConsumer.repository.sql.RowGroup;
+import com.example.TransactionConsumer.repository.sql.SqlDialect;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Writes all rows of one transaction in as few statements as the dialect
+ * allows: a single PL/SQL block on Oracle. The statement text is generated
+ * once per {@link SendTables} (one per mapping plan version) and reused, so
+ * the driver's statement cache and Oracle's cursor cache always hit.
+ */
+@Component
+public class SingleStatementWriter {
+
+    private final JdbcTemplate jdbc;
+    private final PersistenceProperties properties;
+    private final SqlDialect dialect;
+    private final TransactionMetrics metrics;
+
+    private volatile CachedStatements cached;
+
+    public SingleStatementWriter(JdbcTemplate jdbc, PersistenceProperties properties, TransactionMetrics metrics) {
+        this.jdbc = jdbc;
+        this.properties = properties;
+        this.metrics = metrics;
+        this.dialect = SqlDialect.forName(properties.getDialect());
+    }
+
+    public boolean isEnabled() {
+        return properties.isSingleStatement();
+    }
+
+    public SqlDialect getDialect() {
+        return dialect;
+    }
+
+    /**
+     * Write in the caller's transaction
+     */
+    public void write(TransactionRows rows) {
+        rows.getTables().restamp(rows, new Timestamp(System.currentTimeMillis()));
+        CachedStatements statements = statements(rows.getTables(), rows.getAddresses().size());
+        List<Object[][]> groups = List.of(
+                new Object[][]{rows.getTransaction()},
+                new Object[][]{rows.getDetail()},
+                new Object[][]{rows.getParty()},
+                rows.getAddresses().toArray(new Object[0][])
+        );
+
+        for (int i = 0; i < statements.statements.size(); i++) {
+            InsertStatement statement = statements.statements.get(i);
+            Object[] args = new Object[statements.parameterCounts[i]];
+            int position = 0;
+            for (int group = statement.getFromGroup(); group < statement.getToGroup(); group++) {
+                for (Object[] values : groups.get(group)) {
+                    System.arraycopy(values, 0, args, position, values.length);
+                    position += values.length;
+                }
+            }
+            long start = System.nanoTime();
+            jdbc.update(statement.getSql(), args);
+            metrics.recordInsert(statements.tableNames[i], "single", start);
+        }
+    }
+
+    List<InsertStatement> statementsFor(SendTables tables, int addressRows) {
+        return statements(tables, addressRows).statements;
+    }
+
+    private CachedStatements statements(SendTables tables, int addressRows) {
+        CachedStatements current = cached;
+        if (current == null || current.tables != tables || current.addressRows != addressRows) {
+            current = new CachedStatements(tables, addressRows, rowGroups(tables, addressRows));
+            cached = current;
+        }
+        return current;
+    }
+
+    private static List<RowGroup> rowGroups(SendTables tables, int addressRows) {
+        return List.of(
+                new RowGroup(tables.getTransaction(), 1),
+                new RowGroup(tables.getDetail(), 1),
+                new RowGroup(tables.getParty(), 1),
+                new RowGroup(tables.getAddress(), addressRows)
+        );
+    }
+
+    private final class CachedStatements {
+
+        private final SendTables tables;
+        private final int addressRows;
+        private final List<InsertStatement> statements;
+        private final int[] parameterCounts;
+        // metrics tag: the table name, or ALL when one statement covers several tables
+        private final String[] tableNames;
+
+        private CachedStatements(SendTables tables, int addressRows, List<RowGroup> groups) {
+            this.tables = tables;
+            this.addressRows = addressRows;
+            this.statements = dialect.insertStatements(groups);
+            this.parameterCounts = new int[statements.size()];
+            this.tableNames = new String[statements.size()];
+
+            for (int i = 0; i < statements.size(); i++) {
+                InsertStatement statement = statements.get(i);
+                tableNames[i] = statement.getToGroup() - statement.getFromGroup() == 1
+                        ? groups.get(statement.getFromGroup()).getTable().getTable()
+                        : "ALL";
+                for (int group = statements.get(i).getFromGroup(); group < statements.get(i).getToGroup(); group++) {
+                    parameterCounts[i] += groups.get(group).getTable().getColumnCount() * groups.get(group).getRowCount();
+                }
+            }
+        }
+    }
+}
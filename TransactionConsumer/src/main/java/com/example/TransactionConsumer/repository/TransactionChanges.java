@@ -0,0 +1,144 @@
+package com.example.TransactionConsumer.repository;
+
+import com.example.TransactionConsumer.dto.ChangeBatch;
+import com.example.TransactionConsumer.dto.TransactionView;
+import com.example.TransactionConsumer.dto.Watermark;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transactions in (RPLCTN_UPDT_TS, TRAN_ID) order after a watermark, joined
+ * across the four SEND_* tables. SEND_TRANSACTIONS drives the feed: its
+ * RPLCTN_UPDT_TS is stamped in the same database transaction as the other
+ * three, so seeking on it alone uses one index and never misses a child row.
+ * When sharded every shard is read and the results merged.
+ */
+@Component
+public class TransactionChanges {
+
+    private static final Comparator<Row> WATERMARK_ORDER = Comparator
+            .comparing((Row row) -> row.updatedAt)
+            .thenComparing(row -> row.tranId);
+    private static final ColumnMapRowMapper COLUMNS = new ColumnMapRowMapper();
+    private static final RowMapper<Row> ROW_MAPPER = (rs, rowNum) -> new Row(
+            rs.getTimestamp("RPLCTN_UPDT_TS").toLocalDateTime(), rs.getString("TRAN_ID"), COLUMNS.mapRow(rs, rowNum));
+
+    private final List<JdbcTemplate> sources;
+
+    public TransactionChanges(JdbcTemplate jdbc, TransactionShards shards) {
+        List<JdbcTemplate> sources = new ArrayList<>();
+        if (shards.isEnabled()) {
+            for (TransactionShards.Shard shard : shards.getShards()) {
+                sources.add(shard.getJdbc());
+            }
+        } else {
+            sources.add(jdbc);
+        }
+        this.sources = List.copyOf(sources);
+    }
+
+    /**
+     * Up to limit transactions stamped after the watermark (from the start when
+     * null) and before settledBefore
+     */
+    public ChangeBatch after(Watermark after, int limit, LocalDateTime settledBefore) {
+        String page = " ORDER BY RPLCTN_UPDT_TS, TRAN_ID FETCH FIRST " + limit + " ROWS ONLY";
+        String sql;
+        Object[] args;
+        if (after == null) {
+            sql = "SELECT * FROM SEND_TRANSACTIONS WHERE RPLCTN_UPDT_TS < ?" + page;
+            args = new Object[]{Timestamp.valueOf(settledBefore)};
+        } else {
+            Timestamp updatedAt = Timestamp.valueOf(after.getUpdatedAt());
+            sql = "SELECT * FROM SEND_TRANSACTIONS WHERE RPLCTN_UPDT_TS < ?"
+                    + " AND (RPLCTN_UPDT_TS > ? OR (RPLCTN_UPDT_TS = ? AND TRAN_ID > ?))" + page;
+            args = new Object[]{Timestamp.valueOf(settledBefore), updatedAt, updatedAt, after.getTranId()};
+        }
+
+        // every shard's first limit rows hold the first limit rows overall
+        List<Row> rows = new ArrayList<>();
+        for (int source = 0; source < sources.size(); source++) {
+            for (Row row : sources.get(source).query(sql, ROW_MAPPER, args)) {
+                row.source = source;
+                rows.add(row);
+            }
+        }
+        if (rows.isEmpty()) {
+            return ChangeBatch.empty(after);
+        }
+        rows.sort(WATERMARK_ORDER);
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+        }
+
+        return new ChangeBatch(join(rows), new Watermark(rows.get(rows.size() - 1).updatedAt,
+                rows.get(rows.size() - 1).tranId));
+    }
+
+    /**
+     * Newest RPLCTN_UPDT_TS before settledBefore over all sources, null when
+     * there is none. One index probe per source, so waiting long-polls can
+     * check for news without reading rows.
+     */
+    public LocalDateTime latest(LocalDateTime settledBefore) {
+        LocalDateTime latest = null;
+        for (JdbcTemplate source : sources) {
+            Timestamp max = source.queryForObject(
+                    "SELECT MAX(RPLCTN_UPDT_TS) FROM SEND_TRANSACTIONS WHERE RPLCTN_UPDT_TS < ?",
+                    Timestamp.class, Timestamp.valueOf(settledBefore));
+            if (max != null && (latest == null || max.toLocalDateTime().isAfter(latest))) {
+                latest = max.toLocalDateTime();
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Child rows come from the source each transaction was read from
+     */
+    private List<TransactionView> join(List<Row> rows) {
+        List<List<Map<String, Object>>> bySource = new ArrayList<>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            bySource.add(new ArrayList<>());
+        }
+        for (Row row : rows) {
+            bySource.get(row.source).add(row.columns);
+        }
+
+        List<List<TransactionView>> joined = new ArrayList<>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            joined.add(TransactionReader.join(sources.get(i), bySource.get(i)));
+        }
+
+        // back into watermark order
+        List<TransactionView> views = new ArrayList<>(rows.size());
+        int[] next = new int[sources.size()];
+        for (Row row : rows) {
+            views.add(joined.get(row.source).get(next[row.source]++));
+        }
+        return views;
+    }
+
+    private static final class Row {
+
+        private final LocalDateTime updatedAt;
+        private final String tranId;
+        private final Map<String, Object> columns;
+        private int source;
+
+        private Row(LocalDateTime updatedAt, String tranId, Map<String, Object> columns) {
+            this.updatedAt = updatedAt;
+            this.tranId = tranId;
+            this.columns = columns;
+        }
+    }
+}
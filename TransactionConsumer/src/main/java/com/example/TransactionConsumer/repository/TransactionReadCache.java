@@ -0,0 +1,121 @@
+package com.example.TransactionConsumer.repository;
+
+import com.example.TransactionConsumer.config.ReadCacheProperties;
+import com.example.TransactionConsumer.dto.TransactionView;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-through cache in front of {@link TransactionReader}. insertAll puts the
+ * rows it wrote once its transaction commits, so a status check right after
+ * an insert never reaches the database. Bounded by size (least recently read
+ * goes first) and by age. Only found transactions are cached, a lookup that
+ * raced its insert goes to the database again next time.
+ */
+@Component
+public class TransactionReadCache {
+
+    private final ReadCacheProperties properties;
+    private final TransactionReader reader;
+    private final TransactionMetrics metrics;
+    private final Map<String, Entry> entries;
+
+    public TransactionReadCache(ReadCacheProperties properties, TransactionReader reader, TransactionMetrics metrics) {
+        this.properties = properties;
+        this.reader = reader;
+        this.metrics = metrics;
+        int capacity = Math.max(1, properties.getMaxSize());
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > capacity) {
+                    metrics.readCacheEvicted("size");
+                    return true;
+                }
+                return false;
+            }
+        });
+        metrics.readCacheGauge(entries::size);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public Optional<TransactionView> get(String tranId) {
+        if (!properties.isEnabled()) {
+            return load(tranId);
+        }
+
+        Entry entry = entries.get(tranId);
+        if (entry != null) {
+            if (entry.expiresAt - System.nanoTime() > 0) {
+                metrics.readCacheGet("hit");
+                return Optional.of(entry.view);
+            }
+            if (entries.remove(tranId, entry)) {
+                metrics.readCacheEvicted("expired");
+            }
+        }
+
+        metrics.readCacheGet("miss");
+        Optional<TransactionView> loaded = load(tranId);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    /**
+     * Cache rows written in the current transaction once it commits, right away outside one
+     */
+    public void putAfterCommit(TransactionRows rows) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        TransactionView view = TransactionReader.view(rows);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(view);
+                }
+            });
+        } else {
+            put(view);
+        }
+    }
+
+    public int getSize() {
+        return entries.size();
+    }
+
+    private void put(TransactionView view) {
+        long expiresAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(properties.getTtlSeconds());
+        entries.put(view.getTransactionId(), new Entry(view, expiresAt));
+    }
+
+    private Optional<TransactionView> load(String tranId) {
+        long start = System.nanoTime();
+        Optional<TransactionView> view = reader.load(tranId);
+        metrics.recordReadCacheLoad(start);
+        return view;
+    }
+
+    private static final class Entry {
+
+        private final TransactionView view;
+        private final long expiresAt;
+
+        private Entry(TransactionView view, long expiresAt) {
+            this.view = view;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
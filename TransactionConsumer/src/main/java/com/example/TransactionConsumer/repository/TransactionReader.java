@@ -0,0 +1,116 @@
+package com.example.TransactionConsumer.repository;
+
+import com.example.TransactionConsumer.dto.TransactionView;
+import com.example.TransactionConsumer.repository.sql.TableInsert;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Loads the SEND_* rows of one transaction, from its shard when sharded.
+ */
+@Component
+public class TransactionReader {
+
+    private final JdbcTemplate jdbc;
+    private final TransactionShards shards;
+
+    public TransactionReader(JdbcTemplate jdbc, TransactionShards shards) {
+        this.jdbc = jdbc;
+        this.shards = shards;
+    }
+
+    public Optional<TransactionView> load(String tranId) {
+        JdbcTemplate source = shards.isEnabled() ? shards.shardFor(tranId).getJdbc() : jdbc;
+
+        List<Map<String, Object>> transaction = source.queryForList(
+                "SELECT * FROM SEND_TRANSACTIONS WHERE TRAN_ID = ?", tranId);
+        if (transaction.isEmpty()) {
+            return Optional.empty();
+        }
+        List<Map<String, Object>> detail = source.queryForList(
+                "SELECT * FROM SEND_TRAN_DTL WHERE TRAN_ID = ?", tranId);
+        List<Map<String, Object>> party = source.queryForList(
+                "SELECT * FROM SEND_RECIP_DTL WHERE TRAN_ID = ?", tranId);
+        // SENDER before RECIPIENT, the order they are written in
+        List<Map<String, Object>> addresses = source.queryForList(
+                "SELECT * FROM SEND_TRAN_ADDR_DTL WHERE TRAN_ID = ? ORDER BY ADDR_TYPE DESC", tranId);
+
+        return Optional.of(new TransactionView(tranId, transaction.get(0),
+                detail.isEmpty() ? null : detail.get(0),
+                party.isEmpty() ? null : party.get(0),
+                addresses));
+    }
+
+    /**
+     * Complete already read SEND_TRANSACTIONS rows with their detail, party and
+     * address rows, one query per table for all of them. Views are in the order
+     * of transactions; at most 1000 of them, the Oracle IN-list limit.
+     */
+    public static List<TransactionView> join(JdbcTemplate source, List<Map<String, Object>> transactions) {
+        if (transactions.isEmpty()) {
+            return List.of();
+        }
+        List<Object> tranIds = new ArrayList<>(transactions.size());
+        for (Map<String, Object> transaction : transactions) {
+            tranIds.add(transaction.get("TRAN_ID"));
+        }
+        String in = " WHERE TRAN_ID IN (" + String.join(",", Collections.nCopies(tranIds.size(), "?")) + ")";
+        Object[] args = tranIds.toArray();
+
+        Map<Object, Map<String, Object>> details = byTranId(source.queryForList("SELECT * FROM SEND_TRAN_DTL" + in, args));
+        Map<Object, Map<String, Object>> parties = byTranId(source.queryForList("SELECT * FROM SEND_RECIP_DTL" + in, args));
+        Map<Object, List<Map<String, Object>>> addresses = new HashMap<>();
+        for (Map<String, Object> address : source.queryForList(
+                "SELECT * FROM SEND_TRAN_ADDR_DTL" + in + " ORDER BY TRAN_ID, ADDR_TYPE DESC", args)) {
+            addresses.computeIfAbsent(address.get("TRAN_ID"), key -> new ArrayList<>()).add(address);
+        }
+
+        List<TransactionView> views = new ArrayList<>(transactions.size());
+        for (Map<String, Object> transaction : transactions) {
+            Object tranId = transaction.get("TRAN_ID");
+            views.add(new TransactionView((String) tranId, transaction, details.get(tranId), parties.get(tranId),
+                    addresses.getOrDefault(tranId, List.of())));
+        }
+        return views;
+    }
+
+    private static Map<Object, Map<String, Object>> byTranId(List<Map<String, Object>> rows) {
+        Map<Object, Map<String, Object>> byTranId = new HashMap<>();
+        for (Map<String, Object> row : rows) {
+            byTranId.put(row.get("TRAN_ID"), row);
+        }
+        return byTranId;
+    }
+
+    /**
+     * The rows as insertAll wrote them, without reading them back
+     */
+    public static TransactionView view(TransactionRows rows) {
+        SendTables tables = rows.getTables();
+        List<Map<String, Object>> addresses = new ArrayList<>(rows.getAddresses().size());
+        for (Object[] address : rows.getAddresses()) {
+            addresses.add(columns(tables.getAddress(), address));
+        }
+        return new TransactionView(rows.getTranId(),
+                columns(tables.getTransaction(), rows.getTransaction()),
+                columns(tables.getDetail(), rows.getDetail()),
+                columns(tables.getParty(), rows.getParty()),
+                addresses);
+    }
+
+    private static Map<String, Object> columns(TableInsert table, Object[] values) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            row.put(table.getColumns().get(i), values[i]);
+        }
+        return row;
+    }
+}
@@ -1,147 +1,252 @@
 package com.example.TransactionConsumer.repository;
 
+import com.example.TransactionConsumer.config.PersistenceProperties;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import com.example.TransactionConsumer.service.MappingPlan;
+import com.example.TransactionConsumer.service.MappingPlanRegistry;
 import com.example.TransactionConsumer.service.MappingService;
-import com.jayway.jsonpath.JsonPath;
-import org.springframework.jdbc.core.JdbcTemplate;
+import com.example.TransactionConsumer.wal.WalEntry;
+import com.example.TransactionConsumer.wal.WriteAheadLog;
+import com.jayway.jsonpath.DocumentContext;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Repository
 public class TransactionRepository {
 
-    private final JdbcTemplate jdbc;
+    private final SendTableWriter tableWriter;
+    private final GroupCommitWriter groupCommitWriter;
+    private final SingleStatementWriter singleStatementWriter;
+    private final BatchTableWriter batchWriter;
+    private final TransactionShards shards;
     private final MappingService mappingService;
-
-    public TransactionRepository(JdbcTemplate jdbc, MappingService mappingService) {
-        this.jdbc = jdbc;
+    private final MappingPlanRegistry planRegistry;
+    private final WriteAheadLog writeAheadLog;
+    private final TransactionReadCache readCache;
+    private final TransactionMetrics metrics;
+    private final TransactionTemplate savepoint;
+
+    private volatile SendTables tables;
+
+    public TransactionRepository(SendTableWriter tableWriter,
+                                 GroupCommitWriter groupCommitWriter,
+                                 SingleStatementWriter singleStatementWriter,
+                                 BatchTableWriter batchWriter,
+                                 TransactionShards shards,
+                                 MappingService mappingService,
+                                 MappingPlanRegistry planRegistry,
+                                 WriteAheadLog writeAheadLog,
+                                 TransactionReadCache readCache,
+                                 TransactionMetrics metrics,
+                                 PlatformTransactionManager transactionManager) {
+        this.tableWriter = tableWriter;
+        this.groupCommitWriter = groupCommitWriter;
+        this.singleStatementWriter = singleStatementWriter;
+        this.batchWriter = batchWriter;
+        this.shards = shards;
         this.mappingService = mappingService;
+        this.planRegistry = planRegistry;
+        this.writeAheadLog = writeAheadLog;
+        this.readCache = readCache;
+        this.metrics = metrics;
+        this.savepoint = new TransactionTemplate(transactionManager);
+        this.savepoint.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+    }
+
+    /**
+     * Store one transaction. True once its rows are written, false when the
+     * payload was spooled to the write-ahead log for the drainers instead.
+     */
+    @Transactional(rollbackFor = Exception.class, timeoutString = PersistenceProperties.TRANSACTION_TIMEOUT)
+    public boolean insertAll(DocumentContext document) {
+        return insertAll(document, null);
     }
 
-    @Transactional(rollbackFor = Exception.class)
-    public void insertAll(String json) {
+    /**
+     * As {@link #insertAll(DocumentContext)}, spooling payload, the request
+     * body as received, rather than the document. A streamed document holds
+     * only the current plan's paths, replaying it would lose every other field.
+     */
+    @Transactional(rollbackFor = Exception.class, timeoutString = PersistenceProperties.TRANSACTION_TIMEOUT)
+    public boolean insertAll(DocumentContext document, byte[] payload) {
 
         Timestamp currentTime = new Timestamp(System.currentTimeMillis());
         String systemUser = "SYSTEM";
+        MappingPlan plan = planRegistry.current();
 
-        if (!areMappingsLoaded()) {
+        if (!plan.isMappingsLoaded()) {
             System.err.println("⚠️ Mappings not loaded → Using fallback");
-            insertAllHardcoded(json);
-            return;
+            return fallback(document, payload, "mappings_not_loaded", new IllegalStateException("Mappings not loaded"));
         }
 
         try {
-            // ================= INSERT MAIN TRANSACTION =================
-            String tranId = JsonPath.read(json, "$.transactionId");
-            String tranType = JsonPath.read(json, "$.transactionType");
-            Integer tranAmt = JsonPath.read(json, "$.amount");
-            String tranCurr = JsonPath.read(json, "$.currency");
-            String custRefNum = JsonPath.read(json, "$.customerReferenceNumber");
-            String origInstNam = JsonPath.read(json, "$.originatingInstitution");
-            String tranfrAcptNam = JsonPath.read(json, "$.transferAcceptorName");
-
-            jdbc.update(
-                    "INSERT INTO SEND_TRANSACTIONS (" +
-                            "TRAN_ID, TRAN_TYPE, TRAN_AMT, TRAN_CURR, TRAN_CRTE_DT, " +
-                            "CUR_STAT, ORIG_STAT, CUST_REF_NUM, ORIG_INST_NAM, TRANFR_ACPT_NAM, " +
-                            "CRTE_TS, CRTE_USER_NAM, RPLCTN_UPDT_TS, NON_FIN_TXN" +
-                            ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
-                    tranId, tranType, tranAmt, tranCurr, currentTime,
-                    "COMPLETED", "NEW", custRefNum, origInstNam, tranfrAcptNam,
-                    currentTime, systemUser, currentTime, 0
-            );
-
-            // ================= INSERT TRANSACTION DETAIL =================
-            String paymtRef = JsonPath.read(json, "$.paymentReference");
-            String fundSrc = JsonPath.read(json, "$.fundingSource");
-            String paymtType = JsonPath.read(json, "$.paymentType");
-
-            jdbc.update(
-                    "INSERT INTO SEND_TRAN_DTL (" +
-                            "TRAN_ID, PAYMT_REF, FUND_SRC, PAYMT_TYPE, " +
-                            "TRAN_CRTE_DT, CRTE_TS, CRTE_USER_NAM, RPLCTN_UPDT_TS" +
-                            ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
-                    tranId, paymtRef, fundSrc, paymtType,
-                    currentTime, currentTime, systemUser, currentTime
-            );
-
-            // ================= INSERT PARTY DETAILS =================
-            Map<String, Object> senderParty = mappingService.extractAllValues(json, mappingService.getSenderPartyMappings());
-            Map<String, Object> recipientParty = mappingService.extractAllValues(json, mappingService.getRecipientPartyMappings());
-
-            jdbc.update(
-                    "INSERT INTO SEND_RECIP_DTL (" +
-                            "TRAN_ID, " +
-                            "SEND_FIRST_NAM, SEND_LST_NAM, SEND_EMAIL, SEND_PHN, SEND_CITY, SEND_CNTRY_NAM, " +
-                            "RECIP_FIRST_NAM, RECIP_LST_NAM, RECIP_EMAIL, RECIP_PHN, RECIP_CITY, RECIP_CNTRY_NAM, " +
-                            "TRAN_CRTE_DT, CRTE_TS, CRTE_USER_NAM, RPLCTN_UPDT_TS" +
-                            ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
-                    tranId,
-                    senderParty.getOrDefault("FIRST_NAME", ""),
-                    senderParty.getOrDefault("LAST_NAME", ""),
-                    senderParty.getOrDefault("EMAIL", ""),
-                    senderParty.getOrDefault("PHONE", ""),
-                    senderParty.getOrDefault("CITY", ""),
-                    senderParty.getOrDefault("COUNTRY", ""),
-                    recipientParty.getOrDefault("FIRST_NAME", ""),
-                    recipientParty.getOrDefault("LAST_NAME", ""),
-                    recipientParty.getOrDefault("EMAIL", ""),
-                    recipientParty.getOrDefault("PHONE", ""),
-                    recipientParty.getOrDefault("CITY", ""),
-                    recipientParty.getOrDefault("COUNTRY", ""),
-                    currentTime, currentTime, systemUser, currentTime
-            );
-
-            // ================= INSERT ADDRESSES (CONFIG BASED) =================
-            String[] types = {"SENDER", "RECIPIENT"};
-
-            for (String type : types) {
-
-                Map<String, Object> values = type.equals("SENDER")
-                        ? mappingService.extractAllValues(json, mappingService.getSenderAddressMappings())
-                        : mappingService.extractAllValues(json, mappingService.getRecipientAddressMappings());
-
-                jdbc.update(
-                        "INSERT INTO SEND_TRAN_ADDR_DTL (" +
-                                "ID, TRAN_ID, ADDR_TYPE, ST_LINE1, ST_LINE2, " +
-                                "CITY, ST, CNTRY_NAM, POST_CD, " +
-                                "CRTE_TS, CRTE_USER_NAM, RPLCTN_UPDT_TS" +
-                                ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
-                        values.get("ID"),
-                        tranId,
-                        values.get("ADDR_TYPE"),
-                        values.get("STREET_LINE_1"),
-                        values.get("STREET_LINE_2"),
-                        values.get("CITY"),
-                        values.get("STATE"),
-                        values.get("COUNTRY"),
-                        values.get("POSTAL_CODE"),
-                        currentTime, systemUser, currentTime
-                );
-            }
+            TransactionRows rows = buildRows(document, plan, currentTime, systemUser);
+            store(rows);
 
-            System.out.println("✅ Transaction inserted using CONFIG mappings: " + tranId);
+            System.out.println("✅ Transaction inserted using CONFIG mappings: " + rows.getTranId());
+            return true;
 
-        } catch (Exception e) {
+        } catch (RuntimeException e) {
             System.err.println("❌ Config mapping failed → " + e.getMessage());
-            insertAllHardcoded(json);
+            return fallback(document, payload, "insert_failed", e);
         }
     }
 
-    private boolean areMappingsLoaded() {
+    /**
+     * Write rows built earlier by {@link #prepare}, with the same routing and fallback as insertAll
+     */
+    @Transactional(rollbackFor = Exception.class, timeoutString = PersistenceProperties.TRANSACTION_TIMEOUT)
+    public boolean insertRows(DocumentContext document, byte[] payload, TransactionRows rows) {
         try {
-            return mappingService.getSenderPartyMappings() != null &&
-                    !mappingService.getSenderPartyMappings().isEmpty();
-        } catch (Exception e) {
-            return false;
+            store(rows);
+
+            System.out.println("✅ Transaction inserted using CONFIG mappings: " + rows.getTranId());
+            return true;
+
+        } catch (RuntimeException e) {
+            System.err.println("❌ Config mapping failed → " + e.getMessage());
+            return fallback(document, payload, "insert_failed", e);
         }
     }
 
-    // ========== ORIGINAL HARDCODED METHOD (FALLBACK) ==========
-    private void insertAllHardcoded(String json) {
-        System.err.println("⚠️ Using fallback hardcoded inserts (Config missing)");
-        // Keep your original fallback here
+    private void store(TransactionRows rows) {
+        if (groupCommitWriter.isEnabled()) {
+            // committed together with other requests, failures are this transaction's only
+            join(groupCommitWriter.submit(rows), groupCommitWriter.waitMillis());
+        } else if (shards.isEnabled()) {
+            // a local transaction on the id's shard, already all rows or none
+            shards.write(rows);
+        } else if (writeAheadLog.isEnabled()) {
+            // a failed write is spooled and replayed whole, so roll back any partial rows
+            savepoint.executeWithoutResult(status -> write(rows));
+        } else {
+            write(rows);
+        }
+        // status checks right after the insert are answered from memory
+        readCache.putAfterCommit(rows);
+    }
+
+    private static void join(CompletableFuture<Void> write, long waitMillis) {
+        try {
+            write.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // the writer's own failure, as if the write had run on this thread
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            // failing the future keeps the flusher from writing rows the fallback now owns
+            TransactionTimedOutException timedOut =
+                    new TransactionTimedOutException("Group commit not done after " + waitMillis + " ms");
+            write.completeExceptionally(timedOut);
+            throw timedOut;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for group commit", e);
+        }
+    }
+
+    private void write(TransactionRows rows) {
+        if (singleStatementWriter.isEnabled()) {
+            singleStatementWriter.write(rows);
+        } else {
+            tableWriter.write(rows);
+        }
+    }
+
+    /**
+     * Build the rows of one transaction without writing them
+     */
+    public TransactionRows prepare(DocumentContext document) {
+        MappingPlan plan = planRegistry.current();
+        if (!plan.isMappingsLoaded()) {
+            throw new IllegalStateException("Mappings not loaded");
+        }
+        return buildRows(document, plan, new Timestamp(System.currentTimeMillis()), "SYSTEM");
+    }
+
+    /**
+     * Write prepared transactions with one JDBC batch per table (per shard when sharded).
+     * One entry per transaction: null when it was written, otherwise its failure.
+     */
+    public List<RuntimeException> insertPrepared(List<TransactionRows> rows) {
+        List<RuntimeException> failures = shards.isEnabled() ? shards.writeBatch(rows) : batchWriter.write(rows);
+        for (int i = 0; i < rows.size(); i++) {
+            if (failures.get(i) == null) {
+                readCache.putAfterCommit(rows.get(i));
+            }
+        }
+        return failures;
+    }
+
+    private TransactionRows buildRows(DocumentContext document, MappingPlan plan, Timestamp currentTime, String systemUser) {
+        SendTables tables = tables(plan);
+        String tranId = document.read("$.transactionId");
+
+        // indexed by SendTables group, each array aligned with its mapping list
+        Object[][] values = new Object[SendTables.GROUPS][];
+        values[SendTables.TRANSACTION] = mappingService.extractValues(document, tables.getTransactionMappings());
+        values[SendTables.DETAIL] = mappingService.extractValues(document, tables.getDetailMappings());
+        values[SendTables.SENDER_PARTY] = mappingService.extractValues(document, plan.getSenderParty());
+        values[SendTables.RECIPIENT_PARTY] = mappingService.extractValues(document, plan.getRecipientParty());
+
+        Object[] transaction = tables.getTransactionRow().bind(values, tranId, currentTime, systemUser);
+        Object[] detail = tables.getDetailRow().bind(values, tranId, currentTime, systemUser);
+        Object[] party = tables.getPartyRow().bind(values, tranId, currentTime, systemUser);
+
+        // ================= ADDRESSES (CONFIG BASED) =================
+        List<Object[]> addresses = new ArrayList<>(2);
+        values[SendTables.ADDRESS] = mappingService.extractValues(document, plan.getSenderAddress());
+        addresses.add(tables.getSenderAddressRow().bind(values, tranId, currentTime, systemUser));
+        values[SendTables.ADDRESS] = mappingService.extractValues(document, plan.getRecipientAddress());
+        addresses.add(tables.getRecipientAddressRow().bind(values, tranId, currentTime, systemUser));
+
+        return new TransactionRows(tranId, transaction, detail, party, addresses, tables);
+    }
+
+    /**
+     * Table layouts of the plan, derived once per plan version
+     */
+    SendTables tables(MappingPlan plan) {
+        SendTables current = tables;
+        if (current == null || current.getPlanVersion() != plan.getVersion()) {
+            current = SendTables.compile(plan);
+            tables = current;
+        }
+        return current;
+    }
+
+    // ========== FALLBACK ==========
+    /**
+     * Spool the payload to the write-ahead log when it is enabled, otherwise
+     * rethrow: nothing was stored, and the caller must not report success.
+     * Without the request body the document is spooled, complete only when
+     * it was read in full.
+     */
+    private boolean fallback(DocumentContext document, byte[] payload, String reason, RuntimeException failure) {
+        metrics.fallback(reason);
+        if (writeAheadLog.isEnabled()) {
+            // keep the payload for the WAL drainers to retry once mappings or the database are back
+            WalEntry entry = writeAheadLog.append(payload != null
+                    ? payload : document.jsonString().getBytes(StandardCharsets.UTF_8));
+            System.err.println("⚠️ Spooled to write-ahead log for replay, tracking id " + entry.getSequence());
+            return false;
+        }
+        throw failure;
     }
 }
@@ -0,0 +1,30 @@
+package com.example.TransactionConsumer.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Bind values for every SEND_* row of one transaction, in the column order
+ * of {@link #getTables()}. Built on the request thread, written by {@link SendTableWriter}.
+ */
+@Value
+@AllArgsConstructor
+public class TransactionRows {
+
+    String tranId;
+    Object[] transaction;
+    Object[] detail;
+    Object[] party;
+    List<Object[]> addresses;
+    SendTables tables;
+
+    /**
+     * Rows in the {@link SendTables#LEGACY} column order
+     */
+    public TransactionRows(String tranId, Object[] transaction, Object[] detail, Object[] party,
+                           List<Object[]> addresses) {
+        this(tranId, transaction, detail, party, addresses, SendTables.LEGACY);
+    }
+}
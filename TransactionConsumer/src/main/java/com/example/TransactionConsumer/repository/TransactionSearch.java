@@ -0,0 +1,216 @@
+package com.example.TransactionConsumer.repository;
+
+import com.example.TransactionConsumer.config.SearchProperties;
+import com.example.TransactionConsumer.dto.SearchCursor;
+import com.example.TransactionConsumer.dto.TransactionSearchCriteria;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Keyset search over SEND_TRANSACTIONS in (TRAN_CRTE_DT, TRAN_ID) order.
+ * Every page is one short query that seeks past the last row of the previous
+ * one, so page n costs the same as page 1 and no cursor stays open on the
+ * database between pages. When sharded, every shard is paged on its own and
+ * the pages are merged, at most one page per shard is held in memory.
+ */
+@Component
+public class TransactionSearch {
+
+    private static final Comparator<Row> KEY_ORDER = Comparator
+            .comparing((Row row) -> row.createdAt)
+            .thenComparing(row -> row.tranId);
+    private static final ColumnMapRowMapper COLUMNS = new ColumnMapRowMapper();
+    private static final RowMapper<Row> ROW_MAPPER = (rs, rowNum) -> new Row(
+            rs.getTimestamp("TRAN_CRTE_DT").toLocalDateTime(), rs.getString("TRAN_ID"), COLUMNS.mapRow(rs, rowNum));
+
+    private final SearchProperties properties;
+    private final TransactionMetrics metrics;
+    private final List<Source> sources;
+
+    public TransactionSearch(JdbcTemplate jdbc, TransactionShards shards, SearchProperties properties,
+                             TransactionMetrics metrics) {
+        this.properties = properties;
+        this.metrics = metrics;
+
+        List<Source> sources = new ArrayList<>();
+        if (shards.isEnabled()) {
+            for (TransactionShards.Shard shard : shards.getShards()) {
+                sources.add(new Source(shard.getName(), streaming(shard.getDataSource())));
+            }
+        } else {
+            sources.add(new Source("primary", streaming(jdbc.getDataSource())));
+        }
+        this.sources = List.copyOf(sources);
+    }
+
+    /**
+     * Pass every matching row to sink in key order. Returns the cursor to
+     * continue from when criteria.limit stopped the search before the last
+     * match, otherwise null.
+     */
+    public SearchCursor stream(TransactionSearchCriteria criteria, Consumer<Map<String, Object>> sink) {
+        Query query = new Query(criteria, Math.max(1, properties.getPageSize()));
+
+        PriorityQueue<Pager> pagers = new PriorityQueue<>(sources.size(),
+                Comparator.comparing(Pager::peek, KEY_ORDER));
+        for (Source source : sources) {
+            Pager pager = new Pager(source, query, criteria.getAfter());
+            if (pager.peek() != null) {
+                pagers.add(pager);
+            }
+        }
+
+        int returned = 0;
+        Row last = null;
+        while (!pagers.isEmpty()) {
+            if (criteria.getLimit() > 0 && returned == criteria.getLimit()) {
+                return new SearchCursor(last.createdAt, last.tranId);
+            }
+            Pager pager = pagers.poll();
+            last = pager.poll();
+            sink.accept(last.columns);
+            returned++;
+            if (pager.peek() != null) {
+                pagers.add(pager);
+            }
+        }
+        return null;
+    }
+
+    private JdbcTemplate streaming(DataSource dataSource) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.setFetchSize(properties.getFetchSize());
+        jdbc.setQueryTimeout(properties.getQueryTimeoutSeconds());
+        return jdbc;
+    }
+
+    /**
+     * SQL and filter arguments of one search, shared by all its pages
+     */
+    private static final class Query {
+
+        private final int pageSize;
+        private final String first;
+        private final String next;
+        private final List<Object> filters = new ArrayList<>();
+
+        private Query(TransactionSearchCriteria criteria, int pageSize) {
+            this.pageSize = pageSize;
+            StringBuilder where = new StringBuilder(" WHERE TRAN_CRTE_DT IS NOT NULL");
+            filter(where, "TRAN_CRTE_DT >= ?", timestamp(criteria.getFrom()));
+            filter(where, "TRAN_CRTE_DT < ?", timestamp(criteria.getTo()));
+            filter(where, "ORIG_INST_NAM = ?", criteria.getOrigInstNam());
+            filter(where, "TRAN_TYPE = ?", criteria.getTranType());
+            filter(where, "CUR_STAT = ?", criteria.getCurStat());
+
+            // the page size is a config int, not payload data, so it is inlined
+            String page = " ORDER BY TRAN_CRTE_DT, TRAN_ID FETCH FIRST " + pageSize + " ROWS ONLY";
+            this.first = "SELECT * FROM SEND_TRANSACTIONS" + where + page;
+            this.next = "SELECT * FROM SEND_TRANSACTIONS" + where
+                    + " AND (TRAN_CRTE_DT > ? OR (TRAN_CRTE_DT = ? AND TRAN_ID > ?))" + page;
+        }
+
+        private static Timestamp timestamp(LocalDateTime value) {
+            return value == null ? null : Timestamp.valueOf(value);
+        }
+
+        private void filter(StringBuilder where, String predicate, Object value) {
+            if (value != null) {
+                where.append(" AND ").append(predicate);
+                filters.add(value);
+            }
+        }
+    }
+
+    /**
+     * Keyset pages of one database, fetched when the previous page is used up
+     */
+    private final class Pager {
+
+        private final Source source;
+        private final Query query;
+        private final ArrayDeque<Row> page = new ArrayDeque<>();
+        private SearchCursor after;
+        private boolean exhausted;
+
+        private Pager(Source source, Query query, SearchCursor after) {
+            this.source = source;
+            this.query = query;
+            this.after = after;
+        }
+
+        private Row peek() {
+            if (page.isEmpty() && !exhausted) {
+                fetch();
+            }
+            return page.peekFirst();
+        }
+
+        private Row poll() {
+            Row row = peek();
+            page.pollFirst();
+            return row;
+        }
+
+        private void fetch() {
+            long start = System.nanoTime();
+            List<Row> rows;
+            if (after == null) {
+                rows = source.jdbc.query(query.first, ROW_MAPPER, query.filters.toArray());
+            } else {
+                List<Object> args = new ArrayList<>(query.filters);
+                Timestamp createdAt = Timestamp.valueOf(after.getCreatedAt());
+                args.add(createdAt);
+                args.add(createdAt);
+                args.add(after.getTranId());
+                rows = source.jdbc.query(query.next, ROW_MAPPER, args.toArray());
+            }
+            metrics.recordSearchPage(source.name, rows.size(), start);
+
+            page.addAll(rows);
+            exhausted = rows.size() < query.pageSize;
+            if (!rows.isEmpty()) {
+                Row last = rows.get(rows.size() - 1);
+                after = new SearchCursor(last.createdAt, last.tranId);
+            }
+        }
+    }
+
+    private static final class Source {
+
+        private final String name;
+        private final JdbcTemplate jdbc;
+
+        private Source(String name, JdbcTemplate jdbc) {
+            this.name = name;
+            this.jdbc = jdbc;
+        }
+    }
+
+    private static final class Row {
+
+        private final LocalDateTime createdAt;
+        private final String tranId;
+        private final Map<String, Object> columns;
+
+        private Row(LocalDateTime createdAt, String tranId, Map<String, Object> columns) {
+            this.createdAt = createdAt;
+            this.tranId = tranId;
+            this.columns = columns;
+        }
+    }
+}
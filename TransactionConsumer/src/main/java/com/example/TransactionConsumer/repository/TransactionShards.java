@@ -0,0 +1,225 @@
+package com.example.TransactionConsumer.repository;
+
+import com.example.TransactionConsumer.config.PersistenceProperties;
+import com.example.TransactionConsumer.config.ShardingProperties;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Spreads writes over several databases by transactionId. Every shard has its
+ * own Hikari pool and transaction manager, and all rows of one transaction
+ * (SEND_TRANSACTIONS, SEND_TRAN_DTL, SEND_RECIP_DTL, SEND_TRAN_ADDR_DTL) go to
+ * the same shard in one local transaction, so no write spans databases.
+ */
+@Component
+public class TransactionShards {
+
+    private final ShardingProperties properties;
+    private final TransactionMetrics metrics;
+    private final List<Shard> shards;
+    private final ShardRing ring;
+    // batches that touch several shards write them in parallel
+    private final ExecutorService batchExecutor;
+
+    public TransactionShards(ShardingProperties properties, PersistenceProperties persistence,
+                             TransactionMetrics metrics) {
+        this.properties = properties;
+        this.metrics = metrics;
+
+        if (!properties.isEnabled()) {
+            this.shards = List.of();
+            this.ring = null;
+            this.batchExecutor = null;
+            return;
+        }
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("txn.sharding.enabled needs at least one txn.sharding.shards entry");
+        }
+
+        List<Shard> shards = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            ShardingProperties.Shard config = properties.getShards().get(i);
+            String name = config.getName() != null ? config.getName() : "shard-" + i;
+            if (!names.add(name)) {
+                throw new IllegalStateException("Duplicate shard name " + name);
+            }
+            shards.add(new Shard(name, dataSource(name, config), persistence, metrics));
+        }
+        this.shards = List.copyOf(shards);
+        this.ring = new ShardRing(shards.stream().map(Shard::getName).toList(), properties.getVirtualNodes());
+        this.batchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+        System.out.println("✅ Writes sharded over " + shards.size() + " databases: " + names);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (batchExecutor != null) {
+            batchExecutor.shutdown();
+        }
+        for (Shard shard : shards) {
+            shard.dataSource.close();
+        }
+    }
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    /**
+     * Home shard of a transaction, the same for every one of its rows
+     */
+    public Shard shardFor(String transactionId) {
+        return shards.get(ring.shardFor(transactionId));
+    }
+
+    /**
+     * Write one transaction in its own transaction on its shard: all rows or none
+     */
+    public void write(TransactionRows rows) {
+        Shard shard = shardFor(rows.getTranId());
+        long start = System.nanoTime();
+        shard.transaction.executeWithoutResult(status -> {
+            if (shard.singleStatementWriter.isEnabled()) {
+                shard.singleStatementWriter.write(rows);
+            } else {
+                shard.tableWriter.write(rows);
+            }
+        });
+        metrics.recordShardWrite(shard.name, "row", 1, start);
+    }
+
+    /**
+     * Split the batch by shard and write each part as one JDBC batch per table,
+     * shards in parallel. One entry per transaction, in the caller's order:
+     * null when it was written, otherwise its failure.
+     */
+    public List<RuntimeException> writeBatch(List<TransactionRows> batch) {
+        List<List<Integer>> positions = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            positions.add(new ArrayList<>());
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            positions.get(ring.shardFor(batch.get(i).getTranId())).add(i);
+        }
+
+        List<RuntimeException> failures = new ArrayList<>(Collections.nCopies(batch.size(), null));
+        List<Integer> touched = new ArrayList<>();
+        for (int i = 0; i < shards.size(); i++) {
+            if (!positions.get(i).isEmpty()) {
+                touched.add(i);
+            }
+        }
+
+        if (touched.size() == 1) {
+            int shard = touched.get(0);
+            merge(failures, positions.get(shard), writeBatch(shards.get(shard), batch, positions.get(shard)));
+            return failures;
+        }
+
+        List<CompletableFuture<List<RuntimeException>>> writes = new ArrayList<>(touched.size());
+        for (int shard : touched) {
+            writes.add(CompletableFuture.supplyAsync(
+                    () -> writeBatch(shards.get(shard), batch, positions.get(shard)), batchExecutor));
+        }
+        for (int i = 0; i < touched.size(); i++) {
+            merge(failures, positions.get(touched.get(i)), writes.get(i).join());
+        }
+        return failures;
+    }
+
+    private List<RuntimeException> writeBatch(Shard shard, List<TransactionRows> batch, List<Integer> positions) {
+        List<TransactionRows> rows = new ArrayList<>(positions.size());
+        for (int position : positions) {
+            rows.add(batch.get(position));
+        }
+
+        long start = System.nanoTime();
+        List<RuntimeException> failures = shard.batchWriter.write(rows);
+        int written = (int) failures.stream().filter(failure -> failure == null).count();
+        metrics.recordShardWrite(shard.name, "batch", written, start);
+        return failures;
+    }
+
+    private static void merge(List<RuntimeException> failures, List<Integer> positions,
+                              List<RuntimeException> shardFailures) {
+        for (int i = 0; i < positions.size(); i++) {
+            failures.set(positions.get(i), shardFailures.get(i));
+        }
+    }
+
+    /**
+     * Pool starts on first use, like the primary DataSource
+     */
+    private static HikariDataSource dataSource(String name, ShardingProperties.Shard config) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(config.getUrl());
+        dataSource.setUsername(config.getUsername());
+        dataSource.setPassword(config.getPassword());
+        if (config.getDriverClassName() != null) {
+            dataSource.setDriverClassName(config.getDriverClassName());
+        }
+        dataSource.setMaximumPoolSize(config.getMaximumPoolSize());
+        return dataSource;
+    }
+
+    /**
+     * One database with the writers bound to it
+     */
+    public static final class Shard {
+
+        private final String name;
+        private final HikariDataSource dataSource;
+        private final JdbcTemplate jdbc;
+        private final TransactionTemplate transaction;
+        private final SendTableWriter tableWriter;
+        private final SingleStatementWriter singleStatementWriter;
+        private final BatchTableWriter batchWriter;
+
+        private Shard(String name, HikariDataSource dataSource, PersistenceProperties persistence,
+                      TransactionMetrics metrics) {
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+            this.name = name;
+            this.dataSource = dataSource;
+            this.jdbc = new JdbcTemplate(dataSource);
+            this.transaction = new TransactionTemplate(transactionManager);
+            this.transaction.setTimeout(persistence.getTransactionTimeoutSeconds());
+            this.tableWriter = new SendTableWriter(jdbc, metrics);
+            this.singleStatementWriter = new SingleStatementWriter(jdbc, persistence, metrics);
+            this.batchWriter = new BatchTableWriter(tableWriter, transactionManager, persistence);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public DataSource getDataSource() {
+            return dataSource;
+        }
+
+        public JdbcTemplate getJdbc() {
+            return jdbc;
+        }
+    }
+}
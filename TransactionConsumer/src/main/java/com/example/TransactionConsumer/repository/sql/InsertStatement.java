@@ -0,0 +1,15 @@
+package com.example.TransactionConsumer.repository.sql;
+
+import lombok.Value;
+
+/**
+ * One generated statement and the range of row groups whose values it binds,
+ * in order. fromGroup is inclusive, toGroup exclusive.
+ */
+@Value
+public class InsertStatement {
+
+    String sql;
+    int fromGroup;
+    int toGroup;
+}
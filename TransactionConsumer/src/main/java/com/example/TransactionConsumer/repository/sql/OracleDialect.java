@@ -0,0 +1,34 @@
+package com.example.TransactionConsumer.repository.sql;
+
+import java.util.List;
+
+/**
+ * One anonymous PL/SQL block with bind variables, so the whole transaction
+ * is a single round trip. INSERT ALL is not used because Oracle does not
+ * guarantee its row order, and child tables would see a missing parent.
+ */
+public class OracleDialect implements SqlDialect {
+
+    @Override
+    public String getName() {
+        return "oracle";
+    }
+
+    @Override
+    public List<InsertStatement> insertStatements(List<RowGroup> groups) {
+        StringBuilder block = new StringBuilder("BEGIN\n");
+        for (RowGroup group : groups) {
+            String insert = group.getTable().insertSql();
+            for (int row = 0; row < group.getRowCount(); row++) {
+                block.append("  ").append(insert).append(";\n");
+            }
+        }
+        block.append("END;");
+        return List.of(new InsertStatement(block.toString(), 0, groups.size()));
+    }
+
+    @Override
+    public String nextSequenceValue(String sequence) {
+        return "SELECT " + sequence + ".NEXTVAL FROM DUAL";
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.TransactionConsumer.repository.sql;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Standard multi-row VALUES, one statement per table. Runs on any database
+ * that supports it (H2, PostgreSQL, Oracle 23ai) and is used to verify the
+ * single-statement mode locally.
+ */
+public class PortableDialect implements SqlDialect {
+
+    @Override
+    public String getName() {
+        return "portable";
+    }
+
+    @Override
+    public List<InsertStatement> insertStatements(List<RowGroup> groups) {
+        List<InsertStatement> statements = new ArrayList<>(groups.size());
+        for (int i = 0; i < groups.size(); i++) {
+            RowGroup group = groups.get(i);
+            String values = String.join(", ", Collections.nCopies(group.getRowCount(), group.getTable().valuesTuple()));
+            statements.add(new InsertStatement(group.getTable().intoClause() + " VALUES " + values, i, i + 1));
+        }
+        return statements;
+    }
+
+    @Override
+    public String nextSequenceValue(String sequence) {
+        return "VALUES NEXT VALUE FOR " + sequence;
+    }
+}
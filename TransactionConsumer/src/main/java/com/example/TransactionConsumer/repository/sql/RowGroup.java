@@ -0,0 +1,13 @@
+package com.example.TransactionConsumer.repository.sql;
+
+import lombok.Value;
+
+/**
+ * A number of consecutive rows for the same table, as they appear in one write
+ */
+@Value
+public class RowGroup {
+
+    TableInsert table;
+    int rowCount;
+}
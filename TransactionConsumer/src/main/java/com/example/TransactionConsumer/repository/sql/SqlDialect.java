@@ -0,0 +1,29 @@
+package com.example.TransactionConsumer.repository.sql;
+
+import java.util.List;
+
+/**
+ * Turns the rows of one transaction into as few statements as the database
+ * allows. Every statement binds the rows of its groups in order.
+ */
+public interface SqlDialect {
+
+    String getName();
+
+    List<InsertStatement> insertStatements(List<RowGroup> groups);
+
+    /**
+     * Query returning one row with the next value of the sequence
+     */
+    String nextSequenceValue(String sequence);
+
+    static SqlDialect forName(String name) {
+        if (name == null || "oracle".equalsIgnoreCase(name)) {
+            return new OracleDialect();
+        }
+        if ("portable".equalsIgnoreCase(name)) {
+            return new PortableDialect();
+        }
+        throw new IllegalArgumentException("Unknown SQL dialect: " + name);
+    }
+}
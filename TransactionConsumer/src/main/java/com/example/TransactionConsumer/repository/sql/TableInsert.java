@@ -0,0 +1,44 @@
+package com.example.TransactionConsumer.repository.sql;
+
+import lombok.Value;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Column list of one insert target. The SQL text is derived once here
+ * instead of being concatenated on every call.
+ */
+@Value
+public class TableInsert {
+
+    String table;
+    List<String> columns;
+
+    public TableInsert(String table, List<String> columns) {
+        this.table = table;
+        this.columns = List.copyOf(columns);
+    }
+
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    /**
+     * (?, ?, ...) with one marker per column
+     */
+    public String valuesTuple() {
+        return "(" + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+    }
+
+    /**
+     * INSERT INTO TABLE (COLUMNS) without the VALUES clause
+     */
+    public String intoClause() {
+        return "INSERT INTO " + table + " (" + String.join(", ", columns) + ")";
+    }
+
+    public String insertSql() {
+        return intoClause() + " VALUES " + valuesTuple();
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.TransactionConsumer.service;
+
+import com.example.TransactionConsumer.config.WalProperties;
+import com.example.TransactionConsumer.parser.PayloadReader;
+import com.example.TransactionConsumer.repository.TransactionRepository;
+import com.example.TransactionConsumer.repository.TransactionRows;
+import com.example.TransactionConsumer.validator.PayloadValidator;
+import com.example.TransactionConsumer.wal.WalEntry;
+import com.example.TransactionConsumer.wal.WriteAheadLog;
+import com.jayway.jsonpath.DocumentContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accept mode backed by the write-ahead log: requests are validated and
+ * logged, and background drainers persist them through the repository.
+ * A failed write is retried with backoff until maxAttempts, so an Oracle
+ * outage only delays entries instead of rejecting requests. Entries whose
+ * transactionId {@link IdempotencyGuard} knows are marked persisted unwritten.
+ */
+@Service
+public class AsyncIngestionService {
+
+    private final WriteAheadLog writeAheadLog;
+    private final PayloadReader payloadReader;
+    private final PayloadValidator validator;
+    private final TransactionRepository repository;
+    private final IdempotencyGuard idempotencyGuard;
+    private final WalProperties properties;
+    private final List<Thread> drainers = new ArrayList<>();
+
+    private volatile boolean running;
+    private ScheduledExecutorService retryScheduler;
+
+    public AsyncIngestionService(WriteAheadLog writeAheadLog,
+                                 PayloadReader payloadReader,
+                                 PayloadValidator validator,
+                                 TransactionRepository repository,
+                                 IdempotencyGuard idempotencyGuard,
+                                 WalProperties properties) {
+        this.writeAheadLog = writeAheadLog;
+        this.payloadReader = payloadReader;
+        this.validator = validator;
+        this.repository = repository;
+        this.idempotencyGuard = idempotencyGuard;
+        this.properties = properties;
+    }
+
+    public boolean isEnabled() {
+        return writeAheadLog.isEnabled();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!writeAheadLog.isEnabled()) {
+            return;
+        }
+        running = true;
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "wal-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < Math.max(1, properties.getDrainers()); i++) {
+            Thread drainer = new Thread(this::drain, "wal-drainer-" + i);
+            drainer.setDaemon(true);
+            drainer.start();
+            drainers.add(drainer);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread drainer : drainers) {
+            drainer.interrupt();
+        }
+        for (Thread drainer : drainers) {
+            drainer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        if (retryScheduler != null) {
+            retryScheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Validate and log the payload. Returns the tracking id once it is in the log.
+     */
+    public long accept(InputStream body) throws IOException {
+        byte[] payload = body.readAllBytes();
+        validator.validate(payloadReader.read(payload));
+        return writeAheadLog.append(payload).getSequence();
+    }
+
+    public Optional<WalEntry> status(long trackingId) {
+        return writeAheadLog.find(trackingId);
+    }
+
+    private void drain() {
+        while (running) {
+            try {
+                List<WalEntry> batch = writeAheadLog.takePending(
+                        Math.max(1, properties.getDrainBatchSize()), 100, TimeUnit.MILLISECONDS);
+                if (!batch.isEmpty()) {
+                    persist(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                System.err.println("❌ WAL drainer error → " + e.getMessage());
+            }
+        }
+    }
+
+    void persist(List<WalEntry> batch) {
+        List<WalEntry> prepared = new ArrayList<>(batch.size());
+        List<String> claimed = new ArrayList<>(batch.size());
+        List<TransactionRows> rows = new ArrayList<>(batch.size());
+
+        for (WalEntry entry : batch) {
+            String transactionId = null;
+            try {
+                DocumentContext document = payloadReader.read(writeAheadLog.read(entry));
+                if (idempotencyGuard.isEnabled()) {
+                    String id = document.read("$.transactionId").toString();
+                    IdempotencyGuard.Claim claim = idempotencyGuard.claim(id);
+                    if (claim == IdempotencyGuard.Claim.DUPLICATE) {
+                        // an earlier request already stored these rows
+                        writeAheadLog.markPersisted(entry);
+                        continue;
+                    }
+                    if (claim == IdempotencyGuard.Claim.IN_FLIGHT) {
+                        // its outcome decides this entry's, not an attempt of its own
+                        requeue(entry, properties.getRetryBackoffMs());
+                        continue;
+                    }
+                    transactionId = id;
+                }
+                rows.add(repository.prepare(document));
+                prepared.add(entry);
+                claimed.add(transactionId);
+            } catch (RuntimeException e) {
+                release(transactionId, e);
+                retryOrFail(entry, e);
+            }
+        }
+
+        List<RuntimeException> failures;
+        try {
+            failures = repository.insertPrepared(rows);
+        } catch (RuntimeException e) {
+            for (int i = 0; i < prepared.size(); i++) {
+                release(claimed.get(i), e);
+                retryOrFail(prepared.get(i), e);
+            }
+            return;
+        }
+        for (int i = 0; i < prepared.size(); i++) {
+            if (failures.get(i) == null) {
+                if (claimed.get(i) != null) {
+                    idempotencyGuard.stored(claimed.get(i));
+                }
+                writeAheadLog.markPersisted(prepared.get(i));
+            } else {
+                release(claimed.get(i), failures.get(i));
+                retryOrFail(prepared.get(i), failures.get(i));
+            }
+        }
+    }
+
+    private void release(String transactionId, RuntimeException failure) {
+        if (transactionId != null) {
+            idempotencyGuard.abandoned(transactionId, failure);
+        }
+    }
+
+    private void retryOrFail(WalEntry entry, RuntimeException failure) {
+        int attempts = entry.incrementAttempts();
+        if (attempts >= properties.getMaxAttempts()) {
+            System.err.println("❌ WAL entry " + entry.getSequence() + " failed after " + attempts + " attempts → "
+                    + failure.getMessage());
+            writeAheadLog.markFailed(entry, failure.getMessage());
+            return;
+        }
+
+        long backoff = Math.min(properties.getMaxRetryBackoffMs(),
+                properties.getRetryBackoffMs() << Math.min(attempts - 1, 16));
+        requeue(entry, backoff);
+    }
+
+    private void requeue(WalEntry entry, long backoff) {
+        if (retryScheduler != null && !retryScheduler.isShutdown()) {
+            retryScheduler.schedule(() -> writeAheadLog.requeue(entry), backoff, TimeUnit.MILLISECONDS);
+        } else {
+            writeAheadLog.requeue(entry);
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.example.TransactionConsumer.service;
+
+import com.example.TransactionConsumer.admission.AdaptiveConcurrencyLimiter;
+import com.example.TransactionConsumer.config.BatchProperties;
+import com.example.TransactionConsumer.dto.BatchItemResult;
+import com.example.TransactionConsumer.dto.ErrorResponse;
+import com.example.TransactionConsumer.exception.LoadSheddingException;
+import com.example.TransactionConsumer.parser.PayloadReader;
+import com.example.TransactionConsumer.repository.TransactionRepository;
+import com.example.TransactionConsumer.repository.TransactionRows;
+import com.example.TransactionConsumer.validator.PayloadValidator;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.DocumentContext;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Ingests a JSON array or NDJSON stream of transactions.
+ * Items are read one at a time, validated and mapped in parallel per chunk,
+ * written with one JDBC batch per table, and a result line per item is
+ * flushed back before the next chunk is read.
+ *
+ * <p>Each item passes the same validator, idempotency guard and admission
+ * limiter as a single POST. Where the result line replaces the HTTP status
+ * it deliberately differs:
+ * <ul>
+ *   <li>a failed write, or mappings that are not loaded, fails the item instead
+ *       of spooling it to the write-ahead log: the line already tells the client
+ *       which items to resend, a spooled item would report CREATED for rows
+ *       that may never be written</li>
+ *   <li>an id another request is still writing fails the item instead of
+ *       waiting for that write, so a chunk never blocks on itself</li>
+ *   <li>the limiter admits whole chunks; a shed chunk fails its items</li>
+ * </ul>
+ */
+@Service
+public class BatchIngestionService {
+
+    private static final String MALFORMED = "Malformed JSON request";
+
+    private final PayloadReader payloadReader;
+    private final PayloadValidator validator;
+    private final TransactionRepository repository;
+    private final IdempotencyGuard idempotencyGuard;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final ExecutorService workers;
+
+    public BatchIngestionService(PayloadReader payloadReader,
+                                 PayloadValidator validator,
+                                 TransactionRepository repository,
+                                 IdempotencyGuard idempotencyGuard,
+                                 AdaptiveConcurrencyLimiter limiter,
+                                 ObjectMapper objectMapper,
+                                 BatchProperties properties) {
+        this.payloadReader = payloadReader;
+        this.validator = validator;
+        this.repository = repository;
+        this.idempotencyGuard = idempotencyGuard;
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+        this.chunkSize = Math.max(1, properties.getChunkSize());
+
+        int parallelism = properties.getParallelism() > 0
+                ? properties.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        this.workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "batch-ingest");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    public void process(InputStream body, OutputStream out) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+
+            generator.setRootValueSeparator(null);
+
+            List<BatchItem> chunk = new ArrayList<>(chunkSize);
+            int index = 0;
+            boolean malformed = false;
+
+            try {
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.START_ARRAY) {
+                    token = parser.nextToken();
+                }
+
+                while (token != null && token != JsonToken.END_ARRAY) {
+                    chunk.add(readItem(parser, index));
+                    index++;
+                    if (chunk.size() >= chunkSize) {
+                        write(generator, processChunk(chunk));
+                        chunk.clear();
+                    }
+                    token = parser.nextToken();
+                }
+            } catch (JsonProcessingException e) {
+                // the stream cannot be resynchronized after a syntax error
+                malformed = true;
+            }
+
+            write(generator, processChunk(chunk));
+            if (malformed) {
+                write(generator, List.of(BatchItemResult.rejected(index, null, MALFORMED)));
+            }
+        }
+    }
+
+    private BatchItem readItem(JsonParser parser, int index) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return new BatchItem(index, null);
+        }
+        return new BatchItem(index, payloadReader.readCurrent(parser));
+    }
+
+    /**
+     * A chunk takes one admission slot, like a single POST, so a batch cannot
+     * bypass the concurrency limit. Its latency is a chunk's, not a request's,
+     * so it is not sampled. A shed chunk fails each of its items for retry.
+     */
+    List<BatchItemResult> processChunk(List<BatchItem> chunk) {
+        if (chunk.isEmpty()) {
+            return List.of();
+        }
+
+        AdaptiveConcurrencyLimiter.Permit permit;
+        try {
+            permit = limiter.acquire(-1);
+        } catch (LoadSheddingException e) {
+            List<BatchItemResult> shed = new ArrayList<>(chunk.size());
+            for (BatchItem item : chunk) {
+                shed.add(item.document == null
+                        ? BatchItemResult.rejected(item.index, null, MALFORMED)
+                        : BatchItemResult.failed(item.index, transactionId(item.document), e.getReason()));
+            }
+            return shed;
+        }
+        try (permit) {
+            return writeChunk(chunk);
+        }
+    }
+
+    private List<BatchItemResult> writeChunk(List<BatchItem> chunk) {
+        List<CompletableFuture<PreparedItem>> futures = new ArrayList<>(chunk.size());
+        for (BatchItem item : chunk) {
+            futures.add(CompletableFuture.supplyAsync(() -> prepare(item), workers));
+        }
+
+        List<PreparedItem> prepared = new ArrayList<>(chunk.size());
+        List<TransactionRows> rows = new ArrayList<>(chunk.size());
+        for (CompletableFuture<PreparedItem> future : futures) {
+            PreparedItem item = future.join();
+            prepared.add(item);
+            if (item.rows != null) {
+                rows.add(item.rows);
+            }
+        }
+
+        List<RuntimeException> failures;
+        try {
+            failures = repository.insertPrepared(rows);
+        } catch (RuntimeException e) {
+            // claimed ids must not stay in flight
+            for (PreparedItem item : prepared) {
+                if (item.claimed) {
+                    idempotencyGuard.abandoned(item.transactionId, e);
+                }
+            }
+            throw e;
+        }
+
+        List<BatchItemResult> results = new ArrayList<>(chunk.size());
+        int written = 0;
+        for (PreparedItem item : prepared) {
+            if (item.result != null) {
+                results.add(item.result);
+                continue;
+            }
+            RuntimeException failure = failures.get(written++);
+            if (item.claimed) {
+                if (failure == null) {
+                    idempotencyGuard.stored(item.transactionId);
+                } else {
+                    idempotencyGuard.abandoned(item.transactionId, failure);
+                }
+            }
+            results.add(failure == null
+                    ? BatchItemResult.created(item.index, item.transactionId)
+                    : BatchItemResult.failed(item.index, item.transactionId, failure.getMessage()));
+        }
+        return results;
+    }
+
+    /**
+     * Same validation and mapping a single POST goes through
+     */
+    private PreparedItem prepare(BatchItem item) {
+        if (item.document == null) {
+            return PreparedItem.done(BatchItemResult.rejected(item.index, null, MALFORMED));
+        }
+
+        String transactionId = transactionId(item.document);
+        boolean claimed = false;
+        try {
+            validator.validate(item.document);
+            if (idempotencyGuard.isEnabled()) {
+                BatchItemResult duplicate = claim(item.index, transactionId);
+                if (duplicate != null) {
+                    return PreparedItem.done(duplicate);
+                }
+                claimed = true;
+            }
+            return PreparedItem.ready(item.index, transactionId, repository.prepare(item.document), claimed);
+        } catch (ErrorResponse e) {
+            return PreparedItem.done(BatchItemResult.rejected(item.index, transactionId, e.getReason()));
+        } catch (RuntimeException e) {
+            if (claimed) {
+                idempotencyGuard.abandoned(transactionId, e);
+            }
+            return PreparedItem.done(BatchItemResult.failed(item.index, transactionId, e.getMessage()));
+        }
+    }
+
+    /**
+     * Null once the id is claimed, otherwise the item's result: a known id is
+     * answered like a single POST would be, and an id being written by another
+     * request (or earlier in this chunk) fails so the client retries it.
+     */
+    private BatchItemResult claim(int index, String transactionId) {
+        switch (idempotencyGuard.claim(transactionId)) {
+            case DUPLICATE:
+                return idempotencyGuard.isRejectDuplicates()
+                        ? BatchItemResult.rejected(index, transactionId, "Duplicate transactionId " + transactionId)
+                        : BatchItemResult.created(index, transactionId);
+            case IN_FLIGHT:
+                return BatchItemResult.failed(index, transactionId,
+                        "transactionId " + transactionId + " is already being written");
+            default:
+                return null;
+        }
+    }
+
+    private void write(JsonGenerator generator, List<BatchItemResult> results) throws IOException {
+        for (BatchItemResult result : results) {
+            objectMapper.writeValue(generator, result);
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+
+    private static String transactionId(DocumentContext document) {
+        try {
+            Object value = document.read("$.transactionId");
+            return value != null ? value.toString() : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    static final class BatchItem {
+
+        private final int index;
+        private final DocumentContext document;
+
+        BatchItem(int index, DocumentContext document) {
+            this.index = index;
+            this.document = document;
+        }
+    }
+
+    private static final class PreparedItem {
+
+        private final int index;
+        private final String transactionId;
+        private final TransactionRows rows;
+        private final BatchItemResult result;
+        private final boolean claimed;
+
+        private PreparedItem(int index, String transactionId, TransactionRows rows, BatchItemResult result,
+                             boolean claimed) {
+            this.index = index;
+            this.transactionId = transactionId;
+            this.rows = rows;
+            this.result = result;
+            this.claimed = claimed;
+        }
+
+        static PreparedItem ready(int index, String transactionId, TransactionRows rows, boolean claimed) {
+            return new PreparedItem(index, transactionId, rows, null, claimed);
+        }
+
+        static PreparedItem done(BatchItemResult result) {
+            return new PreparedItem(result.getIndex(), result.getTransactionId(), null, result, false);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.TransactionConsumer.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free Bloom filter over strings with two generations. Once the
+ * current generation has taken expectedInsertions ids it becomes the
+ * previous one and a fresh generation starts, so the false-positive rate
+ * stays near its target instead of climbing as ids accumulate.
+ */
+final class BloomFilter {
+
+    private final int bits;
+    private final int hashes;
+    private final long expectedInsertions;
+    private final AtomicReference<Generation[]> generations;
+
+    BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        this.expectedInsertions = Math.max(1, expectedInsertions);
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-this.expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.bits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, m));
+        this.hashes = Math.max(1, (int) Math.round((double) bits / this.expectedInsertions * ln2));
+        this.generations = new AtomicReference<>(new Generation[]{new Generation(bits), new Generation(bits)});
+    }
+
+    boolean mightContain(String value) {
+        long[] hash = hash(value);
+        for (Generation generation : generations.get()) {
+            if (generation.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void put(String value) {
+        long[] hash = hash(value);
+        Generation[] current = generations.get();
+        current[0].put(hash);
+        if (current[0].insertions.sum() >= expectedInsertions) {
+            generations.compareAndSet(current, new Generation[]{new Generation(bits), current[0]});
+        }
+    }
+
+    int getBits() {
+        return bits;
+    }
+
+    int getHashes() {
+        return hashes;
+    }
+
+    private long[] hash(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        long h1 = 0xcbf29ce484222325L;
+        long h2 = 0x9e3779b97f4a7c15L;
+        for (byte b : bytes) {
+            h1 = (h1 ^ b) * 0x100000001b3L;
+            h2 = Long.rotateLeft(h2 ^ b, 31) * 0xbf58476d1ce4e5b9L;
+        }
+        return new long[]{mix(h1), mix(h2) | 1};
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private final class Generation {
+
+        private final AtomicLongArray words;
+        private final LongAdder insertions = new LongAdder();
+
+        private Generation(int bits) {
+            this.words = new AtomicLongArray((bits + 63) / 64);
+        }
+
+        private boolean mightContain(long[] hash) {
+            for (int i = 0; i < hashes; i++) {
+                int bit = index(hash, i);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void put(long[] hash) {
+            for (int i = 0; i < hashes; i++) {
+                int bit = index(hash, i);
+                long mask = 1L << bit;
+                int word = bit >>> 6;
+                long previous;
+                do {
+                    previous = words.get(word);
+                } while ((previous & mask) == 0 && !words.compareAndSet(word, previous, previous | mask));
+            }
+            insertions.increment();
+        }
+
+        private int index(long[] hash, int i) {
+            return (int) Long.remainderUnsigned(hash[0] + i * hash[1], bits);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.TransactionConsumer.service;
+
+import com.example.TransactionConsumer.config.ChangeFeedProperties;
+import com.example.TransactionConsumer.config.PersistenceProperties;
+import com.example.TransactionConsumer.dto.ChangeBatch;
+import com.example.TransactionConsumer.dto.ErrorResponse;
+import com.example.TransactionConsumer.dto.Watermark;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import com.example.TransactionConsumer.repository.TransactionChanges;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Change feed over RPLCTN_UPDT_TS for downstream replicators. A request with
+ * nothing new can wait: it is parked without a thread, and one background
+ * thread checks all parked requests every pollIntervalMillis with a single
+ * MAX(RPLCTN_UPDT_TS) probe, reading rows only for requests that have news.
+ * Rows younger than settleMillis are held back so a watermark never moves
+ * past a transaction that was stamped earlier but committed later. The
+ * writers stamp rows inside the database transaction, so settleMillis must
+ * cover the worst observed latency from stamping to commit. An opt-in
+ * txn.persistence.transaction-timeout-seconds bounds the statements of that
+ * transaction, not its commit.
+ */
+@Service
+public class ChangeFeedService {
+
+    private final TransactionChanges changes;
+    private final ChangeFeedProperties properties;
+    private final PersistenceProperties persistence;
+    private final TransactionMetrics metrics;
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private ScheduledExecutorService poller;
+    private boolean probeFailing;
+
+    public ChangeFeedService(TransactionChanges changes, ChangeFeedProperties properties,
+                             PersistenceProperties persistence, TransactionMetrics metrics) {
+        this.changes = changes;
+        this.properties = properties;
+        this.persistence = persistence;
+        this.metrics = metrics;
+        metrics.changeFeedGauge(waiters::size);
+    }
+
+    @PostConstruct
+    public void start() {
+        int timeout = persistence.getTransactionTimeoutSeconds();
+        if (timeout > 0 && properties.getSettleMillis() <= TimeUnit.SECONDS.toMillis(timeout)) {
+            System.err.println("⚠️ txn.change-feed.settle-millis=" + properties.getSettleMillis()
+                    + " does not exceed txn.persistence.transaction-timeout-seconds="
+                    + timeout + ", a slow commit can land behind a watermark");
+        } else if (timeout <= 0) {
+            System.out.println("✅ Change feed settles rows for " + properties.getSettleMillis()
+                    + " ms, keep it above the worst observed commit latency");
+        }
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(10, properties.getPollIntervalMillis());
+        poller.scheduleWithFixedDelay(this::poll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+        Waiter waiter;
+        while ((waiter = waiters.poll()) != null) {
+            waiter.result.complete(ChangeBatch.empty(waiter.after));
+        }
+    }
+
+    /**
+     * The next changes after the watermark. With none and waitSeconds > 0 the
+     * future completes once there are some, or empty when the wait is over.
+     */
+    public CompletableFuture<ChangeBatch> next(Watermark after, Integer size, int waitSeconds) {
+        int limit = size == null ? properties.getDefaultBatchSize() : size;
+        if (limit < 1 || limit > properties.getMaxBatchSize()) {
+            throw new ErrorResponse("size must be between 1 and " + properties.getMaxBatchSize());
+        }
+        if (waitSeconds < 0) {
+            throw new ErrorResponse("waitSeconds must not be negative");
+        }
+
+        ChangeBatch batch = changes.after(after, limit, settledBefore());
+        int wait = Math.min(waitSeconds, properties.getMaxWaitSeconds());
+        if (!batch.isEmpty() || wait == 0) {
+            metrics.changesDelivered("immediate", batch.getChanges().size());
+            return CompletableFuture.completedFuture(batch);
+        }
+
+        Waiter waiter = new Waiter(after, limit, System.nanoTime() + TimeUnit.SECONDS.toNanos(wait));
+        waiters.add(waiter);
+        // however it completes, it stops being polled
+        waiter.result.whenComplete((result, error) -> waiters.remove(waiter));
+        return waiter.result;
+    }
+
+    public int getWaiting() {
+        return waiters.size();
+    }
+
+    void poll() {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        LocalDateTime settledBefore = settledBefore();
+        LocalDateTime latest = null;
+        try {
+            latest = changes.latest(settledBefore);
+            if (probeFailing) {
+                probeFailing = false;
+                System.out.println("✅ Change-feed probe recovered");
+            }
+        } catch (RuntimeException e) {
+            if (!probeFailing) {
+                probeFailing = true;
+                System.err.println("⚠️ Change-feed probe failed, waiting long-polls time out empty: " + e.getMessage());
+            }
+        }
+
+        long now = System.nanoTime();
+        for (Iterator<Waiter> it = waiters.iterator(); it.hasNext(); ) {
+            Waiter waiter = it.next();
+            if (latest != null && waiter.mayHaveNews(latest)) {
+                try {
+                    ChangeBatch batch = changes.after(waiter.after, waiter.limit, settledBefore);
+                    if (!batch.isEmpty()) {
+                        it.remove();
+                        metrics.changesDelivered("longpoll", batch.getChanges().size());
+                        waiter.result.complete(batch);
+                        continue;
+                    }
+                } catch (RuntimeException e) {
+                    it.remove();
+                    waiter.result.completeExceptionally(e);
+                    continue;
+                }
+            }
+            if (now - waiter.deadline >= 0) {
+                it.remove();
+                waiter.result.complete(ChangeBatch.empty(waiter.after));
+            }
+        }
+    }
+
+    private LocalDateTime settledBefore() {
+        return LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(properties.getSettleMillis()));
+    }
+
+    private static final class Waiter {
+
+        private final Watermark after;
+        private final int limit;
+        private final long deadline;
+        private final CompletableFuture<ChangeBatch> result = new CompletableFuture<>();
+
+        private Waiter(Watermark after, int limit, long deadline) {
+            this.after = after;
+            this.limit = limit;
+            this.deadline = deadline;
+        }
+
+        /**
+         * A caught-up client sits exactly at latest, re-reading it every poll would
+         * defeat the probe. A late row with the watermark's own timestamp is picked
+         * up by the next request or with the next newer row.
+         */
+        private boolean mayHaveNews(LocalDateTime latest) {
+            return after == null || latest.isAfter(after.getUpdatedAt());
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.TransactionConsumer.service;
+
+import com.example.TransactionConsumer.config.FieldMapping;
+import com.example.TransactionConsumer.config.ValidationRules;
+import com.example.TransactionConsumer.id.IdGenerator;
+import com.example.TransactionConsumer.id.IdGenerators;
+import com.example.TransactionConsumer.validator.ValidationResult;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.PathNotFoundException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable, precompiled form of a {@link FieldMapping}.
+ * Path, pattern and allowed values are resolved once when the plan is built.
+ * Plain property/index paths are walked directly on the parsed tree, so a
+ * missing field or a failed rule is reported without throwing.
+ */
+public final class CompiledFieldMapping {
+
+    private static final Pattern SEGMENT = Pattern.compile("\\['([^'\\\\]*)'\\]|\\[(\\d+)\\]");
+    private static final Object MISSING = new Object();
+    private static final IdGenerators STANDALONE = IdGenerators.withoutDatabase();
+
+    private enum Source { JSON, CONSTANT, GENERATED, INVALID }
+
+    private final String key;
+    private final String path;
+    private final String column;
+    private final Source source;
+    private final JsonPath compiledPath;
+    private final Object[] segments;
+    private final String constant;
+    private final IdGenerator generator;
+    private final String invalidReason;
+    private final boolean required;
+    private final String defaultValue;
+    private final Set<String> allowed;
+    private final Pattern pattern;
+    private final Integer maxLength;
+    private final Integer min;
+    private final Integer max;
+    private final String reference;
+
+    private CompiledFieldMapping(String key, FieldMapping mapping, IdGenerators generators) {
+        ValidationRules rules = mapping.getValidation();
+
+        this.key = key;
+        this.path = mapping.getPath();
+        this.column = mapping.getColumn();
+        this.required = Boolean.TRUE.equals(mapping.getRequired());
+        this.defaultValue = mapping.getDefaultValue();
+        this.allowed = rules != null && rules.getAllowed() != null ? Set.copyOf(rules.getAllowed()) : null;
+        this.pattern = rules != null && rules.getPattern() != null ? Pattern.compile(rules.getPattern()) : null;
+        this.maxLength = rules != null ? rules.getMaxLength() : null;
+        this.min = rules != null ? rules.getMin() : null;
+        this.max = rules != null ? rules.getMax() : null;
+        this.reference = rules != null ? rules.getReference() : null;
+
+        String source = mapping.getSource();
+        if ("json".equals(source)) {
+            this.source = Source.JSON;
+            this.compiledPath = JsonPath.compile(path);
+            this.segments = segments(compiledPath.getPath());
+            this.constant = null;
+            this.generator = null;
+            this.invalidReason = null;
+        } else if ("constant".equals(source)) {
+            this.source = Source.CONSTANT;
+            this.compiledPath = null;
+            this.segments = null;
+            this.constant = mapping.getValue();
+            this.generator = null;
+            this.invalidReason = null;
+        } else if ("generated".equals(source)) {
+            this.source = Source.GENERATED;
+            this.compiledPath = null;
+            this.segments = null;
+            this.constant = null;
+            this.generator = generators.forMapping(mapping);
+            this.invalidReason = null;
+        } else {
+            this.source = Source.INVALID;
+            this.compiledPath = null;
+            this.segments = null;
+            this.constant = null;
+            this.generator = null;
+            this.invalidReason = "Unknown source: " + source;
+        }
+    }
+
+    private CompiledFieldMapping(String key, RuntimeException compileError) {
+        this.key = key;
+        this.path = null;
+        this.column = null;
+        this.source = Source.INVALID;
+        this.compiledPath = null;
+        this.segments = null;
+        this.constant = null;
+        this.generator = null;
+        this.invalidReason = "Invalid mapping: " + compileError.getMessage();
+        this.required = false;
+        this.defaultValue = null;
+        this.allowed = null;
+        this.pattern = null;
+        this.maxLength = null;
+        this.min = null;
+        this.max = null;
+        this.reference = null;
+    }
+
+    /**
+     * Compile with the UUID generators only, sequence-backed ids need {@link IdGenerators} from the context
+     */
+    public static CompiledFieldMapping compile(String key, FieldMapping mapping) {
+        return compile(key, mapping, STANDALONE);
+    }
+
+    /**
+     * Compile a mapping rule. A rule that cannot be compiled (bad path, regex
+     * or generator) fails only when it is extracted, the same way it did before
+     * plans existed.
+     */
+    public static CompiledFieldMapping compile(String key, FieldMapping mapping, IdGenerators generators) {
+        try {
+            return new CompiledFieldMapping(key, mapping, generators);
+        } catch (RuntimeException ex) {
+            return new CompiledFieldMapping(key, ex);
+        }
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Explicit target column, null when the table layout picks it from the key
+     */
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * Reference set the value is checked against by the validator, null when there is none
+     */
+    public String getReference() {
+        return reference;
+    }
+
+    /**
+     * True when the value is read from the payload rather than a constant or generator
+     */
+    public boolean isJsonSource() {
+        return source == Source.JSON;
+    }
+
+    /**
+     * Extract the value this rule describes from the document.
+     * Throws IllegalArgumentException with the first violation, for single-value callers.
+     */
+    public Object extract(DocumentContext document) {
+        ValidationResult result = new ValidationResult();
+        Object value = extract(document, result);
+        if (!result.isValid()) {
+            throw new IllegalArgumentException(result.getViolations().get(0).getMessage());
+        }
+        return value;
+    }
+
+    /**
+     * Extract the value without throwing. Every failed rule is added to result
+     * and null is returned, so the field is left out like a failed extraction.
+     */
+    public Object extract(DocumentContext document, ValidationResult result) {
+        switch (source) {
+            case CONSTANT:
+                return constant;
+            case GENERATED:
+                return generator.nextId();
+            case INVALID:
+                result.add(key, "mapping", invalidReason);
+                return null;
+            default:
+                break;
+        }
+
+        Object value = read(document);
+        if (value == MISSING) {
+            if (required) {
+                result.add(path, "required", "Missing required field: " + path);
+                return null;
+            }
+            return defaultValue;
+        }
+
+        return check(value, result) ? value : null;
+    }
+
+    private Object read(DocumentContext document) {
+        if (segments == null) {
+            // wildcards, filters and functions: let JsonPath evaluate them
+            try {
+                return document.read(compiledPath);
+            } catch (PathNotFoundException e) {
+                return MISSING;
+            }
+        }
+
+        Object node = document.json();
+        for (Object segment : segments) {
+            if (segment instanceof String && node instanceof Map) {
+                Map<?, ?> object = (Map<?, ?>) node;
+                if (!object.containsKey(segment)) {
+                    return MISSING;
+                }
+                node = object.get(segment);
+            } else if (segment instanceof Integer && node instanceof List) {
+                List<?> array = (List<?>) node;
+                int index = (Integer) segment;
+                if (index >= array.size()) {
+                    return MISSING;
+                }
+                node = array.get(index);
+            } else {
+                return MISSING;
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Returns false when any rule failed
+     */
+    private boolean check(Object value, ValidationResult result) {
+        if (value == null) {
+            return true;
+        }
+        String text = value.toString();
+        boolean valid = true;
+
+        // allowed values
+        if (allowed != null && !allowed.contains(text)) {
+            result.add(path, "allowed", "Value not allowed: " + text);
+            valid = false;
+        }
+
+        // regex pattern
+        if (pattern != null && !pattern.matcher(text).matches()) {
+            result.add(path, "pattern", "Invalid format: " + text);
+            valid = false;
+        }
+
+        // max length
+        if (maxLength != null && text.length() > maxLength) {
+            result.add(path, "maxLength", "Value too long: " + text);
+            valid = false;
+        }
+
+        // numeric validations
+        if (value instanceof Number) {
+            int num = ((Number) value).intValue();
+            if (min != null && num < min) {
+                result.add(path, "min", "Value less than minimum");
+                valid = false;
+            }
+            if (max != null && num > max) {
+                result.add(path, "max", "Value more than maximum");
+                valid = false;
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Split a normalized definite path into property names and indexes,
+     * or null when it needs full JsonPath evaluation
+     */
+    private static Object[] segments(String normalized) {
+        if (!normalized.startsWith("$")) {
+            return null;
+        }
+        List<Object> segments = new ArrayList<>();
+        Matcher matcher = SEGMENT.matcher(normalized);
+        int position = 1;
+        while (position < normalized.length()) {
+            if (!matcher.find(position) || matcher.start() != position) {
+                return null;
+            }
+            segments.add(matcher.group(1) != null ? matcher.group(1) : (Object) Integer.valueOf(matcher.group(2)));
+            position = matcher.end();
+        }
+        return segments.toArray();
+    }
+}
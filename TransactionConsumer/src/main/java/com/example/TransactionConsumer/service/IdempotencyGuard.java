@@ -0,0 +1,251 @@
+package com.example.TransactionConsumer.service;
+
+import com.example.TransactionConsumer.config.IdempotencyProperties;
+import com.example.TransactionConsumer.exception.DuplicateTransactionException;
+import com.example.TransactionConsumer.exception.LoadSheddingException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Remembers recently persisted transactionIds so upstream retries skip the
+ * mapping and inserts. A Bloom filter answers "never seen" without touching
+ * the exact cache; a hit is confirmed against the size-capped recent-id
+ * cache. Concurrent submissions of the same id share one execution.
+ * An id is remembered only once its rows are committed; a payload spooled
+ * to the write-ahead log is remembered when the drainer writes it.
+ * Callers check here before opening a database transaction, so a
+ * duplicate or a caller waiting on an id in flight holds no connection.
+ */
+@Component
+public class IdempotencyGuard {
+
+    private final IdempotencyProperties properties;
+    private final BloomFilter bloomFilter;
+    private final Map<String, Boolean> recent;
+    private final Map<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+
+    public IdempotencyGuard(IdempotencyProperties properties) {
+        this.properties = properties;
+        this.bloomFilter = new BloomFilter(properties.getExpectedIds(), properties.getFalsePositiveRate());
+        int capacity = Math.max(1, properties.getRecentCapacity());
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Run work once per transactionId. A known duplicate returns without
+     * running it (or is rejected with 409), and a caller that arrives while
+     * the same id is in flight waits up to in-flight-wait-ms for that
+     * execution's outcome, then is shed with 429 to retry later. Work
+     * returns false when it only spooled the payload for a later write; the
+     * id is not remembered then, so the replay is not taken for a duplicate.
+     */
+    public void execute(String transactionId, BooleanSupplier work) {
+        if (isKnown(transactionId)) {
+            duplicate(transactionId);
+            return;
+        }
+
+        CompletableFuture<Void> execution = new CompletableFuture<>();
+        CompletableFuture<Void> running = inFlight.putIfAbsent(transactionId, execution);
+        if (running != null) {
+            collapsed.increment();
+            await(transactionId, running);
+            return;
+        }
+
+        // finished by someone else between the lookup and claiming it
+        if (recent.containsKey(transactionId)) {
+            inFlight.remove(transactionId, execution);
+            execution.complete(null);
+            duplicate(transactionId);
+            return;
+        }
+
+        boolean stored;
+        try {
+            stored = work.getAsBoolean();
+        } catch (RuntimeException e) {
+            release(transactionId, execution, e);
+            throw e;
+        }
+        if (!stored) {
+            forget(transactionId, execution);
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        remember(transactionId, execution);
+                    } else {
+                        release(transactionId, execution,
+                                new IllegalStateException("Transaction " + transactionId + " was rolled back"));
+                    }
+                }
+            });
+        } else {
+            remember(transactionId, execution);
+        }
+    }
+
+    /**
+     * Claim an id for a write the caller runs itself, as the batch paths do.
+     * A CLAIMED id must be handed back through {@link #stored} or
+     * {@link #abandoned} once the write has committed or failed. An id in
+     * flight elsewhere is not waited for: the caller may be holding the rows
+     * that execution is waiting on.
+     */
+    public Claim claim(String transactionId) {
+        if (isKnown(transactionId)) {
+            return Claim.DUPLICATE;
+        }
+        CompletableFuture<Void> execution = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(transactionId, execution) != null) {
+            return Claim.IN_FLIGHT;
+        }
+        if (recent.containsKey(transactionId)) {
+            inFlight.remove(transactionId, execution);
+            execution.complete(null);
+            return Claim.DUPLICATE;
+        }
+        return Claim.CLAIMED;
+    }
+
+    /**
+     * The claimed id's rows are committed
+     */
+    public void stored(String transactionId) {
+        CompletableFuture<Void> execution = inFlight.get(transactionId);
+        if (execution != null) {
+            remember(transactionId, execution);
+        }
+    }
+
+    /**
+     * The claimed id's write failed, a retry may claim it again
+     */
+    public void abandoned(String transactionId, RuntimeException failure) {
+        CompletableFuture<Void> execution = inFlight.get(transactionId);
+        if (execution != null) {
+            release(transactionId, execution, failure);
+        }
+    }
+
+    public boolean isRejectDuplicates() {
+        return properties.isRejectDuplicates();
+    }
+
+    private boolean isKnown(String transactionId) {
+        if (!bloomFilter.mightContain(transactionId)) {
+            misses.increment();
+            return false;
+        }
+        if (recent.containsKey(transactionId)) {
+            hits.increment();
+            return true;
+        }
+        // a real false positive, or an id that has aged out of the recent cache
+        falsePositives.increment();
+        return false;
+    }
+
+    private void duplicate(String transactionId) {
+        if (properties.isRejectDuplicates()) {
+            throw new DuplicateTransactionException(transactionId);
+        }
+    }
+
+    private void remember(String transactionId, CompletableFuture<Void> execution) {
+        bloomFilter.put(transactionId);
+        recent.put(transactionId, Boolean.TRUE);
+        inFlight.remove(transactionId, execution);
+        execution.complete(null);
+    }
+
+    private void release(String transactionId, CompletableFuture<Void> execution, RuntimeException failure) {
+        inFlight.remove(transactionId, execution);
+        execution.completeExceptionally(failure);
+    }
+
+    private void forget(String transactionId, CompletableFuture<Void> execution) {
+        inFlight.remove(transactionId, execution);
+        execution.complete(null);
+    }
+
+    private void await(String transactionId, CompletableFuture<Void> running) {
+        long waitMs = properties.getInFlightWaitMs();
+        try {
+            running.get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // the retry finds the id stored, or claims it if that execution failed
+            throw new LoadSheddingException("in-flight wait",
+                    (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(waitMs)));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Transaction " + transactionId + " failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for transaction " + transactionId, e);
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getFalsePositives() {
+        return falsePositives.sum();
+    }
+
+    public long getCollapsed() {
+        return collapsed.sum();
+    }
+
+    public int getRecentSize() {
+        return recent.size();
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    int getBloomBits() {
+        return bloomFilter.getBits();
+    }
+
+    public enum Claim { CLAIMED, DUPLICATE, IN_FLIGHT }
+}
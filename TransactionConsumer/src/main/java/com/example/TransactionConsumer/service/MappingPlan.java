@@ -0,0 +1,105 @@
+package com.example.TransactionConsumer.service;
+
+import com.example.TransactionConsumer.config.FieldMapping;
+import com.example.TransactionConsumer.id.IdGenerators;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Value;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable snapshot of the mapping config compiled for the hot path.
+ * A new plan is built on every config refresh and swapped in as a whole.
+ */
+@Value
+public class MappingPlan {
+
+    // column names are concatenated into the SEND_* inserts, so only plain identifiers
+    private static final Pattern COLUMN_NAME = Pattern.compile("[A-Za-z][A-Za-z0-9_$#]*");
+
+    long version;
+    Instant compiledAt;
+    Duration compileTime;
+
+    List<CompiledFieldMapping> senderParty;
+    List<CompiledFieldMapping> recipientParty;
+    List<CompiledFieldMapping> senderAddress;
+    List<CompiledFieldMapping> recipientAddress;
+    List<CompiledFieldMapping> transaction;
+    List<CompiledFieldMapping> detail;
+    // every compiled mapping by the config object it was compiled from
+    @Getter(AccessLevel.NONE)
+    Map<FieldMapping, CompiledFieldMapping> compiled;
+
+    /**
+     * Same check the repository used against the live config: no sender party
+     * mappings means the config was never loaded.
+     */
+    public boolean isMappingsLoaded() {
+        return !senderParty.isEmpty();
+    }
+
+    /**
+     * This plan's compiled form of a configured mapping, null for one that is not in the config
+     */
+    public CompiledFieldMapping compiled(FieldMapping mapping) {
+        return compiled.get(mapping);
+    }
+
+    public static boolean isColumnName(String column) {
+        return COLUMN_NAME.matcher(column).matches();
+    }
+
+    /**
+     * Fails on a mapping that would write a column that is not a plain identifier:
+     * its explicit column, or for transaction and detail the key that names the column
+     */
+    void checkColumns() {
+        for (List<CompiledFieldMapping> party : List.of(senderParty, recipientParty, senderAddress, recipientAddress)) {
+            checkColumns(party, false);
+        }
+        checkColumns(transaction, true);
+        checkColumns(detail, true);
+    }
+
+    private static void checkColumns(List<CompiledFieldMapping> mappings, boolean keyIsColumn) {
+        for (CompiledFieldMapping mapping : mappings) {
+            String column = mapping.getColumn() != null ? mapping.getColumn() : keyIsColumn ? mapping.getKey() : null;
+            if (column != null && !isColumnName(column)) {
+                throw new IllegalArgumentException("Invalid column name for mapping " + mapping.getKey() + ": " + column);
+            }
+        }
+    }
+
+    public int getFieldCount() {
+        return senderParty.size() + recipientParty.size() + senderAddress.size() + recipientAddress.size()
+                + transaction.size() + detail.size();
+    }
+
+    /**
+     * Compiles a group, recording each compiled mapping under its config object in compiled
+     */
+    static List<CompiledFieldMapping> compileAll(Map<String, FieldMapping> mappings, IdGenerators generators,
+                                                 Map<FieldMapping, CompiledFieldMapping> compiledByMapping) {
+        if (mappings == null || mappings.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<CompiledFieldMapping> compiled = new ArrayList<>(mappings.size());
+        for (Map.Entry<String, FieldMapping> entry : mappings.entrySet()) {
+            if (entry.getValue() != null) {
+                CompiledFieldMapping mapping = CompiledFieldMapping.compile(entry.getKey(), entry.getValue(), generators);
+                compiled.add(mapping);
+                compiledByMapping.put(entry.getValue(), mapping);
+            }
+        }
+        return Collections.unmodifiableList(compiled);
+    }
+}
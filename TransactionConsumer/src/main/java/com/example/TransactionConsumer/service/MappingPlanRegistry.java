@@ -0,0 +1,132 @@
+package com.example.TransactionConsumer.service;
+
+import com.example.TransactionConsumer.config.EntityMapping;
+import com.example.TransactionConsumer.config.FieldMapping;
+import com.example.TransactionConsumer.config.TransactionMappingConfig;
+import com.example.TransactionConsumer.id.IdGenerators;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the active {@link MappingPlan}. The refresh-scoped config bean is only
+ * read while compiling, never on the request path. A plan whose keys or
+ * columns are not usable as SEND_* column names is rejected and the previous
+ * plan stays active.
+ */
+@Component
+public class MappingPlanRegistry {
+
+    private final TransactionMappingConfig mappingConfig;
+    private final IdGenerators generators;
+    private final AtomicLong versions = new AtomicLong();
+
+    private volatile MappingPlan current;
+
+    public MappingPlanRegistry(TransactionMappingConfig mappingConfig, IdGenerators generators) {
+        this.mappingConfig = mappingConfig;
+        this.generators = generators;
+    }
+
+    /**
+     * Active plan, compiled on first use
+     */
+    public MappingPlan current() {
+        MappingPlan plan = current;
+        if (plan == null) {
+            plan = rebuild();
+        }
+        return plan;
+    }
+
+    /**
+     * Recompile after /actuator/refresh rebuilt the config bean
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void onRefresh() {
+        rebuild();
+    }
+
+    public synchronized MappingPlan rebuild() {
+        long start = System.nanoTime();
+        Instant compiledAt = Instant.now();
+
+        List<CompiledFieldMapping> senderParty;
+        List<CompiledFieldMapping> recipientParty;
+        List<CompiledFieldMapping> senderAddress;
+        List<CompiledFieldMapping> recipientAddress;
+        List<CompiledFieldMapping> transaction;
+        List<CompiledFieldMapping> detail;
+        // by identity: FieldMapping equality is by value and two keys may hold equal mappings
+        Map<FieldMapping, CompiledFieldMapping> compiled = new IdentityHashMap<>();
+        try {
+            senderParty = MappingPlan.compileAll(party(mappingConfig.getSender()), generators, compiled);
+            recipientParty = MappingPlan.compileAll(party(mappingConfig.getRecipient()), generators, compiled);
+            senderAddress = MappingPlan.compileAll(address("sender"), generators, compiled);
+            recipientAddress = MappingPlan.compileAll(address("recipient"), generators, compiled);
+            transaction = MappingPlan.compileAll(transaction(mappingConfig.getPayment()), generators, compiled);
+            detail = MappingPlan.compileAll(detail(mappingConfig.getTransactionDetail()), generators, compiled);
+        } catch (Exception e) {
+            System.err.println("❌ Mapping plan compile failed → " + e.getMessage());
+            if (current != null) {
+                return current;
+            }
+            senderParty = recipientParty = senderAddress = recipientAddress = transaction = detail = List.of();
+            compiled.clear();
+        }
+
+        MappingPlan plan = new MappingPlan(
+                versions.incrementAndGet(),
+                compiledAt,
+                Duration.ofNanos(System.nanoTime() - start),
+                senderParty,
+                recipientParty,
+                senderAddress,
+                recipientAddress,
+                transaction,
+                detail,
+                Collections.unmodifiableMap(compiled)
+        );
+        try {
+            // the SEND_* layouts turn keys and columns into SQL, a plan they cannot take never goes live
+            plan.checkColumns();
+        } catch (RuntimeException e) {
+            System.err.println("❌ Mapping plan v" + plan.getVersion() + " rejected → " + e.getMessage());
+            if (current != null) {
+                return current;
+            }
+            plan = new MappingPlan(plan.getVersion(), compiledAt, plan.getCompileTime(),
+                    List.of(), List.of(), List.of(), List.of(), List.of(), List.of(), Map.of());
+        }
+        current = plan;
+
+        System.out.println("✅ Mapping plan v" + plan.getVersion() + " compiled in "
+                + plan.getCompileTime().toNanos() / 1_000 + " µs");
+        return plan;
+    }
+
+    private Map<String, FieldMapping> party(EntityMapping entity) {
+        return entity != null ? entity.getParty() : null;
+    }
+
+    private Map<String, FieldMapping> transaction(EntityMapping entity) {
+        return entity != null ? entity.getTransaction() : null;
+    }
+
+    private Map<String, FieldMapping> detail(EntityMapping entity) {
+        return entity != null ? entity.getDetail() : null;
+    }
+
+    private Map<String, FieldMapping> address(String type) {
+        Map<String, Map<String, FieldMapping>> address = mappingConfig.getAddress();
+        return address != null ? address.get(type) : null;
+    }
+}
@@ -2,118 +2,133 @@ package com.example.TransactionConsumer.service;
 
 import com.example.TransactionConsumer.config.FieldMapping;
 import com.example.TransactionConsumer.config.TransactionMappingConfig;
-import com.example.TransactionConsumer.config.ValidationRules;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import com.example.TransactionConsumer.validator.ValidationResult;
+import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
-import com.jayway.jsonpath.PathNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 
 @Service
 public class MappingService {
 
     private final TransactionMappingConfig mappingConfig;
+    private final TransactionMetrics metrics;
+    private final MappingPlanRegistry planRegistry;
 
-    public MappingService(TransactionMappingConfig mappingConfig) {
+    public MappingService(TransactionMappingConfig mappingConfig, TransactionMetrics metrics,
+                          MappingPlanRegistry planRegistry) {
         this.mappingConfig = mappingConfig;
+        this.metrics = metrics;
+        this.planRegistry = planRegistry;
     }
 
     /**
      * Extract a single value according to mapping rule
      */
     public Object extractValue(String json, FieldMapping mapping) {
+        return extractValue(JsonPath.parse(json), mapping);
+    }
+
+    /**
+     * Extract a single value from an already parsed document
+     */
+    public Object extractValue(DocumentContext document, FieldMapping mapping) {
         if (mapping == null) {
             return null;
         }
 
-        switch (mapping.getSource()) {
-            case "json":
-                return extractFromJson(json, mapping);
-            case "constant":
-                return mapping.getValue();
-            case "generated":
-                return UUID.randomUUID().toString();
-            default:
-                throw new IllegalArgumentException("Unknown source: " + mapping.getSource());
-        }
+        return compiled(null, mapping).extract(document);
     }
 
     /**
-     * Extract JSON path with validation + default handling
+     * Extract all values for a given mapping
      */
-    private Object extractFromJson(String json, FieldMapping mapping) {
-        try {
-            Object value = JsonPath.read(json, mapping.getPath());
+    public Map<String, Object> extractAllValues(String json, Map<String, FieldMapping> mappings) {
+        return extractAllValues(JsonPath.parse(json), mappings);
+    }
 
-            validateValue(value, mapping);
-            return value;
+    /**
+     * Extract all values for a given mapping from an already parsed document
+     */
+    public Map<String, Object> extractAllValues(DocumentContext document, Map<String, FieldMapping> mappings) {
+        Map<String, Object> result = new HashMap<>();
+
+        if (mappings == null) return result;
 
-        } catch (PathNotFoundException e) {
-            if (Boolean.TRUE.equals(mapping.getRequired())) {
-                throw new IllegalArgumentException("Missing required field: " + mapping.getPath());
+        long start = System.nanoTime();
+        for (Map.Entry<String, FieldMapping> entry : mappings.entrySet()) {
+            if (entry.getValue() != null) {
+                extractInto(result, entry.getKey(), document, compiled(entry.getKey(), entry.getValue()));
             }
-            return mapping.getDefaultValue();
         }
+        metrics.recordExtract(start);
+        return result;
     }
 
     /**
-     * Validate field value based on provided rules
+     * Extract all values for a precompiled mapping group from the active plan
      */
-    private void validateValue(Object value, FieldMapping mapping) {
-        if (value == null || mapping.getValidation() == null) {
-            return;
-        }
+    public Map<String, Object> extractAllValues(DocumentContext document, List<CompiledFieldMapping> mappings) {
+        Map<String, Object> result = new HashMap<>();
 
-        ValidationRules rules = mapping.getValidation();
+        if (mappings == null) return result;
 
-        // allowed values
-        if (rules.getAllowed() != null && !rules.getAllowed().contains(value.toString())) {
-            throw new IllegalArgumentException("Value not allowed: " + value);
+        long start = System.nanoTime();
+        for (CompiledFieldMapping mapping : mappings) {
+            extractInto(result, mapping.getKey(), document, mapping);
         }
+        metrics.recordExtract(start);
+        return result;
+    }
 
-        // regex pattern
-        if (rules.getPattern() != null && !value.toString().matches(rules.getPattern())) {
-            throw new IllegalArgumentException("Invalid format: " + value);
-        }
+    /**
+     * Extract a precompiled group into an array aligned with the mapping list,
+     * null where a field is absent or failed. Lets table layouts bind by index.
+     */
+    public Object[] extractValues(DocumentContext document, List<CompiledFieldMapping> mappings) {
+        Object[] values = new Object[mappings.size()];
 
-        // max length
-        if (rules.getMaxLength() != null && value.toString().length() > rules.getMaxLength()) {
-            throw new IllegalArgumentException("Value too long: " + value);
+        long start = System.nanoTime();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = extract(document, mappings.get(i));
         }
+        metrics.recordExtract(start);
+        return values;
+    }
 
-        // numeric validations
-        if (value instanceof Number) {
-            int num = ((Number) value).intValue();
-            if (rules.getMin() != null && num < rules.getMin()) {
-                throw new IllegalArgumentException("Value less than minimum");
-            }
-            if (rules.getMax() != null && num > rules.getMax()) {
-                throw new IllegalArgumentException("Value more than maximum");
-            }
+    /**
+     * A field that fails its rules is logged and left out, the rest of the group is still mapped
+     */
+    private void extractInto(Map<String, Object> result, String key, DocumentContext document,
+                             CompiledFieldMapping mapping) {
+        Object value = extract(document, mapping);
+        if (value != null) {
+            result.put(key, value);
         }
     }
 
     /**
-     * Extract all values for a given mapping
+     * A configured mapping comes precompiled from the active plan, only one
+     * built outside the config is compiled per call
      */
-    public Map<String, Object> extractAllValues(String json, Map<String, FieldMapping> mappings) {
-        Map<String, Object> result = new HashMap<>();
-
-        if (mappings == null) return result;
+    private CompiledFieldMapping compiled(String key, FieldMapping mapping) {
+        CompiledFieldMapping compiled = planRegistry.current().compiled(mapping);
+        return compiled != null ? compiled : CompiledFieldMapping.compile(key, mapping);
+    }
 
-        for (Map.Entry<String, FieldMapping> entry : mappings.entrySet()) {
-            try {
-                Object value = extractValue(json, entry.getValue());
-                if (value != null) {
-                    result.put(entry.getKey(), value);
-                }
-            } catch (Exception ex) {
-                System.err.println("Mapping failed for " + entry.getKey() + ": " + ex.getMessage());
-            }
+    private Object extract(DocumentContext document, CompiledFieldMapping mapping) {
+        ValidationResult violations = new ValidationResult();
+        Object value = mapping.extract(document, violations);
+        if (!violations.isValid()) {
+            metrics.mappingFailed(mapping.getKey());
+            System.err.println("Mapping failed for " + mapping.getKey() + ": " + violations.summary());
+            return null;
         }
-        return result;
+        return value;
     }
 
     // =========================================================
@@ -0,0 +1,169 @@
+package com.example.TransactionConsumer.service;
+
+import com.example.TransactionConsumer.exception.PipelineSaturatedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One step of the {@link StagedPipeline}: a fixed set of workers fed from a
+ * bounded queue. A full queue rejects instead of growing.
+ */
+public class PipelineStage {
+
+    private final String name;
+    private final int workers;
+    private final int retryAfterSeconds;
+    private final BlockingQueue<StageTask<?>> queue;
+    private final List<Thread> threads = new ArrayList<>();
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder serviceNanos = new LongAdder();
+    private final LongAccumulator maxServiceNanos = new LongAccumulator(Math::max, 0);
+
+    private volatile boolean running;
+
+    PipelineStage(String name, int workers, int queueCapacity, int retryAfterSeconds) {
+        this.name = name;
+        this.workers = Math.max(1, workers);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+    }
+
+    void start() {
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            Thread thread = new Thread(this::work, "pipeline-" + name + "-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        List<StageTask<?>> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        for (StageTask<?> task : abandoned) {
+            task.future.completeExceptionally(new CancellationException("Pipeline stopped"));
+        }
+    }
+
+    /**
+     * Queue work for this stage, waiting up to waitMs for room (0 = reject straight away)
+     */
+    <T> CompletableFuture<T> submit(Callable<T> work, long waitMs) {
+        StageTask<T> task = new StageTask<>(work);
+        boolean queued;
+        try {
+            queued = waitMs > 0 ? queue.offer(task, waitMs, TimeUnit.MILLISECONDS) : queue.offer(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            rejected.increment();
+            throw new PipelineSaturatedException(name, retryAfterSeconds);
+        }
+        return task.future;
+    }
+
+    private void work() {
+        while (running) {
+            StageTask<?> task;
+            try {
+                task = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            run(task);
+        }
+    }
+
+    private <T> void run(StageTask<T> task) {
+        active.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            task.future.complete(task.work.call());
+        } catch (Throwable e) {
+            failed.increment();
+            task.future.completeExceptionally(e);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            serviceNanos.add(elapsed);
+            maxServiceNanos.accumulate(elapsed);
+            completed.increment();
+            active.decrementAndGet();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getQueueCapacity() {
+        return queue.size() + queue.remainingCapacity();
+    }
+
+    public int getActive() {
+        return active.get();
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public double getAverageServiceMillis() {
+        long count = completed.sum();
+        return count == 0 ? 0 : serviceNanos.sum() / (double) count / 1_000_000;
+    }
+
+    public double getMaxServiceMillis() {
+        return maxServiceNanos.get() / 1_000_000.0;
+    }
+
+    private static final class StageTask<T> {
+
+        private final Callable<T> work;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private StageTask(Callable<T> work) {
+            this.work = work;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.TransactionConsumer.service;
+
+import com.example.TransactionConsumer.config.PipelineProperties;
+import com.example.TransactionConsumer.parser.PayloadReader;
+import com.example.TransactionConsumer.repository.TransactionRepository;
+import com.example.TransactionConsumer.repository.TransactionRows;
+import com.example.TransactionConsumer.validator.PayloadValidator;
+import com.jayway.jsonpath.DocumentContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Runs a POST as parse → validate/map → persist on separate worker pools.
+ * Parsing and mapping are CPU bound and sized to the cores, persisting
+ * blocks on JDBC and is sized to the connections. Stages hand off through
+ * bounded queues: a full downstream queue holds up the upstream worker for
+ * handOffTimeoutMs, and a full parse queue rejects the request outright.
+ */
+@Service
+public class StagedPipeline {
+
+    private final PayloadReader payloadReader;
+    private final PayloadValidator validator;
+    private final TransactionRepository repository;
+    private final IdempotencyGuard idempotencyGuard;
+    private final PipelineProperties properties;
+
+    private final PipelineStage parse;
+    private final PipelineStage map;
+    private final PipelineStage persist;
+
+    public StagedPipeline(PayloadReader payloadReader,
+                          PayloadValidator validator,
+                          TransactionRepository repository,
+                          IdempotencyGuard idempotencyGuard,
+                          PipelineProperties properties) {
+        this.payloadReader = payloadReader;
+        this.validator = validator;
+        this.repository = repository;
+        this.idempotencyGuard = idempotencyGuard;
+        this.properties = properties;
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        this.parse = stage("parse", properties.getParse(), cores);
+        this.map = stage("map", properties.getMap(), cores);
+        this.persist = stage("persist", properties.getPersist(), cores);
+    }
+
+    private PipelineStage stage(String name, PipelineProperties.Stage config, int cores) {
+        return new PipelineStage(name,
+                config.getWorkers() > 0 ? config.getWorkers() : cores,
+                config.getQueueCapacity(),
+                properties.getRetryAfterSeconds());
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (PipelineStage stage : getStages()) {
+            stage.start();
+        }
+        System.out.println("✅ Staged pipeline started (parse " + parse.getWorkers()
+                + ", map " + map.getWorkers() + ", persist " + persist.getWorkers() + " workers)");
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        for (PipelineStage stage : getStages()) {
+            stage.stop();
+        }
+    }
+
+    public List<PipelineStage> getStages() {
+        return List.of(parse, map, persist);
+    }
+
+    /**
+     * Run one request through the stages and wait for it to be persisted
+     */
+    public void process(byte[] body) {
+        try {
+            submit(body).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    CompletableFuture<Void> submit(byte[] body) {
+        long handOff = properties.getHandOffTimeoutMs();
+
+        return parse.submit(() -> payloadReader.read(body), 0)
+                .thenCompose(document -> map.submit(() -> validateAndMap(document, body), handOff))
+                .thenCompose(mapped -> persist.submit(() -> {
+                    if (idempotencyGuard.isEnabled()) {
+                        // same duplicate handling as a synchronous POST
+                        idempotencyGuard.execute(mapped.document.read("$.transactionId").toString(),
+                                () -> store(mapped));
+                    } else {
+                        store(mapped);
+                    }
+                    return null;
+                }, handOff));
+    }
+
+    private boolean store(Mapped mapped) {
+        if (mapped.rows != null) {
+            return repository.insertRows(mapped.document, mapped.body, mapped.rows);
+        }
+        // unmapped: let insertAll log it and take the fallback path
+        return repository.insertAll(mapped.document, mapped.body);
+    }
+
+    private Mapped validateAndMap(DocumentContext document, byte[] body) {
+        validator.validate(document);
+        TransactionRows rows;
+        try {
+            rows = repository.prepare(document);
+        } catch (RuntimeException e) {
+            rows = null;
+        }
+        return new Mapped(document, body, rows);
+    }
+
+    private static final class Mapped {
+
+        private final DocumentContext document;
+        // spooled as received when the write falls back to the write-ahead log
+        private final byte[] body;
+        private final TransactionRows rows;
+
+        private Mapped(DocumentContext document, byte[] body, TransactionRows rows) {
+            this.document = document;
+            this.body = body;
+            this.rows = rows;
+        }
+    }
+}
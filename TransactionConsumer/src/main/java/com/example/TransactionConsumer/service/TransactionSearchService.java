@@ -0,0 +1,83 @@
+package com.example.TransactionConsumer.service;
+
+import com.example.TransactionConsumer.dto.ErrorResponse;
+import com.example.TransactionConsumer.dto.SearchCursor;
+import com.example.TransactionConsumer.dto.TransactionSearchCriteria;
+import com.example.TransactionConsumer.repository.TransactionSearch;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Streams search results as one JSON document:
+ * {"transactions":[...],"count":n,"nextCursor":"..."}. Rows are written as
+ * they are read and flushed every FLUSH_EVERY rows, so memory stays flat
+ * however many rows match. nextCursor is only there when limit cut the
+ * results short.
+ */
+@Service
+public class TransactionSearchService {
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final TransactionSearch search;
+    private final ObjectMapper objectMapper;
+    // flushing after every row would send one chunk per row
+    private final ObjectWriter rowWriter;
+
+    public TransactionSearchService(TransactionSearch search, ObjectMapper objectMapper) {
+        this.search = search;
+        this.objectMapper = objectMapper;
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Reject bad criteria before anything is streamed, the status cannot change after the first row
+     */
+    public void validate(TransactionSearchCriteria criteria) {
+        if (criteria.getFrom() != null && criteria.getTo() != null && !criteria.getFrom().isBefore(criteria.getTo())) {
+            throw new ErrorResponse("from must be before to");
+        }
+        if (criteria.getLimit() < 0) {
+            throw new ErrorResponse("limit must not be negative");
+        }
+    }
+
+    public void search(TransactionSearchCriteria criteria, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("transactions");
+
+            long[] count = {0};
+            SearchCursor next;
+            try {
+                next = search.stream(criteria, row -> {
+                    try {
+                        rowWriter.writeValue(generator, row);
+                        if (++count[0] % FLUSH_EVERY == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                // client went away
+                throw e.getCause();
+            }
+
+            generator.writeEndArray();
+            generator.writeNumberField("count", count[0]);
+            if (next != null) {
+                generator.writeStringField("nextCursor", next.encode());
+            }
+            generator.writeEndObject();
+        }
+    }
+}
@@ -1,24 +1,71 @@
 package com.example.TransactionConsumer.service;
 
+import com.example.TransactionConsumer.dto.TransactionView;
+import com.example.TransactionConsumer.parser.PayloadReader;
+import com.example.TransactionConsumer.repository.TransactionReadCache;
 import com.example.TransactionConsumer.repository.TransactionRepository;
 import com.example.TransactionConsumer.validator.PayloadValidator;
+import com.jayway.jsonpath.DocumentContext;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
 
 @Service
 public class TransactionService {
 
     private final TransactionRepository repo;
     private final PayloadValidator validator;
+    private final PayloadReader payloadReader;
+    private final IdempotencyGuard idempotencyGuard;
+    private final TransactionReadCache readCache;
 
-    public TransactionService(TransactionRepository repo, PayloadValidator validator) {
+    public TransactionService(TransactionRepository repo,
+                              PayloadValidator validator,
+                              PayloadReader payloadReader,
+                              IdempotencyGuard idempotencyGuard,
+                              TransactionReadCache readCache) {
         this.repo = repo;
         this.validator = validator;
+        this.payloadReader = payloadReader;
+        this.idempotencyGuard = idempotencyGuard;
+        this.readCache = readCache;
+    }
+
+    public void processTransaction(byte[] body) {
+        process(payloadReader.read(body), body);
+    }
+
+    public void processTransaction(DocumentContext document) {
+        process(document, null);
+    }
+
+    /**
+     * With body, the request as received, a spooled payload is the body
+     * rather than the document, which streaming extraction prunes
+     */
+    public void processTransaction(DocumentContext document, byte[] body) {
+        process(document, body);
+    }
+
+    /**
+     * Not transactional: the idempotency check answers duplicates and callers
+     * of an id in flight without a connection, only insertAll opens one
+     */
+    private void process(DocumentContext document, byte[] body) {
+        validator.validate(document);
+        if (idempotencyGuard.isEnabled()) {
+            // retries of a persisted id skip mapping and inserts
+            String transactionId = document.read("$.transactionId").toString();
+            idempotencyGuard.execute(transactionId, () -> repo.insertAll(document, body));
+        } else {
+            repo.insertAll(document, body);
+        }
     }
 
-    @Transactional
-    public void processTransaction(String json) {
-        validator.validate(json);
-        repo.insertAll(json);
+    /**
+     * A stored transaction, from the read cache when it was written or read recently
+     */
+    public Optional<TransactionView> find(String tranId) {
+        return readCache.get(tranId);
     }
-}
\ No newline at end of file
+}
@@ -1,27 +1,111 @@
 package com.example.TransactionConsumer.validator;
 
+import com.example.TransactionConsumer.config.ValidationProperties;
 import com.example.TransactionConsumer.dto.ErrorResponse;
+import com.example.TransactionConsumer.exception.ValidationFailedException;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import com.example.TransactionConsumer.service.CompiledFieldMapping;
+import com.example.TransactionConsumer.service.MappingPlan;
+import com.example.TransactionConsumer.service.MappingPlanRegistry;
+import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks the fixed required fields and the mapping plan's validation rules
+ * in one pass. Checks collect into a {@link ValidationResult}; the only
+ * exception is the single one thrown at the end when something failed.
+ */
 @Component
 public class PayloadValidator {
 
-    public void validate(String json) {
-        validateField(json, "$.transactionId", "transactionId");
-        validateField(json, "$.transactionType", "transactionType");
-        validateField(json, "$.amount", "amount");
-        validateField(json, "$.currency", "currency");
+    private static final String[] REQUIRED_FIELDS = {"transactionId", "transactionType", "amount", "currency"};
+
+    private final MappingPlanRegistry planRegistry;
+    private final ValidationProperties properties;
+    private final TransactionMetrics metrics;
+    private final ReferenceDataCache referenceData;
+
+    public PayloadValidator(MappingPlanRegistry planRegistry, ValidationProperties properties,
+                            TransactionMetrics metrics, ReferenceDataCache referenceData) {
+        this.planRegistry = planRegistry;
+        this.properties = properties;
+        this.metrics = metrics;
+        this.referenceData = referenceData;
     }
 
-    private void validateField(String json, String path, String fieldName) {
+    public void validate(String json) {
+        DocumentContext document;
         try {
-            Object value = JsonPath.read(json, path);
+            document = JsonPath.parse(json);
+        } catch (Exception ex) {
+            metrics.validationRejected("body", "malformed");
+            throw new ErrorResponse("Malformed JSON request");
+        }
+        validate(document);
+    }
+
+    /**
+     * Throws one stack-trace-free 400 listing every violation
+     */
+    public void validate(DocumentContext document) {
+        ValidationResult result = check(document);
+        if (!result.isValid()) {
+            throw new ValidationFailedException(result);
+        }
+    }
+
+    /**
+     * Run every check without throwing
+     */
+    public ValidationResult check(DocumentContext document) {
+        long start = System.nanoTime();
+        ValidationResult result = new ValidationResult();
+
+        Object root = document.json();
+        Map<?, ?> fields = root instanceof Map ? (Map<?, ?>) root : Map.of();
+        for (String field : REQUIRED_FIELDS) {
+            Object value = fields.get(field);
             if (value == null || value.toString().isBlank()) {
-                throw new ErrorResponse(fieldName + " is required");
+                result.add(field, "required", field + " is missing or invalid");
+            }
+        }
+
+        if (properties.isMappingRules()) {
+            MappingPlan plan = planRegistry.current();
+            if (plan != null) {
+                checkAll(document, plan.getSenderParty(), result);
+                checkAll(document, plan.getRecipientParty(), result);
+                checkAll(document, plan.getSenderAddress(), result);
+                checkAll(document, plan.getRecipientAddress(), result);
+                checkAll(document, plan.getTransaction(), result);
+                checkAll(document, plan.getDetail(), result);
+            }
+        }
+
+        for (Violation violation : result.getViolations()) {
+            metrics.validationRejected(violation.getField(), violation.getRule());
+        }
+        metrics.recordValidate(start);
+        return result;
+    }
+
+    /**
+     * Only payload-sourced fields; a broken mapping is a config problem, not the client's.
+     * Reference sets are checked from memory, only for values that passed the inline rules.
+     */
+    private void checkAll(DocumentContext document, List<CompiledFieldMapping> mappings, ValidationResult result) {
+        for (CompiledFieldMapping mapping : mappings) {
+            if (mapping.isJsonSource()) {
+                Object value = mapping.extract(document, result);
+                String reference = mapping.getReference();
+                if (reference != null && value != null && !referenceData.contains(reference, value)) {
+                    result.add(mapping.getPath(), "reference", "Unknown " + reference + ": " + value);
+                }
             }
-        } catch (Exception ex) {
-            throw new ErrorResponse(fieldName + " is missing or invalid");
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,202 @@
+package com.example.TransactionConsumer.validator;
+
+import com.example.TransactionConsumer.config.ReferenceDataProperties;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Reference tables (currencies, countries, institution codes) held in memory
+ * for the "reference" validation rule. Every set is loaded in full at startup
+ * and reloaded in the background; a reload builds new immutable sets and swaps
+ * them in with one volatile write, so a lookup is a lock-free hash probe that
+ * never reaches the database. A set that fails to reload keeps its old values.
+ */
+@Component
+public class ReferenceDataCache {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z][A-Za-z0-9_$#]*(\\.[A-Za-z][A-Za-z0-9_$#]*)?");
+
+    private final JdbcTemplate jdbc;
+    private final ReferenceDataProperties properties;
+    private final TransactionMetrics metrics;
+    private final Map<String, LongAdder> misses = new ConcurrentHashMap<>();
+
+    private volatile Map<String, ReferenceSet> sets = Map.of();
+    private volatile Instant lastRefresh;
+    private ScheduledExecutorService refresher;
+
+    public ReferenceDataCache(JdbcTemplate jdbc, ReferenceDataProperties properties, TransactionMetrics metrics) {
+        this.jdbc = jdbc;
+        this.properties = properties;
+        this.metrics = metrics;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        refresh();
+
+        long interval = properties.getRefreshIntervalSeconds();
+        if (interval > 0) {
+            refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "reference-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            refresher.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    /**
+     * Reload after /actuator/refresh, the set definitions may have changed
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void onRefresh() {
+        if (properties.isEnabled()) {
+            refresh();
+        }
+    }
+
+    /**
+     * True when value is in the set. A set that has not loaded lets every
+     * value through (counted as unavailable), so a database outage at startup
+     * does not turn into rejecting all traffic.
+     */
+    public boolean contains(String set, Object value) {
+        if (!properties.isEnabled() || value == null) {
+            return true;
+        }
+        ReferenceSet loaded = sets.get(set);
+        if (loaded == null) {
+            metrics.referenceUnavailable(set);
+            return true;
+        }
+        if (loaded.values.contains(value.toString())) {
+            return true;
+        }
+        misses.computeIfAbsent(set, key -> new LongAdder()).increment();
+        metrics.referenceMiss(set);
+        return false;
+    }
+
+    /**
+     * Reload every configured set from the database and swap them in together
+     */
+    public synchronized void refresh() {
+        Map<String, ReferenceSet> current = sets;
+        Map<String, ReferenceSet> next = new HashMap<>();
+        int failed = 0;
+
+        for (Map.Entry<String, ReferenceDataProperties.ReferenceTable> entry : properties.getSets().entrySet()) {
+            try {
+                next.put(entry.getKey(), load(entry.getValue()));
+            } catch (RuntimeException e) {
+                failed++;
+                System.err.println("❌ Reference set '" + entry.getKey() + "' not reloaded → " + e.getMessage());
+                ReferenceSet previous = current.get(entry.getKey());
+                if (previous != null) {
+                    next.put(entry.getKey(), previous);
+                }
+            }
+        }
+
+        sets = Map.copyOf(next);
+        lastRefresh = Instant.now();
+        System.out.println("✅ Reference data reloaded: " + (properties.getSets().size() - failed) + " of "
+                + properties.getSets().size() + " sets");
+    }
+
+    public Map<String, ReferenceSet> getSets() {
+        return sets;
+    }
+
+    public long getMisses(String set) {
+        LongAdder count = misses.get(set);
+        return count != null ? count.sum() : 0;
+    }
+
+    public Instant getLastRefresh() {
+        return lastRefresh;
+    }
+
+    private ReferenceSet load(ReferenceDataProperties.ReferenceTable table) {
+        // identifiers are concatenated into the query, keep them plain names
+        if (table.getTable() == null || !IDENTIFIER.matcher(table.getTable()).matches()
+                || table.getColumn() == null || !IDENTIFIER.matcher(table.getColumn()).matches()) {
+            throw new IllegalArgumentException("table and column must be plain identifiers");
+        }
+        String sql = "SELECT " + table.getColumn() + " FROM " + table.getTable()
+                + (table.getWhere() != null && !table.getWhere().isBlank() ? " WHERE " + table.getWhere() : "");
+
+        long start = System.nanoTime();
+        Set<String> values = new HashSet<>();
+        jdbc.query(sql, (RowCallbackHandler) rs -> {
+            String value = rs.getString(1);
+            if (value != null) {
+                // CHAR columns come back blank-padded
+                values.add(value.trim());
+            }
+        });
+        return new ReferenceSet(Set.copyOf(values), Instant.now(), Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * One loaded table, never modified after it is built
+     */
+    public static final class ReferenceSet {
+
+        private final Set<String> values;
+        private final Instant loadedAt;
+        private final Duration loadTime;
+
+        private ReferenceSet(Set<String> values, Instant loadedAt, Duration loadTime) {
+            this.values = values;
+            this.loadedAt = loadedAt;
+            this.loadTime = loadTime;
+        }
+
+        public int getSize() {
+            return values.size();
+        }
+
+        public Instant getLoadedAt() {
+            return loadedAt;
+        }
+
+        public Duration getLoadTime() {
+            return loadTime;
+        }
+    }
+}
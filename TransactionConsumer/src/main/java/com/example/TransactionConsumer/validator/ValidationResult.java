@@ -0,0 +1,60 @@
+package com.example.TransactionConsumer.validator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Collects every violation found in one pass over a payload.
+ * Checks add to it instead of throwing, so a rejected payload costs
+ * the same as an accepted one.
+ */
+public final class ValidationResult {
+
+    private List<Violation> violations;
+
+    /**
+     * A path mapped into several groups is checked once per group, keep only the first report
+     */
+    public void add(String field, String rule, String message) {
+        if (violations == null) {
+            violations = new ArrayList<>(4);
+        }
+        for (Violation existing : violations) {
+            if (Objects.equals(existing.getField(), field) && Objects.equals(existing.getRule(), rule)) {
+                return;
+            }
+        }
+        violations.add(new Violation(field, rule, message));
+    }
+
+    public boolean isValid() {
+        return violations == null;
+    }
+
+    public int size() {
+        return violations == null ? 0 : violations.size();
+    }
+
+    public List<Violation> getViolations() {
+        return violations == null ? Collections.emptyList() : Collections.unmodifiableList(violations);
+    }
+
+    /**
+     * Every message joined in the order found, for the single error string in the response
+     */
+    public String summary() {
+        if (violations == null) {
+            return "";
+        }
+        StringBuilder summary = new StringBuilder();
+        for (Violation violation : violations) {
+            if (summary.length() > 0) {
+                summary.append("; ");
+            }
+            summary.append(violation.getMessage());
+        }
+        return summary.toString();
+    }
+}
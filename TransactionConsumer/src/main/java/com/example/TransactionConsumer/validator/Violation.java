@@ -0,0 +1,14 @@
+package com.example.TransactionConsumer.validator;
+
+import lombok.Value;
+
+/**
+ * One failed check: the field (name or JSON path), the rule that failed and a readable message
+ */
+@Value
+public class Violation {
+
+    String field;
+    String rule;
+    String message;
+}
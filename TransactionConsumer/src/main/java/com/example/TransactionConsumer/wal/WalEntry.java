@@ -0,0 +1,67 @@
+package com.example.TransactionConsumer.wal;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Location and state of one logged payload. The payload itself stays in the
+ * mapped segment and is only copied out when a drainer reads it.
+ */
+public final class WalEntry {
+
+    private final long sequence;
+    private final WalSegment segment;
+    private final int position;
+    private final int length;
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    private volatile WalEntryState state;
+    private volatile String error;
+
+    WalEntry(long sequence, WalSegment segment, int position, int length, WalEntryState state) {
+        this.sequence = sequence;
+        this.segment = segment;
+        this.position = position;
+        this.length = length;
+        this.state = state;
+    }
+
+    /**
+     * A persisted entry of a deleted segment, its state is all that is left
+     */
+    static WalEntry deleted(long sequence) {
+        return new WalEntry(sequence, null, -1, 0, WalEntryState.PERSISTED);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public WalEntryState getState() {
+        return state;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public int incrementAttempts() {
+        return attempts.incrementAndGet();
+    }
+
+    WalSegment getSegment() {
+        return segment;
+    }
+
+    int getPosition() {
+        return position;
+    }
+
+    int getLength() {
+        return length;
+    }
+
+    void setState(WalEntryState state, String error) {
+        this.error = error;
+        this.state = state;
+    }
+}
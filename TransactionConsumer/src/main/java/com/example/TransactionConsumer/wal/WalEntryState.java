@@ -0,0 +1,18 @@
+package com.example.TransactionConsumer.wal;
+
+/**
+ * Stored as one byte in the record header and rewritten in place on acknowledgement
+ */
+public enum WalEntryState {
+    PENDING,
+    PERSISTED,
+    FAILED;
+
+    byte code() {
+        return (byte) ordinal();
+    }
+
+    static WalEntryState of(byte code) {
+        return values()[code];
+    }
+}
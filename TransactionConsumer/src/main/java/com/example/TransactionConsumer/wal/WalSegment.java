@@ -0,0 +1,200 @@
+package com.example.TransactionConsumer.wal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+/**
+ * One memory-mapped log file.
+ * Record layout: int length | long sequence | byte state | int crc32 | payload.
+ * The length is written last, so a torn record reads as the end of the segment.
+ */
+final class WalSegment {
+
+    static final int HEADER = 4 + 8 + 1 + 4;
+
+    private static final int STATE_OFFSET = 12;
+
+    private final Path file;
+    private final long baseSequence;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final AtomicInteger unacknowledged = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    private int writePosition;
+    private volatile boolean sealed;
+
+    private WalSegment(Path file, long baseSequence, FileChannel channel, MappedByteBuffer buffer) {
+        this.file = file;
+        this.baseSequence = baseSequence;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static Path fileName(Path directory, long baseSequence) {
+        return directory.resolve(String.format("wal-%020d.log", baseSequence));
+    }
+
+    static long baseSequence(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(4, name.length() - 4));
+    }
+
+    static WalSegment create(Path directory, long baseSequence, int size) throws IOException {
+        Path file = fileName(directory, baseSequence);
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new WalSegment(file, baseSequence, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+    }
+
+    static WalSegment open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        return new WalSegment(file, baseSequence(file), channel, buffer);
+    }
+
+    /**
+     * Read every intact record and position the writer after the last one
+     */
+    List<WalEntry> recover() {
+        List<WalEntry> entries = new ArrayList<>();
+        int position = 0;
+
+        while (position + HEADER <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER + length > buffer.capacity()) {
+                break;
+            }
+            long sequence = buffer.getLong(position + 4);
+            byte state = buffer.get(position + STATE_OFFSET);
+            int crc = buffer.getInt(position + 13);
+            if (crc != crc(position + HEADER, length) || state < 0 || state >= WalEntryState.values().length) {
+                break;
+            }
+
+            WalEntry entry = new WalEntry(sequence, this, position, length, WalEntryState.of(state));
+            if (entry.getState() == WalEntryState.PENDING) {
+                unacknowledged.incrementAndGet();
+            } else if (entry.getState() == WalEntryState.FAILED) {
+                failed.incrementAndGet();
+            }
+            entries.add(entry);
+            position += HEADER + length;
+        }
+
+        // drop a torn tail so the next append starts clean
+        if (position + 4 <= buffer.capacity()) {
+            buffer.putInt(position, 0);
+        }
+        writePosition = position;
+        return entries;
+    }
+
+    boolean hasRoomFor(int length) {
+        return writePosition + HEADER + length <= buffer.capacity();
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Caller holds the log's append lock
+     */
+    WalEntry append(long sequence, byte[] payload, boolean force) {
+        int position = writePosition;
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        buffer.putLong(position + 4, sequence);
+        buffer.put(position + STATE_OFFSET, WalEntryState.PENDING.code());
+        buffer.putInt(position + 13, (int) crc.getValue());
+        buffer.put(position + HEADER, payload);
+        buffer.putInt(position, payload.length);
+
+        if (force) {
+            buffer.force(position, HEADER + payload.length);
+        }
+
+        writePosition = position + HEADER + payload.length;
+        unacknowledged.incrementAndGet();
+        return new WalEntry(sequence, this, position, payload.length, WalEntryState.PENDING);
+    }
+
+    byte[] read(WalEntry entry) {
+        byte[] payload = new byte[entry.getLength()];
+        buffer.get(entry.getPosition() + HEADER, payload);
+        return payload;
+    }
+
+    /**
+     * Rewrite the state byte. Returns true when nothing in this segment is pending any more.
+     */
+    boolean acknowledge(WalEntry entry, WalEntryState state, boolean force) {
+        buffer.put(entry.getPosition() + STATE_OFFSET, state.code());
+        if (force) {
+            buffer.force(entry.getPosition() + STATE_OFFSET, 1);
+        }
+        if (state == WalEntryState.FAILED) {
+            failed.incrementAndGet();
+        }
+        return unacknowledged.decrementAndGet() == 0;
+    }
+
+    boolean isFullyAcknowledged() {
+        return unacknowledged.get() == 0;
+    }
+
+    /**
+     * Entries that gave up; their payload lives only in this file
+     */
+    int getFailedCount() {
+        return failed.get();
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void seal() {
+        sealed = true;
+    }
+
+    boolean isSealed() {
+        return sealed;
+    }
+
+    long getBaseSequence() {
+        return baseSequence;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(file);
+    }
+
+    private int crc(int position, int length) {
+        CRC32 crc = new CRC32();
+        ByteBuffer slice = buffer.slice(position, length);
+        crc.update(slice);
+        return (int) crc.getValue();
+    }
+}
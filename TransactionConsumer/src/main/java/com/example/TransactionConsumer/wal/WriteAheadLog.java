@@ -0,0 +1,257 @@
+package com.example.TransactionConsumer.wal;
+
+import com.example.TransactionConsumer.config.WalProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Local segmented write-ahead log over memory-mapped files.
+ * Accepted payloads are appended here and handed to drainers through the
+ * pending queue. On startup every entry that was never acknowledged is
+ * queued again. A sealed segment is deleted once every entry in it is
+ * persisted; one holding FAILED entries is kept, so their payloads can be
+ * replayed by hand and their status is still answered, across restarts too.
+ * A sequence handed out but no longer tracked was therefore persisted.
+ */
+@Component
+public class WriteAheadLog {
+
+    private final WalProperties properties;
+    private final List<WalSegment> segments = new CopyOnWriteArrayList<>();
+    private final Map<Long, WalEntry> entries = new ConcurrentHashMap<>();
+    private final BlockingQueue<WalEntry> pending = new LinkedBlockingQueue<>();
+    private final Object appendLock = new Object();
+
+    private Path directory;
+    private volatile WalSegment active;
+    private long nextSequence = 1;
+    private ScheduledExecutorService fsyncScheduler;
+
+    public WriteAheadLog(WalProperties properties) {
+        this.properties = properties;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        directory = Paths.get(properties.getDirectory());
+        Files.createDirectories(directory);
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing
+                    .filter(file -> file.getFileName().toString().matches("wal-\\d{20}\\.log"))
+                    .sorted()
+                    .toList();
+        }
+
+        int replayed = 0;
+        for (Path file : files) {
+            WalSegment segment = WalSegment.open(file);
+            for (WalEntry entry : segment.recover()) {
+                entries.put(entry.getSequence(), entry);
+                nextSequence = Math.max(nextSequence, entry.getSequence() + 1);
+                if (entry.getState() == WalEntryState.PENDING) {
+                    pending.add(entry);
+                    replayed++;
+                }
+            }
+            segments.add(segment);
+        }
+
+        // keep appending to the newest segment, seal and clean up the rest
+        active = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        for (WalSegment segment : List.copyOf(segments)) {
+            if (segment != active) {
+                segment.seal();
+                deleteIfDone(segment);
+            }
+        }
+
+        if (properties.getFsync() == WalProperties.Fsync.INTERVAL) {
+            fsyncScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "wal-fsync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            fsyncScheduler.scheduleWithFixedDelay(this::forceActive,
+                    properties.getFsyncIntervalMs(), properties.getFsyncIntervalMs(), TimeUnit.MILLISECONDS);
+        }
+
+        System.out.println("✅ Write-ahead log opened at " + directory.toAbsolutePath()
+                + " (" + segments.size() + " segments, " + replayed + " entries to replay)");
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (fsyncScheduler != null) {
+            fsyncScheduler.shutdown();
+        }
+        for (WalSegment segment : segments) {
+            segment.force();
+            segment.close();
+        }
+    }
+
+    /**
+     * Durably record a payload (per the fsync policy) and queue it for draining
+     */
+    public WalEntry append(byte[] payload) {
+        WalEntry entry;
+        synchronized (appendLock) {
+            WalSegment segment = segmentFor(payload.length);
+            entry = segment.append(nextSequence, payload, properties.getFsync() == WalProperties.Fsync.ALWAYS);
+            // only a sequence that made it into the log counts as handed out
+            nextSequence++;
+            entries.put(entry.getSequence(), entry);
+        }
+        pending.add(entry);
+        return entry;
+    }
+
+    /**
+     * Wait up to timeout for the first pending entry, then take up to max entries
+     */
+    public List<WalEntry> takePending(int max, long timeout, TimeUnit unit) throws InterruptedException {
+        List<WalEntry> batch = new ArrayList<>(max);
+        WalEntry first = pending.poll(timeout, unit);
+        if (first != null) {
+            batch.add(first);
+            pending.drainTo(batch, max - 1);
+        }
+        return batch;
+    }
+
+    /**
+     * Put an entry back for another attempt
+     */
+    public void requeue(WalEntry entry) {
+        if (entry.getState() == WalEntryState.PENDING) {
+            pending.add(entry);
+        }
+    }
+
+    public byte[] read(WalEntry entry) {
+        return entry.getSegment().read(entry);
+    }
+
+    public void markPersisted(WalEntry entry) {
+        acknowledge(entry, WalEntryState.PERSISTED, null);
+    }
+
+    public void markFailed(WalEntry entry, String error) {
+        acknowledge(entry, WalEntryState.FAILED, error);
+    }
+
+    /**
+     * The entry's state, PERSISTED for one whose segment was deleted since,
+     * empty for a sequence never handed out
+     */
+    public Optional<WalEntry> find(long sequence) {
+        WalEntry entry = entries.get(sequence);
+        if (entry != null) {
+            return Optional.of(entry);
+        }
+        synchronized (appendLock) {
+            entry = entries.get(sequence);
+            if (entry == null && sequence > 0 && sequence < nextSequence) {
+                // sequences only grow, and a segment is only deleted once all its entries are persisted
+                entry = WalEntry.deleted(sequence);
+            }
+        }
+        return Optional.ofNullable(entry);
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private void acknowledge(WalEntry entry, WalEntryState state, String error) {
+        WalSegment segment = entry.getSegment();
+        entry.setState(state, error);
+        boolean done = segment.acknowledge(entry, state, properties.getFsync() == WalProperties.Fsync.ALWAYS);
+        if (done && segment.isSealed()) {
+            synchronized (appendLock) {
+                deleteIfDone(segment);
+            }
+        }
+    }
+
+    private WalSegment segmentFor(int length) {
+        int size = properties.getSegmentSizeMb() * 1024 * 1024;
+        if (WalSegment.HEADER + length > size) {
+            throw new IllegalArgumentException("Payload of " + length + " bytes does not fit a WAL segment");
+        }
+        if (active != null && active.hasRoomFor(length)) {
+            return active;
+        }
+
+        try {
+            WalSegment previous = active;
+            active = WalSegment.create(directory, nextSequence, size);
+            segments.add(active);
+            if (previous != null) {
+                previous.seal();
+                previous.force();
+                deleteIfDone(previous);
+            }
+            return active;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot roll write-ahead log segment", e);
+        }
+    }
+
+    /**
+     * Caller holds the append lock
+     */
+    private void deleteIfDone(WalSegment segment) {
+        if (!segment.isFullyAcknowledged() || !segments.contains(segment)) {
+            return;
+        }
+        if (segment.getFailedCount() > 0) {
+            System.err.println("⚠️ Keeping WAL segment " + segment.getFile() + " for its "
+                    + segment.getFailedCount() + " failed entries");
+            return;
+        }
+        segments.remove(segment);
+        entries.values().removeIf(entry -> entry.getSegment() == segment);
+        try {
+            segment.delete();
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not delete WAL segment " + segment.getFile() + ": " + e.getMessage());
+        }
+    }
+
+    private void forceActive() {
+        WalSegment segment = active;
+        if (segment != null) {
+            segment.force();
+        }
+    }
+}
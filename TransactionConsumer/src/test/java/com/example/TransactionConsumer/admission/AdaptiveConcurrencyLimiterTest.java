@@ -0,0 +1,170 @@
+package com.example.TransactionConsumer.admission;
+
+import com.example.TransactionConsumer.config.AdmissionProperties;
+import com.example.TransactionConsumer.exception.LoadSheddingException;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private SimpleMeterRegistry registry;
+    private AdmissionProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        properties = new AdmissionProperties();
+        properties.setEnabled(true);
+        properties.setInitialLimit(2);
+        properties.setMinLimit(1);
+    }
+
+    // ==================== ADMISSION TESTS ====================
+
+    @Test
+    void shouldRejectOnceTheConcurrencyLimitIsReached() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        limiter.acquire(100);
+        limiter.acquire(100);
+
+        // Act
+        LoadSheddingException ex = assertThrows(LoadSheddingException.class, () -> limiter.acquire(100));
+
+        // Assert
+        assertEquals(429, ex.getStatusCode().value());
+        assertEquals("concurrency", ex.getLimit());
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(1.0, registry.get(TransactionMetrics.ADMISSION_REJECTIONS)
+                .tag("limit", "concurrency").counter().count());
+    }
+
+    @Test
+    void shouldReleaseThePermitOnClose() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = limiter();
+
+        // Act
+        try (AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire(100)) {
+            assertEquals(1, limiter.getInFlight());
+            assertEquals(100, limiter.getInFlightBytes());
+        }
+
+        // Assert
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(0, limiter.getInFlightBytes());
+    }
+
+    @Test
+    void shouldRejectWhenInFlightBytesWouldExceedTheCap() {
+        // Arrange
+        properties.setMaxInFlightBytes(1_000);
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        limiter.acquire(800);
+
+        // Act
+        LoadSheddingException ex = assertThrows(LoadSheddingException.class, () -> limiter.acquire(300));
+
+        // Assert
+        assertEquals("bytes", ex.getLimit());
+        assertEquals(1, limiter.getInFlight());
+        assertEquals(800, limiter.getInFlightBytes());
+    }
+
+    @Test
+    void shouldAdmitASingleRequestLargerThanTheByteCap() {
+        // Arrange
+        properties.setMaxInFlightBytes(1_000);
+        AdaptiveConcurrencyLimiter limiter = limiter();
+
+        // Act
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire(5_000);
+
+        // Assert
+        assertNotNull(permit);
+        assertEquals(5_000, limiter.getInFlightBytes());
+    }
+
+    @Test
+    void shouldAdmitEverythingWhenDisabled() {
+        // Arrange
+        properties.setEnabled(false);
+        AdaptiveConcurrencyLimiter limiter = limiter();
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire(100);
+        }
+
+        // Assert
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    // ==================== ALGORITHM TESTS ====================
+
+    @Test
+    void gradientShouldGrowAtSteadyLatencyAndShrinkWhenItRises() {
+        // Arrange
+        properties.setInitialLimit(20);
+        GradientLimit gradient = new GradientLimit(properties);
+
+        // Act
+        sample(gradient, 20, 1);
+        int grown = gradient.getLimit();
+        sample(gradient, 20, 10);
+
+        // Assert
+        assertTrue(grown > 20, "limit " + grown);
+        assertTrue(gradient.getLimit() < grown, "limit " + gradient.getLimit());
+    }
+
+    @Test
+    void gradientShouldNotGrowWhileBarelyLoaded() {
+        // Arrange
+        properties.setInitialLimit(20);
+        GradientLimit gradient = new GradientLimit(properties);
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            gradient.onSample(TimeUnit.MILLISECONDS.toNanos(1), 1);
+        }
+
+        // Assert
+        assertEquals(20, gradient.getLimit());
+    }
+
+    @Test
+    void vegasShouldGrowAtNoLoadLatencyAndShrinkWhenRequestsQueue() {
+        // Arrange
+        properties.setInitialLimit(20);
+        VegasLimit vegas = new VegasLimit(properties);
+
+        // Act
+        sample(vegas, 20, 1);
+        int grown = vegas.getLimit();
+        sample(vegas, 20, 10);
+
+        // Assert
+        assertTrue(grown > 20, "limit " + grown);
+        assertTrue(vegas.getLimit() < grown, "limit " + vegas.getLimit());
+    }
+
+    private AdaptiveConcurrencyLimiter limiter() {
+        return new AdaptiveConcurrencyLimiter(properties, new TransactionMetrics(registry));
+    }
+
+    /**
+     * Fully loaded samples at a fixed latency
+     */
+    private void sample(LimitAlgorithm algorithm, int samples, long rttMillis) {
+        for (int i = 0; i < samples; i++) {
+            algorithm.onSample(TimeUnit.MILLISECONDS.toNanos(rttMillis), algorithm.getLimit());
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.TransactionConsumer.consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileTailTransactionSourceTest {
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private FileTailTransactionSource source;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = directory.resolve("transactions.ndjson");
+        source = open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        source.close();
+    }
+
+    // ==================== TAIL TESTS ====================
+
+    @Test
+    void shouldReadCompleteLinesOnly() throws Exception {
+        // Arrange
+        append("{\"transactionId\":\"TXN1\"}\n\n{\"transactionId\":\"TXN2\"}\r\n{\"transactionId\"");
+
+        // Act
+        List<SourceRecord> records = source.poll(10, 100, TimeUnit.MILLISECONDS);
+
+        // Assert
+        assertEquals(2, records.size());
+        assertEquals("{\"transactionId\":\"TXN1\"}", text(records.get(0)));
+        assertEquals("{\"transactionId\":\"TXN2\"}", text(records.get(1)));
+
+        // Act: the rest of the partial line arrives
+        append(":\"TXN3\"}\n");
+        List<SourceRecord> more = source.poll(10, 100, TimeUnit.MILLISECONDS);
+
+        // Assert
+        assertEquals(1, more.size());
+        assertEquals("{\"transactionId\":\"TXN3\"}", text(more.get(0)));
+    }
+
+    @Test
+    void shouldWaitForFileToAppear() throws Exception {
+        // Act
+        List<SourceRecord> records = source.poll(10, 50, TimeUnit.MILLISECONDS);
+
+        // Assert
+        assertTrue(records.isEmpty());
+    }
+
+    // ==================== CHECKPOINT TESTS ====================
+
+    @Test
+    void shouldResumeFromOldestUncommittedRecordAfterRestart() throws Exception {
+        // Arrange
+        append("{\"n\":1}\n{\"n\":2}\n{\"n\":3}\n");
+        List<SourceRecord> records = source.poll(10, 100, TimeUnit.MILLISECONDS);
+
+        // Act: first and third persisted, second still in flight
+        source.commit(records.get(0));
+        source.commit(records.get(2));
+        source.close();
+        source = open();
+        List<SourceRecord> replayed = source.poll(10, 100, TimeUnit.MILLISECONDS);
+
+        // Assert
+        assertEquals(records.get(1).getOffset(), Long.parseLong(
+                Files.readString(directory.resolve("transactions.ndjson.checkpoint")).trim()));
+        assertEquals(List.of("{\"n\":2}", "{\"n\":3}"), replayed.stream().map(FileTailTransactionSourceTest::text).toList());
+    }
+
+    @Test
+    void shouldAdvanceCheckpointPastEverythingCommitted() throws Exception {
+        // Arrange
+        append("{\"n\":1}\n{\"n\":2}\n");
+        List<SourceRecord> records = source.poll(10, 100, TimeUnit.MILLISECONDS);
+
+        // Act
+        source.commit(records.get(1));
+        long whileFirstInFlight = source.getCommittedOffset();
+        source.commit(records.get(0));
+
+        // Assert
+        assertEquals(0, whileFirstInFlight);
+        assertEquals(Files.size(file), source.getCommittedOffset());
+    }
+
+    private FileTailTransactionSource open() throws Exception {
+        FileTailTransactionSource opened = new FileTailTransactionSource(file, 10, 0);
+        opened.open();
+        return opened;
+    }
+
+    private void append(String text) throws Exception {
+        Files.writeString(file, text, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static String text(SourceRecord record) {
+        return new String(record.getPayload(), StandardCharsets.UTF_8);
+    }
+}
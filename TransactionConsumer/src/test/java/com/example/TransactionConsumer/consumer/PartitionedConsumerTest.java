@@ -0,0 +1,306 @@
+package com.example.TransactionConsumer.consumer;
+
+import com.example.TransactionConsumer.config.ConsumerProperties;
+import com.example.TransactionConsumer.config.EntityMapping;
+import com.example.TransactionConsumer.config.FieldMapping;
+import com.example.TransactionConsumer.config.IdempotencyProperties;
+import com.example.TransactionConsumer.config.TransactionMappingConfig;
+import com.example.TransactionConsumer.dto.ErrorResponse;
+import com.example.TransactionConsumer.exception.DuplicateTransactionException;
+import com.example.TransactionConsumer.id.IdGenerators;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import com.example.TransactionConsumer.parser.PayloadReader;
+import com.example.TransactionConsumer.parser.StreamingPayloadExtractor;
+import com.example.TransactionConsumer.repository.BatchTableWriter;
+import com.example.TransactionConsumer.repository.GroupCommitWriter;
+import com.example.TransactionConsumer.repository.SendTableWriter;
+import com.example.TransactionConsumer.repository.SingleStatementWriter;
+import com.example.TransactionConsumer.repository.TransactionReadCache;
+import com.example.TransactionConsumer.repository.TransactionRepository;
+import com.example.TransactionConsumer.repository.TransactionRows;
+import com.example.TransactionConsumer.repository.TransactionShards;
+import com.example.TransactionConsumer.service.IdempotencyGuard;
+import com.example.TransactionConsumer.service.MappingPlanRegistry;
+import com.example.TransactionConsumer.service.MappingService;
+import com.example.TransactionConsumer.service.TransactionService;
+import com.example.TransactionConsumer.validator.PayloadValidator;
+import com.example.TransactionConsumer.wal.WriteAheadLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.DocumentContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PartitionedConsumerTest {
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private MappingPlanRegistry planRegistry;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ConsumerProperties properties;
+    private QueueTransactionSource source;
+    private PartitionedConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ConsumerProperties();
+        properties.setEnabled(true);
+        properties.setPartitions(4);
+        properties.setRetryBackoffMs(10);
+        properties.setMaxRetryBackoffMs(20);
+        source = new QueueTransactionSource(1000);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (consumer != null) {
+            consumer.stop();
+        }
+    }
+
+    // ==================== PARTITIONING TESTS ====================
+
+    @Test
+    void shouldRouteSameKeyToSamePartition() {
+        // Arrange
+        consumer = consumer();
+
+        // Act
+        int first = consumer.partitionFor(record(0, "{\"transactionId\":\"TXN1\",\"seq\":1}"));
+        int second = consumer.partitionFor(record(1, "{\"seq\":2,\"transactionId\":\"TXN1\"}"));
+
+        // Assert
+        assertEquals(first, second);
+    }
+
+    @Test
+    void shouldRouteByNestedSenderKey() {
+        // Arrange
+        properties.setPartitionKey("$.sender.email");
+        consumer = consumer();
+
+        // Act
+        int first = consumer.partitionFor(record(0, "{\"transactionId\":\"A\",\"sender\":{\"email\":\"a@x.com\"}}"));
+        int second = consumer.partitionFor(record(1, "{\"sender\":{\"name\":\"n\",\"email\":\"a@x.com\"},\"transactionId\":\"B\"}"));
+
+        // Assert
+        assertEquals(first, second);
+    }
+
+    @Test
+    void shouldRejectUnsupportedKeyPath() {
+        // Arrange
+        properties.setPartitionKey("$.parties[0].id");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, this::consumer);
+    }
+
+    // ==================== ORDERING TESTS ====================
+
+    @Test
+    void shouldPreserveOrderPerKeyAcrossPartitions() throws Exception {
+        // Arrange
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+        doAnswer(invocation -> {
+            DocumentContext document = invocation.getArgument(0);
+            String key = document.read("$.transactionId");
+            Integer seq = document.read("$.seq");
+            seen.computeIfAbsent(key, ignored -> Collections.synchronizedList(new ArrayList<>())).add(seq);
+            return null;
+        }).when(transactionService).processTransaction(any(DocumentContext.class), any(byte[].class));
+
+        consumer = consumer();
+        consumer.start();
+
+        // Act
+        for (int seq = 0; seq < 50; seq++) {
+            for (String key : List.of("TXN1", "TXN2", "TXN3", "TXN4", "TXN5")) {
+                publish("{\"transactionId\":\"" + key + "\",\"seq\":" + seq + "}");
+            }
+        }
+
+        // Assert
+        awaitCommitted(250);
+        assertEquals(5, seen.size());
+        for (List<Integer> order : seen.values()) {
+            List<Integer> sorted = new ArrayList<>(order);
+            Collections.sort(sorted);
+            assertEquals(sorted, order);
+            assertEquals(50, order.size());
+        }
+    }
+
+    // ==================== CHECKPOINT TESTS ====================
+
+    @Test
+    void shouldCommitOnlyAfterProcessingSucceeds() throws Exception {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("database unavailable");
+            }
+            return null;
+        }).when(transactionService).processTransaction(any(DocumentContext.class), any(byte[].class));
+
+        consumer = consumer();
+        consumer.start();
+
+        // Act
+        publish("{\"transactionId\":\"TXN1\"}");
+
+        // Assert
+        awaitCommitted(1);
+        assertEquals(3, attempts.get());
+        assertEquals(2, consumer.getRetried());
+        assertEquals(1, consumer.getProcessed());
+    }
+
+    @Test
+    void shouldCommitRejectedRecordWithoutRetrying() throws Exception {
+        // Arrange
+        doThrow(new ErrorResponse("amount is required"))
+                .when(transactionService).processTransaction(any(DocumentContext.class), any(byte[].class));
+
+        consumer = consumer();
+        consumer.start();
+
+        // Act
+        publish("{\"transactionId\":\"TXN1\"}");
+        publish("not json");
+
+        // Assert
+        awaitCommitted(2);
+        assertEquals(2, consumer.getRejected());
+        verify(transactionService, times(1)).processTransaction(any(DocumentContext.class), any(byte[].class));
+    }
+
+    @Test
+    void shouldCommitDuplicateRecordWithoutRetrying() throws Exception {
+        // Arrange
+        properties.setRetryBackoffMs(10_000);
+        doThrow(new DuplicateTransactionException("TXN1"))
+                .when(transactionService).processTransaction(any(DocumentContext.class), any(byte[].class));
+
+        consumer = consumer();
+        consumer.start();
+
+        // Act
+        publish("{\"transactionId\":\"TXN1\"}");
+
+        // Assert
+        awaitCommitted(1);
+        assertEquals(0, consumer.getRetried());
+        assertEquals(1, consumer.getProcessed());
+    }
+
+    @Test
+    void shouldRetryWhenTheRepositoryWriteFails() throws Exception {
+        // Arrange
+        SendTableWriter tableWriter = mock(SendTableWriter.class);
+        doThrow(new DataAccessResourceFailureException("ORA-03113: end-of-file on communication channel"))
+                .doThrow(new DataAccessResourceFailureException("ORA-03113: end-of-file on communication channel"))
+                .doNothing()
+                .when(tableWriter).write(any(TransactionRows.class));
+
+        consumer = new PartitionedConsumer(source, transactionService(tableWriter), payloadReader(),
+                objectMapper.getFactory(), properties);
+        consumer.start();
+
+        // Act
+        publish("{\"transactionId\":\"TXN1\",\"sender\":{\"firstName\":\"Asha\"}}");
+
+        // Assert
+        awaitCommitted(1);
+        verify(tableWriter, times(3)).write(any(TransactionRows.class));
+        assertEquals(2, consumer.getRetried());
+        assertEquals(1, consumer.getProcessed());
+    }
+
+    /**
+     * The real service and repository over a table writer the test controls
+     */
+    private TransactionService transactionService(SendTableWriter tableWriter) {
+        Map<String, FieldMapping> party = new LinkedHashMap<>();
+        party.put("FIRST_NAME", json("$.sender.firstName"));
+        EntityMapping sender = new EntityMapping();
+        sender.setParty(party);
+        TransactionMappingConfig mappingConfig = new TransactionMappingConfig();
+        mappingConfig.setSender(sender);
+
+        TransactionMetrics metrics = new TransactionMetrics(new SimpleMeterRegistry());
+        MappingPlanRegistry planRegistry = new MappingPlanRegistry(mappingConfig, IdGenerators.withoutDatabase());
+        TransactionRepository repository = new TransactionRepository(
+                tableWriter,
+                mock(GroupCommitWriter.class),
+                mock(SingleStatementWriter.class),
+                mock(BatchTableWriter.class),
+                mock(TransactionShards.class),
+                new MappingService(mappingConfig, metrics, planRegistry),
+                planRegistry,
+                mock(WriteAheadLog.class),
+                mock(TransactionReadCache.class),
+                metrics,
+                mock(PlatformTransactionManager.class));
+        return new TransactionService(repository, mock(PayloadValidator.class), payloadReader(),
+                new IdempotencyGuard(new IdempotencyProperties()), mock(TransactionReadCache.class));
+    }
+
+    private static FieldMapping json(String path) {
+        FieldMapping mapping = new FieldMapping();
+        mapping.setSource("json");
+        mapping.setPath(path);
+        return mapping;
+    }
+
+    private PartitionedConsumer consumer() {
+        return new PartitionedConsumer(source, transactionService, payloadReader(), objectMapper.getFactory(), properties);
+    }
+
+    private PayloadReader payloadReader() {
+        return new PayloadReader(
+                objectMapper, new StreamingPayloadExtractor(objectMapper), planRegistry,
+                new TransactionMetrics(new SimpleMeterRegistry()), false);
+    }
+
+    private void publish(String json) throws InterruptedException {
+        assertTrue(source.publish(json.getBytes(StandardCharsets.UTF_8), 1, TimeUnit.SECONDS));
+    }
+
+    private void awaitCommitted(long offset) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (source.getCommittedOffset() < offset && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(offset, source.getCommittedOffset());
+    }
+
+    private static SourceRecord record(long offset, String json) {
+        return new SourceRecord(offset, offset + 1, json.getBytes(StandardCharsets.UTF_8));
+    }
+}
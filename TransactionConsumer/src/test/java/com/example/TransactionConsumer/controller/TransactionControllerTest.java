@@ -1,8 +1,26 @@
 package com.example.TransactionConsumer.controller;
 
+import com.example.TransactionConsumer.admission.AdaptiveConcurrencyLimiter;
+import com.example.TransactionConsumer.config.AdmissionProperties;
 import com.example.TransactionConsumer.dto.ErrorResponse;
+import com.example.TransactionConsumer.dto.TransactionView;
 import com.example.TransactionConsumer.exception.GlobalExceptionHandler;
+import com.example.TransactionConsumer.exception.LoadSheddingException;
+import com.example.TransactionConsumer.exception.PipelineSaturatedException;
+import com.example.TransactionConsumer.exception.ValidationFailedException;
+import com.example.TransactionConsumer.export.ExportService;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import com.example.TransactionConsumer.parser.PayloadReader;
+import com.example.TransactionConsumer.parser.StreamingPayloadExtractor;
+import com.example.TransactionConsumer.service.AsyncIngestionService;
+import com.example.TransactionConsumer.service.BatchIngestionService;
+import com.example.TransactionConsumer.service.ChangeFeedService;
+import com.example.TransactionConsumer.service.MappingPlanRegistry;
+import com.example.TransactionConsumer.service.StagedPipeline;
+import com.example.TransactionConsumer.service.TransactionSearchService;
 import com.example.TransactionConsumer.service.TransactionService;
+import com.example.TransactionConsumer.validator.ValidationResult;
+import com.jayway.jsonpath.DocumentContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,21 +30,59 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
-import static org.mockito.ArgumentMatchers.anyString;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TransactionController.class)
-@Import(GlobalExceptionHandler.class)
+@Import({GlobalExceptionHandler.class, PayloadReader.class, StreamingPayloadExtractor.class,
+        AdaptiveConcurrencyLimiter.class, AdmissionProperties.class})
 class TransactionControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @Autowired
+    private AdmissionProperties admission;
+
     @MockBean
     private TransactionService transactionService;
 
+    @MockBean
+    private BatchIngestionService batchService;
+
+    @MockBean
+    private AsyncIngestionService asyncService;
+
+    @MockBean
+    private StagedPipeline pipeline;
+
+    @MockBean
+    private MappingPlanRegistry planRegistry;
+
+    @MockBean
+    private TransactionMetrics metrics;
+
+    @MockBean
+    private TransactionSearchService searchService;
+
+    @MockBean
+    private ChangeFeedService changeFeed;
+
+    @MockBean
+    private ExportService exportService;
+
     private String validJson;
 
     @BeforeEach
@@ -45,7 +101,7 @@ class TransactionControllerTest {
 
     @Test
     void shouldCreateTransactionSuccessfully() throws Exception {
-        doNothing().when(transactionService).processTransaction(anyString());
+        doNothing().when(transactionService).processTransaction(any(DocumentContext.class));
 
         mockMvc.perform(post("/api/transactions")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -53,7 +109,8 @@ class TransactionControllerTest {
                 .andExpect(status().isCreated())
                 .andExpect(content().string("Transaction Created Successfully"));
 
-        verify(transactionService, times(1)).processTransaction(anyString());
+        verify(transactionService, times(1)).processTransaction(argThat((DocumentContext document) ->
+                "TXN1101".equals(document.read("$.transactionId"))));
     }
 
     // ==================== VALIDATION ERRORS ====================
@@ -69,7 +126,7 @@ class TransactionControllerTest {
             """;
 
         doThrow(new ErrorResponse("transactionId is required"))
-                .when(transactionService).processTransaction(anyString());
+                .when(transactionService).processTransaction(any(DocumentContext.class));
 
         mockMvc.perform(post("/api/transactions")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -89,7 +146,7 @@ class TransactionControllerTest {
             """;
 
         doThrow(new ErrorResponse("transactionType is required"))
-                .when(transactionService).processTransaction(anyString());
+                .when(transactionService).processTransaction(any(DocumentContext.class));
 
         mockMvc.perform(post("/api/transactions")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -110,7 +167,7 @@ class TransactionControllerTest {
             """;
 
         doThrow(new ErrorResponse("transactionId is required"))
-                .when(transactionService).processTransaction(anyString());
+                .when(transactionService).processTransaction(any(DocumentContext.class));
 
         mockMvc.perform(post("/api/transactions")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -119,6 +176,24 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.error").value("transactionId is required"));
     }
 
+    @Test
+    void shouldListEveryViolationInOneResponse() throws Exception {
+        ValidationResult result = new ValidationResult();
+        result.add("transactionId", "required", "transactionId is missing or invalid");
+        result.add("$.currency", "allowed", "Value not allowed: XYZ");
+        doThrow(new ValidationFailedException(result))
+                .when(transactionService).processTransaction(any(DocumentContext.class));
+
+        mockMvc.perform(post("/api/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(validJson))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("transactionId is missing or invalid; Value not allowed: XYZ"))
+                .andExpect(jsonPath("$.violations.length()").value(2))
+                .andExpect(jsonPath("$.violations[1].field").value("$.currency"))
+                .andExpect(jsonPath("$.violations[1].rule").value("allowed"));
+    }
+
     // ==================== MALFORMED JSON ====================
 
     @Test
@@ -130,7 +205,18 @@ class TransactionControllerTest {
                         .content(malformedJson))
                 .andExpect(status().isBadRequest());
 
-        verify(transactionService, never()).processTransaction(anyString());
+        verify(transactionService, never()).processTransaction(any(DocumentContext.class));
+    }
+
+    @Test
+    void shouldReturnBadRequestForEmptyBody() throws Exception {
+        mockMvc.perform(post("/api/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(""))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Malformed JSON request"));
+
+        verify(transactionService, never()).processTransaction(any(DocumentContext.class));
     }
 
     // ==================== CONTENT TYPE ====================
@@ -142,7 +228,7 @@ class TransactionControllerTest {
                         .content(validJson))
                 .andExpect(status().isUnsupportedMediaType());
 
-        verify(transactionService, never()).processTransaction(anyString());
+        verify(transactionService, never()).processTransaction(any(DocumentContext.class));
     }
 
     @Test
@@ -152,7 +238,7 @@ class TransactionControllerTest {
                         .content("<transaction></transaction>"))
                 .andExpect(status().isUnsupportedMediaType());
 
-        verify(transactionService, never()).processTransaction(anyString());
+        verify(transactionService, never()).processTransaction(any(DocumentContext.class));
     }
 
     // ==================== COMPLETE PAYLOAD ====================
@@ -175,13 +261,187 @@ class TransactionControllerTest {
             }
             """;
 
-        doNothing().when(transactionService).processTransaction(anyString());
+        doNothing().when(transactionService).processTransaction(any(DocumentContext.class));
 
         mockMvc.perform(post("/api/transactions")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(completeJson))
                 .andExpect(status().isCreated());
 
-        verify(transactionService, times(1)).processTransaction(anyString());
+        verify(transactionService, times(1)).processTransaction(any(DocumentContext.class));
+    }
+
+    // ==================== ASYNC ACCEPT ====================
+
+    @Test
+    void shouldAcceptIntoWriteAheadLogWhenAsyncEnabled() throws Exception {
+        when(asyncService.isEnabled()).thenReturn(true);
+        when(asyncService.accept(any(InputStream.class))).thenReturn(42L);
+
+        mockMvc.perform(post("/api/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(validJson))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/transactions/42/status"))
+                .andExpect(jsonPath("$.trackingId").value("42"))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+
+        verify(transactionService, never()).processTransaction(any(DocumentContext.class));
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownTrackingId() throws Exception {
+        when(asyncService.status(7L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/transactions/7/status"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/transactions/not-a-number/status"))
+                .andExpect(status().isNotFound());
+    }
+
+    // ==================== READ ====================
+
+    @Test
+    void shouldReturnStoredTransaction() throws Exception {
+        TransactionView view = new TransactionView("TXN1101",
+                Map.of("TRAN_ID", "TXN1101", "TRAN_TYPE", "PAYMENT"),
+                Map.of("PAYMT_REF", "PMT-001"),
+                Map.of("SEND_FIRST_NAM", "Aadhish"),
+                List.of(Map.of("ADDR_TYPE", "SENDER"), Map.of("ADDR_TYPE", "RECIPIENT")));
+        when(transactionService.find("TXN1101")).thenReturn(Optional.of(view));
+
+        mockMvc.perform(get("/api/transactions/TXN1101"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionId").value("TXN1101"))
+                .andExpect(jsonPath("$.transaction.TRAN_TYPE").value("PAYMENT"))
+                .andExpect(jsonPath("$.detail.PAYMT_REF").value("PMT-001"))
+                .andExpect(jsonPath("$.addresses[1].ADDR_TYPE").value("RECIPIENT"));
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownTransaction() throws Exception {
+        when(transactionService.find("TXN404")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/transactions/TXN404"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldRejectSearchWithoutADateRange() throws Exception {
+        mockMvc.perform(get("/api/transactions/search").param("tranType", "PAYMENT"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(searchService);
+    }
+
+    @Test
+    void shouldRejectSearchWithAMalformedCursor() throws Exception {
+        mockMvc.perform(get("/api/transactions/search")
+                        .param("from", "2024-03-01T00:00:00")
+                        .param("to", "2024-03-02T00:00:00")
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid cursor"));
+
+        verify(searchService, never()).search(any(), any());
+    }
+
+    @Test
+    void shouldRejectChangesWithAMalformedWatermark() throws Exception {
+        mockMvc.perform(get("/api/transactions/changes").param("watermark", "not-a-watermark"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid watermark"));
+
+        verifyNoInteractions(changeFeed);
+    }
+
+    // ==================== EXPORT ====================
+
+    @Test
+    void shouldRejectExportWithoutADate() throws Exception {
+        mockMvc.perform(post("/api/transactions/exports"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(exportService);
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownExportJob() throws Exception {
+        when(exportService.get("unknown")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/transactions/exports/unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    // ==================== STAGED PIPELINE ====================
+
+    @Test
+    void shouldProcessThroughPipelineWhenEnabled() throws Exception {
+        when(pipeline.isEnabled()).thenReturn(true);
+
+        mockMvc.perform(post("/api/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(validJson))
+                .andExpect(status().isCreated());
+
+        verify(pipeline).process(any(byte[].class));
+        verify(transactionService, never()).processTransaction(any(DocumentContext.class));
+    }
+
+    @Test
+    void shouldReturnServiceUnavailableWhenPipelineSaturated() throws Exception {
+        when(pipeline.isEnabled()).thenReturn(true);
+        doThrow(new PipelineSaturatedException("parse", 2)).when(pipeline).process(any(byte[].class));
+
+        mockMvc.perform(post("/api/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(validJson))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.error").value("Pipeline stage 'parse' is saturated"));
+    }
+
+    @Test
+    void shouldReturnTooManyRequestsWhenLoadIsShed() throws Exception {
+        doThrow(new LoadSheddingException("concurrency", 1))
+                .when(transactionService).processTransaction(any(DocumentContext.class));
+
+        mockMvc.perform(post("/api/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(validJson))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.error").value("Over the concurrency limit, retry later"));
+    }
+
+    @Test
+    void shouldShedEveryModeOverTheConcurrencyLimit() throws Exception {
+        admission.setEnabled(true);
+        List<AdaptiveConcurrencyLimiter.Permit> busy = new ArrayList<>();
+        try {
+            while (busy.size() < limiter.getLimit()) {
+                busy.add(limiter.acquire(0));
+            }
+
+            when(asyncService.isEnabled()).thenReturn(true);
+            mockMvc.perform(post("/api/transactions")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(validJson))
+                    .andExpect(status().isTooManyRequests());
+
+            when(asyncService.isEnabled()).thenReturn(false);
+            when(pipeline.isEnabled()).thenReturn(true);
+            mockMvc.perform(post("/api/transactions")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(validJson))
+                    .andExpect(status().isTooManyRequests());
+
+            verify(asyncService, never()).accept(any(InputStream.class));
+            verify(pipeline, never()).process(any(byte[].class));
+        } finally {
+            busy.forEach(AdaptiveConcurrencyLimiter.Permit::close);
+            admission.setEnabled(false);
+        }
     }
 }
@@ -0,0 +1,235 @@
+package com.example.TransactionConsumer.export;
+
+import com.example.TransactionConsumer.config.ExportProperties;
+import com.example.TransactionConsumer.config.PersistenceProperties;
+import com.example.TransactionConsumer.config.ShardingProperties;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import com.example.TransactionConsumer.repository.TransactionShards;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    @TempDir
+    Path exportDir;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbc;
+    private SimpleMeterRegistry registry;
+    private ExportProperties properties;
+    private TransactionMetrics metrics;
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName("export;MODE=Oracle")
+                .generateUniqueName(false)
+                .addScript("db/send-tables.sql")
+                .build();
+        jdbc = new JdbcTemplate(database);
+        registry = new SimpleMeterRegistry();
+
+        properties = new ExportProperties();
+        properties.setDirectory(exportDir.toString());
+        properties.setWorkers(3);
+        properties.setFetchSize(7);
+        metrics = new TransactionMetrics(registry);
+        TransactionShards unsharded = new TransactionShards(new ShardingProperties(), new PersistenceProperties(), metrics);
+        exportService = new ExportService(jdbc, unsharded, properties, metrics);
+    }
+
+    @AfterEach
+    void tearDown() {
+        exportService.shutdown();
+        database.shutdown();
+    }
+
+    // ==================== EXPORT TESTS ====================
+
+    @Test
+    void shouldExportEveryTableOfTheDayAcrossRanges() throws Exception {
+        // Arrange
+        for (int i = 0; i < 20; i++) {
+            insert(String.format("TXN%02d", i), DAY, "Asha");
+        }
+        insert("TXN-NEXT-DAY", DAY.plusDays(1), "Asha");
+
+        // Act
+        ExportJob job = await(exportService.submit(DAY));
+
+        // Assert
+        assertEquals(ExportJobState.COMPLETED, job.getState(), job.getError());
+        assertEquals(12, job.getPartsTotal());
+        assertEquals(12, job.getPartsDone());
+        assertEquals(20L, job.getRows().get("SEND_TRANSACTIONS"));
+        assertEquals(40L, job.getRows().get("SEND_TRAN_ADDR_DTL"));
+        assertEquals(4, job.getFiles().size());
+
+        List<String> transactions = lines("SEND_TRANSACTIONS");
+        assertTrue(transactions.get(0).startsWith("TRAN_ID,"));
+        Set<String> ids = transactions.stream().skip(1).map(line -> line.split(",")[0]).collect(Collectors.toSet());
+        assertEquals(20, ids.size());
+        assertFalse(ids.contains("TXN-NEXT-DAY"));
+        assertEquals(21, lines("SEND_TRAN_DTL").size());
+        assertEquals(21, lines("SEND_RECIP_DTL").size());
+        assertEquals(41, lines("SEND_TRAN_ADDR_DTL").size());
+
+        // only the merged files are left
+        try (Stream<Path> files = Files.list(exportDir.resolve(DAY.toString()))) {
+            assertEquals(Set.of("SEND_TRANSACTIONS.csv.gz", "SEND_TRAN_DTL.csv.gz", "SEND_RECIP_DTL.csv.gz",
+                    "SEND_TRAN_ADDR_DTL.csv.gz"), files.map(path -> path.getFileName().toString())
+                    .collect(Collectors.toCollection(HashSet::new)));
+        }
+        assertEquals(20.0, registry.get(TransactionMetrics.EXPORT_ROWS)
+                .tag("table", "SEND_TRANSACTIONS").counter().count());
+        assertEquals(1, registry.get(TransactionMetrics.EXPORT).tag("result", "completed").timer().count());
+    }
+
+    @Test
+    void shouldLeaveOutTransactionsThatArriveAfterThePlan() throws Exception {
+        // Arrange: TXN99 commits once the ranges are planned, before the first range is read
+        for (int i = 0; i < 20; i++) {
+            insert(String.format("TXN%02d", i), DAY, "Asha");
+        }
+        AtomicInteger connections = new AtomicInteger();
+        DelegatingDataSource lateArrival = new DelegatingDataSource(database) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                if (connections.incrementAndGet() == 2) {
+                    insert("TXN99", DAY, "Late");
+                }
+                return super.getConnection();
+            }
+        };
+        properties.setWorkers(1);
+        ExportService exporter = new ExportService(new JdbcTemplate(lateArrival),
+                new TransactionShards(new ShardingProperties(), new PersistenceProperties(), metrics), properties, metrics);
+
+        // Act
+        ExportJob job;
+        try {
+            job = exporter.submit(DAY);
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (job.isActive() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        } finally {
+            exporter.shutdown();
+        }
+
+        // Assert: the last range is closed at the plan's highest TRAN_ID, in no file
+        assertEquals(ExportJobState.COMPLETED, job.getState(), job.getError());
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM SEND_TRANSACTIONS WHERE TRAN_ID = 'TXN99'", Integer.class));
+        assertEquals(21, lines("SEND_TRANSACTIONS").size());
+        assertEquals(21, lines("SEND_TRAN_DTL").size());
+        assertEquals(21, lines("SEND_RECIP_DTL").size());
+        assertEquals(41, lines("SEND_TRAN_ADDR_DTL").size());
+        assertTrue(lines("SEND_TRAN_ADDR_DTL").stream().noneMatch(line -> line.contains("TXN99")));
+    }
+
+    @Test
+    void shouldQuoteValuesThatNeedIt() throws Exception {
+        // Arrange
+        insert("TXN1", DAY, "O\"Brien, Jr");
+
+        // Act
+        await(exportService.submit(DAY));
+
+        // Assert
+        String row = lines("SEND_RECIP_DTL").get(1);
+        assertTrue(row.contains(",\"O\"\"Brien, Jr\","), row);
+    }
+
+    @Test
+    void shouldWriteHeaderOnlyFilesForAnEmptyDay() throws Exception {
+        // Act
+        ExportJob job = await(exportService.submit(DAY));
+
+        // Assert
+        assertEquals(ExportJobState.COMPLETED, job.getState(), job.getError());
+        assertEquals(1, lines("SEND_TRANSACTIONS").size());
+        assertEquals(0L, job.getRows().get("SEND_TRANSACTIONS"));
+    }
+
+    @Test
+    void shouldFailWithoutReplacingPreviousFiles() throws Exception {
+        // Arrange
+        insert("TXN1", DAY, "Asha");
+        await(exportService.submit(DAY));
+        jdbc.execute("DROP TABLE SEND_TRAN_ADDR_DTL");
+
+        // Act
+        ExportJob job = await(exportService.submit(DAY));
+
+        // Assert
+        assertEquals(ExportJobState.FAILED, job.getState());
+        assertNotNull(job.getError());
+        assertTrue(job.getFiles().isEmpty());
+        assertEquals(3, lines("SEND_TRAN_ADDR_DTL").size());
+        assertEquals(1, registry.get(TransactionMetrics.EXPORT).tag("result", "failed").timer().count());
+    }
+
+    private ExportJob await(ExportJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (job.isActive() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(job.isActive(), "export did not finish");
+        assertTrue(exportService.get(job.getId()).isPresent());
+        return job;
+    }
+
+    private List<String> lines(String table) throws IOException {
+        Path file = exportDir.resolve(DAY.toString()).resolve(table + ".csv.gz");
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        }
+    }
+
+    private void insert(String tranId, LocalDate day, String senderFirstName) {
+        Timestamp createdAt = Timestamp.valueOf(day.atTime(12, 0));
+        jdbc.update("INSERT INTO SEND_TRANSACTIONS (TRAN_ID, TRAN_TYPE, TRAN_AMT, TRAN_CRTE_DT) VALUES (?, 'PAYMENT', 12.50, ?)",
+                tranId, createdAt);
+        jdbc.update("INSERT INTO SEND_TRAN_DTL (TRAN_ID, PAYMT_REF, TRAN_CRTE_DT) VALUES (?, ?, ?)",
+                tranId, "PMT-" + tranId, createdAt);
+        jdbc.update("INSERT INTO SEND_RECIP_DTL (TRAN_ID, SEND_FIRST_NAM, SEND_LST_NAM) VALUES (?, ?, 'Rao')",
+                tranId, senderFirstName);
+        jdbc.update("INSERT INTO SEND_TRAN_ADDR_DTL (ID, TRAN_ID, ADDR_TYPE) VALUES (?, ?, 'SENDER')",
+                tranId + "-S", tranId);
+        jdbc.update("INSERT INTO SEND_TRAN_ADDR_DTL (ID, TRAN_ID, ADDR_TYPE) VALUES (?, ?, 'RECIPIENT')",
+                tranId + "-R", tranId);
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.TransactionConsumer.id;
+
+import com.example.TransactionConsumer.config.FieldMapping;
+import com.example.TransactionConsumer.config.IdProperties;
+import com.example.TransactionConsumer.config.PersistenceProperties;
+import com.example.TransactionConsumer.repository.sql.SqlDialect;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdGeneratorsTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName("id-generators;MODE=Oracle")
+                .generateUniqueName(false)
+                .build();
+        jdbc = new JdbcTemplate(database);
+        jdbc.execute("CREATE SEQUENCE ADDR_ID_SEQ START WITH 1 INCREMENT BY 10");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    // ==================== UUIDv7 TESTS ====================
+
+    @Test
+    void shouldEncodeTimestampAndVersion() {
+        // Arrange
+        Instant now = Instant.parse("2024-06-01T12:00:00.123456Z");
+        UuidV7Generator generator = new UuidV7Generator(Clock.fixed(now, ZoneOffset.UTC));
+
+        // Act
+        UUID id = generator.generate();
+
+        // Assert
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(now.toEpochMilli(), id.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void shouldSortByCreationTime() {
+        // Arrange
+        UuidV7Generator earlier = new UuidV7Generator(clock("2024-06-01T12:00:00Z"));
+        UuidV7Generator later = new UuidV7Generator(clock("2024-06-01T12:00:00.001Z"));
+
+        // Act
+        String first = (String) earlier.nextId();
+        String second = (String) later.nextId();
+
+        // Assert - string order, which is what a VARCHAR2 key index sees
+        assertTrue(first.compareTo(second) < 0);
+    }
+
+    // ==================== SEQUENCE TESTS ====================
+
+    @Test
+    void shouldHandOutWholeBlockPerRoundTrip() {
+        // Arrange
+        SequenceBlockAllocator allocator = new SequenceBlockAllocator(
+                jdbc, SqlDialect.forName("oracle"), "ADDR_ID_SEQ", 10);
+
+        // Act
+        List<Object> ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ids.add(allocator.nextId());
+        }
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), ids);
+        assertTrue(allocator.getRoundTrips() <= 2);
+    }
+
+    @Test
+    void shouldNeverRepeatIdsUnderContention() throws Exception {
+        // Arrange
+        SequenceBlockAllocator allocator = new SequenceBlockAllocator(
+                jdbc, SqlDialect.forName("portable"), "ADDR_ID_SEQ", 10);
+        Set<Object> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+
+        // Act
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(threads.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    assertTrue(ids.add(allocator.nextId()));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        threads.shutdown();
+
+        // Assert
+        assertEquals(4000, ids.size());
+        assertTrue(allocator.getRoundTrips() >= 400);
+    }
+
+    @Test
+    void shouldRejectUnsafeSequenceName() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> new SequenceBlockAllocator(jdbc, SqlDialect.forName("oracle"), "SEQ FROM DUAL; DROP", 10));
+    }
+
+    // ==================== RESOLUTION TESTS ====================
+
+    @Test
+    void shouldResolveGeneratorPerMapping() {
+        // Arrange
+        IdGenerators generators = new IdGenerators(jdbc, new PersistenceProperties(), new IdProperties());
+        FieldMapping sequence = generated("sequence");
+        sequence.setSequence("ADDR_ID_SEQ");
+        sequence.setBlockSize(10);
+
+        // Act & Assert
+        assertEquals("uuid", generators.forMapping(generated(null)).getName());
+        assertEquals("uuidv7", generators.forMapping(generated("uuidv7")).getName());
+        assertSame(generators.forMapping(sequence), generators.forMapping(sequence));
+        assertThrows(IllegalArgumentException.class, () -> generators.forMapping(generated("snowflake")));
+    }
+
+    @Test
+    void shouldRequireDatabaseForSequence() {
+        // Arrange
+        FieldMapping sequence = generated("sequence");
+        sequence.setSequence("ADDR_ID_SEQ");
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> IdGenerators.withoutDatabase().forMapping(sequence));
+    }
+
+    private static Clock clock(String instant) {
+        return Clock.fixed(Instant.parse(instant), ZoneOffset.UTC);
+    }
+
+    private static FieldMapping generated(String generator) {
+        FieldMapping mapping = new FieldMapping();
+        mapping.setSource("generated");
+        mapping.setGenerator(generator);
+        return mapping;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.TransactionConsumer.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private TransactionMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new TransactionMetrics(registry);
+    }
+
+    // ==================== TIMER TESTS ====================
+
+    @Test
+    void shouldRegisterStageTimersUpFront() {
+        // Assert
+        assertNotNull(registry.find(TransactionMetrics.PARSE).timer());
+        assertNotNull(registry.find(TransactionMetrics.VALIDATE).timer());
+        assertNotNull(registry.find(TransactionMetrics.MAPPING_EXTRACT).timer());
+    }
+
+    @Test
+    void shouldTagInsertTimerByTableAndMode() {
+        // Act
+        metrics.recordInsert("SEND_TRANSACTIONS", "batch", System.nanoTime());
+        metrics.recordInsert("SEND_TRANSACTIONS", "batch", System.nanoTime());
+        metrics.recordInsert("SEND_TRANSACTIONS", "row", System.nanoTime());
+
+        // Assert
+        assertEquals(2, registry.get(TransactionMetrics.INSERT)
+                .tag("table", "SEND_TRANSACTIONS").tag("mode", "batch").timer().count());
+        assertEquals(1, registry.get(TransactionMetrics.INSERT)
+                .tag("table", "SEND_TRANSACTIONS").tag("mode", "row").timer().count());
+    }
+
+    // ==================== COUNTER TESTS ====================
+
+    @Test
+    void shouldCountRejectionsAndFailuresByTag() {
+        // Act
+        metrics.validationRejected("transactionId", "required");
+        metrics.validationRejected("transactionId", "required");
+        metrics.mappingFailed("amount");
+        metrics.fallback("insert_failed");
+
+        // Assert
+        assertEquals(2.0, registry.get(TransactionMetrics.VALIDATION_REJECTIONS)
+                .tag("field", "transactionId").tag("rule", "required").counter().count());
+        assertEquals(1.0, registry.get(TransactionMetrics.MAPPING_FAILURES).tag("field", "amount").counter().count());
+        assertEquals(1.0, registry.get(TransactionMetrics.FALLBACKS).tag("reason", "insert_failed").counter().count());
+    }
+
+    @Test
+    void shouldUseUnknownTagForNullValue() {
+        // Act
+        metrics.mappingFailed(null);
+
+        // Assert
+        assertEquals(1.0, registry.get(TransactionMetrics.MAPPING_FAILURES).tag("field", "unknown").counter().count());
+    }
+}
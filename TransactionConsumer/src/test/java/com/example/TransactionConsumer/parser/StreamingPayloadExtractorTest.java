@@ -0,0 +1,225 @@
+package com.example.TransactionConsumer.parser;
+
+import com.example.TransactionConsumer.config.EntityMapping;
+import com.example.TransactionConsumer.config.FieldMapping;
+import com.example.TransactionConsumer.config.TransactionMappingConfig;
+import com.example.TransactionConsumer.dto.ErrorResponse;
+import com.example.TransactionConsumer.id.IdGenerators;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import com.example.TransactionConsumer.service.MappingPlan;
+import com.example.TransactionConsumer.service.MappingPlanRegistry;
+import com.example.TransactionConsumer.service.MappingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.PathNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingPayloadExtractorTest {
+
+    private static final String PAYLOAD = """
+        {
+          "transactionId": "TXN1101",
+          "transactionType": "PAYMENT",
+          "amount": 500,
+          "currency": "INR",
+          "paymentReference": "PMT-001",
+          "notes": "free text we never persist",
+          "metadata": { "channel": "WEB", "tags": ["a", "b", { "deep": [1, 2, 3] }] },
+          "sender": {
+            "firstName": "Aadhish",
+            "lastName": "M",
+            "ignored": { "nested": true },
+            "address": { "lines": ["12 Main St", "Apt 4"], "city": "Chennai" }
+          },
+          "recipient": {
+            "firstName": "Raj",
+            "address": { "city": "Mumbai" }
+          }
+        }
+        """;
+
+    private TransactionMappingConfig mappingConfig;
+    private MappingPlanRegistry planRegistry;
+    private MappingService mappingService;
+    private StreamingPayloadExtractor extractor;
+    private final TransactionMetrics metrics = new TransactionMetrics(new SimpleMeterRegistry());
+
+    private byte[] body;
+    private DocumentContext fullDocument;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, FieldMapping> senderParty = new LinkedHashMap<>();
+        senderParty.put("FIRST_NAME", json("$.sender.firstName"));
+        senderParty.put("LAST_NAME", json("$.sender.lastName"));
+        senderParty.put("EMAIL", json("$.sender.email"));
+
+        Map<String, FieldMapping> senderAddress = new LinkedHashMap<>();
+        senderAddress.put("STREET_LINE_1", json("$.sender.address.lines[0]"));
+        senderAddress.put("STREET_LINE_2", json("$.sender.address.lines[1]"));
+        senderAddress.put("CITY", json("$.sender.address.city"));
+        senderAddress.put("ID", generated());
+
+        mappingConfig = new TransactionMappingConfig();
+        mappingConfig.setSender(entity(senderParty));
+        mappingConfig.setRecipient(entity(Map.of("FIRST_NAME", json("$.recipient.firstName"))));
+        mappingConfig.setAddress(Map.of(
+                "sender", senderAddress,
+                "recipient", Map.of("CITY", json("$['recipient']['address']['city']"))
+        ));
+
+        planRegistry = new MappingPlanRegistry(mappingConfig, IdGenerators.withoutDatabase());
+        mappingService = new MappingService(mappingConfig, metrics, planRegistry);
+        extractor = new StreamingPayloadExtractor(new ObjectMapper());
+
+        body = PAYLOAD.getBytes(StandardCharsets.UTF_8);
+        fullDocument = JsonPath.parse(PAYLOAD);
+    }
+
+    // ==================== EQUIVALENCE TESTS ====================
+
+    @Test
+    void shouldExtractSameMappedValuesAsFullDocument() throws Exception {
+        // Arrange
+        MappingPlan plan = planRegistry.current();
+
+        // Act
+        DocumentContext pruned = extractor.extract(body, plan);
+
+        // Assert
+        assertEquals(
+                mappingService.extractAllValues(fullDocument, plan.getSenderParty()),
+                mappingService.extractAllValues(pruned, plan.getSenderParty())
+        );
+        assertEquals(
+                mappingService.extractAllValues(fullDocument, plan.getRecipientParty()),
+                mappingService.extractAllValues(pruned, plan.getRecipientParty())
+        );
+        assertEquals(
+                mappingService.extractAllValues(fullDocument, plan.getRecipientAddress()),
+                mappingService.extractAllValues(pruned, plan.getRecipientAddress())
+        );
+
+        Map<String, Object> address = mappingService.extractAllValues(pruned, plan.getSenderAddress());
+        assertEquals("12 Main St", address.get("STREET_LINE_1"));
+        assertEquals("Apt 4", address.get("STREET_LINE_2"));
+        assertEquals("Chennai", address.get("CITY"));
+        assertNotNull(address.get("ID"));
+    }
+
+    @Test
+    void shouldKeepFixedFields() throws Exception {
+        // Act
+        DocumentContext pruned = extractor.extract(body, planRegistry.current());
+
+        // Assert
+        assertEquals("TXN1101", pruned.read("$.transactionId"));
+        assertEquals(Integer.valueOf(500), pruned.read("$.amount"));
+        assertEquals("PMT-001", pruned.read("$.paymentReference"));
+    }
+
+    @Test
+    void shouldSkipUnmappedSubtrees() throws Exception {
+        // Act
+        DocumentContext pruned = extractor.extract(body, planRegistry.current());
+
+        // Assert
+        assertThrows(PathNotFoundException.class, () -> pruned.read("$.notes"));
+        assertThrows(PathNotFoundException.class, () -> pruned.read("$.metadata"));
+        assertThrows(PathNotFoundException.class, () -> pruned.read("$.sender.ignored"));
+    }
+
+    @Test
+    void shouldReportMissingMappedFieldAsMissing() throws Exception {
+        // Act
+        DocumentContext pruned = extractor.extract(body, planRegistry.current());
+
+        // Assert
+        assertThrows(PathNotFoundException.class, () -> pruned.read("$.sender.email"));
+        assertThrows(PathNotFoundException.class, () -> pruned.read("$.currencyCode"));
+    }
+
+    // ==================== PLAN SUPPORT TESTS ====================
+
+    @Test
+    void shouldNotSupportWildcardPaths() {
+        // Arrange
+        mappingConfig.setSender(entity(Map.of("FIRST_NAME", json("$.sender[*].firstName"))));
+        MappingPlan plan = planRegistry.rebuild();
+
+        // Act & Assert
+        assertFalse(extractor.supports(plan));
+        assertThrows(IllegalStateException.class, () -> extractor.extract(body, plan));
+    }
+
+    @Test
+    void shouldRebuildPathTreeWhenPlanChanges() throws Exception {
+        // Arrange
+        extractor.extract(body, planRegistry.current());
+        mappingConfig.setSender(entity(Map.of("CHANNEL", json("$.metadata.channel"))));
+
+        // Act
+        DocumentContext pruned = extractor.extract(body, planRegistry.rebuild());
+
+        // Assert
+        assertEquals("WEB", pruned.read("$.metadata.channel"));
+    }
+
+    // ==================== READER TESTS ====================
+
+    @Test
+    void shouldFallBackToFullDocumentWhenPlanUnsupported() {
+        // Arrange
+        mappingConfig.setSender(entity(Map.of("FIRST_NAME", json("$..firstName"))));
+        planRegistry.rebuild();
+        PayloadReader reader = new PayloadReader(new ObjectMapper(), extractor, planRegistry, metrics, true);
+
+        // Act
+        DocumentContext document = reader.read(body);
+
+        // Assert
+        assertEquals("free text we never persist", document.read("$.notes"));
+    }
+
+    @Test
+    void shouldRejectMalformedBody() {
+        // Arrange
+        PayloadReader streamingReader = new PayloadReader(new ObjectMapper(), extractor, planRegistry, metrics, true);
+        PayloadReader fullReader = new PayloadReader(new ObjectMapper(), extractor, planRegistry, metrics, false);
+        byte[] malformed = "{\"transactionId\": \"TXN1101\"".getBytes(StandardCharsets.UTF_8);
+
+        // Act & Assert
+        ErrorResponse streamingError = assertThrows(ErrorResponse.class, () -> streamingReader.read(malformed));
+        ErrorResponse fullError = assertThrows(ErrorResponse.class, () -> fullReader.read(malformed));
+        assertEquals("Malformed JSON request", streamingError.getReason());
+        assertEquals("Malformed JSON request", fullError.getReason());
+    }
+
+    private static EntityMapping entity(Map<String, FieldMapping> party) {
+        EntityMapping entity = new EntityMapping();
+        entity.setParty(party);
+        return entity;
+    }
+
+    private static FieldMapping json(String path) {
+        FieldMapping mapping = new FieldMapping();
+        mapping.setSource("json");
+        mapping.setPath(path);
+        return mapping;
+    }
+
+    private static FieldMapping generated() {
+        FieldMapping mapping = new FieldMapping();
+        mapping.setSource("generated");
+        return mapping;
+    }
+}
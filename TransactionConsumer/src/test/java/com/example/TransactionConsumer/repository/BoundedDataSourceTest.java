@@ -0,0 +1,89 @@
+package com.example.TransactionConsumer.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BoundedDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private DbConcurrencyLimiter limiter;
+    private BoundedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new DbConcurrencyLimiter(2, 50);
+        dataSource = new BoundedDataSource(target, limiter);
+    }
+
+    // ==================== PERMIT TESTS ====================
+
+    @Test
+    void shouldReleasePermitOnceWhenConnectionIsClosed() throws Exception {
+        // Arrange
+        when(target.getConnection()).thenReturn(connection);
+
+        // Act
+        Connection borrowed = dataSource.getConnection();
+        int whileBorrowed = limiter.getAvailable();
+        borrowed.close();
+        borrowed.close();
+
+        // Assert
+        assertEquals(1, whileBorrowed);
+        assertEquals(2, limiter.getAvailable());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void shouldDelegateOtherCallsToTargetConnection() throws Exception {
+        // Arrange
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(false);
+
+        // Act
+        Connection borrowed = dataSource.getConnection();
+
+        // Assert
+        assertFalse(borrowed.getAutoCommit());
+        verify(connection).getAutoCommit();
+    }
+
+    @Test
+    void shouldTimeOutWhenPermitsAreExhausted() throws Exception {
+        // Arrange
+        when(target.getConnection()).thenReturn(connection);
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        // Act & Assert
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        verify(target, times(2)).getConnection();
+    }
+
+    @Test
+    void shouldReleasePermitWhenTargetFails() throws Exception {
+        // Arrange
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        // Act & Assert
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+        assertEquals(2, limiter.getAvailable());
+    }
+}
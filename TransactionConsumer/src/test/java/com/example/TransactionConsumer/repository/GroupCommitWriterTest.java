@@ -0,0 +1,195 @@
+package com.example.TransactionConsumer.repository;
+
+import com.example.TransactionConsumer.config.GroupCommitProperties;
+import com.example.TransactionConsumer.config.PersistenceProperties;
+import com.example.TransactionConsumer.config.ShardingProperties;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GroupCommitWriterTest {
+
+    @Mock
+    private SendTableWriter tableWriter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private GroupCommitProperties properties;
+    private PersistenceProperties persistence;
+    private GroupCommitWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new GroupCommitProperties();
+        properties.setEnabled(true);
+        properties.setMaxBatchSize(8);
+        properties.setMaxDelayMs(20);
+        persistence = new PersistenceProperties();
+
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        TransactionShards unsharded = new TransactionShards(
+                new ShardingProperties(), new PersistenceProperties(), new TransactionMetrics(new SimpleMeterRegistry()));
+        writer = new GroupCommitWriter(
+                new BatchTableWriter(tableWriter, transactionManager, persistence), unsharded, properties, persistence);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.stop();
+    }
+
+    // ==================== FLUSH TESTS ====================
+
+    @Test
+    void shouldWriteWholeBatchInOneTransaction() {
+        // Arrange
+        List<GroupCommitWriter.PendingWrite> batch = List.of(pending("TXN1"), pending("TXN2"), pending("TXN3"));
+
+        // Act
+        writer.flush(batch);
+
+        // Assert
+        verify(tableWriter, times(1)).writeBatch(argThat(rows -> rows.size() == 3));
+        verify(tableWriter, never()).write(any());
+        verify(transactionManager, times(1)).commit(any());
+        batch.forEach(pending -> assertTrue(pending.getFuture().isDone() && !pending.getFuture().isCompletedExceptionally()));
+    }
+
+    @Test
+    void shouldIsolateBadRowWhenBatchFails() {
+        // Arrange
+        GroupCommitWriter.PendingWrite good = pending("TXN1");
+        GroupCommitWriter.PendingWrite bad = pending("BAD");
+        GroupCommitWriter.PendingWrite alsoGood = pending("TXN3");
+
+        doThrow(new RuntimeException("ORA-12899: value too large")).when(tableWriter).writeBatch(anyList());
+        doThrow(new RuntimeException("ORA-12899: value too large"))
+                .when(tableWriter).write(argThat(rows -> "BAD".equals(rows.getTranId())));
+
+        // Act
+        writer.flush(List.of(good, bad, alsoGood));
+
+        // Assert
+        assertDoesNotThrow(() -> good.getFuture().join());
+        assertDoesNotThrow(() -> alsoGood.getFuture().join());
+        CompletionException exception = assertThrows(CompletionException.class, () -> bad.getFuture().join());
+        assertEquals("ORA-12899: value too large", exception.getCause().getMessage());
+        verify(tableWriter, times(3)).write(any());
+    }
+
+    @Test
+    void shouldSkipEntriesWhoseCallerGaveUp() {
+        // Arrange
+        GroupCommitWriter.PendingWrite waiting = pending("TXN1");
+        GroupCommitWriter.PendingWrite abandoned = pending("TXN2");
+        abandoned.getFuture().completeExceptionally(new IllegalStateException("timed out"));
+
+        // Act
+        writer.flush(List.of(waiting, abandoned));
+
+        // Assert
+        verify(tableWriter).writeBatch(argThat(rows -> rows.size() == 1 && "TXN1".equals(rows.get(0).getTranId())));
+        assertDoesNotThrow(() -> waiting.getFuture().join());
+    }
+
+    // ==================== QUEUE TESTS ====================
+
+    @Test
+    void shouldCompleteEverySubmitterAfterFlush() {
+        // Arrange
+        writer.start();
+
+        // Act
+        List<CompletableFuture<Void>> futures = List.of(
+                writer.submit(rows("TXN1")),
+                writer.submit(rows("TXN2")),
+                writer.submit(rows("TXN3"))
+        );
+
+        // Assert
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).orTimeout(5, TimeUnit.SECONDS).join();
+        verify(tableWriter, atLeastOnce()).writeBatch(anyList());
+    }
+
+    @Test
+    void shouldRejectSubmitWhenNotRunning() {
+        // Act
+        CompletableFuture<Void> future = writer.submit(rows("TXN1"));
+
+        // Assert
+        assertTrue(future.isCompletedExceptionally());
+        verifyNoInteractions(tableWriter);
+    }
+
+    @Test
+    void shouldFailTheBatchAndKeepFlushingWhenAFlushThrows() {
+        // Arrange
+        TransactionShards shards = mock(TransactionShards.class);
+        when(shards.isEnabled()).thenReturn(true);
+        when(shards.writeBatch(anyList()))
+                .thenThrow(new IllegalStateException("shard routing failed"))
+                .thenAnswer(invocation -> Arrays.asList(new RuntimeException[((List<?>) invocation.getArgument(0)).size()]));
+        writer = new GroupCommitWriter(
+                new BatchTableWriter(tableWriter, transactionManager, persistence), shards, properties, persistence);
+        writer.start();
+
+        // Act
+        CompletableFuture<Void> failed = writer.submit(rows("TXN1"));
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> failed.orTimeout(5, TimeUnit.SECONDS).join());
+        CompletableFuture<Void> next = writer.submit(rows("TXN2"));
+
+        // Assert
+        assertEquals("shard routing failed", exception.getCause().getMessage());
+        assertDoesNotThrow(() -> next.orTimeout(5, TimeUnit.SECONDS).join());
+    }
+
+    @Test
+    void shouldBoundTheWaitByTheDelayAndTheTransactionTimeout() {
+        // Arrange
+        properties.setWaitTimeoutMs(30_000);
+
+        // Act
+        long withoutTimeout = writer.waitMillis();
+        persistence.setTransactionTimeoutSeconds(3);
+        long withTimeout = writer.waitMillis();
+
+        // Assert
+        assertEquals(30_020, withoutTimeout);
+        assertEquals(3_020, withTimeout);
+    }
+
+    private static GroupCommitWriter.PendingWrite pending(String tranId) {
+        return new GroupCommitWriter.PendingWrite(rows(tranId));
+    }
+
+    private static TransactionRows rows(String tranId) {
+        return new TransactionRows(
+                tranId,
+                new Object[]{tranId},
+                new Object[]{tranId},
+                new Object[]{tranId},
+                List.of(new Object[]{"ID-1", tranId}, new Object[]{"ID-2", tranId})
+        );
+    }
+}
@@ -0,0 +1,378 @@
+package com.example.TransactionConsumer.repository;
+
+import com.example.TransactionConsumer.config.EntityMapping;
+import com.example.TransactionConsumer.config.FieldMapping;
+import com.example.TransactionConsumer.config.GroupCommitProperties;
+import com.example.TransactionConsumer.config.PersistenceProperties;
+import com.example.TransactionConsumer.config.ReadCacheProperties;
+import com.example.TransactionConsumer.config.ShardingProperties;
+import com.example.TransactionConsumer.config.TransactionMappingConfig;
+import com.example.TransactionConsumer.config.WalProperties;
+import com.example.TransactionConsumer.dto.TransactionView;
+import com.example.TransactionConsumer.id.IdGenerators;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import com.example.TransactionConsumer.parser.PayloadReader;
+import com.example.TransactionConsumer.parser.StreamingPayloadExtractor;
+import com.example.TransactionConsumer.service.MappingPlan;
+import com.example.TransactionConsumer.service.MappingPlanRegistry;
+import com.example.TransactionConsumer.service.MappingService;
+import com.example.TransactionConsumer.wal.WalEntry;
+import com.example.TransactionConsumer.wal.WriteAheadLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SendTablesTest {
+
+    @TempDir
+    Path walDirectory;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbc;
+    private TransactionMappingConfig mappingConfig;
+    private MappingPlanRegistry planRegistry;
+    private GroupCommitProperties groupCommit;
+    private GroupCommitWriter groupCommitWriter;
+    private WalProperties wal;
+    private WriteAheadLog writeAheadLog;
+    private TransactionRepository repository;
+
+    private DocumentContext document;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName("send-tables;MODE=Oracle")
+                .generateUniqueName(false)
+                .addScript("db/send-tables.sql")
+                .build();
+        jdbc = new JdbcTemplate(database);
+
+        Map<String, FieldMapping> sender = new LinkedHashMap<>();
+        sender.put("FIRST_NAME", json("$.sender.firstName"));
+        sender.put("CITY", json("$.sender.address.city"));
+        Map<String, FieldMapping> recipient = new LinkedHashMap<>();
+        recipient.put("FIRST_NAME", json("$.recipient.firstName"));
+
+        mappingConfig = new TransactionMappingConfig();
+        mappingConfig.setSender(party(sender));
+        mappingConfig.setRecipient(party(recipient));
+        mappingConfig.setAddress(Map.of(
+                "sender", address("SENDER", "$.sender.address.city"),
+                "recipient", address("RECIPIENT", "$.recipient.address.city")
+        ));
+
+        planRegistry = new MappingPlanRegistry(mappingConfig, IdGenerators.withoutDatabase());
+        groupCommit = new GroupCommitProperties();
+        wal = new WalProperties();
+        repository = repository();
+
+        document = JsonPath.parse("""
+            {
+              "transactionId": "TXN1101",
+              "transactionType": "PAYMENT",
+              "amount": 500,
+              "currency": "INR",
+              "paymentReference": "PMT-001",
+              "channel": "MOBILE",
+              "sender": { "firstName": "Aadhish", "address": { "city": "Chennai" } },
+              "recipient": { "firstName": "Raj", "address": { "city": "Mumbai" } }
+            }
+            """);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        groupCommitWriter.stop();
+        writeAheadLog.close();
+        database.shutdown();
+    }
+
+    // ==================== LAYOUT TESTS ====================
+
+    @Test
+    void shouldKeepLegacyColumnOrder() {
+        // Assert
+        assertEquals(14, SendTables.LEGACY.getTransaction().getColumnCount());
+        assertEquals(8, SendTables.LEGACY.getDetail().getColumnCount());
+        assertEquals(17, SendTables.LEGACY.getParty().getColumnCount());
+        assertEquals("ID", SendTables.LEGACY.getAddress().getColumns().get(0));
+    }
+
+    @Test
+    void shouldMapPartyAndAddressKeysToExistingColumns() {
+        // Act
+        SendTables tables = SendTables.compile(planRegistry.current());
+
+        // Assert
+        assertEquals(List.of("TRAN_ID", "TRAN_CRTE_DT", "SEND_FIRST_NAM", "SEND_CITY", "RECIP_FIRST_NAM",
+                "CRTE_TS", "CRTE_USER_NAM", "RPLCTN_UPDT_TS"), tables.getParty().getColumns());
+        assertEquals(List.of("TRAN_ID", "ID", "ADDR_TYPE", "CITY",
+                "CRTE_TS", "CRTE_USER_NAM", "RPLCTN_UPDT_TS"), tables.getAddress().getColumns());
+        assertTrue(tables.getTransaction().getColumns().containsAll(List.of("TRAN_TYPE", "CUR_STAT", "NON_FIN_TXN")));
+    }
+
+    @Test
+    void shouldReuseTablesUntilPlanVersionChanges() {
+        // Arrange
+        MappingPlan plan = planRegistry.current();
+
+        // Act
+        SendTables first = repository.tables(plan);
+        SendTables same = repository.tables(plan);
+        SendTables refreshed = repository.tables(planRegistry.rebuild());
+
+        // Assert
+        assertSame(first, same);
+        assertNotSame(first, refreshed);
+        assertEquals(first.getTransaction().insertSql(), refreshed.getTransaction().insertSql());
+    }
+
+    // ==================== INSERT TESTS ====================
+
+    @Test
+    void shouldWriteDefaultTransactionColumnsWithoutConfig() {
+        // Act
+        repository.insertAll(document);
+
+        // Assert
+        Map<String, Object> row = jdbc.queryForMap("SELECT * FROM SEND_TRANSACTIONS WHERE TRAN_ID = 'TXN1101'");
+        assertEquals("PAYMENT", row.get("TRAN_TYPE"));
+        assertEquals(0, new BigDecimal("500").compareTo((BigDecimal) row.get("TRAN_AMT")));
+        assertEquals("COMPLETED", row.get("CUR_STAT"));
+        assertEquals("PMT-001", jdbc.queryForObject(
+                "SELECT PAYMT_REF FROM SEND_TRAN_DTL WHERE TRAN_ID = 'TXN1101'", String.class));
+        assertEquals("Chennai", jdbc.queryForObject(
+                "SELECT SEND_CITY FROM SEND_RECIP_DTL WHERE TRAN_ID = 'TXN1101'", String.class));
+        assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM SEND_TRAN_ADDR_DTL", Integer.class));
+    }
+
+    @Test
+    void shouldWriteColumnsFromConfig() {
+        // Arrange
+        Map<String, FieldMapping> transaction = new LinkedHashMap<>();
+        transaction.put("TRAN_TYPE", json("$.transactionType"));
+        transaction.put("TRAN_CURR", json("$.currency"));
+        transaction.put("CUR_STAT", constant("PENDING"));
+        transaction.put("CHANNEL", column(json("$.channel"), "ORIG_INST_NAM"));
+        EntityMapping payment = new EntityMapping();
+        payment.setTransaction(transaction);
+        mappingConfig.setPayment(payment);
+        mappingConfig.getSender().getParty().put("GIVEN_NAME", column(constant("Ignored"), "SEND_FIRST_NAM"));
+        mappingConfig.getSender().getParty().put("NICKNAME", json("$.sender.firstName"));
+        planRegistry.rebuild();
+
+        // Act
+        repository.insertAll(document);
+
+        // Assert
+        Map<String, Object> row = jdbc.queryForMap("SELECT * FROM SEND_TRANSACTIONS WHERE TRAN_ID = 'TXN1101'");
+        assertEquals("PENDING", row.get("CUR_STAT"));
+        assertEquals("MOBILE", row.get("ORIG_INST_NAM"));
+        assertNull(row.get("TRAN_AMT"));
+        assertNotNull(row.get("CRTE_TS"));
+        assertEquals("SYSTEM", row.get("CRTE_USER_NAM"));
+        // a column mapped twice keeps the first source
+        assertEquals("Aadhish", jdbc.queryForObject(
+                "SELECT SEND_FIRST_NAM FROM SEND_RECIP_DTL WHERE TRAN_ID = 'TXN1101'", String.class));
+    }
+
+    @Test
+    void shouldKeepAuditColumnsThatAMappingTargets() {
+        // Arrange
+        Map<String, FieldMapping> transaction = new LinkedHashMap<>();
+        transaction.put("CRTE_USER_NAM", constant("Hacked"));
+        transaction.put("TYPE_AS_TS", column(json("$.transactionType"), "CRTE_TS"));
+        transaction.put("CUR_STAT", constant("PENDING"));
+        EntityMapping payment = new EntityMapping();
+        payment.setTransaction(transaction);
+        mappingConfig.setPayment(payment);
+        planRegistry.rebuild();
+
+        // Act
+        repository.insertAll(document);
+
+        // Assert
+        Map<String, Object> row = jdbc.queryForMap("SELECT * FROM SEND_TRANSACTIONS WHERE TRAN_ID = 'TXN1101'");
+        assertEquals("SYSTEM", row.get("CRTE_USER_NAM"));
+        assertInstanceOf(Timestamp.class, row.get("CRTE_TS"));
+        assertEquals("PENDING", row.get("CUR_STAT"));
+    }
+
+    @Test
+    void shouldPropagateAFailedInsertWithoutAWriteAheadLog() {
+        // Arrange
+        jdbc.execute("DROP TABLE SEND_TRAN_ADDR_DTL");
+
+        // Act & Assert
+        assertThrows(DataAccessException.class, () -> repository.insertAll(document));
+    }
+
+    @Test
+    void shouldPropagateAGroupCommitFailureUnwrapped() {
+        // Arrange
+        groupCommit.setEnabled(true);
+        repository = repository();
+        groupCommitWriter.start();
+        jdbc.execute("DROP TABLE SEND_TRAN_ADDR_DTL");
+
+        // Act
+        RuntimeException thrown = assertThrows(RuntimeException.class, () -> repository.insertAll(document));
+
+        // Assert
+        assertFalse(thrown instanceof CompletionException, thrown.toString());
+    }
+
+    @Test
+    void shouldFailWhenMappingsAreNotLoadedWithoutAWriteAheadLog() {
+        // Arrange
+        mappingConfig.setSender(null);
+        planRegistry.rebuild();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> repository.insertAll(document));
+    }
+
+    @Test
+    void shouldSpoolTheRequestBodyRatherThanAStreamedDocument() throws Exception {
+        // Arrange: without mappings loaded, streaming leaves the sender's name out of the document
+        wal.setEnabled(true);
+        wal.setDirectory(walDirectory.toString());
+        repository = repository();
+        writeAheadLog.open();
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        PayloadReader streaming = new PayloadReader(objectMapper, new StreamingPayloadExtractor(objectMapper),
+                planRegistry, new TransactionMetrics(new SimpleMeterRegistry()), true);
+        byte[] body = document.jsonString().getBytes(StandardCharsets.UTF_8);
+        EntityMapping sender = mappingConfig.getSender();
+        mappingConfig.setSender(null);
+        planRegistry.rebuild();
+        DocumentContext streamed = streaming.read(body);
+
+        // Act: spooled, then replayed the way the drainers do once the mappings are back
+        boolean stored = repository.insertAll(streamed, body);
+        mappingConfig.setSender(sender);
+        planRegistry.rebuild();
+        WalEntry spooled = writeAheadLog.takePending(1, 1, TimeUnit.SECONDS).get(0);
+        boolean replayed = repository.insertAll(streaming.read(writeAheadLog.read(spooled)));
+
+        // Assert
+        assertFalse(stored);
+        assertTrue(replayed);
+        assertArrayEquals(body, writeAheadLog.read(spooled));
+        Map<String, Object> party = jdbc.queryForMap("SELECT * FROM SEND_RECIP_DTL WHERE TRAN_ID = 'TXN1101'");
+        assertEquals("Aadhish", party.get("SEND_FIRST_NAM"));
+        assertEquals("Chennai", party.get("SEND_CITY"));
+    }
+
+    private TransactionRepository repository() {
+        TransactionMetrics metrics = new TransactionMetrics(new SimpleMeterRegistry());
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(database);
+
+        PersistenceProperties persistence = new PersistenceProperties();
+        persistence.setDialect("portable");
+
+        SendTableWriter tableWriter = new SendTableWriter(jdbc, metrics);
+        BatchTableWriter batchWriter = new BatchTableWriter(tableWriter, transactionManager, persistence);
+        TransactionShards unsharded = new TransactionShards(new ShardingProperties(), persistence, metrics);
+
+        groupCommitWriter = new GroupCommitWriter(batchWriter, unsharded, groupCommit, persistence);
+        writeAheadLog = new WriteAheadLog(wal);
+
+        return new TransactionRepository(
+                tableWriter,
+                groupCommitWriter,
+                new SingleStatementWriter(jdbc, persistence, metrics),
+                batchWriter,
+                unsharded,
+                new MappingService(mappingConfig, metrics, planRegistry),
+                planRegistry,
+                writeAheadLog,
+                new TransactionReadCache(new ReadCacheProperties(), new TransactionReader(jdbc, unsharded), metrics),
+                metrics,
+                transactionManager
+        );
+    }
+
+    // ==================== READ TESTS ====================
+
+    @Test
+    void shouldReadBackEveryRowOfAWrittenTransaction() {
+        // Arrange
+        repository.insertAll(document);
+        TransactionReader reader = new TransactionReader(jdbc, new TransactionShards(
+                new ShardingProperties(), new PersistenceProperties(), new TransactionMetrics(new SimpleMeterRegistry())));
+
+        // Act
+        TransactionView view = reader.load("TXN1101").orElseThrow();
+
+        // Assert
+        assertEquals("PAYMENT", view.getTransaction().get("TRAN_TYPE"));
+        assertEquals("PMT-001", view.getDetail().get("PAYMT_REF"));
+        assertEquals("Raj", view.getParty().get("RECIP_FIRST_NAM"));
+        assertEquals(List.of("SENDER", "RECIPIENT"),
+                view.getAddresses().stream().map(address -> address.get("ADDR_TYPE")).toList());
+        assertTrue(reader.load("TXN-UNKNOWN").isEmpty());
+    }
+
+    private static EntityMapping party(Map<String, FieldMapping> party) {
+        EntityMapping entity = new EntityMapping();
+        entity.setParty(party);
+        return entity;
+    }
+
+    private static Map<String, FieldMapping> address(String type, String cityPath) {
+        FieldMapping id = new FieldMapping();
+        id.setSource("generated");
+
+        Map<String, FieldMapping> address = new LinkedHashMap<>();
+        address.put("ID", id);
+        address.put("ADDR_TYPE", constant(type));
+        address.put("CITY", json(cityPath));
+        return address;
+    }
+
+    private static FieldMapping column(FieldMapping mapping, String column) {
+        mapping.setColumn(column);
+        return mapping;
+    }
+
+    private static FieldMapping json(String path) {
+        FieldMapping mapping = new FieldMapping();
+        mapping.setSource("json");
+        mapping.setPath(path);
+        return mapping;
+    }
+
+    private static FieldMapping constant(String value) {
+        FieldMapping mapping = new FieldMapping();
+        mapping.setSource("constant");
+        mapping.setValue(value);
+        return mapping;
+    }
+}
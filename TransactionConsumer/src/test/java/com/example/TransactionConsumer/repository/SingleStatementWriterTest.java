@@ -0,0 +1,141 @@
+package com.example.TransactionConsumer.repository;
+
+import com.example.TransactionConsumer.config.PersistenceProperties;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import com.example.TransactionConsumer.repository.sql.InsertStatement;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleStatementWriterTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName("single-statement;MODE=Oracle")
+                .generateUniqueName(false)
+                .addScript("db/send-tables.sql")
+                .build();
+        jdbc = new JdbcTemplate(database);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    // ==================== PORTABLE DIALECT (H2) ====================
+
+    @Test
+    void shouldWriteEveryRowWithPortableDialect() {
+        // Arrange
+        SingleStatementWriter writer = writer("portable");
+
+        // Act
+        writer.write(rows("TXN1101"));
+
+        // Assert
+        assertEquals(1, count("SEND_TRANSACTIONS"));
+        assertEquals(1, count("SEND_TRAN_DTL"));
+        assertEquals(1, count("SEND_RECIP_DTL"));
+        assertEquals(2, count("SEND_TRAN_ADDR_DTL"));
+        assertEquals("Chennai", jdbc.queryForObject(
+                "SELECT CITY FROM SEND_TRAN_ADDR_DTL WHERE ADDR_TYPE = 'SENDER'", String.class));
+        assertEquals("Raj", jdbc.queryForObject(
+                "SELECT RECIP_FIRST_NAM FROM SEND_RECIP_DTL WHERE TRAN_ID = 'TXN1101'", String.class));
+    }
+
+    @Test
+    void shouldUseOneMultiRowStatementPerTable() {
+        // Act
+        List<InsertStatement> statements = writer("portable").statementsFor(SendTables.LEGACY, 2);
+
+        // Assert
+        assertEquals(4, statements.size());
+        assertTrue(statements.get(3).getSql().startsWith("INSERT INTO SEND_TRAN_ADDR_DTL"));
+        assertTrue(statements.get(3).getSql().endsWith("?), (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"));
+    }
+
+    // ==================== ORACLE DIALECT ====================
+
+    @Test
+    void shouldGenerateSinglePlsqlBlockForOracle() {
+        // Act
+        List<InsertStatement> statements = writer("oracle").statementsFor(SendTables.LEGACY, 2);
+
+        // Assert
+        assertEquals(1, statements.size());
+        String sql = statements.get(0).getSql();
+        assertTrue(sql.startsWith("BEGIN"));
+        assertTrue(sql.endsWith("END;"));
+        assertEquals(5, sql.split("INSERT INTO").length - 1);
+        assertEquals(14 + 8 + 17 + 2 * 12, sql.chars().filter(c -> c == '?').count());
+    }
+
+    // ==================== CACHE ====================
+
+    @Test
+    void shouldReuseStatementsUntilTablesOrRowCountChange() {
+        // Arrange
+        SingleStatementWriter writer = writer("oracle");
+
+        // Act
+        List<InsertStatement> first = writer.statementsFor(SendTables.LEGACY, 2);
+        List<InsertStatement> same = writer.statementsFor(SendTables.LEGACY, 2);
+        List<InsertStatement> oneAddress = writer.statementsFor(SendTables.LEGACY, 1);
+
+        // Assert
+        assertSame(first, same);
+        assertNotSame(first, oneAddress);
+        assertEquals(14 + 8 + 17 + 12, oneAddress.get(0).getSql().chars().filter(c -> c == '?').count());
+    }
+
+    @Test
+    void shouldRejectUnknownDialect() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> writer("sybase"));
+    }
+
+    private SingleStatementWriter writer(String dialect) {
+        PersistenceProperties properties = new PersistenceProperties();
+        properties.setSingleStatement(true);
+        properties.setDialect(dialect);
+        return new SingleStatementWriter(jdbc, properties, new TransactionMetrics(new SimpleMeterRegistry()));
+    }
+
+    private int count(String table) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    private static TransactionRows rows(String tranId) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        return new TransactionRows(
+                tranId,
+                new Object[]{tranId, "PAYMENT", 500, "INR", now, "COMPLETED", "NEW",
+                        "CRN001", "ICICI Bank", "XYZ Services", now, "SYSTEM", now, 0},
+                new Object[]{tranId, "PMT-001", "BANK", "IMPS", now, now, "SYSTEM", now},
+                new Object[]{tranId, "Aadhish", "M", "aadhish@example.com", "9876543210", "Chennai", "India",
+                        "Raj", "K", "raj@example.com", "9876501234", "Mumbai", "India", now, now, "SYSTEM", now},
+                List.of(
+                        new Object[]{"ADDR-1", tranId, "SENDER", "12 Main St", null, "Chennai", "TN", "India", "600001",
+                                now, "SYSTEM", now},
+                        new Object[]{"ADDR-2", tranId, "RECIPIENT", "4 Park Rd", null, "Mumbai", "MH", "India", "400001",
+                                now, "SYSTEM", now}
+                )
+        );
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.TransactionConsumer.repository;
+
+import com.example.TransactionConsumer.config.ReadCacheProperties;
+import com.example.TransactionConsumer.dto.TransactionView;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionReadCacheTest {
+
+    @Mock
+    private TransactionReader reader;
+
+    private SimpleMeterRegistry registry;
+    private ReadCacheProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        properties = new ReadCacheProperties();
+        properties.setMaxSize(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // ==================== READ-THROUGH TESTS ====================
+
+    @Test
+    void shouldLoadOnceAndServeRepeatsFromMemory() {
+        // Arrange
+        TransactionReadCache cache = cache();
+        when(reader.load("TXN1")).thenReturn(Optional.of(view("TXN1")));
+
+        // Act
+        cache.get("TXN1");
+        Optional<TransactionView> second = cache.get("TXN1");
+
+        // Assert
+        assertEquals("TXN1", second.orElseThrow().getTransactionId());
+        verify(reader, times(1)).load("TXN1");
+        assertEquals(1.0, gets("hit"));
+        assertEquals(1.0, gets("miss"));
+        assertEquals(1, registry.get(TransactionMetrics.READ_CACHE_LOAD).timer().count());
+    }
+
+    @Test
+    void shouldNotCacheMissingTransactions() {
+        // Arrange
+        TransactionReadCache cache = cache();
+        when(reader.load("TXN1")).thenReturn(Optional.empty());
+
+        // Act
+        cache.get("TXN1");
+        cache.get("TXN1");
+
+        // Assert
+        verify(reader, times(2)).load("TXN1");
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    void shouldReadThroughEveryTimeWhenDisabled() {
+        // Arrange
+        properties.setEnabled(false);
+        TransactionReadCache cache = cache();
+        when(reader.load("TXN1")).thenReturn(Optional.of(view("TXN1")));
+
+        // Act
+        cache.get("TXN1");
+        cache.get("TXN1");
+
+        // Assert
+        verify(reader, times(2)).load("TXN1");
+    }
+
+    // ==================== EVICTION TESTS ====================
+
+    @Test
+    void shouldEvictLeastRecentlyReadPastMaxSize() {
+        // Arrange
+        TransactionReadCache cache = cache();
+        cache.putAfterCommit(rows("TXN1"));
+        cache.putAfterCommit(rows("TXN2"));
+        cache.get("TXN1");
+
+        // Act
+        cache.putAfterCommit(rows("TXN3"));
+        when(reader.load("TXN2")).thenReturn(Optional.empty());
+
+        // Assert
+        assertEquals(2, cache.getSize());
+        assertTrue(cache.get("TXN1").isPresent());
+        assertTrue(cache.get("TXN2").isEmpty());
+        assertEquals(1.0, registry.get(TransactionMetrics.READ_CACHE_EVICTIONS).tag("cause", "size").counter().count());
+    }
+
+    @Test
+    void shouldReloadExpiredEntries() {
+        // Arrange
+        properties.setTtlSeconds(0);
+        TransactionReadCache cache = cache();
+        cache.putAfterCommit(rows("TXN1"));
+        when(reader.load("TXN1")).thenReturn(Optional.of(view("TXN1")));
+
+        // Act
+        cache.get("TXN1");
+
+        // Assert
+        verify(reader).load("TXN1");
+        assertEquals(1.0, registry.get(TransactionMetrics.READ_CACHE_EVICTIONS)
+                .tag("cause", "expired").counter().count());
+    }
+
+    // ==================== WRITE-THROUGH TESTS ====================
+
+    @Test
+    void shouldServeWrittenRowsWithoutTouchingTheDatabase() {
+        // Arrange
+        TransactionReadCache cache = cache();
+
+        // Act
+        cache.putAfterCommit(rows("TXN1"));
+        TransactionView view = cache.get("TXN1").orElseThrow();
+
+        // Assert
+        verifyNoInteractions(reader);
+        assertEquals("TXN1", view.getTransaction().get("TRAN_ID"));
+        assertEquals("TXN1-S", view.getAddresses().get(0).get("ID"));
+        assertEquals(2, view.getAddresses().size());
+    }
+
+    @Test
+    void shouldWaitForCommitBeforeCaching() {
+        // Arrange
+        TransactionReadCache cache = cache();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        cache.putAfterCommit(rows("TXN1"));
+        int beforeCommit = cache.getSize();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Assert
+        assertEquals(0, beforeCommit);
+        assertEquals(1, cache.getSize());
+    }
+
+    private TransactionReadCache cache() {
+        return new TransactionReadCache(properties, reader, new TransactionMetrics(registry));
+    }
+
+    private double gets(String result) {
+        return registry.get(TransactionMetrics.READ_CACHE_GETS).tag("result", result).counter().count();
+    }
+
+    private static TransactionView view(String tranId) {
+        return new TransactionView(tranId, Map.of("TRAN_ID", tranId), Map.of(), Map.of(), List.of());
+    }
+
+    private static TransactionRows rows(String tranId) {
+        SendTables tables = SendTables.LEGACY;
+        Object[] transaction = new Object[tables.getTransaction().getColumnCount()];
+        transaction[tables.getTransaction().getColumns().indexOf("TRAN_ID")] = tranId;
+        Object[] sender = new Object[tables.getAddress().getColumnCount()];
+        sender[tables.getAddress().getColumns().indexOf("ID")] = tranId + "-S";
+        Object[] recipient = new Object[tables.getAddress().getColumnCount()];
+        recipient[tables.getAddress().getColumns().indexOf("ID")] = tranId + "-R";
+        return new TransactionRows(tranId, transaction,
+                new Object[tables.getDetail().getColumnCount()],
+                new Object[tables.getParty().getColumnCount()],
+                List.of(sender, recipient));
+    }
+}
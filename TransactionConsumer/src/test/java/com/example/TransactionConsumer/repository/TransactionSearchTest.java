@@ -0,0 +1,186 @@
+package com.example.TransactionConsumer.repository;
+
+import com.example.TransactionConsumer.config.PersistenceProperties;
+import com.example.TransactionConsumer.config.SearchProperties;
+import com.example.TransactionConsumer.config.ShardingProperties;
+import com.example.TransactionConsumer.dto.SearchCursor;
+import com.example.TransactionConsumer.dto.TransactionSearchCriteria;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import com.example.TransactionConsumer.service.TransactionSearchService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionSearchTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbc;
+    private SimpleMeterRegistry registry;
+    private SearchProperties properties;
+    private TransactionShards unsharded;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName("transaction-search;MODE=Oracle")
+                .generateUniqueName(false)
+                .addScript("db/send-tables.sql")
+                .build();
+        jdbc = new JdbcTemplate(database);
+        registry = new SimpleMeterRegistry();
+        properties = new SearchProperties();
+        properties.setPageSize(3);
+        unsharded = new TransactionShards(new ShardingProperties(), new PersistenceProperties(),
+                new TransactionMetrics(registry));
+
+        // 10 BANK-A payments, two per minute so rows share TRAN_CRTE_DT, plus rows every filter must drop
+        for (int i = 0; i < 10; i++) {
+            insert(jdbc, "TXN" + i, DAY.plusMinutes(i / 2), "BANK-A", "PAYMENT", "COMPLETED");
+        }
+        insert(jdbc, "TXN-OTHER-BANK", DAY.plusMinutes(1), "BANK-B", "PAYMENT", "COMPLETED");
+        insert(jdbc, "TXN-REFUND", DAY.plusMinutes(1), "BANK-A", "REFUND", "COMPLETED");
+        insert(jdbc, "TXN-PENDING", DAY.plusMinutes(1), "BANK-A", "PAYMENT", "PENDING");
+        insert(jdbc, "TXN-NEXT-DAY", DAY.plusDays(1), "BANK-A", "PAYMENT", "COMPLETED");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    // ==================== KEYSET PAGING TESTS ====================
+
+    @Test
+    void shouldReturnEveryMatchInKeyOrderAcrossPages() {
+        // Act
+        List<String> ids = new ArrayList<>();
+        SearchCursor next = search().stream(criteria(null, 0), row -> ids.add((String) row.get("TRAN_ID")));
+
+        // Assert
+        assertEquals(List.of("TXN0", "TXN1", "TXN2", "TXN3", "TXN4", "TXN5", "TXN6", "TXN7", "TXN8", "TXN9"), ids);
+        assertNull(next);
+        // 3 full pages and a short last one
+        assertEquals(4, registry.get(TransactionMetrics.SEARCH_PAGE).tag("source", "primary").timer().count());
+        assertEquals(10.0, registry.get(TransactionMetrics.SEARCH_ROWS).tag("source", "primary").counter().count());
+    }
+
+    @Test
+    void shouldResumeFromTheCursorWhenLimited() {
+        // Arrange
+        TransactionSearch search = search();
+        List<String> ids = new ArrayList<>();
+
+        // Act
+        SearchCursor next = search.stream(criteria(null, 4), row -> ids.add((String) row.get("TRAN_ID")));
+        SearchCursor last = search.stream(criteria(SearchCursor.decode(next.encode()), 0),
+                row -> ids.add((String) row.get("TRAN_ID")));
+
+        // Assert
+        assertEquals(new SearchCursor(DAY.plusMinutes(1), "TXN3"), next);
+        assertEquals(List.of("TXN0", "TXN1", "TXN2", "TXN3", "TXN4", "TXN5", "TXN6", "TXN7", "TXN8", "TXN9"), ids);
+        assertNull(last);
+    }
+
+    @Test
+    void shouldNotReturnACursorWhenTheLimitEndsOnTheLastMatch() {
+        // Act
+        SearchCursor next = search().stream(criteria(null, 10), row -> { });
+
+        // Assert
+        assertNull(next);
+    }
+
+    // ==================== SHARDED TESTS ====================
+
+    @Test
+    void shouldMergeShardsInKeyOrder() {
+        // Arrange
+        ShardingProperties sharding = new ShardingProperties();
+        sharding.setEnabled(true);
+        for (String name : List.of("east", "west")) {
+            ShardingProperties.Shard shard = new ShardingProperties.Shard();
+            shard.setName(name);
+            shard.setUrl("jdbc:h2:mem:search-" + name + ";MODE=Oracle;DB_CLOSE_DELAY=-1");
+            sharding.getShards().add(shard);
+        }
+        TransactionShards shards = new TransactionShards(sharding, new PersistenceProperties(),
+                new TransactionMetrics(registry));
+        try {
+            for (TransactionShards.Shard shard : shards.getShards()) {
+                new ResourceDatabasePopulator(new ClassPathResource("db/send-tables.sql")).execute(shard.getDataSource());
+            }
+            for (int i = 0; i < 10; i++) {
+                String tranId = "TXN" + i;
+                insert(shards.shardFor(tranId).getJdbc(), tranId, DAY.plusMinutes(i / 2), "BANK-A", "PAYMENT", "COMPLETED");
+            }
+            TransactionSearch search = new TransactionSearch(jdbc, shards, properties, new TransactionMetrics(registry));
+
+            // Act
+            List<String> ids = new ArrayList<>();
+            search.stream(criteria(null, 0), row -> ids.add((String) row.get("TRAN_ID")));
+
+            // Assert
+            assertEquals(List.of("TXN0", "TXN1", "TXN2", "TXN3", "TXN4", "TXN5", "TXN6", "TXN7", "TXN8", "TXN9"), ids);
+        } finally {
+            for (TransactionShards.Shard shard : shards.getShards()) {
+                shard.getJdbc().execute("SHUTDOWN");
+            }
+            shards.close();
+        }
+    }
+
+    // ==================== STREAMING TESTS ====================
+
+    @Test
+    void shouldStreamOneJsonDocumentWithTheNextCursor() throws Exception {
+        // Arrange
+        ObjectMapper objectMapper = new ObjectMapper();
+        TransactionSearchService service = new TransactionSearchService(search(), objectMapper);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        service.search(criteria(null, 4), out);
+
+        // Assert
+        JsonNode document = objectMapper.readTree(out.toByteArray());
+        assertEquals(4, document.get("count").asInt());
+        assertEquals(4, document.get("transactions").size());
+        assertEquals("TXN0", document.get("transactions").get(0).get("TRAN_ID").asText());
+        assertEquals(new SearchCursor(DAY.plusMinutes(1), "TXN3"),
+                SearchCursor.decode(document.get("nextCursor").asText()));
+    }
+
+    private TransactionSearch search() {
+        return new TransactionSearch(jdbc, unsharded, properties, new TransactionMetrics(registry));
+    }
+
+    private static TransactionSearchCriteria criteria(SearchCursor after, int limit) {
+        return new TransactionSearchCriteria(DAY, DAY.plusDays(1), "BANK-A", "PAYMENT", "COMPLETED", after, limit);
+    }
+
+    private static void insert(JdbcTemplate jdbc, String tranId, LocalDateTime createdAt, String institution,
+                               String type, String status) {
+        jdbc.update("INSERT INTO SEND_TRANSACTIONS (TRAN_ID, TRAN_CRTE_DT, ORIG_INST_NAM, TRAN_TYPE, CUR_STAT) "
+                + "VALUES (?, ?, ?, ?, ?)", tranId, Timestamp.valueOf(createdAt), institution, type, status);
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.TransactionConsumer.repository;
+
+import com.example.TransactionConsumer.config.PersistenceProperties;
+import com.example.TransactionConsumer.config.ShardingProperties;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import com.example.TransactionConsumer.repository.sql.TableInsert;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionShardsTest {
+
+    private static final List<String> SHARDS = List.of("east", "west", "north");
+    private static final String[] TABLES = {"SEND_TRANSACTIONS", "SEND_TRAN_DTL", "SEND_RECIP_DTL"};
+
+    private SimpleMeterRegistry registry;
+    private TransactionShards shards;
+
+    @BeforeEach
+    void setUp() {
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(true);
+        for (String name : SHARDS) {
+            ShardingProperties.Shard shard = new ShardingProperties.Shard();
+            shard.setName(name);
+            shard.setUrl("jdbc:h2:mem:shard-" + name + ";MODE=Oracle;DB_CLOSE_DELAY=-1");
+            shard.setMaximumPoolSize(4);
+            properties.getShards().add(shard);
+        }
+
+        PersistenceProperties persistence = new PersistenceProperties();
+        persistence.setDialect("portable");
+
+        registry = new SimpleMeterRegistry();
+        shards = new TransactionShards(properties, persistence, new TransactionMetrics(registry));
+        for (TransactionShards.Shard shard : shards.getShards()) {
+            new ResourceDatabasePopulator(new ClassPathResource("db/send-tables.sql")).execute(shard.getDataSource());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (TransactionShards.Shard shard : shards.getShards()) {
+            shard.getJdbc().execute("SHUTDOWN");
+        }
+        shards.close();
+    }
+
+    // ==================== ROUTING TESTS ====================
+
+    @Test
+    void shouldWriteEveryRowOfATransactionToItsHomeShard() {
+        // Act
+        for (int i = 0; i < 60; i++) {
+            shards.write(rows("TXN" + i));
+        }
+
+        // Assert
+        for (int i = 0; i < 60; i++) {
+            String tranId = "TXN" + i;
+            TransactionShards.Shard home = shards.shardFor(tranId);
+            for (TransactionShards.Shard shard : shards.getShards()) {
+                int expected = shard == home ? 1 : 0;
+                for (String table : TABLES) {
+                    assertEquals(expected, count(shard, table, tranId), table + " on " + shard.getName());
+                }
+                assertEquals(expected * 2, count(shard, "SEND_TRAN_ADDR_DTL", tranId));
+            }
+        }
+        for (TransactionShards.Shard shard : shards.getShards()) {
+            assertTrue(total(shard) > 0, shard.getName() + " received no transactions");
+        }
+    }
+
+    @Test
+    void shouldMoveOnlyTheNewShardsShareWhenAShardIsAdded() {
+        // Arrange
+        ShardRing three = new ShardRing(SHARDS, 128);
+        ShardRing four = new ShardRing(List.of("east", "west", "north", "south"), 128);
+
+        // Act
+        int moved = 0;
+        for (int i = 0; i < 10_000; i++) {
+            String tranId = "TXN" + i;
+            int before = three.shardFor(tranId);
+            int after = four.shardFor(tranId);
+            if (before != after) {
+                assertEquals(3, after, "an id may only move to the new shard");
+                moved++;
+            }
+        }
+
+        // Assert
+        assertTrue(moved > 1_500 && moved < 3_500, moved + " of 10000 ids moved");
+    }
+
+    // ==================== ATOMICITY TESTS ====================
+
+    @Test
+    void shouldRollBackEveryRowWhenOneInsertFails() {
+        // Arrange
+        TransactionRows rows = rows("TXN-BAD", "ADDR-1", "ADDR-1");
+        TransactionShards.Shard home = shards.shardFor("TXN-BAD");
+
+        // Act
+        assertThrows(RuntimeException.class, () -> shards.write(rows));
+
+        // Assert
+        for (String table : TABLES) {
+            assertEquals(0, count(home, table, "TXN-BAD"), table);
+        }
+    }
+
+    @Test
+    void shouldReportBatchFailuresInCallerOrder() {
+        // Arrange
+        shards.write(rows("TXN5"));
+        List<TransactionRows> batch = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            batch.add(rows("TXN" + i));
+        }
+
+        // Act
+        List<RuntimeException> failures = shards.writeBatch(batch);
+
+        // Assert
+        assertEquals(10, failures.size());
+        for (int i = 0; i < 10; i++) {
+            if (i == 5) {
+                assertNotNull(failures.get(i), "duplicate TXN5 should fail");
+            } else {
+                assertNull(failures.get(i), "TXN" + i);
+                assertEquals(1, count(shards.shardFor("TXN" + i), "SEND_TRANSACTIONS", "TXN" + i));
+            }
+        }
+    }
+
+    // ==================== METRICS TESTS ====================
+
+    @Test
+    void shouldCountTransactionsPerShard() {
+        // Act
+        for (int i = 0; i < 30; i++) {
+            shards.write(rows("TXN" + i));
+        }
+
+        // Assert
+        double counted = 0;
+        for (TransactionShards.Shard shard : shards.getShards()) {
+            double transactions = registry.get(TransactionMetrics.SHARD_TRANSACTIONS)
+                    .tag("shard", shard.getName()).counter().count();
+            assertEquals(total(shard), (int) transactions);
+            assertEquals((long) transactions, registry.get(TransactionMetrics.SHARD_WRITE)
+                    .tag("shard", shard.getName()).tag("mode", "row").timer().count());
+            counted += transactions;
+        }
+        assertEquals(30.0, counted);
+    }
+
+    private static int count(TransactionShards.Shard shard, String table, String tranId) {
+        return shard.getJdbc().queryForObject(
+                "SELECT COUNT(*) FROM " + table + " WHERE TRAN_ID = ?", Integer.class, tranId);
+    }
+
+    private static int total(TransactionShards.Shard shard) {
+        return shard.getJdbc().queryForObject("SELECT COUNT(*) FROM SEND_TRANSACTIONS", Integer.class);
+    }
+
+    private static TransactionRows rows(String tranId) {
+        return rows(tranId, tranId + "-S", tranId + "-R");
+    }
+
+    /**
+     * Legacy-layout rows with only the keys set
+     */
+    private static TransactionRows rows(String tranId, String senderAddressId, String recipientAddressId) {
+        SendTables tables = SendTables.LEGACY;
+        return new TransactionRows(
+                tranId,
+                row(tables.getTransaction(), Map.of("TRAN_ID", tranId)),
+                row(tables.getDetail(), Map.of("TRAN_ID", tranId)),
+                row(tables.getParty(), Map.of("TRAN_ID", tranId)),
+                List.of(row(tables.getAddress(), Map.of("ID", senderAddressId, "TRAN_ID", tranId)),
+                        row(tables.getAddress(), Map.of("ID", recipientAddressId, "TRAN_ID", tranId)))
+        );
+    }
+
+    private static Object[] row(TableInsert table, Map<String, Object> values) {
+        Object[] row = new Object[table.getColumnCount()];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = values.get(table.getColumns().get(i));
+        }
+        return row;
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.TransactionConsumer.service;
+
+import com.example.TransactionConsumer.admission.AdaptiveConcurrencyLimiter;
+import com.example.TransactionConsumer.config.AdmissionProperties;
+import com.example.TransactionConsumer.config.BatchProperties;
+import com.example.TransactionConsumer.config.IdempotencyProperties;
+import com.example.TransactionConsumer.config.ReferenceDataProperties;
+import com.example.TransactionConsumer.config.ValidationProperties;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import com.example.TransactionConsumer.parser.PayloadReader;
+import com.example.TransactionConsumer.parser.StreamingPayloadExtractor;
+import com.example.TransactionConsumer.repository.TransactionRepository;
+import com.example.TransactionConsumer.repository.TransactionRows;
+import com.example.TransactionConsumer.validator.PayloadValidator;
+import com.example.TransactionConsumer.validator.ReferenceDataCache;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.DocumentContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchIngestionServiceTest {
+
+    @Mock
+    private TransactionRepository repository;
+
+    @Mock
+    private MappingPlanRegistry planRegistry;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private BatchProperties properties;
+    private PayloadReader payloadReader;
+    private PayloadValidator validator;
+    private AdmissionProperties admission;
+    private AdaptiveConcurrencyLimiter limiter;
+    private BatchIngestionService batchService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BatchProperties();
+        properties.setChunkSize(2);
+        properties.setParallelism(2);
+
+        TransactionMetrics metrics = new TransactionMetrics(new SimpleMeterRegistry());
+        payloadReader = new PayloadReader(
+                objectMapper, new StreamingPayloadExtractor(objectMapper), planRegistry, metrics, false);
+        validator = new PayloadValidator(planRegistry, new ValidationProperties(), metrics,
+                new ReferenceDataCache(null, new ReferenceDataProperties(), metrics));
+        admission = new AdmissionProperties();
+        limiter = new AdaptiveConcurrencyLimiter(admission, metrics);
+        batchService = new BatchIngestionService(payloadReader, validator, repository,
+                new IdempotencyGuard(new IdempotencyProperties()), limiter, objectMapper, properties);
+
+        lenient().when(repository.prepare(any(DocumentContext.class))).thenAnswer(invocation -> {
+            DocumentContext document = invocation.getArgument(0);
+            String tranId = document.read("$.transactionId");
+            return new TransactionRows(tranId, new Object[0], new Object[0], new Object[0], List.of());
+        });
+        lenient().when(repository.insertPrepared(anyList())).thenAnswer(invocation -> {
+            List<TransactionRows> rows = invocation.getArgument(0);
+            List<RuntimeException> failures = new ArrayList<>();
+            for (TransactionRows row : rows) {
+                failures.add(row.getTranId().startsWith("BAD") ? new RuntimeException("ORA-00001: unique constraint") : null);
+            }
+            return failures;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchService.shutdown();
+    }
+
+    // ==================== JSON ARRAY ====================
+
+    @Test
+    void shouldReportResultPerItemForJsonArray() throws Exception {
+        // Arrange
+        String body = "[" + item("TXN1") + "," + """
+            { "transactionType": "PAYMENT", "amount": 500, "currency": "INR" }
+            """ + "," + item("TXN3") + "]";
+
+        // Act
+        List<JsonNode> results = process(body);
+
+        // Assert
+        assertEquals(3, results.size());
+        assertResult(results.get(0), 0, "TXN1", "CREATED");
+        assertResult(results.get(1), 1, null, "REJECTED");
+        assertEquals("transactionId is missing or invalid", results.get(1).get("error").asText());
+        assertResult(results.get(2), 2, "TXN3", "CREATED");
+        verify(repository, times(2)).insertPrepared(anyList());
+    }
+
+    // ==================== NDJSON ====================
+
+    @Test
+    void shouldIsolatePersistenceFailureForNdjson() throws Exception {
+        // Arrange
+        String body = item("TXN1") + "\n" + item("BAD2") + "\n" + item("TXN3") + "\n";
+
+        // Act
+        List<JsonNode> results = process(body);
+
+        // Assert
+        assertEquals(3, results.size());
+        assertResult(results.get(0), 0, "TXN1", "CREATED");
+        assertResult(results.get(1), 1, "BAD2", "FAILED");
+        assertEquals("ORA-00001: unique constraint", results.get(1).get("error").asText());
+        assertResult(results.get(2), 2, "TXN3", "CREATED");
+    }
+
+    @Test
+    void shouldFailAnItemWhoseWriteFailsInsteadOfSpoolingIt() throws Exception {
+        // Act
+        List<JsonNode> results = process(item("BAD1") + "\n");
+
+        // Assert: reported for the client to resend, never handed to the insertAll fallback
+        assertResult(results.get(0), 0, "BAD1", "FAILED");
+        verify(repository, never()).insertAll(any(DocumentContext.class));
+        verify(repository, never()).insertAll(any(DocumentContext.class), any());
+        verify(repository, never()).insertRows(any(DocumentContext.class), any(), any(TransactionRows.class));
+    }
+
+    @Test
+    void shouldFailEachItemWhileMappingsAreNotLoaded() throws Exception {
+        // Arrange
+        doThrow(new IllegalStateException("Mappings not loaded")).when(repository).prepare(any(DocumentContext.class));
+
+        // Act
+        List<JsonNode> results = process(item("TXN1") + "\n" + item("TXN2") + "\n");
+
+        // Assert
+        assertResult(results.get(0), 0, "TXN1", "FAILED");
+        assertEquals("Mappings not loaded", results.get(0).get("error").asText());
+        assertResult(results.get(1), 1, "TXN2", "FAILED");
+        verify(repository).insertPrepared(List.of());
+        verify(repository, never()).insertAll(any(DocumentContext.class));
+        verify(repository, never()).insertAll(any(DocumentContext.class), any());
+    }
+
+    @Test
+    void shouldRejectNonObjectItems() throws Exception {
+        // Act
+        List<JsonNode> results = process("[" + item("TXN1") + ", 42]");
+
+        // Assert
+        assertEquals(2, results.size());
+        assertResult(results.get(1), 1, null, "REJECTED");
+        assertEquals("Malformed JSON request", results.get(1).get("error").asText());
+    }
+
+    // ==================== IDEMPOTENCY ====================
+
+    @Test
+    void shouldApplyTheIdempotencyGuardToEachItem() throws Exception {
+        // Arrange
+        IdempotencyProperties idempotency = new IdempotencyProperties();
+        idempotency.setEnabled(true);
+        idempotency.setRejectDuplicates(true);
+        // one worker, so the chunk's second TXN3 is claimed after the first
+        properties.setParallelism(1);
+        batchService.shutdown();
+        batchService = new BatchIngestionService(payloadReader, validator, repository,
+                new IdempotencyGuard(idempotency), limiter, objectMapper, properties);
+        process(item("TXN1") + "\n" + item("BAD2") + "\n");
+
+        // Act
+        List<JsonNode> results = process(
+                item("TXN1") + "\n" + item("BAD2") + "\n" + item("TXN3") + "\n" + item("TXN3") + "\n");
+
+        // Assert
+        assertEquals(4, results.size());
+        assertResult(results.get(0), 0, "TXN1", "REJECTED");
+        assertEquals("Duplicate transactionId TXN1", results.get(0).get("error").asText());
+        // a failed write is not remembered, the retry is written again
+        assertResult(results.get(1), 1, "BAD2", "FAILED");
+        assertEquals("ORA-00001: unique constraint", results.get(1).get("error").asText());
+        assertResult(results.get(2), 2, "TXN3", "CREATED");
+        assertResult(results.get(3), 3, "TXN3", "FAILED");
+        assertEquals("transactionId TXN3 is already being written", results.get(3).get("error").asText());
+        verify(repository, times(4)).prepare(any(DocumentContext.class));
+    }
+
+    // ==================== ADMISSION ====================
+
+    @Test
+    void shouldShedAChunkOverTheConcurrencyLimit() throws Exception {
+        // Arrange
+        admission.setEnabled(true);
+        List<AdaptiveConcurrencyLimiter.Permit> busy = new ArrayList<>();
+        while (busy.size() < limiter.getLimit()) {
+            busy.add(limiter.acquire(0));
+        }
+
+        // Act
+        List<JsonNode> shed = process(item("TXN1") + "\n" + item("TXN2") + "\n");
+        busy.forEach(AdaptiveConcurrencyLimiter.Permit::close);
+        List<JsonNode> retried = process(item("TXN1") + "\n" + item("TXN2") + "\n");
+
+        // Assert
+        assertResult(shed.get(0), 0, "TXN1", "FAILED");
+        assertEquals("Over the concurrency limit, retry later", shed.get(0).get("error").asText());
+        assertResult(shed.get(1), 1, "TXN2", "FAILED");
+        assertResult(retried.get(0), 0, "TXN1", "CREATED");
+        assertResult(retried.get(1), 1, "TXN2", "CREATED");
+        verify(repository, times(2)).prepare(any(DocumentContext.class));
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    // ==================== MALFORMED STREAM ====================
+
+    @Test
+    void shouldStopAtSyntaxErrorAfterReportingEarlierItems() throws Exception {
+        // Arrange
+        String body = item("TXN1") + "\n{ \"transactionId\": \"TXN2\", \n" + item("TXN3");
+
+        // Act
+        List<JsonNode> results = process(body);
+
+        // Assert
+        assertEquals(2, results.size());
+        assertResult(results.get(0), 0, "TXN1", "CREATED");
+        assertResult(results.get(1), 1, null, "REJECTED");
+        assertEquals("Malformed JSON request", results.get(1).get("error").asText());
+    }
+
+    private List<JsonNode> process(String body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        batchService.process(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isBlank()) {
+                results.add(objectMapper.readTree(line));
+            }
+        }
+        return results;
+    }
+
+    private static void assertResult(JsonNode result, int index, String transactionId, String status) {
+        assertEquals(index, result.get("index").asInt());
+        assertEquals(status, result.get("status").asText());
+        if (transactionId == null) {
+            assertFalse(result.has("transactionId"));
+        } else {
+            assertEquals(transactionId, result.get("transactionId").asText());
+        }
+    }
+
+    private static String item(String transactionId) {
+        return "{ \"transactionId\": \"" + transactionId + "\", \"transactionType\": \"PAYMENT\", "
+                + "\"amount\": 500, \"currency\": \"INR\" }";
+    }
+}
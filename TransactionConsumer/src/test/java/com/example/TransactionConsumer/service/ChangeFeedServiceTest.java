@@ -0,0 +1,218 @@
+package com.example.TransactionConsumer.service;
+
+import com.example.TransactionConsumer.config.ChangeFeedProperties;
+import com.example.TransactionConsumer.config.PersistenceProperties;
+import com.example.TransactionConsumer.config.ShardingProperties;
+import com.example.TransactionConsumer.dto.ChangeBatch;
+import com.example.TransactionConsumer.dto.ErrorResponse;
+import com.example.TransactionConsumer.dto.TransactionView;
+import com.example.TransactionConsumer.dto.Watermark;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import com.example.TransactionConsumer.repository.BatchTableWriter;
+import com.example.TransactionConsumer.repository.SendTableWriter;
+import com.example.TransactionConsumer.repository.SendTables;
+import com.example.TransactionConsumer.repository.TransactionChanges;
+import com.example.TransactionConsumer.repository.TransactionRows;
+import com.example.TransactionConsumer.repository.TransactionShards;
+import com.example.TransactionConsumer.repository.sql.TableInsert;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 3, 1, 10, 0);
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbc;
+    private SimpleMeterRegistry registry;
+    private ChangeFeedProperties properties;
+    private TransactionMetrics metrics;
+    private ChangeFeedService changeFeed;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName("change-feed;MODE=Oracle")
+                .generateUniqueName(false)
+                .addScript("db/send-tables.sql")
+                .build();
+        jdbc = new JdbcTemplate(database);
+        registry = new SimpleMeterRegistry();
+        properties = new ChangeFeedProperties();
+        properties.setSettleMillis(0);
+
+        metrics = new TransactionMetrics(registry);
+        PersistenceProperties persistence = new PersistenceProperties();
+        TransactionShards unsharded = new TransactionShards(new ShardingProperties(), persistence, metrics);
+        changeFeed = new ChangeFeedService(new TransactionChanges(jdbc, unsharded), properties, persistence, metrics);
+
+        // TXN-B and TXN-C share a timestamp, TRAN_ID breaks the tie
+        insert("TXN-A", T0);
+        insert("TXN-B", T0.plusSeconds(1));
+        insert("TXN-C", T0.plusSeconds(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        changeFeed.stop();
+        database.shutdown();
+    }
+
+    // ==================== WATERMARK TESTS ====================
+
+    @Test
+    void shouldDeliverChangesInWatermarkOrderJoinedAcrossTables() {
+        // Act
+        ChangeBatch first = changeFeed.next(null, 2, 0).join();
+        ChangeBatch second = changeFeed.next(first.getNext(), 2, 0).join();
+        ChangeBatch caughtUp = changeFeed.next(second.getNext(), 2, 0).join();
+
+        // Assert
+        assertEquals(List.of("TXN-A", "TXN-B"), ids(first));
+        assertEquals(new Watermark(T0.plusSeconds(1), "TXN-B"), first.getNext());
+        assertEquals(List.of("TXN-C"), ids(second));
+        assertTrue(caughtUp.isEmpty());
+        assertEquals(second.getNext(), caughtUp.getNext());
+
+        TransactionView view = first.getChanges().get(0);
+        assertEquals("PMT-TXN-A", view.getDetail().get("PAYMT_REF"));
+        assertEquals("Asha", view.getParty().get("SEND_FIRST_NAM"));
+        assertEquals(List.of("SENDER", "RECIPIENT"), view.getAddresses().stream()
+                .map(address -> address.get("ADDR_TYPE")).toList());
+    }
+
+    @Test
+    void shouldHoldBackRowsYoungerThanTheSettleWindow() {
+        // Arrange
+        properties.setSettleMillis(60_000);
+        Watermark caughtUp = new Watermark(T0.plusSeconds(1), "TXN-C");
+        insert("TXN-D", LocalDateTime.now());
+
+        // Act
+        ChangeBatch batch = changeFeed.next(caughtUp, 10, 0).join();
+
+        // Assert
+        assertTrue(batch.isEmpty());
+    }
+
+    @Test
+    void shouldDeliverRowsBuiltBeforeTheSettleWindowButCommittedAfterIt() {
+        // Arrange: rows built a minute ago (a long group-commit backlog or pool wait), a client that has
+        // read everything settled since
+        LocalDateTime built = LocalDateTime.now().minusMinutes(1);
+        TransactionRows rows = rows("TXN-LATE", Timestamp.valueOf(built));
+        Watermark caughtUp = new Watermark(built.plusSeconds(30), "TXN-Z");
+        BatchTableWriter writer = new BatchTableWriter(new SendTableWriter(jdbc, metrics),
+                new DataSourceTransactionManager(database), new PersistenceProperties());
+
+        // Act
+        assertNull(writer.write(List.of(rows)).get(0));
+        ChangeBatch batch = changeFeed.next(caughtUp, 10, 0).join();
+
+        // Assert: stamped at commit, so it sorts after the watermark instead of behind it
+        assertEquals(List.of("TXN-LATE"), ids(batch));
+        assertTrue(batch.getNext().getUpdatedAt().isAfter(caughtUp.getUpdatedAt()));
+        assertEquals(batch.getNext().getUpdatedAt(), jdbc.queryForObject(
+                "SELECT RPLCTN_UPDT_TS FROM SEND_TRAN_ADDR_DTL WHERE ID = 'TXN-LATE-S'", Timestamp.class)
+                .toLocalDateTime());
+    }
+
+    @Test
+    void shouldRejectBatchSizesOverTheMaximum() {
+        assertThrows(ErrorResponse.class, () -> changeFeed.next(null, properties.getMaxBatchSize() + 1, 0));
+    }
+
+    // ==================== LONG-POLL TESTS ====================
+
+    @Test
+    void shouldParkACaughtUpPollUntilAChangeArrives() {
+        // Arrange
+        Watermark caughtUp = new Watermark(T0.plusSeconds(1), "TXN-C");
+        CompletableFuture<ChangeBatch> waiting = changeFeed.next(caughtUp, 10, 30);
+        changeFeed.poll();
+        assertFalse(waiting.isDone());
+
+        // Act
+        insert("TXN-D", T0.plusSeconds(2));
+        changeFeed.poll();
+
+        // Assert
+        assertTrue(waiting.isDone());
+        assertEquals(List.of("TXN-D"), ids(waiting.join()));
+        assertEquals(0, changeFeed.getWaiting());
+        assertEquals(1.0, registry.get(TransactionMetrics.CHANGE_FEED_CHANGES)
+                .tag("delivery", "longpoll").counter().count());
+    }
+
+    @Test
+    void shouldReleaseWaitingPollsEmptyOnShutdown() {
+        // Arrange
+        Watermark caughtUp = new Watermark(T0.plusSeconds(1), "TXN-C");
+        CompletableFuture<ChangeBatch> waiting = changeFeed.next(caughtUp, 10, 30);
+
+        // Act
+        changeFeed.stop();
+
+        // Assert
+        assertTrue(waiting.join().isEmpty());
+        assertEquals(caughtUp, waiting.join().getNext());
+    }
+
+    private static List<String> ids(ChangeBatch batch) {
+        return batch.getChanges().stream().map(TransactionView::getTransactionId).toList();
+    }
+
+    /**
+     * Legacy-layout rows with every audit column stamped at built
+     */
+    private static TransactionRows rows(String tranId, Timestamp built) {
+        SendTables tables = SendTables.LEGACY;
+        return new TransactionRows(
+                tranId,
+                row(tables.getTransaction(), Map.of("TRAN_ID", tranId, "TRAN_TYPE", "PAYMENT"), built),
+                row(tables.getDetail(), Map.of("TRAN_ID", tranId), built),
+                row(tables.getParty(), Map.of("TRAN_ID", tranId), built),
+                List.of(row(tables.getAddress(), Map.of("ID", tranId + "-S", "TRAN_ID", tranId), built),
+                        row(tables.getAddress(), Map.of("ID", tranId + "-R", "TRAN_ID", tranId), built))
+        );
+    }
+
+    private static Object[] row(TableInsert table, Map<String, Object> values, Timestamp built) {
+        Object[] row = new Object[table.getColumnCount()];
+        for (int i = 0; i < row.length; i++) {
+            String column = table.getColumns().get(i);
+            row[i] = column.endsWith("_TS") ? built : values.get(column);
+        }
+        return row;
+    }
+
+    private void insert(String tranId, LocalDateTime updatedAt) {
+        Timestamp stamp = Timestamp.valueOf(updatedAt);
+        jdbc.update("INSERT INTO SEND_TRANSACTIONS (TRAN_ID, TRAN_TYPE, RPLCTN_UPDT_TS) VALUES (?, 'PAYMENT', ?)",
+                tranId, stamp);
+        jdbc.update("INSERT INTO SEND_TRAN_DTL (TRAN_ID, PAYMT_REF, RPLCTN_UPDT_TS) VALUES (?, ?, ?)",
+                tranId, "PMT-" + tranId, stamp);
+        jdbc.update("INSERT INTO SEND_RECIP_DTL (TRAN_ID, SEND_FIRST_NAM, RPLCTN_UPDT_TS) VALUES (?, 'Asha', ?)",
+                tranId, stamp);
+        jdbc.update("INSERT INTO SEND_TRAN_ADDR_DTL (ID, TRAN_ID, ADDR_TYPE, RPLCTN_UPDT_TS) VALUES (?, ?, 'SENDER', ?)",
+                tranId + "-S", tranId, stamp);
+        jdbc.update("INSERT INTO SEND_TRAN_ADDR_DTL (ID, TRAN_ID, ADDR_TYPE, RPLCTN_UPDT_TS) VALUES (?, ?, 'RECIPIENT', ?)",
+                tranId + "-R", tranId, stamp);
+    }
+}
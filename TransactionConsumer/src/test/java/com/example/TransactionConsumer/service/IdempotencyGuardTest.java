@@ -0,0 +1,248 @@
+package com.example.TransactionConsumer.service;
+
+import com.example.TransactionConsumer.config.IdempotencyProperties;
+import com.example.TransactionConsumer.exception.DuplicateTransactionException;
+import com.example.TransactionConsumer.exception.LoadSheddingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyGuardTest {
+
+    private IdempotencyProperties properties;
+    private IdempotencyGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        properties = new IdempotencyProperties();
+        properties.setEnabled(true);
+        properties.setExpectedIds(1000);
+        properties.setRecentCapacity(100);
+        guard = new IdempotencyGuard(properties);
+    }
+
+    // ==================== DUPLICATE TESTS ====================
+
+    @Test
+    void shouldRunOnceAndShortCircuitRepeats() {
+        // Arrange
+        AtomicInteger runs = new AtomicInteger();
+
+        // Act
+        guard.execute("TXN1101", () -> runs.incrementAndGet() > 0);
+        guard.execute("TXN1101", () -> runs.incrementAndGet() > 0);
+        guard.execute("TXN1102", () -> runs.incrementAndGet() > 0);
+
+        // Assert
+        assertEquals(2, runs.get());
+        assertEquals(1, guard.getHits());
+        assertEquals(2, guard.getMisses());
+    }
+
+    @Test
+    void shouldRejectDuplicateWhenConfigured() {
+        // Arrange
+        properties.setRejectDuplicates(true);
+        guard.execute("TXN1101", () -> true);
+
+        // Act & Assert
+        DuplicateTransactionException ex = assertThrows(DuplicateTransactionException.class,
+                () -> guard.execute("TXN1101", () -> fail("should not run")));
+        assertEquals("Duplicate transactionId TXN1101", ex.getReason());
+    }
+
+    @Test
+    void shouldNotRememberFailedExecution() {
+        // Arrange
+        AtomicInteger runs = new AtomicInteger();
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> guard.execute("TXN1101", () -> {
+            runs.incrementAndGet();
+            throw new IllegalStateException("ORA-01017");
+        }));
+        guard.execute("TXN1101", () -> runs.incrementAndGet() > 0);
+
+        // Assert
+        assertEquals(2, runs.get());
+        assertEquals(0, guard.getInFlight());
+    }
+
+    @Test
+    void shouldCountFalsePositiveWhenIdAgedOutOfRecentCache() {
+        // Arrange
+        properties.setRecentCapacity(1);
+        guard = new IdempotencyGuard(properties);
+        AtomicInteger runs = new AtomicInteger();
+        guard.execute("TXN1", () -> runs.incrementAndGet() > 0);
+        guard.execute("TXN2", () -> runs.incrementAndGet() > 0);
+
+        // Act: the Bloom filter still knows TXN1, the recent cache no longer does
+        guard.execute("TXN1", () -> runs.incrementAndGet() > 0);
+
+        // Assert
+        assertEquals(3, runs.get());
+        assertEquals(1, guard.getFalsePositives());
+        assertEquals(1, guard.getRecentSize());
+    }
+
+    @Test
+    void shouldNotRememberAnIdThatWasOnlySpooled() {
+        // Arrange
+        AtomicInteger runs = new AtomicInteger();
+
+        // Act: the first run only spooled the payload for a later write
+        guard.execute("TXN1101", () -> runs.incrementAndGet() < 0);
+        IdempotencyGuard.Claim replay = guard.claim("TXN1101");
+
+        // Assert
+        assertEquals(1, runs.get());
+        assertEquals(IdempotencyGuard.Claim.CLAIMED, replay);
+        assertEquals(0, guard.getRecentSize());
+    }
+
+    // ==================== CLAIM TESTS ====================
+
+    @Test
+    void shouldRememberAClaimedIdOnlyOnceStored() {
+        // Act
+        IdempotencyGuard.Claim first = guard.claim("TXN1");
+        IdempotencyGuard.Claim concurrent = guard.claim("TXN1");
+        guard.abandoned("TXN1", new IllegalStateException("ORA-00001"));
+        IdempotencyGuard.Claim retry = guard.claim("TXN1");
+        guard.stored("TXN1");
+        IdempotencyGuard.Claim repeat = guard.claim("TXN1");
+
+        // Assert
+        assertEquals(IdempotencyGuard.Claim.CLAIMED, first);
+        assertEquals(IdempotencyGuard.Claim.IN_FLIGHT, concurrent);
+        assertEquals(IdempotencyGuard.Claim.CLAIMED, retry);
+        assertEquals(IdempotencyGuard.Claim.DUPLICATE, repeat);
+        assertEquals(0, guard.getInFlight());
+    }
+
+    // ==================== TRANSACTION TESTS ====================
+
+    @Test
+    void shouldRememberIdOnlyAfterCommit() {
+        // Arrange
+        AtomicInteger runs = new AtomicInteger();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            guard.execute("TXN1101", () -> runs.incrementAndGet() > 0);
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+
+            // Act: roll back, then retry
+            synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        guard.execute("TXN1101", () -> runs.incrementAndGet() > 0);
+
+        // Assert
+        assertEquals(2, runs.get());
+        assertEquals(1, guard.getRecentSize());
+    }
+
+    // ==================== COLLAPSING TESTS ====================
+
+    @Test
+    void shouldCollapseConcurrentSubmissionsIntoOneExecution() throws Exception {
+        // Arrange
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Void> leader = CompletableFuture.runAsync(() -> guard.execute("TXN1101", () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            await(release);
+            return true;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        CompletableFuture<Void> follower = CompletableFuture.runAsync(
+                () -> guard.execute("TXN1101", () -> runs.incrementAndGet() > 0));
+        while (guard.getCollapsed() == 0) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        // Assert
+        leader.get(5, TimeUnit.SECONDS);
+        follower.get(5, TimeUnit.SECONDS);
+        assertEquals(1, runs.get());
+        assertEquals(1, guard.getCollapsed());
+    }
+
+    @Test
+    void shouldShareFailureWithCollapsedCallers() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Void> leader = CompletableFuture.runAsync(() -> guard.execute("TXN1101", () -> {
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("insert failed");
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        CompletableFuture<Void> follower = CompletableFuture.runAsync(() -> guard.execute("TXN1101", () -> true));
+        while (guard.getCollapsed() == 0) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        // Assert
+        Exception leaderFailure = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception followerFailure = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertEquals("insert failed", leaderFailure.getCause().getMessage());
+        assertEquals("insert failed", followerFailure.getCause().getMessage());
+    }
+
+    @Test
+    void shouldShedACallerThatWaitsTooLongOnAnIdInFlight() throws Exception {
+        // Arrange
+        properties.setInFlightWaitMs(50);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Void> leader = CompletableFuture.runAsync(() -> guard.execute("TXN1101", () -> {
+            started.countDown();
+            await(release);
+            return true;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        LoadSheddingException shed = assertThrows(LoadSheddingException.class,
+                () -> guard.execute("TXN1101", () -> true));
+        release.countDown();
+
+        // Assert
+        assertEquals("in-flight wait", shed.getLimit());
+        leader.get(5, TimeUnit.SECONDS);
+        assertEquals(1, guard.getCollapsed());
+        assertEquals(0, guard.getInFlight());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
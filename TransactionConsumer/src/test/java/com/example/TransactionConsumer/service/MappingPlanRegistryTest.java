@@ -0,0 +1,270 @@
+package com.example.TransactionConsumer.service;
+
+import com.example.TransactionConsumer.config.EntityMapping;
+import com.example.TransactionConsumer.config.FieldMapping;
+import com.example.TransactionConsumer.config.TransactionMappingConfig;
+import com.example.TransactionConsumer.config.ValidationRules;
+import com.example.TransactionConsumer.id.IdGenerators;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import com.example.TransactionConsumer.validator.ValidationResult;
+import com.example.TransactionConsumer.validator.Violation;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappingPlanRegistryTest {
+
+    private TransactionMappingConfig mappingConfig;
+    private MappingPlanRegistry planRegistry;
+    private MappingService mappingService;
+
+    private DocumentContext document;
+
+    @BeforeEach
+    void setUp() {
+        mappingConfig = new TransactionMappingConfig();
+        mappingConfig.setSender(entity(Map.of("FIRST_NAME", json("$.sender.firstName"))));
+        mappingConfig.setRecipient(entity(Map.of("FIRST_NAME", json("$.recipient.firstName"))));
+        mappingConfig.setAddress(Map.of(
+                "sender", Map.of("CITY", json("$.sender.address.city")),
+                "recipient", Map.of("CITY", json("$.recipient.address.city"))
+        ));
+
+        planRegistry = new MappingPlanRegistry(mappingConfig, IdGenerators.withoutDatabase());
+        mappingService = new MappingService(
+                mappingConfig, new TransactionMetrics(new SimpleMeterRegistry()), planRegistry);
+
+        document = JsonPath.parse("""
+            {
+              "transactionId": "TXN1101",
+              "currency": "INR",
+              "sender": { "firstName": "Aadhish", "address": { "city": "Chennai" } },
+              "recipient": { "firstName": "Raj", "address": { "city": "Mumbai" } }
+            }
+            """);
+    }
+
+    // ==================== COMPILE TESTS ====================
+
+    @Test
+    void shouldCompilePlanOnFirstUse() {
+        // Act
+        MappingPlan plan = planRegistry.current();
+
+        // Assert
+        assertEquals(1, plan.getVersion());
+        assertTrue(plan.isMappingsLoaded());
+        assertEquals(4, plan.getFieldCount());
+        assertNotNull(plan.getCompiledAt());
+        assertSame(plan, planRegistry.current());
+    }
+
+    @Test
+    void shouldExtractSameValuesAsConfigMappings() {
+        // Act
+        MappingPlan plan = planRegistry.current();
+
+        // Assert
+        assertEquals(
+                mappingService.extractAllValues(document, mappingService.getSenderPartyMappings()),
+                mappingService.extractAllValues(document, plan.getSenderParty())
+        );
+        assertEquals("Mumbai", mappingService.extractAllValues(document, plan.getRecipientAddress()).get("CITY"));
+    }
+
+    @Test
+    void shouldExtractConfiguredMappingsWithThePlansCompiledForm() {
+        // Arrange: a config mapping edited in place, not yet refreshed
+        FieldMapping city = mappingConfig.getAddress().get("sender").get("CITY");
+        planRegistry.current();
+        city.setPath("$.recipient.address.city");
+
+        // Act
+        Object beforeRefresh = mappingService.extractValue(document, city);
+        Map<String, Object> groupBeforeRefresh = mappingService.extractAllValues(document, Map.of("TOWN", city));
+        planRegistry.rebuild();
+
+        // Assert
+        assertEquals("Chennai", beforeRefresh);
+        assertEquals(Map.of("TOWN", "Chennai"), groupBeforeRefresh);
+        assertEquals("Mumbai", mappingService.extractValue(document, city));
+        assertEquals("Mumbai", mappingService.extractValue(document, json("$.recipient.address.city")));
+    }
+
+    @Test
+    void shouldReportMappingsNotLoadedWhenConfigMissing() {
+        // Arrange
+        MappingPlanRegistry emptyRegistry = new MappingPlanRegistry(
+                new TransactionMappingConfig(), IdGenerators.withoutDatabase());
+
+        // Act
+        MappingPlan plan = emptyRegistry.current();
+
+        // Assert
+        assertFalse(plan.isMappingsLoaded());
+        assertEquals(0, plan.getFieldCount());
+    }
+
+    // ==================== REFRESH TESTS ====================
+
+    @Test
+    void shouldSwapPlanOnRefresh() {
+        // Arrange
+        MappingPlan before = planRegistry.current();
+        Map<String, FieldMapping> party = new LinkedHashMap<>();
+        party.put("FIRST_NAME", json("$.sender.firstName"));
+        party.put("COUNTRY", constant("IN"));
+        mappingConfig.setSender(entity(party));
+
+        // Act
+        planRegistry.onRefresh();
+        MappingPlan after = planRegistry.current();
+
+        // Assert
+        assertNotSame(before, after);
+        assertEquals(before.getVersion() + 1, after.getVersion());
+        assertEquals(1, before.getSenderParty().size());
+        assertEquals("IN", mappingService.extractAllValues(document, after.getSenderParty()).get("COUNTRY"));
+    }
+
+    @Test
+    void shouldRejectAPlanWithAColumnThatIsNotAPlainIdentifier() {
+        // Arrange
+        MappingPlan before = planRegistry.current();
+        FieldMapping amount = json("$.amount");
+        amount.setColumn("TRAN_AMT) VALUES (1); DROP TABLE SEND_TRANSACTIONS; --");
+        EntityMapping payment = new EntityMapping();
+        payment.setTransaction(Map.of("TRAN_AMT", amount));
+        mappingConfig.setPayment(payment);
+
+        // Act
+        planRegistry.onRefresh();
+
+        // Assert
+        assertSame(before, planRegistry.current());
+    }
+
+    @Test
+    void shouldRejectATransactionKeyThatIsNotAPlainIdentifier() {
+        // Arrange
+        EntityMapping payment = new EntityMapping();
+        payment.setTransaction(Map.of("TRAN_TYPE, TRAN_AMT", json("$.transactionType")));
+        mappingConfig.setPayment(payment);
+
+        // Act
+        MappingPlan plan = planRegistry.current();
+
+        // Assert: nothing to fall back to, so no mappings at all
+        assertFalse(plan.isMappingsLoaded());
+        assertEquals(0, plan.getFieldCount());
+    }
+
+    // ==================== COMPILED VALIDATION TESTS ====================
+
+    @Test
+    void shouldApplyCompiledValidationRules() {
+        // Arrange
+        FieldMapping currency = json("$.currency");
+        ValidationRules rules = new ValidationRules();
+        rules.setAllowed(List.of("USD", "EUR"));
+        currency.setValidation(rules);
+
+        // Act
+        CompiledFieldMapping compiled = CompiledFieldMapping.compile("CURRENCY", currency);
+
+        // Assert
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> compiled.extract(document)
+        );
+        assertTrue(exception.getMessage().contains("Value not allowed"));
+    }
+
+    @Test
+    void shouldCollectEveryFailedRuleWithoutThrowing() {
+        // Arrange
+        FieldMapping currency = json("$.currency");
+        ValidationRules rules = new ValidationRules();
+        rules.setAllowed(List.of("USD", "EUR"));
+        rules.setPattern("[A-Z]{2}");
+        rules.setMaxLength(2);
+        currency.setValidation(rules);
+        CompiledFieldMapping compiled = CompiledFieldMapping.compile("CURRENCY", currency);
+        ValidationResult result = new ValidationResult();
+
+        // Act
+        Object value = compiled.extract(document, result);
+
+        // Assert
+        assertNull(value);
+        assertEquals(List.of("allowed", "pattern", "maxLength"),
+                result.getViolations().stream().map(Violation::getRule).toList());
+        assertEquals("$.currency", result.getViolations().get(0).getField());
+    }
+
+    @Test
+    void shouldReportMissingRequiredFieldWithoutThrowing() {
+        // Arrange
+        FieldMapping missing = json("$.sender.middleName");
+        missing.setRequired(true);
+        ValidationResult result = new ValidationResult();
+
+        // Act
+        Object value = CompiledFieldMapping.compile("MIDDLE_NAME", missing).extract(document, result);
+
+        // Assert
+        assertNull(value);
+        assertEquals("required", result.getViolations().get(0).getRule());
+        assertEquals("Missing required field: $.sender.middleName", result.getViolations().get(0).getMessage());
+    }
+
+    @Test
+    void shouldIsolateFieldWithInvalidPattern() {
+        // Arrange
+        FieldMapping broken = json("$.transactionId");
+        ValidationRules rules = new ValidationRules();
+        rules.setPattern("[unclosed");
+        broken.setValidation(rules);
+
+        Map<String, FieldMapping> party = new LinkedHashMap<>();
+        party.put("FIRST_NAME", json("$.sender.firstName"));
+        party.put("BROKEN", broken);
+        mappingConfig.setSender(entity(party));
+
+        // Act
+        MappingPlan plan = planRegistry.rebuild();
+        Map<String, Object> values = mappingService.extractAllValues(document, plan.getSenderParty());
+
+        // Assert
+        assertEquals("Aadhish", values.get("FIRST_NAME"));
+        assertFalse(values.containsKey("BROKEN"));
+    }
+
+    private static EntityMapping entity(Map<String, FieldMapping> party) {
+        EntityMapping entity = new EntityMapping();
+        entity.setParty(party);
+        return entity;
+    }
+
+    private static FieldMapping json(String path) {
+        FieldMapping mapping = new FieldMapping();
+        mapping.setSource("json");
+        mapping.setPath(path);
+        return mapping;
+    }
+
+    private static FieldMapping constant(String value) {
+        FieldMapping mapping = new FieldMapping();
+        mapping.setSource("constant");
+        mapping.setValue(value);
+        return mapping;
+    }
+}
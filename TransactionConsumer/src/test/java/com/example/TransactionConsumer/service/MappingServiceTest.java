@@ -4,10 +4,11 @@ import com.example.TransactionConsumer.config.EntityMapping;
 import com.example.TransactionConsumer.config.FieldMapping;
 import com.example.TransactionConsumer.config.TransactionMappingConfig;
 import com.example.TransactionConsumer.config.ValidationRules;
+import com.example.TransactionConsumer.id.IdGenerators;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -30,13 +31,17 @@ class MappingServiceTest {
     @Mock
     private EntityMapping recipientEntityMapping;
 
-    @InjectMocks
+    @Mock
+    private TransactionMetrics metrics;
+
     private MappingService mappingService;
 
     private String sampleJson;
 
     @BeforeEach
     void setUp() {
+        mappingService = new MappingService(mappingConfig, metrics,
+                new MappingPlanRegistry(mappingConfig, IdGenerators.withoutDatabase()));
         sampleJson = """
             {
               "transactionId": "TXN1101",
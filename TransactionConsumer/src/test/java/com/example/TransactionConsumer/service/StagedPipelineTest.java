@@ -0,0 +1,210 @@
+package com.example.TransactionConsumer.service;
+
+import com.example.TransactionConsumer.config.IdempotencyProperties;
+import com.example.TransactionConsumer.config.PipelineProperties;
+import com.example.TransactionConsumer.dto.ErrorResponse;
+import com.example.TransactionConsumer.exception.PipelineSaturatedException;
+import com.example.TransactionConsumer.parser.PayloadReader;
+import com.example.TransactionConsumer.repository.TransactionRepository;
+import com.example.TransactionConsumer.repository.TransactionRows;
+import com.example.TransactionConsumer.validator.PayloadValidator;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StagedPipelineTest {
+
+    @Mock
+    private PayloadReader payloadReader;
+
+    @Mock
+    private PayloadValidator validator;
+
+    @Mock
+    private TransactionRepository repository;
+
+    private PipelineProperties properties;
+    private IdempotencyProperties idempotency;
+    private StagedPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PipelineProperties();
+        properties.setEnabled(true);
+        properties.setParse(new PipelineProperties.Stage(1, 1));
+        properties.setMap(new PipelineProperties.Stage(1, 4));
+        properties.setPersist(new PipelineProperties.Stage(2, 4));
+        properties.setHandOffTimeoutMs(100);
+        properties.setRetryAfterSeconds(3);
+        idempotency = new IdempotencyProperties();
+
+        pipeline = new StagedPipeline(payloadReader, validator, repository, new IdempotencyGuard(idempotency), properties);
+        pipeline.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        pipeline.stop();
+    }
+
+    // ==================== PROCESSING TESTS ====================
+
+    @Test
+    void shouldRunEveryStageAndPersistPreparedRows() {
+        // Arrange
+        DocumentContext document = JsonPath.parse("{\"transactionId\":\"TXN1101\"}");
+        TransactionRows rows = new TransactionRows("TXN1101", new Object[0], new Object[0], new Object[0], List.of());
+        when(payloadReader.read(any(byte[].class))).thenReturn(document);
+        when(repository.prepare(document)).thenReturn(rows);
+        byte[] body = bytes("{}");
+
+        // Act
+        pipeline.process(body);
+
+        // Assert
+        verify(validator).validate(document);
+        verify(repository).insertRows(document, body, rows);
+        verify(repository, never()).insertAll(any(), any());
+    }
+
+    @Test
+    void shouldFallBackToInsertAllWhenMappingFails() {
+        // Arrange
+        DocumentContext document = JsonPath.parse("{\"transactionId\":\"TXN1101\"}");
+        when(payloadReader.read(any(byte[].class))).thenReturn(document);
+        when(repository.prepare(document)).thenThrow(new IllegalStateException("Mappings not loaded"));
+        byte[] body = bytes("{}");
+
+        // Act
+        pipeline.process(body);
+
+        // Assert: a spool keeps the body as received
+        verify(repository).insertAll(document, body);
+        verify(repository, never()).insertRows(any(), any(), any());
+    }
+
+    @Test
+    void shouldSkipAnIdTheGuardHasSeenStored() throws Exception {
+        // Arrange
+        idempotency.setEnabled(true);
+        pipeline.stop();
+        pipeline = new StagedPipeline(payloadReader, validator, repository, new IdempotencyGuard(idempotency), properties);
+        pipeline.start();
+
+        DocumentContext document = JsonPath.parse("{\"transactionId\":\"TXN1101\"}");
+        TransactionRows rows = new TransactionRows("TXN1101", new Object[0], new Object[0], new Object[0], List.of());
+        when(payloadReader.read(any(byte[].class))).thenReturn(document);
+        when(repository.prepare(document)).thenReturn(rows);
+        when(repository.insertRows(eq(document), any(byte[].class), eq(rows))).thenReturn(true);
+
+        // Act
+        pipeline.process(bytes("1"));
+        pipeline.process(bytes("2"));
+
+        // Assert
+        verify(repository, times(1)).insertRows(eq(document), any(byte[].class), eq(rows));
+    }
+
+    @Test
+    void shouldPropagateValidationErrorWithoutPersisting() {
+        // Arrange
+        DocumentContext document = JsonPath.parse("{}");
+        when(payloadReader.read(any(byte[].class))).thenReturn(document);
+        doThrow(new ErrorResponse("transactionId is required")).when(validator).validate(document);
+
+        // Act & Assert
+        ErrorResponse error = assertThrows(ErrorResponse.class, () -> pipeline.process(bytes("{}")));
+        assertEquals("transactionId is required", error.getReason());
+        verify(repository, never()).prepare(any());
+        assertEquals(1, pipeline.getStages().get(1).getFailed());
+    }
+
+    // ==================== BACKPRESSURE TESTS ====================
+
+    @Test
+    void shouldRejectWhenParseQueueIsFull() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(payloadReader.read(any(byte[].class))).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            throw new ErrorResponse("Malformed JSON request");
+        });
+
+        CompletableFuture<Void> running = pipeline.submit(bytes("1"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> queued = pipeline.submit(bytes("2"));
+
+        // Act
+        PipelineSaturatedException rejected =
+                assertThrows(PipelineSaturatedException.class, () -> pipeline.submit(bytes("3")));
+
+        // Assert
+        assertEquals("parse", rejected.getStage());
+        assertEquals(3, rejected.getRetryAfterSeconds());
+        assertEquals(1, pipeline.getStages().get(0).getRejected());
+
+        release.countDown();
+        assertThrows(Exception.class, running::join);
+        assertThrows(Exception.class, queued::join);
+        verify(payloadReader, times(2)).read(any(byte[].class));
+        verify(validator, never()).validate(any(DocumentContext.class));
+    }
+
+    @Test
+    void shouldShedRequestWhenPersistStageStaysFull() throws Exception {
+        // Arrange
+        properties.setParse(new PipelineProperties.Stage(1, 4));
+        properties.setPersist(new PipelineProperties.Stage(1, 1));
+        pipeline.stop();
+        pipeline = new StagedPipeline(payloadReader, validator, repository, new IdempotencyGuard(idempotency), properties);
+        pipeline.start();
+
+        DocumentContext document = JsonPath.parse("{\"transactionId\":\"TXN1101\"}");
+        TransactionRows rows = new TransactionRows("TXN1101", new Object[0], new Object[0], new Object[0], List.of());
+        when(payloadReader.read(any(byte[].class))).thenReturn(document);
+        when(repository.prepare(document)).thenReturn(rows);
+
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        }).when(repository).insertRows(eq(document), any(byte[].class), eq(rows));
+
+        // Act: one in the persist worker, one in its queue, the third times out on hand-off
+        CompletableFuture<Void> first = pipeline.submit(bytes("1"));
+        CompletableFuture<Void> second = pipeline.submit(bytes("2"));
+        CompletableFuture<Void> third = pipeline.submit(bytes("3"));
+
+        // Assert
+        Exception shed = assertThrows(Exception.class, () -> third.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(PipelineSaturatedException.class, shed.getCause());
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(1, pipeline.getStages().get(2).getRejected());
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
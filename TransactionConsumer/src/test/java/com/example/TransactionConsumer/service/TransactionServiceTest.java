@@ -1,8 +1,13 @@
 package com.example.TransactionConsumer.service;
 
 import com.example.TransactionConsumer.dto.ErrorResponse;
+import com.example.TransactionConsumer.dto.TransactionView;
+import com.example.TransactionConsumer.parser.PayloadReader;
+import com.example.TransactionConsumer.repository.TransactionReadCache;
 import com.example.TransactionConsumer.repository.TransactionRepository;
 import com.example.TransactionConsumer.validator.PayloadValidator;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,8 +15,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,21 +34,30 @@ class TransactionServiceTest {
     @Mock
     private PayloadValidator validator;
 
+    @Mock
+    private PayloadReader payloadReader;
+
+    @Mock
+    private IdempotencyGuard idempotencyGuard;
+
+    @Mock
+    private TransactionReadCache readCache;
+
     @InjectMocks
     private TransactionService transactionService;
 
-    private String validJson;
+    private DocumentContext validDocument;
 
     @BeforeEach
     void setUp() {
-        validJson = """
+        validDocument = JsonPath.parse("""
             {
               "transactionId": "TXN1101",
               "transactionType": "PAYMENT",
               "amount": 500,
               "currency": "INR"
             }
-            """;
+            """);
     }
 
     // ==================== SUCCESSFUL PROCESSING TESTS ====================
@@ -45,30 +65,46 @@ class TransactionServiceTest {
     @Test
     void shouldProcessTransactionSuccessfully() {
         // Arrange
-        doNothing().when(validator).validate(anyString());
-        doNothing().when(repository).insertAll(anyString());
+        doNothing().when(validator).validate(any(DocumentContext.class));
+        when(repository.insertAll(any(DocumentContext.class), any())).thenReturn(true);
 
         // Act
-        transactionService.processTransaction(validJson);
+        transactionService.processTransaction(validDocument);
 
         // Assert
-        verify(validator, times(1)).validate(validJson);
-        verify(repository, times(1)).insertAll(validJson);
+        verify(validator, times(1)).validate(validDocument);
+        verify(repository, times(1)).insertAll(validDocument, null);
     }
 
     @Test
     void shouldCallValidatorBeforeRepository() {
         // Arrange
-        doNothing().when(validator).validate(anyString());
-        doNothing().when(repository).insertAll(anyString());
+        doNothing().when(validator).validate(any(DocumentContext.class));
+        when(repository.insertAll(any(DocumentContext.class), any())).thenReturn(true);
 
         // Act
-        transactionService.processTransaction(validJson);
+        transactionService.processTransaction(validDocument);
 
         // Assert
         var inOrder = inOrder(validator, repository);
-        inOrder.verify(validator).validate(validJson);
-        inOrder.verify(repository).insertAll(validJson);
+        inOrder.verify(validator).validate(validDocument);
+        inOrder.verify(repository).insertAll(validDocument, null);
+    }
+
+    @Test
+    void shouldReadRawBodyOnceAndPassDocumentToStages() {
+        // Arrange
+        byte[] body = "{\"transactionId\":\"TXN1101\"}".getBytes();
+        when(payloadReader.read(body)).thenReturn(validDocument);
+
+        // Act
+        transactionService.processTransaction(body);
+
+        // Assert
+        verify(payloadReader, times(1)).read(body);
+        verify(validator, times(1)).validate(validDocument);
+        // the body as received is what a fallback spools
+        verify(repository, times(1)).insertAll(validDocument, body);
     }
 
     // ==================== VALIDATION FAILURE TESTS ====================
@@ -77,32 +113,32 @@ class TransactionServiceTest {
     void shouldThrowErrorWhenValidationFails() {
         // Arrange
         doThrow(new ErrorResponse("transactionId is required"))
-                .when(validator).validate(anyString());
+                .when(validator).validate(any(DocumentContext.class));
 
         // Act & Assert
         ErrorResponse exception = assertThrows(
                 ErrorResponse.class,
-                () -> transactionService.processTransaction(validJson)
+                () -> transactionService.processTransaction(validDocument)
         );
 
         assertEquals("transactionId is required", exception.getReason());
-        verify(validator, times(1)).validate(validJson);
-        verify(repository, never()).insertAll(anyString());
+        verify(validator, times(1)).validate(validDocument);
+        verify(repository, never()).insertAll(any(DocumentContext.class), any());
     }
 
     @Test
     void shouldNotCallRepositoryWhenValidationFails() {
         // Arrange
         doThrow(new ErrorResponse("Invalid payload"))
-                .when(validator).validate(anyString());
+                .when(validator).validate(any(DocumentContext.class));
 
         // Act & Assert
         assertThrows(
                 ErrorResponse.class,
-                () -> transactionService.processTransaction(validJson)
+                () -> transactionService.processTransaction(validDocument)
         );
 
-        verify(repository, never()).insertAll(anyString());
+        verify(repository, never()).insertAll(any(DocumentContext.class), any());
     }
 
     // ==================== REPOSITORY FAILURE TESTS ====================
@@ -110,19 +146,19 @@ class TransactionServiceTest {
     @Test
     void shouldPropagateRepositoryException() {
         // Arrange
-        doNothing().when(validator).validate(anyString());
+        doNothing().when(validator).validate(any(DocumentContext.class));
         doThrow(new RuntimeException("Database error"))
-                .when(repository).insertAll(anyString());
+                .when(repository).insertAll(any(DocumentContext.class), any());
 
         // Act & Assert
         RuntimeException exception = assertThrows(
                 RuntimeException.class,
-                () -> transactionService.processTransaction(validJson)
+                () -> transactionService.processTransaction(validDocument)
         );
 
         assertEquals("Database error", exception.getMessage());
-        verify(validator, times(1)).validate(validJson);
-        verify(repository, times(1)).insertAll(validJson);
+        verify(validator, times(1)).validate(validDocument);
+        verify(repository, times(1)).insertAll(validDocument, null);
     }
 
     // ==================== EDGE CASE TESTS ====================
@@ -131,39 +167,39 @@ class TransactionServiceTest {
     void shouldHandleNullJson() {
         // Arrange
         doThrow(new ErrorResponse("Invalid JSON"))
-                .when(validator).validate(null);
+                .when(validator).validate((DocumentContext) null);
 
         // Act & Assert
         assertThrows(
                 ErrorResponse.class,
-                () -> transactionService.processTransaction(null)
+                () -> transactionService.processTransaction((DocumentContext) null)
         );
 
-        verify(validator, times(1)).validate(null);
-        verify(repository, never()).insertAll(anyString());
+        verify(validator, times(1)).validate((DocumentContext) null);
+        verify(repository, never()).insertAll(any(DocumentContext.class), any());
     }
 
     @Test
     void shouldHandleEmptyJson() {
         // Arrange
-        String emptyJson = "";
+        DocumentContext emptyDocument = JsonPath.parse("{}");
         doThrow(new ErrorResponse("transactionId is required"))
-                .when(validator).validate(emptyJson);
+                .when(validator).validate(emptyDocument);
 
         // Act & Assert
         assertThrows(
                 ErrorResponse.class,
-                () -> transactionService.processTransaction(emptyJson)
+                () -> transactionService.processTransaction(emptyDocument)
         );
 
-        verify(validator, times(1)).validate(emptyJson);
-        verify(repository, never()).insertAll(anyString());
+        verify(validator, times(1)).validate(emptyDocument);
+        verify(repository, never()).insertAll(any(DocumentContext.class), any());
     }
 
     @Test
     void shouldProcessTransactionWithCompletePayload() {
         // Arrange
-        String completeJson = """
+        DocumentContext completeDocument = JsonPath.parse("""
             {
               "transactionId": "TXN1101",
               "transactionType": "PAYMENT",
@@ -188,31 +224,83 @@ class TransactionServiceTest {
                 "phone": "9876501234"
               }
             }
-            """;
+            """);
 
-        doNothing().when(validator).validate(anyString());
-        doNothing().when(repository).insertAll(anyString());
+        doNothing().when(validator).validate(any(DocumentContext.class));
+        when(repository.insertAll(any(DocumentContext.class), any())).thenReturn(true);
 
         // Act
-        transactionService.processTransaction(completeJson);
+        transactionService.processTransaction(completeDocument);
 
         // Assert
-        verify(validator, times(1)).validate(completeJson);
-        verify(repository, times(1)).insertAll(completeJson);
+        verify(validator, times(1)).validate(completeDocument);
+        verify(repository, times(1)).insertAll(completeDocument, null);
+    }
+
+    // ==================== IDEMPOTENCY TESTS ====================
+
+    @Test
+    void shouldRouteInsertThroughIdempotencyGuardWhenEnabled() {
+        // Arrange
+        when(idempotencyGuard.isEnabled()).thenReturn(true);
+        doAnswer(invocation -> {
+            invocation.<BooleanSupplier>getArgument(1).getAsBoolean();
+            return null;
+        }).when(idempotencyGuard).execute(eq("TXN1101"), any(BooleanSupplier.class));
+
+        // Act
+        transactionService.processTransaction(validDocument);
+
+        // Assert
+        verify(idempotencyGuard).execute(eq("TXN1101"), any(BooleanSupplier.class));
+        verify(repository, times(1)).insertAll(validDocument, null);
+    }
+
+    @Test
+    void shouldSkipInsertWhenGuardShortCircuits() {
+        // Arrange
+        when(idempotencyGuard.isEnabled()).thenReturn(true);
+
+        // Act
+        transactionService.processTransaction(validDocument);
+
+        // Assert
+        verify(repository, never()).insertAll(any(DocumentContext.class), any());
+    }
+
+    // ==================== READ TESTS ====================
+
+    @Test
+    void shouldFindTransactionThroughReadCache() {
+        // Arrange
+        TransactionView view = new TransactionView("TXN1101", Map.of("TRAN_ID", "TXN1101"), null, null, List.of());
+        when(readCache.get("TXN1101")).thenReturn(Optional.of(view));
+
+        // Act
+        Optional<TransactionView> found = transactionService.find("TXN1101");
+
+        // Assert
+        assertSame(view, found.orElseThrow());
+        verifyNoInteractions(repository);
     }
 
     // ==================== TRANSACTIONAL BEHAVIOR TESTS ====================
 
     @Test
-    void shouldBeAnnotatedWithTransactional() {
-        // This test verifies the @Transactional annotation exists
-        var method = assertDoesNotThrow(() ->
-                TransactionService.class.getMethod("processTransaction", String.class)
+    void shouldOpenTheTransactionOnlyForTheGuardedInsert() {
+        // Duplicates are answered before a transaction takes a connection, the insert runs in its own
+        var process = assertDoesNotThrow(() ->
+                TransactionService.class.getMethod("processTransaction", DocumentContext.class)
+        );
+        var insert = assertDoesNotThrow(() ->
+                TransactionRepository.class.getMethod("insertAll", DocumentContext.class, byte[].class)
         );
 
-        assertNotNull(method);
+        assertFalse(
+                process.isAnnotationPresent(org.springframework.transaction.annotation.Transactional.class)
+        );
         assertTrue(
-                method.isAnnotationPresent(org.springframework.transaction.annotation.Transactional.class)
+                insert.isAnnotationPresent(org.springframework.transaction.annotation.Transactional.class)
         );
     }
 }
\ No newline at end of file
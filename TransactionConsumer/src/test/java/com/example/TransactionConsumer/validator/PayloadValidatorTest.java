@@ -1,17 +1,48 @@
 package com.example.TransactionConsumer.validator;
 
+import com.example.TransactionConsumer.config.EntityMapping;
+import com.example.TransactionConsumer.config.FieldMapping;
+import com.example.TransactionConsumer.config.TransactionMappingConfig;
+import com.example.TransactionConsumer.config.ValidationProperties;
+import com.example.TransactionConsumer.config.ValidationRules;
 import com.example.TransactionConsumer.dto.ErrorResponse;
+import com.example.TransactionConsumer.exception.ValidationFailedException;
+import com.example.TransactionConsumer.id.IdGenerators;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import com.example.TransactionConsumer.service.MappingPlan;
+import com.example.TransactionConsumer.service.MappingPlanRegistry;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class PayloadValidatorTest {
 
+    @Mock
+    private MappingPlanRegistry planRegistry;
+
+    @Mock
+    private ValidationProperties properties;
+
+    @Mock
+    private TransactionMetrics metrics;
+
+    @Mock
+    private ReferenceDataCache referenceData;
+
     @InjectMocks
     private PayloadValidator payloadValidator;
 
@@ -467,4 +498,182 @@ class PayloadValidatorTest {
         // Should fail on the first field it checks (transactionId)
         assertTrue(exception.getReason().contains("transactionId"));
     }
-}
\ No newline at end of file
+
+    // ==================== COLLECTED VIOLATION TESTS ====================
+
+    @Test
+    void shouldCollectEveryMissingFieldWithoutThrowing() {
+        // Act
+        ValidationResult result = payloadValidator.check(JsonPath.parse("{\"amount\": 500}"));
+
+        // Assert
+        assertFalse(result.isValid());
+        assertEquals(List.of("transactionId", "transactionType", "currency"),
+                result.getViolations().stream().map(Violation::getField).toList());
+        assertEquals("required", result.getViolations().get(0).getRule());
+        verify(metrics).validationRejected("currency", "required");
+    }
+
+    @Test
+    void shouldThrowSingleStackTraceFreeExceptionListingAllViolations() {
+        // Act
+        ValidationFailedException exception = assertThrows(
+                ValidationFailedException.class,
+                () -> payloadValidator.validate("{}")
+        );
+
+        // Assert
+        assertEquals(4, exception.getViolations().size());
+        assertEquals(0, exception.getStackTrace().length);
+        assertTrue(exception.getReason().contains("transactionId"));
+        assertTrue(exception.getReason().contains("currency"));
+    }
+
+    @Test
+    void shouldReportMappingRuleViolationsAlongsideRequiredFields() {
+        // Arrange
+        ValidationRules currencyRules = new ValidationRules();
+        currencyRules.setAllowed(List.of("USD", "EUR"));
+        currencyRules.setMaxLength(2);
+        FieldMapping currency = json("$.currency");
+        currency.setValidation(currencyRules);
+
+        ValidationRules amountRules = new ValidationRules();
+        amountRules.setMin(1000);
+        FieldMapping amount = json("$.amount");
+        amount.setValidation(amountRules);
+
+        FieldMapping city = json("$.sender.address.city");
+        city.setRequired(true);
+
+        TransactionMappingConfig config = new TransactionMappingConfig();
+        config.setSender(entity(Map.of("CURRENCY", currency, "AMOUNT", amount)));
+        config.setRecipient(entity(Map.of()));
+        config.setAddress(Map.of("sender", Map.of("CITY", city)));
+
+        when(properties.isMappingRules()).thenReturn(true);
+        when(planRegistry.current())
+                .thenReturn(new MappingPlanRegistry(config, IdGenerators.withoutDatabase()).rebuild());
+
+        String json = """
+            {
+              "transactionType": "PAYMENT",
+              "amount": 500,
+              "currency": "INR"
+            }
+            """;
+
+        // Act
+        ValidationResult result = payloadValidator.check(JsonPath.parse(json));
+
+        // Assert
+        assertEquals(Set.of(
+                "transactionId:required",
+                "$.currency:allowed",
+                "$.currency:maxLength",
+                "$.amount:min",
+                "$.sender.address.city:required"
+        ), result.getViolations().stream()
+                .map(violation -> violation.getField() + ":" + violation.getRule())
+                .collect(Collectors.toSet()));
+        assertEquals(5, result.size());
+    }
+
+    @Test
+    void shouldCheckTransactionAndDetailMappingRules() {
+        // Arrange
+        ValidationRules typeRules = new ValidationRules();
+        typeRules.setAllowed(List.of("PAYMENT", "REFUND"));
+        FieldMapping type = json("$.transactionType");
+        type.setValidation(typeRules);
+        EntityMapping payment = new EntityMapping();
+        payment.setTransaction(Map.of("TRAN_TYPE", type));
+
+        FieldMapping reference = json("$.paymentReference");
+        reference.setRequired(true);
+        EntityMapping detail = new EntityMapping();
+        detail.setDetail(Map.of("PAYMT_REF", reference));
+
+        TransactionMappingConfig config = new TransactionMappingConfig();
+        config.setSender(entity(Map.of()));
+        config.setPayment(payment);
+        config.setTransactionDetail(detail);
+
+        when(properties.isMappingRules()).thenReturn(true);
+        when(planRegistry.current())
+                .thenReturn(new MappingPlanRegistry(config, IdGenerators.withoutDatabase()).rebuild());
+
+        String json = """
+            {
+              "transactionId": "TXN1101",
+              "transactionType": "CHARGEBACK",
+              "amount": 500,
+              "currency": "INR"
+            }
+            """;
+
+        // Act
+        ValidationResult result = payloadValidator.check(JsonPath.parse(json));
+
+        // Assert
+        assertEquals(Set.of("$.transactionType:allowed", "$.paymentReference:required"),
+                result.getViolations().stream()
+                        .map(violation -> violation.getField() + ":" + violation.getRule())
+                        .collect(Collectors.toSet()));
+    }
+
+    // ==================== REFERENCE DATA TESTS ====================
+
+    @Test
+    void shouldRejectValueMissingFromReferenceSet() {
+        // Arrange
+        when(properties.isMappingRules()).thenReturn(true);
+        when(planRegistry.current()).thenReturn(referencePlan());
+        when(referenceData.contains("currency", "INR")).thenReturn(false);
+
+        // Act
+        ValidationResult result = payloadValidator.check(JsonPath.parse(validJson));
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals("$.currency", result.getViolations().get(0).getField());
+        assertEquals("reference", result.getViolations().get(0).getRule());
+        assertEquals("Unknown currency: INR", result.getViolations().get(0).getMessage());
+        verify(metrics).validationRejected("$.currency", "reference");
+    }
+
+    @Test
+    void shouldAcceptValueInReferenceSet() {
+        // Arrange
+        when(properties.isMappingRules()).thenReturn(true);
+        when(planRegistry.current()).thenReturn(referencePlan());
+        when(referenceData.contains("currency", "INR")).thenReturn(true);
+
+        // Act & Assert
+        assertDoesNotThrow(() -> payloadValidator.validate(validJson));
+    }
+
+    private static MappingPlan referencePlan() {
+        ValidationRules rules = new ValidationRules();
+        rules.setReference("currency");
+        FieldMapping currency = json("$.currency");
+        currency.setValidation(rules);
+
+        TransactionMappingConfig config = new TransactionMappingConfig();
+        config.setSender(entity(Map.of("CURRENCY", currency)));
+        return new MappingPlanRegistry(config, IdGenerators.withoutDatabase()).rebuild();
+    }
+
+    private static EntityMapping entity(Map<String, FieldMapping> party) {
+        EntityMapping entity = new EntityMapping();
+        entity.setParty(party);
+        return entity;
+    }
+
+    private static FieldMapping json(String path) {
+        FieldMapping mapping = new FieldMapping();
+        mapping.setSource("json");
+        mapping.setPath(path);
+        return mapping;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.TransactionConsumer.validator;
+
+import com.example.TransactionConsumer.config.ReferenceDataProperties;
+import com.example.TransactionConsumer.metrics.TransactionMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReferenceDataCacheTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbc;
+    private SimpleMeterRegistry registry;
+    private ReferenceDataProperties properties;
+    private ReferenceDataCache cache;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName("reference-data;MODE=Oracle")
+                .generateUniqueName(false)
+                .build();
+        jdbc = new JdbcTemplate(database);
+        jdbc.execute("CREATE TABLE REF_CURRENCY (CURRENCY_CODE CHAR(3), ACTIVE_FLAG CHAR(1))");
+        jdbc.update("INSERT INTO REF_CURRENCY VALUES ('INR', 'Y'), ('USD', 'Y'), ('DEM', 'N')");
+
+        properties = new ReferenceDataProperties();
+        properties.setEnabled(true);
+        properties.getSets().put("currency", table("REF_CURRENCY", "CURRENCY_CODE", "ACTIVE_FLAG = 'Y'"));
+
+        registry = new SimpleMeterRegistry();
+        cache = new ReferenceDataCache(jdbc, properties, new TransactionMetrics(registry));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    // ==================== LOOKUP TESTS ====================
+
+    @Test
+    void shouldLoadConfiguredSetsOnRefresh() {
+        // Act
+        cache.refresh();
+
+        // Assert
+        assertEquals(2, cache.getSets().get("currency").getSize());
+        assertTrue(cache.contains("currency", "INR"));
+        assertTrue(cache.contains("currency", "USD"));
+        assertNotNull(cache.getLastRefresh());
+    }
+
+    @Test
+    void shouldCountMissesPerSet() {
+        // Arrange
+        cache.refresh();
+
+        // Act
+        boolean inactive = cache.contains("currency", "DEM");
+        boolean unknown = cache.contains("currency", "XYZ");
+
+        // Assert
+        assertFalse(inactive);
+        assertFalse(unknown);
+        assertEquals(2, cache.getMisses("currency"));
+        assertEquals(2.0, registry.get(TransactionMetrics.REFERENCE_MISSES).tag("set", "currency").counter().count());
+    }
+
+    @Test
+    void shouldLetValuesThroughWhenSetIsNotLoaded() {
+        // Act
+        boolean accepted = cache.contains("currency", "XYZ");
+
+        // Assert
+        assertTrue(accepted);
+        assertEquals(1.0, registry.get(TransactionMetrics.REFERENCE_UNAVAILABLE)
+                .tag("set", "currency").counter().count());
+    }
+
+    @Test
+    void shouldAcceptEverythingWhenDisabled() {
+        // Arrange
+        cache.refresh();
+        properties.setEnabled(false);
+
+        // Act & Assert
+        assertTrue(cache.contains("currency", "XYZ"));
+        assertEquals(0, cache.getMisses("currency"));
+    }
+
+    // ==================== REFRESH TESTS ====================
+
+    @Test
+    void shouldPickUpNewRowsOnRefresh() {
+        // Arrange
+        cache.refresh();
+        jdbc.update("INSERT INTO REF_CURRENCY VALUES ('EUR', 'Y')");
+
+        // Act
+        boolean before = cache.contains("currency", "EUR");
+        cache.refresh();
+        boolean after = cache.contains("currency", "EUR");
+
+        // Assert
+        assertFalse(before);
+        assertTrue(after);
+    }
+
+    @Test
+    void shouldKeepPreviousValuesWhenReloadFails() {
+        // Arrange
+        cache.refresh();
+        jdbc.execute("DROP TABLE REF_CURRENCY");
+
+        // Act
+        cache.refresh();
+
+        // Assert
+        assertTrue(cache.contains("currency", "INR"));
+        assertFalse(cache.contains("currency", "XYZ"));
+    }
+
+    @Test
+    void shouldNotLoadSetWithUnsafeIdentifiers() {
+        // Arrange
+        properties.getSets().put("country", table("REF_COUNTRY; DROP TABLE REF_CURRENCY", "CODE", null));
+
+        // Act
+        cache.refresh();
+
+        // Assert
+        assertFalse(cache.getSets().containsKey("country"));
+        assertEquals(2, cache.getSets().get("currency").getSize());
+    }
+
+    private static ReferenceDataProperties.ReferenceTable table(String name, String column, String where) {
+        ReferenceDataProperties.ReferenceTable table = new ReferenceDataProperties.ReferenceTable();
+        table.setTable(name);
+        table.setColumn(column);
+        table.setWhere(where);
+        return table;
+    }
+}
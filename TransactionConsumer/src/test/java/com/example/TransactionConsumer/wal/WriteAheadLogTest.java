@@ -0,0 +1,215 @@
+package com.example.TransactionConsumer.wal;
+
+import com.example.TransactionConsumer.config.WalProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    private WalProperties properties;
+    private WriteAheadLog log;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties = new WalProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSizeMb(1);
+        properties.setFsync(WalProperties.Fsync.ALWAYS);
+
+        log = open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        log.close();
+    }
+
+    // ==================== APPEND TESTS ====================
+
+    @Test
+    void shouldAppendAndReadBackPayload() throws Exception {
+        // Act
+        WalEntry entry = log.append(bytes("{\"transactionId\":\"TXN1101\"}"));
+
+        // Assert
+        assertEquals(1, entry.getSequence());
+        assertEquals(WalEntryState.PENDING, entry.getState());
+        assertEquals("{\"transactionId\":\"TXN1101\"}", new String(log.read(entry), StandardCharsets.UTF_8));
+        assertSame(entry, log.takePending(10, 1, TimeUnit.SECONDS).get(0));
+    }
+
+    @Test
+    void shouldTrackAcknowledgedState() {
+        // Arrange
+        WalEntry persisted = log.append(bytes("a"));
+        WalEntry failed = log.append(bytes("b"));
+
+        // Act
+        log.markPersisted(persisted);
+        log.markFailed(failed, "ORA-00001: unique constraint");
+
+        // Assert
+        assertEquals(WalEntryState.PERSISTED, log.find(1).orElseThrow().getState());
+        assertEquals(WalEntryState.FAILED, log.find(2).orElseThrow().getState());
+        assertEquals("ORA-00001: unique constraint", log.find(2).orElseThrow().getError());
+        assertTrue(log.find(99).isEmpty());
+    }
+
+    // ==================== RECOVERY TESTS ====================
+
+    @Test
+    void shouldReplayOnlyUnacknowledgedEntriesAfterRestart() throws Exception {
+        // Arrange
+        log.markPersisted(log.append(bytes("first")));
+        log.append(bytes("second"));
+        log.markFailed(log.append(bytes("third")), "bad row");
+        log.close();
+
+        // Act
+        log = open();
+        List<WalEntry> replayed = log.takePending(10, 1, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(1, replayed.size());
+        assertEquals(2, replayed.get(0).getSequence());
+        assertEquals("second", new String(log.read(replayed.get(0)), StandardCharsets.UTF_8));
+        assertEquals(WalEntryState.PERSISTED, log.find(1).orElseThrow().getState());
+        assertEquals(4, log.append(bytes("fourth")).getSequence());
+    }
+
+    @Test
+    void shouldIgnoreTornRecordAtTail() throws Exception {
+        // Arrange
+        log.append(bytes("intact"));
+        log.append(bytes("torn"));
+        log.close();
+
+        Path segment = segmentFiles().get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            // corrupt the payload of the second record
+            file.seek(WalSegment.HEADER + "intact".length() + WalSegment.HEADER);
+            file.write('X');
+        }
+
+        // Act
+        log = open();
+        List<WalEntry> replayed = log.takePending(10, 1, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(1, replayed.size());
+        assertEquals("intact", new String(log.read(replayed.get(0)), StandardCharsets.UTF_8));
+        assertEquals(2, log.append(bytes("next")).getSequence());
+    }
+
+    // ==================== SEGMENT TESTS ====================
+
+    @Test
+    void shouldRollSegmentsAndDeleteFullyAcknowledgedOnes() throws Exception {
+        // Arrange
+        byte[] large = new byte[400 * 1024];
+        Arrays.fill(large, (byte) 'x');
+
+        WalEntry first = log.append(large);
+        WalEntry second = log.append(large);
+        log.append(large);
+        assertEquals(2, segmentFiles().size());
+
+        // Act
+        log.markPersisted(first);
+        log.markPersisted(second);
+
+        // Assert
+        assertEquals(1, segmentFiles().size());
+        assertEquals(WalEntryState.PERSISTED, log.find(first.getSequence()).orElseThrow().getState());
+    }
+
+    @Test
+    void shouldReportEntriesOfADeletedSegmentAsPersisted() throws Exception {
+        // Arrange
+        byte[] large = new byte[400 * 1024];
+        Arrays.fill(large, (byte) 'x');
+
+        WalEntry first = log.append(large);
+        WalEntry second = log.append(large);
+        WalEntry third = log.append(large);
+        log.markPersisted(first);
+        log.markPersisted(second);
+        assertEquals(1, segmentFiles().size());
+
+        // Act
+        log.close();
+        log = open();
+
+        // Assert: the deleted segment's ids are persisted, the next one was never handed out
+        assertEquals(WalEntryState.PERSISTED, log.find(first.getSequence()).orElseThrow().getState());
+        assertEquals(WalEntryState.PERSISTED, log.find(second.getSequence()).orElseThrow().getState());
+        assertEquals(WalEntryState.PENDING, log.find(third.getSequence()).orElseThrow().getState());
+        assertTrue(log.find(third.getSequence() + 1).isEmpty());
+        assertTrue(log.find(0).isEmpty());
+    }
+
+    @Test
+    void shouldKeepASegmentWithFailedEntries() throws Exception {
+        // Arrange
+        byte[] large = new byte[400 * 1024];
+        Arrays.fill(large, (byte) 'x');
+
+        WalEntry first = log.append(large);
+        WalEntry second = log.append(large);
+        log.append(large);
+
+        // Act
+        log.markFailed(first, "ORA-12899: value too large");
+        log.markPersisted(second);
+
+        // Assert
+        assertEquals(2, segmentFiles().size());
+        assertEquals(WalEntryState.FAILED, log.find(first.getSequence()).orElseThrow().getState());
+        assertArrayEquals(large, log.read(first));
+
+        log.close();
+        log = open();
+        assertEquals(2, segmentFiles().size());
+        assertEquals(WalEntryState.FAILED, log.find(first.getSequence()).orElseThrow().getState());
+        assertEquals(1, log.getPendingCount());
+    }
+
+    @Test
+    void shouldRejectPayloadLargerThanSegment() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> log.append(new byte[2 * 1024 * 1024]));
+    }
+
+    private WriteAheadLog open() throws Exception {
+        WriteAheadLog opened = new WriteAheadLog(properties);
+        opened.open();
+        return opened;
+    }
+
+    private List<Path> segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
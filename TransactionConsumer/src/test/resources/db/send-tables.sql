@@ -0,0 +1,62 @@
+CREATE TABLE SEND_TRANSACTIONS (
+    TRAN_ID          VARCHAR2(64) PRIMARY KEY,
+    TRAN_TYPE        VARCHAR2(32),
+    TRAN_AMT         NUMBER(18, 2),
+    TRAN_CURR        VARCHAR2(3),
+    TRAN_CRTE_DT     TIMESTAMP,
+    CUR_STAT         VARCHAR2(32),
+    ORIG_STAT        VARCHAR2(32),
+    CUST_REF_NUM     VARCHAR2(64),
+    ORIG_INST_NAM    VARCHAR2(128),
+    TRANFR_ACPT_NAM  VARCHAR2(128),
+    CRTE_TS          TIMESTAMP,
+    CRTE_USER_NAM    VARCHAR2(32),
+    RPLCTN_UPDT_TS   TIMESTAMP,
+    NON_FIN_TXN      NUMBER(1)
+);
+
+CREATE TABLE SEND_TRAN_DTL (
+    TRAN_ID          VARCHAR2(64) PRIMARY KEY REFERENCES SEND_TRANSACTIONS (TRAN_ID),
+    PAYMT_REF        VARCHAR2(64),
+    FUND_SRC         VARCHAR2(32),
+    PAYMT_TYPE       VARCHAR2(32),
+    TRAN_CRTE_DT     TIMESTAMP,
+    CRTE_TS          TIMESTAMP,
+    CRTE_USER_NAM    VARCHAR2(32),
+    RPLCTN_UPDT_TS   TIMESTAMP
+);
+
+CREATE TABLE SEND_RECIP_DTL (
+    TRAN_ID          VARCHAR2(64) PRIMARY KEY REFERENCES SEND_TRANSACTIONS (TRAN_ID),
+    SEND_FIRST_NAM   VARCHAR2(64),
+    SEND_LST_NAM     VARCHAR2(64),
+    SEND_EMAIL       VARCHAR2(128),
+    SEND_PHN         VARCHAR2(32),
+    SEND_CITY        VARCHAR2(64),
+    SEND_CNTRY_NAM   VARCHAR2(64),
+    RECIP_FIRST_NAM  VARCHAR2(64),
+    RECIP_LST_NAM    VARCHAR2(64),
+    RECIP_EMAIL      VARCHAR2(128),
+    RECIP_PHN        VARCHAR2(32),
+    RECIP_CITY       VARCHAR2(64),
+    RECIP_CNTRY_NAM  VARCHAR2(64),
+    TRAN_CRTE_DT     TIMESTAMP,
+    CRTE_TS          TIMESTAMP,
+    CRTE_USER_NAM    VARCHAR2(32),
+    RPLCTN_UPDT_TS   TIMESTAMP
+);
+
+CREATE TABLE SEND_TRAN_ADDR_DTL (
+    ID               VARCHAR2(64) PRIMARY KEY,
+    TRAN_ID          VARCHAR2(64) REFERENCES SEND_TRANSACTIONS (TRAN_ID),
+    ADDR_TYPE        VARCHAR2(16),
+    ST_LINE1         VARCHAR2(128),
+    ST_LINE2         VARCHAR2(128),
+    CITY             VARCHAR2(64),
+    ST               VARCHAR2(64),
+    CNTRY_NAM        VARCHAR2(64),
+    POST_CD          VARCHAR2(16),
+    CRTE_TS          TIMESTAMP,
+    CRTE_USER_NAM    VARCHAR2(32),
+    RPLCTN_UPDT_TS   TIMESTAMP
+);